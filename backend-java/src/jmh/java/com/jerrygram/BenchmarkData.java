@@ -0,0 +1,180 @@
+package com.jerrygram;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jerrygram.application.common.PostIndex;
+import com.jerrygram.application.common.UserIndex;
+import com.jerrygram.application.dtos.PagedResult;
+import com.jerrygram.application.dtos.PostListItemDto;
+import com.jerrygram.application.dtos.SimpleUserDto;
+import com.jerrygram.domain.entities.Post;
+import com.jerrygram.domain.entities.User;
+import com.jerrygram.domain.enums.PostVisibility;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic payloads for the benchmarks, so runs are comparable across commits
+ */
+public final class BenchmarkData {
+
+    private static final String[] WORDS = {
+            "sunset", "coffee", "weekend", "with", "the", "best", "view", "from", "our", "trip",
+            "morning", "run", "city", "lights", "friends", "서울", "여행", "again", "finally", "home"
+    };
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 15, 12, 0);
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Caption of roughly the given length with the given number of hashtags and a few mentions
+     */
+    public static String caption(int length, int hashtags, long seed) {
+        var random = new Random(seed);
+        var caption = new StringBuilder(length + 32);
+        int tagsLeft = hashtags;
+        while (caption.length() < length || tagsLeft > 0) {
+            if (tagsLeft > 0 && random.nextInt(3) == 0) {
+                caption.append('#').append(WORDS[random.nextInt(WORDS.length)]).append(tagsLeft--);
+            } else if (random.nextInt(20) == 0) {
+                caption.append('@').append("user_").append(random.nextInt(1000));
+            } else {
+                caption.append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            caption.append(' ');
+        }
+        return caption.toString().trim();
+    }
+
+    public static PagedResult<PostListItemDto> feedPage(int items) {
+        List<PostListItemDto> posts = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            var imageUrl = "https://jerrygram.blob.core.windows.net/post-images/" + uuid(i) + ".jpg";
+            posts.add(PostListItemDto.builder()
+                    .id(uuid(i))
+                    .caption(caption(120, 3, i))
+                    .imageUrl(imageUrl)
+                    .imageVariants(Map.of(
+                            "large", imageUrl.replace(".jpg", "-large.jpg"),
+                            "medium", imageUrl.replace(".jpg", "-medium.jpg"),
+                            "thumb", imageUrl.replace(".jpg", "-thumb.jpg")))
+                    .createdAt(CREATED_AT.minusMinutes(i))
+                    .likes(i * 7)
+                    .liked(i % 3 == 0)
+                    .user(SimpleUserDto.builder()
+                            .id(uuid(10_000 + i % 50))
+                            .username("user_" + i % 50)
+                            .profileImageUrl("https://jerrygram.blob.core.windows.net/profile-images/" + uuid(i % 50) + ".jpg")
+                            .build())
+                    .score(1.0 / (i + 1))
+                    .build());
+        }
+
+        return PagedResult.<PostListItemDto>builder()
+                .totalCount(items * 10)
+                .page(0)
+                .pageSize(items)
+                .items(posts)
+                .nextCursor("eyJjcmVhdGVkQXQiOiIyMDI0LTAxLTE1VDEyOjAwOjAwIn0")
+                .build();
+    }
+
+    public static User user(int i) {
+        return User.builder()
+                .id(uuid(10_000 + i))
+                .username("user_" + i)
+                .email("user_" + i + "@jerrygram.com")
+                .profileImageUrl("https://jerrygram.blob.core.windows.net/profile-images/" + uuid(i) + ".jpg")
+                .createdAt(CREATED_AT.minusDays(i))
+                .followersCount(i * 13)
+                .followingCount(i * 5)
+                .build();
+    }
+
+    public static List<Post> posts(int count) {
+        List<Post> posts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            var author = user(i % 50);
+            posts.add(Post.builder()
+                    .id(uuid(i))
+                    .caption(caption(120, 3, i))
+                    .imageUrl("https://jerrygram.blob.core.windows.net/post-images/" + uuid(i) + ".jpg")
+                    .visibility(PostVisibility.Public)
+                    .createdAt(CREATED_AT.minusMinutes(i))
+                    .likesCount(i * 7)
+                    .commentsCount(i)
+                    .userId(author.getId())
+                    .user(author)
+                    .build());
+        }
+        return posts;
+    }
+
+    public static List<PostIndex> postIndices(int count) {
+        List<PostIndex> indices = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            indices.add(PostIndex.builder()
+                    .id(uuid(i).toString())
+                    .caption(caption(120, 3, i))
+                    .imageUrl("https://jerrygram.blob.core.windows.net/post-images/" + uuid(i) + ".jpg")
+                    .authorId(uuid(10_000 + i % 50).toString())
+                    .authorUsername("user_" + i % 50)
+                    .visibility(PostVisibility.Public.toString())
+                    .likesCount(i * 7)
+                    .commentsCount(i)
+                    .tags(List.of("sunset", "coffee", "trip"))
+                    .createdAt(CREATED_AT.minusMinutes(i))
+                    .isActive(true)
+                    .build());
+        }
+        return indices;
+    }
+
+    public static List<UserIndex> userIndices(int count) {
+        List<UserIndex> indices = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            indices.add(UserIndex.builder()
+                    .id(uuid(10_000 + i).toString())
+                    .username("user_" + i)
+                    .email("user_" + i + "@jerrygram.com")
+                    .profileImageUrl("https://jerrygram.blob.core.windows.net/profile-images/" + uuid(i) + ".jpg")
+                    .followersCount(i * 13)
+                    .followingCount(i * 5)
+                    .postsCount(i)
+                    .createdAt(CREATED_AT.minusDays(i))
+                    .isVerified(false)
+                    .build());
+        }
+        return indices;
+    }
+
+    /**
+     * Minimal Spring context holding just the given components (plus an ObjectMapper and an
+     * in-memory meter registry), so @Value defaults, conversions and @PostConstruct run as in the application
+     */
+    public static AnnotationConfigApplicationContext context(Map<String, Object> properties, Class<?>... components) {
+        var context = new AnnotationConfigApplicationContext();
+        context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance());
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+        context.registerBean(ObjectMapper.class, () -> new ObjectMapper().findAndRegisterModules());
+        context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+        context.register(components);
+        context.refresh();
+        return context;
+    }
+
+    private static UUID uuid(int i) {
+        return new UUID(0x4A47L << 48, i);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.jerrygram.application.common;
+
+import com.jerrygram.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Hashtag extraction runs for every created or edited post and for hashtag search input
+ */
+@State(Scope.Benchmark)
+public class HashtagExtractorBenchmark {
+
+    @Param({"80", "500", "2000"})
+    private int captionLength;
+
+    @Param({"0", "5", "30"})
+    private int hashtags;
+
+    private String caption;
+
+    @Setup
+    public void setUp() {
+        caption = BenchmarkData.caption(captionLength, hashtags, 42);
+    }
+
+    @Benchmark
+    public List<String> extractHashtags() {
+        return HashtagExtractor.extractHashtags(caption);
+    }
+}
\ No newline at end of file
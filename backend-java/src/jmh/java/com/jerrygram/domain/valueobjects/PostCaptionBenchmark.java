@@ -0,0 +1,34 @@
+package com.jerrygram.domain.valueobjects;
+
+import com.jerrygram.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Caption parsing (hashtags and mentions) on the post write path
+ */
+@State(Scope.Benchmark)
+public class PostCaptionBenchmark {
+
+    // Captions are capped at 2200 characters; generated ones may run a word over their length
+    @Param({"80", "500", "2000"})
+    private int captionLength;
+
+    @Param({"0", "5", "30"})
+    private int hashtags;
+
+    private String caption;
+
+    @Setup
+    public void setUp() {
+        caption = BenchmarkData.caption(captionLength, hashtags, 42);
+    }
+
+    @Benchmark
+    public PostCaption create() {
+        return PostCaption.create(caption);
+    }
+}
\ No newline at end of file
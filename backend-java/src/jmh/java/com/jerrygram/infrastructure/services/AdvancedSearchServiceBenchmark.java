@@ -0,0 +1,51 @@
+package com.jerrygram.infrastructure.services;
+
+import com.jerrygram.BenchmarkData;
+import com.jerrygram.application.common.PostIndex;
+import com.jerrygram.application.common.UserIndex;
+import com.jerrygram.application.dtos.PostDto;
+import com.jerrygram.application.dtos.UserProfileDto;
+import com.jerrygram.domain.entities.Post;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * DTO mapping of search results, from Elasticsearch documents and from JPA entities
+ */
+@State(Scope.Benchmark)
+public class AdvancedSearchServiceBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int results;
+
+    private List<Post> posts;
+    private List<PostIndex> postIndices;
+    private List<UserIndex> userIndices;
+
+    @Setup
+    public void setUp() {
+        posts = BenchmarkData.posts(results);
+        postIndices = BenchmarkData.postIndices(results);
+        userIndices = BenchmarkData.userIndices(results);
+    }
+
+    @Benchmark
+    public List<PostDto> mapPosts() {
+        return posts.stream().map(AdvancedSearchService::toPostDto).toList();
+    }
+
+    @Benchmark
+    public List<PostDto> mapPostIndices() {
+        return postIndices.stream().map(AdvancedSearchService::toPostDto).toList();
+    }
+
+    @Benchmark
+    public List<UserProfileDto> mapUserIndices() {
+        return userIndices.stream().map(AdvancedSearchService::toUserProfile).toList();
+    }
+}
\ No newline at end of file
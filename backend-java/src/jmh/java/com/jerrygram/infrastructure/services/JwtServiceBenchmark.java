@@ -0,0 +1,54 @@
+package com.jerrygram.infrastructure.services;
+
+import com.jerrygram.BenchmarkData;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Token parsing on every authenticated request. extractClaims verifies the HMAC signature each
+ * time; verifyToken is what the authentication filter calls, served from the verified-token cache
+ * after the first hit.
+ */
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hs512-signatures-0123456789abcdef";
+    private static final long EXPIRATION_MILLIS = 24 * 60 * 60 * 1000L;
+
+    // Distinct users sending requests
+    @Param({"1", "10000"})
+    private int tokens;
+
+    private JwtService jwtService;
+    private String[] issued;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET, EXPIRATION_MILLIS, 100_000);
+        issued = new String[tokens];
+        for (int i = 0; i < tokens; i++) {
+            issued[i] = jwtService.generateToken(BenchmarkData.user(i));
+        }
+    }
+
+    @Benchmark
+    public Claims extractClaims() {
+        return jwtService.extractClaims(randomToken());
+    }
+
+    @Benchmark
+    public UUID verifyToken() {
+        return jwtService.verifyToken(randomToken());
+    }
+
+    private String randomToken() {
+        return issued[ThreadLocalRandom.current().nextInt(issued.length)];
+    }
+}
\ No newline at end of file
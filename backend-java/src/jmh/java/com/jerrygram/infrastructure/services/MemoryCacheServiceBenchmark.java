@@ -0,0 +1,70 @@
+package com.jerrygram.infrastructure.services;
+
+import com.jerrygram.BenchmarkData;
+import com.jerrygram.application.dtos.PagedResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-process cache reads and writes of feed pages; run with -PjmhThreads to
+ * measure contention.
+ */
+@State(Scope.Benchmark)
+public class MemoryCacheServiceBenchmark {
+
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    // Distinct keys touched; the larger set no longer fits the default 10,000-entry bound
+    @Param({"1000", "100000"})
+    private int keys;
+
+    @Param({"10", "50"})
+    private int pageSize;
+
+    private AnnotationConfigApplicationContext context;
+    private MemoryCacheService cache;
+    private String[] keyNames;
+    private PagedResult<?> page;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkData.context(Map.of(), MemoryCacheService.class, SingleFlightCacheLoader.class);
+        cache = context.getBean(MemoryCacheService.class);
+
+        page = BenchmarkData.feedPage(pageSize);
+        keyNames = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            keyNames[i] = "public_posts_page_" + i + "_size_" + pageSize;
+            cache.set(keyNames[i], page, TTL);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<PagedResult> get() {
+        return cache.get(randomKey(), PagedResult.class);
+    }
+
+    @Benchmark
+    public void set() {
+        cache.set(randomKey(), page, TTL);
+    }
+
+    private String randomKey() {
+        return keyNames[ThreadLocalRandom.current().nextInt(keyNames.length)];
+    }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.jerrygram.infrastructure.services;
+
+import com.jerrygram.BenchmarkData;
+import com.jerrygram.application.dtos.PagedResult;
+import com.jerrygram.application.dtos.PostListItemDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Serialization cost of a RedisCacheService round trip for a cached feed page: everything
+ * RedisCacheService does apart from the network call, which is JacksonCacheCodec. The page is
+ * decoded as PagedResult.class, as GetPublicPostsQueryHandler reads it.
+ */
+@State(Scope.Benchmark)
+public class RedisCacheCodecBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"10", "50", "200"})
+    private int pageSize;
+
+    private AnnotationConfigApplicationContext context;
+    private JacksonCacheCodec codec;
+    private PagedResult<PostListItemDto> page;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = BenchmarkData.context(Map.of("cache.codec.format", format), JacksonCacheCodec.class);
+        codec = context.getBean(JacksonCacheCodec.class);
+        page = BenchmarkData.feedPage(pageSize);
+        payload = codec.encode(page);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return codec.encode(page);
+    }
+
+    @Benchmark
+    public PagedResult<?> deserialize() throws IOException {
+        return codec.decode(payload, PagedResult.class);
+    }
+}
\ No newline at end of file
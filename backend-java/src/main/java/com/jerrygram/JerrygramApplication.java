@@ -5,9 +5,11 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.data.elasticsearch.repository.config.EnableElasticsearchRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableCaching
+@EnableScheduling
 @EnableJpaRepositories(basePackages = "com.jerrygram.infrastructure.repositories")
 @EnableElasticsearchRepositories(basePackages = "com.jerrygram.infrastructure.elasticsearch")
 public class JerrygramApplication {
@@ -2,11 +2,12 @@ package com.jerrygram.application.commands.auth;
 
 import com.jerrygram.application.common.AuthResult;
 import com.jerrygram.application.common.UserIndex;
-import com.jerrygram.application.interfaces.ICacheService;
 import com.jerrygram.application.interfaces.ICommandHandler;
 import com.jerrygram.application.interfaces.IElasticService;
+import com.jerrygram.application.interfaces.IEventPublisher;
 import com.jerrygram.application.interfaces.IJwtService;
 import com.jerrygram.domain.entities.User;
+import com.jerrygram.domain.events.UserRegistered;
 import com.jerrygram.infrastructure.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,7 +23,7 @@ public class RegisterUserCommandHandler implements ICommandHandler<RegisterUserC
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final IJwtService jwtService;
-    private final ICacheService cacheService;
+    private final IEventPublisher eventPublisher;
     private final IElasticService elasticService;
 
     @Override
@@ -45,6 +46,7 @@ public class RegisterUserCommandHandler implements ICommandHandler<RegisterUserC
             log.info("=== STEP 4: Saving user to database ===");
             userRepository.save(user);
             log.info("=== STEP 4 SUCCESS: User saved with ID: {} ===", user.getId());
+            eventPublisher.publish(new UserRegistered(user.getId(), user.getUsername()));
 
             // Generate JWT token
             log.info("=== STEP 5: Generating JWT token ===");
@@ -72,24 +74,4 @@ public class RegisterUserCommandHandler implements ICommandHandler<RegisterUserC
             throw e;
         }
     }
-
-    private void invalidateUserAutocompleteCaches(String username) {
-        try {
-            var normalizedUsername = username.toLowerCase();
-
-            if (normalizedUsername.length() >= 2) {
-                var firstTwoChars = normalizedUsername.substring(0, 2);
-                cacheService.deleteByPattern("autocomplete:" + firstTwoChars + "*");
-            }
-
-            if (normalizedUsername.length() >= 1) {
-                var firstChar = normalizedUsername.substring(0, 1);
-                cacheService.deleteByPattern("autocomplete:" + firstChar + "*");
-            }
-
-            log.debug("Invalidated autocomplete caches for new user: {}", username);
-        } catch (Exception ex) {
-            log.warn("Failed to invalidate autocomplete caches for user: {}", username, ex);
-        }
-    }
 }
\ No newline at end of file
@@ -3,11 +3,11 @@ package com.jerrygram.application.commands.comments;
 import com.jerrygram.application.dtos.CommentDto;
 import com.jerrygram.application.dtos.SimpleUserDto;
 import com.jerrygram.application.interfaces.ICommandHandler;
+import com.jerrygram.application.interfaces.ICounterService;
+import com.jerrygram.application.interfaces.IEventPublisher;
 import com.jerrygram.domain.entities.Comment;
-import com.jerrygram.domain.entities.Notification;
-import com.jerrygram.domain.enums.NotificationType;
+import com.jerrygram.domain.events.CommentCreated;
 import com.jerrygram.infrastructure.repositories.CommentRepository;
-import com.jerrygram.infrastructure.repositories.NotificationRepository;
 import com.jerrygram.infrastructure.repositories.PostRepository;
 import com.jerrygram.infrastructure.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -25,7 +25,8 @@ public class CreateCommentCommandHandler implements ICommandHandler<CreateCommen
     private final CommentRepository commentRepository;
     private final PostRepository postRepository;
     private final UserRepository userRepository;
-    private final NotificationRepository notificationRepository;
+    private final ICounterService counterService;
+    private final IEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -48,19 +49,10 @@ public class CreateCommentCommandHandler implements ICommandHandler<CreateCommen
                 .build();
 
         commentRepository.save(comment);
+        counterService.addPostComments(postId, 1);
         
-        // Save notification if commenter is not the post owner
-        if (!post.getUser().getId().equals(authorId)) {
-            var notification = Notification.builder()
-                    .recipientId(post.getUser().getId())
-                    .fromUserId(authorId)
-                    .type(NotificationType.Comment)
-                    .postId(postId)
-                    .message(author.getUsername() + " commented on your post.")
-                    .build();
-            
-            notificationRepository.save(notification);
-        }
+        // The post owner's notification is created by a subscriber after commit
+        eventPublisher.publish(new CommentCreated(comment.getId(), postId, authorId, post.getUser().getId()));
         
         log.info("Comment {} created successfully", comment.getId());
 
@@ -72,6 +64,7 @@ public class CreateCommentCommandHandler implements ICommandHandler<CreateCommen
                         .id(author.getId())
                         .username(author.getUsername())
                         .profileImageUrl(author.getProfileImageUrl())
+                        .profileImageVariants(author.getProfileImageVariants())
                         .build())
                 .build();
     }
@@ -1,6 +1,9 @@
 package com.jerrygram.application.commands.comments;
 
+import com.jerrygram.application.common.AfterCommit;
 import com.jerrygram.application.interfaces.ICommandHandler;
+import com.jerrygram.application.interfaces.ICounterService;
+import com.jerrygram.application.interfaces.INotificationService;
 import com.jerrygram.infrastructure.repositories.CommentRepository;
 import com.jerrygram.infrastructure.repositories.NotificationRepository;
 import lombok.RequiredArgsConstructor;
@@ -17,6 +20,8 @@ public class DeleteCommentCommandHandler implements ICommandHandler<DeleteCommen
 
     private final CommentRepository commentRepository;
     private final NotificationRepository notificationRepository;
+    private final ICounterService counterService;
+    private final INotificationService notificationService;
 
     @Override
     @Transactional
@@ -36,10 +41,16 @@ public class DeleteCommentCommandHandler implements ICommandHandler<DeleteCommen
         
         // Delete comment
         commentRepository.delete(comment);
+        counterService.addPostComments(comment.getPostId(), -1);
         
         // Delete related notification if exists
         try {
-            notificationRepository.deleteCommentNotification(comment.getPostId(), userId);
+            notificationRepository.deleteCommentNotificationActors(comment.getPostId(), userId);
+            int deleted = notificationRepository.deleteCommentNotification(comment.getPostId(), userId);
+            if (deleted > 0) {
+                var postOwnerId = comment.getPost().getUserId();
+                AfterCommit.run(() -> notificationService.invalidateUnread(postOwnerId));
+            }
             log.debug("Deleted comment notification for post {} by user {}", comment.getPostId(), userId);
         } catch (Exception e) {
             log.warn("Failed to delete comment notification: {}", e.getMessage());
@@ -1,6 +1,8 @@
 package com.jerrygram.application.commands.notifications;
 
+import com.jerrygram.application.common.AfterCommit;
 import com.jerrygram.application.interfaces.ICommandHandler;
+import com.jerrygram.application.interfaces.INotificationService;
 import com.jerrygram.infrastructure.repositories.NotificationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,6 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class MarkNotificationAsReadCommandHandler implements ICommandHandler<MarkNotificationAsReadCommand, Boolean> {
 
     private final NotificationRepository notificationRepository;
+    private final INotificationService notificationService;
 
     @Override
     @Transactional
@@ -30,8 +33,10 @@ public class MarkNotificationAsReadCommandHandler implements ICommandHandler<Mar
             throw new SecurityException("User not authorized to modify this notification");
         }
 
-        notification.markAsRead();
-        notificationRepository.save(notification);
+        // Conditional update: only the request that actually flips the flag adjusts the unread counter
+        if (notificationRepository.markAsRead(notificationId) > 0) {
+            AfterCommit.run(() -> notificationService.adjustUnread(userId, -1));
+        }
         
         log.info("Notification {} marked as read", notificationId);
         return true;
@@ -1,17 +1,24 @@
 package com.jerrygram.application.commands.posts;
 
+import com.jerrygram.application.common.AfterCommit;
 import com.jerrygram.application.common.BlobContainers;
 import com.jerrygram.application.common.HashtagExtractor;
 import com.jerrygram.application.common.PostIndex;
+import com.jerrygram.application.dtos.CreatePostDto;
 import com.jerrygram.application.dtos.PostListItemDto;
 import com.jerrygram.application.dtos.SimpleUserDto;
+import com.jerrygram.application.interfaces.IBlobCollector;
 import com.jerrygram.application.interfaces.IBlobService;
-import com.jerrygram.application.interfaces.ICacheService;
 import com.jerrygram.application.interfaces.ICommandHandler;
+import com.jerrygram.application.interfaces.ICounterService;
 import com.jerrygram.application.interfaces.IElasticService;
+import com.jerrygram.application.interfaces.IEventPublisher;
+import com.jerrygram.application.interfaces.IImagePipeline;
+import com.jerrygram.application.interfaces.ITimelineService;
 import com.jerrygram.domain.entities.Post;
 import com.jerrygram.domain.entities.PostTag;
 import com.jerrygram.domain.entities.Tag;
+import com.jerrygram.domain.events.PostCreated;
 import com.jerrygram.infrastructure.repositories.PostRepository;
 import com.jerrygram.infrastructure.repositories.PostTagRepository;
 import com.jerrygram.infrastructure.repositories.TagRepository;
@@ -19,9 +26,10 @@ import com.jerrygram.infrastructure.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
 
-import java.util.List;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -34,31 +42,63 @@ public class CreatePostCommandHandler implements ICommandHandler<CreatePostComma
     private final TagRepository tagRepository;
     private final IElasticService elasticService;
     private final IBlobService blobService;
-    private final ICacheService cacheService;
+    private final IBlobCollector blobCollector;
+    private final IImagePipeline imagePipeline;
+    private final IEventPublisher eventPublisher;
+    private final ITimelineService timelineService;
+    private final ICounterService counterService;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
-    @Transactional
     public PostListItemDto handle(CreatePostCommand command) {
         var dto = command.getCreatePostDto();
         var authorId = command.getAuthorId();
         
         log.info("Creating post for user: {}", authorId);
 
-        var author = userRepository.findById(authorId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        // Upload before any repository access: with open-in-view the request keeps the first
+        // connection it takes, so a lookup up front would hold it through the transfer
+        var imageUrl = uploadImage(dto.getImage());
 
-        // Upload image if provided
-        String imageUrl = null;
-        if (dto.getImage() != null && !dto.getImage().isEmpty()) {
+        PostListItemDto created;
+        try {
+            created = transactionTemplate.execute(status -> create(dto, authorId, imageUrl));
+        } catch (RuntimeException e) {
+            // The post never committed; don't leave its image behind
             try {
-                imageUrl = blobService.upload(dto.getImage(), BlobContainers.POSTS);
-                log.info("Image uploaded successfully: {}", imageUrl);
-            } catch (Exception e) {
-                log.error("Failed to upload image for post", e);
-                throw new RuntimeException("Failed to upload image", e);
+                blobCollector.collect(imageUrl);
+            } catch (RuntimeException collectFailure) {
+                // Reconciliation picks the orphan up later; the original failure is what the caller needs
+                log.warn("Failed to schedule removal of unused image: {}", imageUrl, collectFailure);
             }
+            throw e;
         }
 
+        if (imageUrl != null) {
+            imagePipeline.processPostImage(created.getId(), imageUrl, dto.getImage());
+        }
+        return created;
+    }
+
+    private String uploadImage(MultipartFile image) {
+        if (image == null || image.isEmpty()) {
+            return null;
+        }
+
+        try {
+            var imageUrl = blobService.upload(image, BlobContainers.POSTS);
+            log.info("Image uploaded successfully: {}", imageUrl);
+            return imageUrl;
+        } catch (Exception e) {
+            log.error("Failed to upload image for post", e);
+            throw new RuntimeException("Failed to upload image", e);
+        }
+    }
+
+    private PostListItemDto create(CreatePostDto dto, UUID authorId, String imageUrl) {
+        var author = userRepository.findById(authorId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+
         var post = Post.builder()
                 .caption(dto.getCaption())
                 .imageUrl(imageUrl)
@@ -67,6 +107,7 @@ public class CreatePostCommandHandler implements ICommandHandler<CreatePostComma
                 .build();
 
         postRepository.save(post);
+        counterService.addUserPosts(authorId, 1);
         
         // Extract and save hashtags using PostCaption value object
         var hashtags = post.getHashtags();
@@ -109,8 +150,13 @@ public class CreatePostCommandHandler implements ICommandHandler<CreatePostComma
             log.warn("Failed to index post in Elasticsearch: {}", post.getId(), e);
         }
         
-        // Invalidate related caches
-        invalidateRelatedCaches(post, hashtags);
+        // Cache invalidation and other subscribers run after commit
+        eventPublisher.publish(new PostCreated(post.getId(), authorId, hashtags, post.getVisibility(), post.getCreatedAt()));
+        
+        // Push into followers' timelines once the post is visible to other transactions
+        if (post.isPublic()) {
+            AfterCommit.run(() -> timelineService.fanOut(authorId, post.getId(), post.getCreatedAt()));
+        }
         
         log.info("Post {} created successfully by user: {} with {} hashtags", 
                 post.getId(), authorId, hashtags.size());
@@ -119,6 +165,7 @@ public class CreatePostCommandHandler implements ICommandHandler<CreatePostComma
                 .id(post.getId())
                 .caption(post.getCaption())
                 .imageUrl(post.getImageUrl())
+                .imageVariants(post.getImageVariants())
                 .createdAt(post.getCreatedAt())
                 .likes(post.getLikesCount())
                 .liked(false) // New post has no likes
@@ -126,34 +173,9 @@ public class CreatePostCommandHandler implements ICommandHandler<CreatePostComma
                         .id(author.getId())
                         .username(author.getUsername())
                         .profileImageUrl(author.getProfileImageUrl())
+                        .profileImageVariants(author.getProfileImageVariants())
                         .build())
                 .score(0.0)
                 .build();
     }
-    
-    private void invalidateRelatedCaches(Post post, List<String> hashtags) {
-        try {
-            // Invalidate public posts cache
-            cacheService.deleteByPattern("public_posts_page_*");
-            
-            // Invalidate user feed cache
-            cacheService.delete("user_feed_" + post.getUserId());
-            
-            // Invalidate hashtag-related autocomplete caches
-            for (String hashtag : hashtags) {
-                cacheService.delete("autocomplete:#" + hashtag);
-                cacheService.delete("autocomplete:" + hashtag);
-                
-                if (hashtag.length() >= 2) {
-                    String prefix = hashtag.substring(0, 2);
-                    cacheService.deleteByPattern("autocomplete:#" + prefix + "*");
-                    cacheService.deleteByPattern("autocomplete:" + prefix + "*");
-                }
-            }
-            
-            log.debug("Cache invalidated for new post: {}", post.getId());
-        } catch (Exception e) {
-            log.warn("Failed to invalidate cache for post: {}", post.getId(), e);
-        }
-    }
 }
\ No newline at end of file
@@ -1,8 +1,14 @@
 package com.jerrygram.application.commands.posts;
 
-import com.jerrygram.application.interfaces.IBlobService;
+import com.jerrygram.application.common.AfterCommit;
+import com.jerrygram.application.common.CacheNamespaces;
+import com.jerrygram.application.interfaces.ICacheService;
 import com.jerrygram.application.interfaces.ICommandHandler;
+import com.jerrygram.application.interfaces.ICounterService;
 import com.jerrygram.application.interfaces.IElasticService;
+import com.jerrygram.application.interfaces.IEventPublisher;
+import com.jerrygram.application.interfaces.ILikeService;
+import com.jerrygram.domain.events.PostDeleted;
 import com.jerrygram.infrastructure.repositories.PostRepository;
 import com.jerrygram.infrastructure.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -17,8 +23,11 @@ public class DeletePostCommandHandler implements ICommandHandler<DeletePostComma
 
     private final PostRepository postRepository;
     private final UserRepository userRepository;
-    private final IBlobService blobService;
     private final IElasticService elasticService;
+    private final ICounterService counterService;
+    private final ILikeService likeService;
+    private final ICacheService cacheService;
+    private final IEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -36,16 +45,6 @@ public class DeletePostCommandHandler implements ICommandHandler<DeletePostComma
             throw new SecurityException("User not authorized to delete this post");
         }
 
-        // Delete image from blob storage if exists
-        if (post.getImageUrl() != null && !post.getImageUrl().isEmpty()) {
-            try {
-                blobService.delete(post.getImageUrl());
-                log.info("Image deleted from blob storage: {}", post.getImageUrl());
-            } catch (Exception e) {
-                log.warn("Failed to delete image from blob storage: {}", post.getImageUrl(), e);
-            }
-        }
-
         // Remove from Elasticsearch
         try {
             elasticService.deletePost(postId.toString());
@@ -54,8 +53,14 @@ public class DeletePostCommandHandler implements ICommandHandler<DeletePostComma
             log.warn("Failed to remove post from Elasticsearch: {}", postId, e);
         }
 
-        // Delete the post (cascade will delete related entities, count will be automatically recalculated)
+        // Delete the post (cascade will delete related entities)
         postRepository.delete(post);
+        counterService.addUserPosts(post.getUserId(), -1);
+        AfterCommit.run(() -> likeService.evict(postId));
+        AfterCommit.run(() -> cacheService.delete(CacheNamespaces.feedItem(postId)));
+        // The image is removed from blob storage by a subscriber once the delete has committed
+        eventPublisher.publish(new PostDeleted(postId, post.getUserId(), post.getImageUrl(),
+                post.getHashtags(), post.getCreatedAt()));
         
         log.info("Post {} deleted successfully by user: {}", postId, userId);
         return true;
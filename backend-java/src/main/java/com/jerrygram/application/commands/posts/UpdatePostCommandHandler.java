@@ -1,25 +1,33 @@
 package com.jerrygram.application.commands.posts;
 
+import com.jerrygram.application.common.AfterCommit;
 import com.jerrygram.application.common.BlobContainers;
+import com.jerrygram.application.common.CacheNamespaces;
 import com.jerrygram.application.common.PostIndex;
 import com.jerrygram.application.common.TagIndex;
 import com.jerrygram.domain.entities.Post;
+import com.jerrygram.application.interfaces.IBlobCollector;
 import com.jerrygram.application.interfaces.IBlobService;
+import com.jerrygram.application.interfaces.ICacheService;
 import com.jerrygram.application.interfaces.ICommandHandler;
 import com.jerrygram.application.interfaces.IElasticService;
+import com.jerrygram.application.interfaces.IEventPublisher;
+import com.jerrygram.application.interfaces.IImagePipeline;
 import com.jerrygram.domain.entities.PostTag;
 import com.jerrygram.domain.entities.Tag;
+import com.jerrygram.domain.events.PostUpdated;
 import com.jerrygram.infrastructure.repositories.PostRepository;
 import com.jerrygram.infrastructure.repositories.PostTagRepository;
 import com.jerrygram.infrastructure.repositories.TagRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.HashSet;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,24 +39,67 @@ public class UpdatePostCommandHandler implements ICommandHandler<UpdatePostComma
     private final PostTagRepository postTagRepository;
     private final TagRepository tagRepository;
     private final IBlobService blobService;
+    private final IBlobCollector blobCollector;
+    private final IImagePipeline imagePipeline;
     private final IElasticService elasticService;
+    private final ICacheService cacheService;
+    private final IEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
-    @Transactional
     public Post handle(UpdatePostCommand command) {
         var postId = command.getPostId();
         var userId = command.getUserId();
-        var dto = command.getUpdatePostDto();
+        var image = command.getUpdatePostDto().getImage();
         
         log.info("Updating post: {} by user: {}", postId, userId);
 
+        // Upload before any repository access: with open-in-view the request keeps the first
+        // connection it takes, so an ownership check up front would hold it through the transfer.
+        // A rejected request fails the transaction below and the upload is collected
+        String newImageUrl = null;
+        if (image != null && image.getSize() > 0) {
+            newImageUrl = blobService.upload(image, BlobContainers.POSTS);
+        }
+
+        var uploadedImageUrl = newImageUrl;
+        Post updated;
+        try {
+            updated = transactionTemplate.execute(status -> update(command, uploadedImageUrl));
+        } catch (RuntimeException e) {
+            // The update never committed; the post still points at its old image
+            if (uploadedImageUrl != null) {
+                try {
+                    blobCollector.collect(uploadedImageUrl);
+                } catch (RuntimeException collectFailure) {
+                    // Reconciliation picks the orphan up later; the original failure is what the caller needs
+                    log.warn("Failed to schedule removal of unused image: {}", uploadedImageUrl, collectFailure);
+                }
+            }
+            throw e;
+        }
+
+        if (uploadedImageUrl != null) {
+            imagePipeline.processPostImage(postId, uploadedImageUrl, image);
+        }
+        return updated;
+    }
+
+    private Post findOwnedPost(UUID postId, UUID userId) {
         var post = postRepository.findById(postId)
                 .orElseThrow(() -> new NoSuchElementException("Post not found."));
 
         // Authorization check - only post owner can update
-        if (!post.getUser().getId().equals(userId)) {
+        if (!post.getUserId().equals(userId)) {
             throw new SecurityException("You are not the owner of this post.");
         }
+        return post;
+    }
+
+    private Post update(UpdatePostCommand command, String newImageUrl) {
+        var postId = command.getPostId();
+        var dto = command.getUpdatePostDto();
+        var post = findOwnedPost(postId, command.getUserId());
 
         // Get current hashtags before updating
         var oldHashtags = post.getHashtags();
@@ -62,30 +113,35 @@ public class UpdatePostCommandHandler implements ICommandHandler<UpdatePostComma
         }
 
         // Update visibility if provided
-        if (dto.getVisibility() != null) {
+        boolean visibilityChanged = false;
+        if (dto.getVisibility() != null && dto.getVisibility() != post.getVisibility()) {
             post.setVisibility(dto.getVisibility());
+            visibilityChanged = true;
         }
 
-        // Update image if provided
-        if (dto.getImage() != null && dto.getImage().getSize() > 0) {
-            // Delete old image if exists
-            if (post.getImageUrl() != null && !post.getImageUrl().isEmpty()) {
-                blobService.delete(post.getImageUrl(), BlobContainers.POSTS);
-            }
-            
-            // Upload new image
-            String newImageUrl = blobService.upload(dto.getImage(), BlobContainers.POSTS);
+        // Swap in the uploaded image; the old one is tombstoned in this transaction, so it is only
+        // reclaimed if the swap commits
+        if (newImageUrl != null) {
+            blobCollector.collect(post.getImageUrl());
             post.setImageUrl(newImageUrl);
+            post.setImageVariants(null);
         }
 
         // Save post first
         postRepository.save(post);
+        AfterCommit.run(() -> cacheService.delete(CacheNamespaces.feedItem(postId)));
 
         // Update hashtags if caption changed
         if (captionChanged) {
             updateHashtags(post, oldHashtags);
         }
 
+        // Lets the hashtag index move the post between tags or re-check who may see it
+        if (captionChanged || visibilityChanged) {
+            eventPublisher.publish(new PostUpdated(postId, post.getUserId(), oldHashtags, post.getHashtags(),
+                    post.getVisibility(), post.getCreatedAt()));
+        }
+
         // Update Elasticsearch index
         try {
             elasticService.indexPost(PostIndex.builder()
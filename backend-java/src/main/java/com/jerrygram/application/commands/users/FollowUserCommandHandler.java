@@ -1,7 +1,12 @@
 package com.jerrygram.application.commands.users;
 
+import com.jerrygram.application.common.AfterCommit;
 import com.jerrygram.application.interfaces.ICommandHandler;
+import com.jerrygram.application.interfaces.ICounterService;
+import com.jerrygram.application.interfaces.IEventPublisher;
+import com.jerrygram.application.interfaces.ITimelineService;
 import com.jerrygram.domain.entities.UserFollow;
+import com.jerrygram.domain.events.UserFollowed;
 import com.jerrygram.infrastructure.repositories.UserFollowRepository;
 import com.jerrygram.infrastructure.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +21,9 @@ public class FollowUserCommandHandler implements ICommandHandler<FollowUserComma
 
     private final UserFollowRepository userFollowRepository;
     private final UserRepository userRepository;
+    private final ITimelineService timelineService;
+    private final ICounterService counterService;
+    private final IEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -34,6 +42,10 @@ public class FollowUserCommandHandler implements ICommandHandler<FollowUserComma
         if (existingFollow.isPresent()) {
             // Unfollow
             userFollowRepository.delete(existingFollow.get());
+            counterService.addUserFollowing(followerId, -1);
+            counterService.addUserFollowers(followedId, -1);
+            AfterCommit.run(() -> timelineService.invalidate(followerId));
+            eventPublisher.publish(new UserFollowed(followerId, followedId, false));
             
             log.info("User {} unfollowed user {}", followerId, followedId);
             return false;
@@ -52,6 +64,10 @@ public class FollowUserCommandHandler implements ICommandHandler<FollowUserComma
                     .build();
             
             userFollowRepository.save(userFollow);
+            counterService.addUserFollowing(followerId, 1);
+            counterService.addUserFollowers(followedId, 1);
+            AfterCommit.run(() -> timelineService.invalidate(followerId));
+            eventPublisher.publish(new UserFollowed(followerId, followedId, true));
             
             log.info("User {} followed user {}", followerId, followedId);
             return true;
@@ -1,18 +1,25 @@
 package com.jerrygram.application.commands.users;
 
+import com.jerrygram.application.common.AfterCommit;
 import com.jerrygram.application.common.BlobContainers;
+import com.jerrygram.application.common.CacheNamespaces;
 import com.jerrygram.application.common.UserIndex;
+import com.jerrygram.application.interfaces.IAutocompleteIndex;
+import com.jerrygram.application.interfaces.IBlobCollector;
 import com.jerrygram.application.interfaces.IBlobService;
+import com.jerrygram.application.interfaces.ICacheService;
 import com.jerrygram.application.interfaces.ICommandHandler;
 import com.jerrygram.application.interfaces.IElasticService;
+import com.jerrygram.application.interfaces.IImagePipeline;
 import com.jerrygram.infrastructure.exceptions.ResourceNotFoundException;
 import com.jerrygram.infrastructure.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Map;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -21,34 +28,56 @@ public class UploadAvatarCommandHandler implements ICommandHandler<UploadAvatarC
 
     private final UserRepository userRepository;
     private final IBlobService blobService;
+    private final IBlobCollector blobCollector;
+    private final IImagePipeline imagePipeline;
     private final IElasticService elasticService;
+    private final ICacheService cacheService;
+    private final IAutocompleteIndex autocompleteIndex;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
-    @Transactional
     public Map<String, String> handle(UploadAvatarCommand command) {
         var userId = command.getUserId();
         var dto = command.getUploadAvatarDto();
         
         log.info("Uploading avatar for user: {}", userId);
 
-        var user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        // Upload before any repository access: with open-in-view the request keeps the first
+        // connection it takes, so a lookup up front would hold it through the transfer. A missing
+        // user fails the transaction below and the upload is collected
+        var imageUrl = blobService.upload(dto.getAvatar(), BlobContainers.PROFILES);
 
-        // Delete old avatar if exists
-        if (user.getProfileImageUrl() != null && !user.getProfileImageUrl().isEmpty()) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> updateAvatar(userId, imageUrl));
+        } catch (RuntimeException e) {
+            // The user still points at the old avatar
             try {
-                blobService.delete(user.getProfileImageUrl(), BlobContainers.PROFILES);
-                log.info("Deleted old avatar for user: {}", userId);
-            } catch (Exception e) {
-                log.warn("Failed to delete old avatar for user: {}", userId, e);
+                blobCollector.collect(imageUrl);
+            } catch (RuntimeException collectFailure) {
+                // Reconciliation picks the orphan up later; the original failure is what the caller needs
+                log.warn("Failed to schedule removal of unused avatar: {}", imageUrl, collectFailure);
             }
+            throw e;
         }
+        imagePipeline.processAvatar(userId, imageUrl, dto.getAvatar());
+
+        log.info("Avatar uploaded successfully for user: {}", userId);
+        return Map.of("imageUrl", imageUrl);
+    }
+
+    private void updateAvatar(UUID userId, String imageUrl) {
+        var user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+        // The old avatar is reclaimed in the background once the new one is committed
+        blobCollector.collect(user.getProfileImageUrl());
 
-        // Upload new avatar
-        var imageUrl = blobService.upload(dto.getAvatar(), BlobContainers.PROFILES);
         user.setProfileImageUrl(imageUrl);
+        user.setProfileImageVariants(null);
 
         userRepository.save(user);
+        AfterCommit.run(() -> cacheService.delete(CacheNamespaces.principal(userId)));
+        AfterCommit.run(() -> autocompleteIndex.updateAvatar(userId, user.getUsername(), imageUrl));
 
         // Update Elasticsearch index
         try {
@@ -66,8 +95,5 @@ public class UploadAvatarCommandHandler implements ICommandHandler<UploadAvatarC
         } catch (Exception e) {
             log.warn("Failed to update user in search index: {}", userId, e);
         }
-
-        log.info("Avatar uploaded successfully for user: {}", userId);
-        return Map.of("imageUrl", imageUrl);
     }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.jerrygram.application.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Slf4j
+public class AfterCommit {
+
+    /**
+     * Run an action once the current transaction has committed.
+     * Runs immediately when no transaction is active. Failures are logged and never
+     * propagate, since the caller's data is already committed at that point.
+     */
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runSafely(action);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                runSafely(action);
+            }
+        });
+    }
+
+    private static void runSafely(Runnable action) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            log.warn("After-commit action failed", e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.jerrygram.application.common;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Security principal for authenticated requests: a small snapshot of the user,
+ * cached between requests instead of loading the User entity each time
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthenticatedUser {
+    private UUID id;
+    private String username;
+    private String email;
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.jerrygram.application.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cache keys and namespaces shared by readers and the commands that invalidate them.
+ * Namespaces are invalidated as a group (see ICacheService.invalidateNamespace).
+ */
+public class CacheNamespaces {
+
+    public static final String PUBLIC_POSTS = "public_posts";
+
+    private static final String AUTOCOMPLETE = "autocomplete:";
+
+    // Autocomplete results are grouped by the first characters of the query
+    private static final int AUTOCOMPLETE_BUCKET_LENGTH = 2;
+
+    /**
+     * Key of a cached feed item (viewer-independent post DTO used for timeline hydration)
+     */
+    public static String feedItem(UUID postId) {
+        return "feed_item_" + postId;
+    }
+
+    /**
+     * Key of a cached authenticated principal (see AuthenticatedUser)
+     */
+    public static String principal(UUID userId) {
+        return "auth_principal_" + userId;
+    }
+
+    /**
+     * Key of a user's unread notification counter (see ICacheService.getCounter)
+     */
+    public static String unreadNotifications(UUID userId) {
+        return "notifications_unread_" + userId;
+    }
+
+    /**
+     * Namespace holding the cached autocomplete result for a normalized (trimmed, lower-case) query
+     */
+    public static String autocomplete(String query) {
+        boolean hashtag = query.startsWith("#");
+        var term = hashtag ? query.substring(1) : query;
+        var bucket = term.substring(0, Math.min(AUTOCOMPLETE_BUCKET_LENGTH, term.length()));
+        return AUTOCOMPLETE + (hashtag ? "#" : "") + bucket;
+    }
+
+    /**
+     * Autocomplete namespaces whose results can include a new username or hashtag.
+     * Both plain and '#' queries return users and hashtags, so both forms are affected.
+     */
+    public static List<String> autocompleteAffectedBy(String term) {
+        var normalized = term.toLowerCase();
+        List<String> namespaces = new ArrayList<>();
+
+        for (int length = 0; length <= Math.min(AUTOCOMPLETE_BUCKET_LENGTH, normalized.length()); length++) {
+            var bucket = normalized.substring(0, length);
+            namespaces.add(AUTOCOMPLETE + bucket);
+            namespaces.add(AUTOCOMPLETE + "#" + bucket);
+        }
+
+        return namespaces;
+    }
+}
\ No newline at end of file
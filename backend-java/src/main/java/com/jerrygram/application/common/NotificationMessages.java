@@ -0,0 +1,23 @@
+package com.jerrygram.application.common;
+
+import com.jerrygram.domain.enums.NotificationType;
+
+/**
+ * Notification texts, including the aggregated form ("alice and 57 others commented on your post.")
+ */
+public class NotificationMessages {
+
+    public static String format(NotificationType type, String username, int actorCount) {
+        var action = switch (type) {
+            case Comment -> "commented on your post.";
+            case Like -> "liked your post.";
+            case Follow -> "started following you.";
+        };
+
+        int others = actorCount - 1;
+        if (others <= 0) {
+            return username + " " + action;
+        }
+        return username + " and " + others + (others == 1 ? " other " : " others ") + action;
+    }
+}
\ No newline at end of file
@@ -24,5 +24,6 @@ public class NotificationDto {
     
     private boolean isRead;
     private SimpleUserDto fromUser;
+    private int actorCount;
     private UUID postId;
 }
\ No newline at end of file
@@ -1,20 +1,40 @@
 package com.jerrygram.application.dtos;
 
+import com.jerrygram.application.common.PageCursor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.function.Function;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class PagedResult<T> {
-    private int totalCount;
+    // Null when the count was skipped (cursor mode)
+    private Integer totalCount;
     private int page;
     private int pageSize;
     @Builder.Default
     private List<T> items = List.of();
+    // Opaque keyset cursor for the next page; null on the last page or in offset mode
+    private String nextCursor;
+
+    /**
+     * Build a cursor-mode page from a seek query that fetched up to pageSize + 1 rows;
+     * the extra row only signals that another page exists
+     */
+    public static <T> PagedResult<T> fromSeek(List<T> fetched, int pageSize, Function<T, PageCursor> positionOf) {
+        var hasMore = fetched.size() > pageSize;
+        var items = hasMore ? List.copyOf(fetched.subList(0, pageSize)) : fetched;
+
+        return PagedResult.<T>builder()
+                .items(items)
+                .pageSize(pageSize)
+                .nextCursor(hasMore ? positionOf.apply(items.get(items.size() - 1)).encode() : null)
+                .build();
+    }
 }
\ No newline at end of file
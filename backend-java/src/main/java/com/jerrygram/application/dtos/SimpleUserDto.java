@@ -7,6 +7,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
 import java.util.UUID;
 
 @Data
@@ -18,4 +19,5 @@ public class SimpleUserDto {
     private UUID id;
     private String username;
     private String profileImageUrl;
+    private Map<String, String> profileImageVariants;
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.jerrygram.application.events;
+
+import com.jerrygram.application.interfaces.IAutocompleteIndex;
+import com.jerrygram.application.interfaces.IDomainEventHandler;
+import com.jerrygram.domain.events.DomainEvent;
+import com.jerrygram.domain.events.PostCreated;
+import com.jerrygram.domain.events.PostDeleted;
+import com.jerrygram.domain.events.PostUpdated;
+import com.jerrygram.domain.events.UserRegistered;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Adds new users and hashtags to the autocomplete index and keeps hashtag usage current.
+ * A redelivered event skews a usage count by one until the next rebuild, which only affects ranking.
+ */
+@Service
+@RequiredArgsConstructor
+public class AutocompleteIndexUpdater implements IDomainEventHandler<DomainEvent> {
+
+    private final IAutocompleteIndex autocompleteIndex;
+
+    @Override
+    public Class<DomainEvent> eventType() {
+        return DomainEvent.class;
+    }
+
+    @Override
+    public void handle(DomainEvent event) {
+        if (event instanceof UserRegistered registered) {
+            autocompleteIndex.addUser(registered.userId(), registered.username());
+        } else if (event instanceof PostCreated created) {
+            autocompleteIndex.adjustHashtags(created.hashtags(), 1);
+        } else if (event instanceof PostUpdated updated) {
+            autocompleteIndex.adjustHashtags(updated.previousHashtags().stream()
+                    .filter(tag -> !updated.hashtags().contains(tag))
+                    .toList(), -1);
+            autocompleteIndex.adjustHashtags(updated.hashtags().stream()
+                    .filter(tag -> !updated.previousHashtags().contains(tag))
+                    .toList(), 1);
+        } else if (event instanceof PostDeleted deleted && deleted.hashtags() != null) {
+            autocompleteIndex.adjustHashtags(deleted.hashtags(), -1);
+        }
+    }
+}
\ No newline at end of file
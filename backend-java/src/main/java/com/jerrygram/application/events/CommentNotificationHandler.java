@@ -0,0 +1,47 @@
+package com.jerrygram.application.events;
+
+import com.jerrygram.application.interfaces.IDomainEventHandler;
+import com.jerrygram.application.interfaces.INotificationService;
+import com.jerrygram.domain.enums.NotificationType;
+import com.jerrygram.domain.events.CommentCreated;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Notifies a post's owner when someone else comments on it
+ */
+@Service
+@RequiredArgsConstructor
+public class CommentNotificationHandler implements IDomainEventHandler<CommentCreated> {
+
+    private static final long STORE_TIMEOUT_SECONDS = 30;
+
+    private final INotificationService notificationService;
+
+    @Override
+    public Class<CommentCreated> eventType() {
+        return CommentCreated.class;
+    }
+
+    @Override
+    public void handle(CommentCreated event) {
+        if (event.postOwnerId().equals(event.authorId())) {
+            return;
+        }
+
+        // Wait for the buffered write, so the event is only acknowledged once the notification is stored
+        try {
+            notificationService.notifyUser(event.postOwnerId(), event.authorId(), NotificationType.Comment, event.postId())
+                    .get(STORE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while storing comment notification", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Comment notification for post " + event.postId() + " was not stored", e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.jerrygram.application.events;
+
+import com.jerrygram.application.interfaces.IDomainEventHandler;
+import com.jerrygram.application.interfaces.IHashtagIndex;
+import com.jerrygram.domain.events.DomainEvent;
+import com.jerrygram.domain.events.PostCreated;
+import com.jerrygram.domain.events.PostDeleted;
+import com.jerrygram.domain.events.PostUpdated;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the hashtag postings index in step with post writes
+ */
+@Service
+@RequiredArgsConstructor
+public class HashtagIndexUpdater implements IDomainEventHandler<DomainEvent> {
+
+    private final IHashtagIndex hashtagIndex;
+
+    @Override
+    public Class<DomainEvent> eventType() {
+        return DomainEvent.class;
+    }
+
+    @Override
+    public void handle(DomainEvent event) {
+        if (event instanceof PostCreated created) {
+            hashtagIndex.index(created.postId(), created.authorId(),
+                    created.visibility(), created.createdAt(), created.hashtags());
+        } else if (event instanceof PostUpdated updated) {
+            var dropped = updated.previousHashtags().stream()
+                    .filter(tag -> !updated.hashtags().contains(tag))
+                    .toList();
+            hashtagIndex.remove(updated.postId(), updated.createdAt(), dropped);
+            // Refreshes visibility on the tags the post kept and adds it to new ones
+            hashtagIndex.index(updated.postId(), updated.authorId(),
+                    updated.visibility(), updated.createdAt(), updated.hashtags());
+        } else if (event instanceof PostDeleted deleted && deleted.hashtags() != null) {
+            hashtagIndex.remove(deleted.postId(), deleted.createdAt(), deleted.hashtags());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.jerrygram.application.events;
+
+import com.jerrygram.application.common.CacheNamespaces;
+import com.jerrygram.application.interfaces.ICacheService;
+import com.jerrygram.application.interfaces.IDomainEventHandler;
+import com.jerrygram.domain.events.PostCreated;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Drops cached listings and autocomplete results a new post shows up in
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PostCacheInvalidationHandler implements IDomainEventHandler<PostCreated> {
+
+    private final ICacheService cacheService;
+
+    @Override
+    public Class<PostCreated> eventType() {
+        return PostCreated.class;
+    }
+
+    @Override
+    public void handle(PostCreated event) {
+        // Invalidate public posts cache
+        cacheService.invalidateNamespace(CacheNamespaces.PUBLIC_POSTS);
+
+        // Invalidate user feed cache
+        cacheService.delete("user_feed_" + event.authorId());
+
+        // Invalidate hashtag-related autocomplete caches
+        event.hashtags().stream()
+                .flatMap(hashtag -> CacheNamespaces.autocompleteAffectedBy(hashtag).stream())
+                .distinct()
+                .forEach(cacheService::invalidateNamespace);
+
+        log.debug("Cache invalidated for new post: {}", event.postId());
+    }
+}
\ No newline at end of file
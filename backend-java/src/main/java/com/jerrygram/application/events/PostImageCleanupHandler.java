@@ -0,0 +1,37 @@
+package com.jerrygram.application.events;
+
+import com.jerrygram.application.interfaces.IBlobCollector;
+import com.jerrygram.application.interfaces.IDomainEventHandler;
+import com.jerrygram.domain.events.PostDeleted;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Schedules a deleted post's image for garbage collection.
+ * Runs only once the delete has committed, so a rolled-back delete never loses its image.
+ * Its variants are content-addressed and may be shared, so reconciliation reclaims those.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PostImageCleanupHandler implements IDomainEventHandler<PostDeleted> {
+
+    private final IBlobCollector blobCollector;
+
+    @Override
+    public Class<PostDeleted> eventType() {
+        return PostDeleted.class;
+    }
+
+    @Override
+    public void handle(PostDeleted event) {
+        if (event.imageUrl() == null || event.imageUrl().isEmpty()) {
+            return;
+        }
+
+        // Events are delivered at least once; a repeated tombstone is ignored
+        blobCollector.collect(event.imageUrl());
+        log.info("Image scheduled for deletion from blob storage: {}", event.imageUrl());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.jerrygram.application.events;
+
+import com.jerrygram.application.interfaces.IDomainEventHandler;
+import com.jerrygram.application.interfaces.ITrendingService;
+import com.jerrygram.domain.events.CommentCreated;
+import com.jerrygram.domain.events.DomainEvent;
+import com.jerrygram.domain.events.PostCreated;
+import com.jerrygram.domain.events.PostDeleted;
+import com.jerrygram.domain.events.PostLiked;
+import com.jerrygram.domain.events.PostUpdated;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Feeds post writes and engagement into the trending ranking.
+ * A redelivered event counts twice until the next rebuild, which only affects ranking.
+ */
+@Service
+@RequiredArgsConstructor
+public class TrendingUpdater implements IDomainEventHandler<DomainEvent> {
+
+    private final ITrendingService trendingService;
+
+    @Override
+    public Class<DomainEvent> eventType() {
+        return DomainEvent.class;
+    }
+
+    @Override
+    public void handle(DomainEvent event) {
+        if (event instanceof PostCreated created) {
+            trendingService.recordPost(created.postId(), created.authorId(), created.visibility(), created.createdAt());
+        } else if (event instanceof PostUpdated updated) {
+            trendingService.recordPost(updated.postId(), updated.authorId(), updated.visibility(), updated.createdAt());
+        } else if (event instanceof PostDeleted deleted) {
+            trendingService.remove(deleted.postId());
+        } else if (event instanceof PostLiked liked) {
+            trendingService.recordLike(liked.postId(), liked.liked());
+        } else if (event instanceof CommentCreated comment) {
+            trendingService.recordComment(comment.postId());
+        }
+    }
+}
\ No newline at end of file
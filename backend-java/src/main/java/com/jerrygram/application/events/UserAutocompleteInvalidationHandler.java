@@ -0,0 +1,32 @@
+package com.jerrygram.application.events;
+
+import com.jerrygram.application.common.CacheNamespaces;
+import com.jerrygram.application.interfaces.ICacheService;
+import com.jerrygram.application.interfaces.IDomainEventHandler;
+import com.jerrygram.domain.events.UserRegistered;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Drops cached autocomplete results a new username could appear in
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserAutocompleteInvalidationHandler implements IDomainEventHandler<UserRegistered> {
+
+    private final ICacheService cacheService;
+
+    @Override
+    public Class<UserRegistered> eventType() {
+        return UserRegistered.class;
+    }
+
+    @Override
+    public void handle(UserRegistered event) {
+        CacheNamespaces.autocompleteAffectedBy(event.username()).forEach(cacheService::invalidateNamespace);
+
+        log.debug("Invalidated autocomplete caches for new user: {}", event.username());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.jerrygram.application.interfaces;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * In-memory prefix index over usernames and hashtags for autocomplete
+ */
+public interface IAutocompleteIndex {
+
+    /**
+     * Get the users whose username starts with a prefix, most followed first
+     * @param prefix Username prefix (case-insensitive)
+     * @param limit Maximum number of users
+     * @return Ordered users, or empty while the index is loading
+     */
+    Optional<List<UserSuggestion>> completeUsers(String prefix, int limit);
+
+    /**
+     * Get the hashtags in use that start with a prefix, most used first
+     * @param prefix Hashtag prefix without '#' (case-insensitive)
+     * @param limit Maximum number of hashtags
+     * @return Ordered hashtag names, or empty while the index is loading
+     */
+    Optional<List<String>> completeHashtags(String prefix, int limit);
+
+    /**
+     * Add a newly registered user
+     * @param userId User ID
+     * @param username Username
+     */
+    void addUser(UUID userId, String username);
+
+    /**
+     * Show a user's new avatar in completions
+     * @param userId User ID
+     * @param username Username
+     * @param profileImageUrl New avatar URL
+     */
+    void updateAvatar(UUID userId, String username, String profileImageUrl);
+
+    /**
+     * Adjust the usage count of hashtags, adding the ones not seen before
+     * @param hashtags Normalized hashtags
+     * @param delta Number of posts gained (or lost, if negative)
+     */
+    void adjustHashtags(Collection<String> hashtags, int delta);
+
+    record UserSuggestion(UUID id, String username, String profileImageUrl, long followers) {
+    }
+}
\ No newline at end of file
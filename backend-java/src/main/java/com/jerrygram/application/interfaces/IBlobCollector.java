@@ -0,0 +1,22 @@
+package com.jerrygram.application.interfaces;
+
+import java.util.Collection;
+
+/**
+ * Deletes blobs nothing refers to any more, in the background and in batches
+ */
+public interface IBlobCollector {
+
+    /**
+     * Schedule a blob for deletion. Recorded in the caller's transaction when there is one,
+     * so the blob is only reclaimed if the change that stopped using it commits
+     * @param blobUrl URL of the blob; null or empty is ignored
+     */
+    void collect(String blobUrl);
+
+    /**
+     * Cancel pending deletions of blobs that are in use again (shared, content-addressed blobs)
+     * @param blobUrls URLs of the blobs
+     */
+    void retain(Collection<String> blobUrls);
+}
\ No newline at end of file
@@ -3,6 +3,9 @@ package com.jerrygram.application.interfaces;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface IBlobService {
     
@@ -10,9 +13,35 @@ public interface IBlobService {
     
     String upload(InputStream fileStream, String fileName, String containerName);
     
+    /**
+     * Store content under a fixed name, for content-addressed blobs.
+     * If a blob with that name already exists it is kept, since the same name means the same bytes
+     * @return URL of the blob
+     */
+    String uploadAs(InputStream fileStream, String blobName, String contentType, String containerName);
+    
+    /**
+     * URL a blob with this name has, whether or not it exists
+     */
+    String getUrl(String blobName, String containerName);
+    
     void delete(String blobUrl);
     
     void delete(String blobUrl, String containerName);
     
     boolean exists(String blobUrl);
+    
+    /**
+     * Delete blobs in as few requests as the store allows; blobs that are already gone count as deleted
+     * @return URLs that could not be deleted and should be retried
+     */
+    List<String> deleteAll(List<String> blobUrls);
+    
+    /**
+     * Every blob in a container, fetched page by page as the stream is consumed; close it when done
+     */
+    Stream<BlobEntry> list(String containerName);
+    
+    record BlobEntry(String url, String name, Instant lastModified) {
+    }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.jerrygram.application.interfaces;
+
+import java.io.IOException;
+
+/**
+ * Serialization format for cache values stored outside the process
+ */
+public interface ICacheCodec {
+
+    /**
+     * Serialize a value, compressing it when large enough
+     * @param value Value to serialize
+     * @return Encoded payload
+     */
+    byte[] encode(Object value) throws IOException;
+
+    /**
+     * Deserialize a payload produced by encode
+     * @param payload Encoded payload
+     * @param type Value type class
+     * @return Decoded value
+     */
+    <T> T decode(byte[] payload, Class<T> type) throws IOException;
+}
\ No newline at end of file
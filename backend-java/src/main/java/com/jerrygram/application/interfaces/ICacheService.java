@@ -1,7 +1,10 @@
 package com.jerrygram.application.interfaces;
 
 import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Cache service interface for hybrid caching strategy
@@ -16,6 +19,21 @@ public interface ICacheService {
      */
     <T> Optional<T> get(String key, Class<T> type);
     
+    /**
+     * Get several values from cache in one round trip
+     * @param keys Cache keys
+     * @param type Value type class
+     * @return Cached values by key; missing keys are absent from the map
+     */
+    <T> Map<String, T> getAll(Collection<String> keys, Class<T> type);
+    
+    /**
+     * Set several values in cache in one round trip
+     * @param values Values to cache by key
+     * @param ttl Time to live
+     */
+    <T> void setAll(Map<String, T> values, Duration ttl);
+    
     /**
      * Set value in cache with default TTL
      * @param key Cache key
@@ -31,6 +49,17 @@ public interface ICacheService {
      */
     <T> void set(String key, T value, Duration ttl);
     
+    /**
+     * Get value from cache, computing and caching it on a miss. Concurrent misses for the
+     * same key share one loader call, and hot entries are refreshed shortly before they expire
+     * @param key Cache key
+     * @param type Value type class
+     * @param ttl Time to live of a computed value
+     * @param loader Computes the value; a null result is returned but not cached
+     * @return Cached or freshly computed value
+     */
+    <T> T getOrCompute(String key, Class<T> type, Duration ttl, Supplier<T> loader);
+    
     /**
      * Remove value from cache
      * @param key Cache key
@@ -38,10 +67,26 @@ public interface ICacheService {
     void delete(String key);
     
     /**
-     * Remove all values matching pattern
+     * Remove all values matching pattern. Scans the whole keyspace; prefer namespaces
+     * for groups of keys that are invalidated together
      * @param pattern Key pattern (supports wildcards)
      */
     void deleteByPattern(String pattern);
+
+    /**
+     * Build a key inside a namespace. Keys built before the namespace was last
+     * invalidated are no longer reachable and age out through their TTL
+     * @param namespace Namespace name
+     * @param key Key within the namespace
+     * @return Cache key for the namespace's current generation
+     */
+    String namespacedKey(String namespace, String key);
+
+    /**
+     * Invalidate every key in a namespace in O(1) by bumping its generation
+     * @param namespace Namespace name
+     */
+    void invalidateNamespace(String namespace);
     
     /**
      * Check if key exists in cache
@@ -56,4 +101,27 @@ public interface ICacheService {
      * @param ttl Time to live
      */
     void expire(String key, Duration ttl);
+
+    /**
+     * Get a counter maintained with initCounter / incrementCounter
+     * @param key Counter key
+     * @return Current value, or empty if the counter doesn't exist
+     */
+    Optional<Long> getCounter(String key);
+
+    /**
+     * Seed a counter unless it already exists
+     * @param key Counter key
+     * @param value Initial value
+     * @param ttl Time to live; bounds drift between the counter and its source of truth
+     */
+    void initCounter(String key, long value, Duration ttl);
+
+    /**
+     * Atomically add to a counter. Missing counters are left alone so a later initCounter
+     * (seeded from the source of truth) never counts the same change twice.
+     * @param key Counter key
+     * @param delta Amount to add (may be negative)
+     */
+    void incrementCounter(String key, long delta);
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.jerrygram.application.interfaces;
+
+import java.util.UUID;
+
+/**
+ * Write-behind buffer for denormalized post and user counters.
+ * Deltas are recorded when the surrounding transaction commits and coalesced per row
+ * before being flushed to the database in batches.
+ */
+public interface ICounterService {
+
+    /**
+     * Adjust a post's like count
+     * @param postId Post ID
+     * @param delta Change to apply (negative to decrement)
+     */
+    void addPostLikes(UUID postId, int delta);
+
+    /**
+     * Adjust a post's comment count
+     * @param postId Post ID
+     * @param delta Change to apply (negative to decrement)
+     */
+    void addPostComments(UUID postId, int delta);
+
+    /**
+     * Adjust a user's follower count
+     * @param userId User ID
+     * @param delta Change to apply (negative to decrement)
+     */
+    void addUserFollowers(UUID userId, int delta);
+
+    /**
+     * Adjust a user's following count
+     * @param userId User ID
+     * @param delta Change to apply (negative to decrement)
+     */
+    void addUserFollowing(UUID userId, int delta);
+
+    /**
+     * Adjust a user's post count
+     * @param userId User ID
+     * @param delta Change to apply (negative to decrement)
+     */
+    void addUserPosts(UUID userId, int delta);
+
+    /**
+     * Write all buffered deltas to the database
+     */
+    void flush();
+}
\ No newline at end of file
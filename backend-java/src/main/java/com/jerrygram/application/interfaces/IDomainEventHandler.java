@@ -0,0 +1,22 @@
+package com.jerrygram.application.interfaces;
+
+import com.jerrygram.domain.events.DomainEvent;
+
+/**
+ * In-process subscriber for one type of domain event.
+ * Handlers run outside the transaction that raised the event and may see it more than once.
+ * @param <E> Event type
+ */
+public interface IDomainEventHandler<E extends DomainEvent> {
+
+    /**
+     * @return Event type this handler subscribes to
+     */
+    Class<E> eventType();
+
+    /**
+     * Handle an event
+     * @param event Domain event
+     */
+    void handle(E event);
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.jerrygram.application.interfaces;
+
+import com.jerrygram.domain.events.DomainEvent;
+
+import java.util.Collection;
+
+/**
+ * Records domain events in the outbox as part of the caller's transaction.
+ * Events are delivered to the configured sinks only after that transaction commits.
+ */
+public interface IEventPublisher {
+
+    /**
+     * Record an event
+     * @param event Domain event
+     */
+    void publish(DomainEvent event);
+
+    /**
+     * Record several events with a single batched insert
+     * @param events Domain events
+     */
+    void publishAll(Collection<? extends DomainEvent> events);
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.jerrygram.application.interfaces;
+
+import com.jerrygram.domain.events.DomainEvent;
+
+import java.util.Set;
+
+/**
+ * Destination for committed domain events (in-process subscribers, a message broker, ...)
+ */
+public interface IEventSink {
+
+    /**
+     * @return Sink name used in logs
+     */
+    String name();
+
+    /**
+     * Deliver an event; returning normally acknowledges it, throwing makes the dispatcher retry
+     * @param eventId Outbox ID of the event, increasing in the order events were recorded
+     * @param event Domain event
+     * @param payload Event serialized as JSON
+     */
+    void deliver(long eventId, DomainEvent event, String payload);
+
+    /**
+     * Deliver an event to the receivers of this sink that don't have it yet. Sinks with several
+     * independent receivers override this to acknowledge them one by one, so a retry after one
+     * of them failed doesn't repeat the others.
+     * @param delivered Receivers that already acknowledged the event; receivers reached now are added
+     */
+    default void deliver(long eventId, DomainEvent event, String payload, Set<String> delivered) {
+        if (!delivered.contains(name())) {
+            deliver(eventId, event, payload);
+            delivered.add(name());
+        }
+    }
+}
\ No newline at end of file
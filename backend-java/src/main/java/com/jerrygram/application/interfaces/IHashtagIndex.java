@@ -0,0 +1,46 @@
+package com.jerrygram.application.interfaces;
+
+import com.jerrygram.domain.enums.PostVisibility;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * In-memory inverted index from hashtag to the posts carrying it, newest first
+ */
+public interface IHashtagIndex {
+
+    /**
+     * Get a page of posts tagged with a hashtag that the viewer is allowed to see, newest first
+     * @param tag Normalized (lower-case, no '#') hashtag
+     * @param viewerId Viewing user ID, or null for anonymous
+     * @param followingIds IDs of users the viewer follows
+     * @param offset Number of visible posts to skip
+     * @param limit Maximum number of post IDs
+     * @return Ordered post IDs, or empty if the index can't answer (still loading, or the page
+     *         reaches past the postings it keeps) and the caller should query the database
+     */
+    Optional<List<UUID>> search(String tag, UUID viewerId, Set<UUID> followingIds, int offset, int limit);
+
+    /**
+     * Add a post to (or refresh it in) the postings of its hashtags
+     * @param postId Post ID
+     * @param authorId Post author ID
+     * @param visibility Post visibility
+     * @param createdAt Post creation time, the postings' sort key
+     * @param hashtags Normalized hashtags of the post
+     */
+    void index(UUID postId, UUID authorId, PostVisibility visibility, LocalDateTime createdAt, Collection<String> hashtags);
+
+    /**
+     * Remove a post from the postings of the given hashtags
+     * @param postId Post ID
+     * @param createdAt Post creation time, or null if unknown
+     * @param hashtags Normalized hashtags to remove the post from
+     */
+    void remove(UUID postId, LocalDateTime createdAt, Collection<String> hashtags);
+}
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.jerrygram.application.interfaces;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.UUID;
+
+/**
+ * Produces resized, re-encoded variants of uploaded images off the request thread
+ */
+public interface IImagePipeline {
+
+    /**
+     * Queue variants for a post's image; they are recorded on the post if it still shows that image
+     * @param postId Post ID
+     * @param imageUrl URL of the stored original
+     * @param image Uploaded file, copied before this returns
+     */
+    void processPostImage(UUID postId, String imageUrl, MultipartFile image);
+
+    /**
+     * Queue variants for a user's avatar; they are recorded on the user if it is still their avatar
+     * @param userId User ID
+     * @param imageUrl URL of the stored original
+     * @param avatar Uploaded file, copied before this returns
+     */
+    void processAvatar(UUID userId, String imageUrl, MultipartFile avatar);
+}
\ No newline at end of file
@@ -31,6 +31,14 @@ public interface IJwtService {
      */
     String extractUsername(String token);
     
+    /**
+     * Verify token signature and expiry and return its user ID. Verified tokens are
+     * remembered (by hash) until they expire, so repeat requests skip the signature check
+     * @param token JWT token
+     * @return User ID, or null if the token is invalid or expired
+     */
+    UUID verifyToken(String token);
+    
     /**
      * Validate token
      * @param token JWT token
@@ -0,0 +1,39 @@
+package com.jerrygram.application.interfaces;
+
+import com.jerrygram.application.dtos.PostListItemDto;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * In-process like engine: live like counts and liker sets for recently active posts,
+ * with toggles flushed to the PostLikes table in batches
+ */
+public interface ILikeService {
+
+    /**
+     * Toggle a user's like on a post
+     * @param postId Post ID
+     * @param userId User ID
+     * @return true if the post is now liked, false if unliked
+     */
+    boolean toggle(UUID postId, UUID userId);
+
+    /**
+     * Overwrite like counts and liked flags on post list items with the live state
+     * @param items Post list items to update in place
+     * @param currentUserId Viewer ID, or null for anonymous viewers
+     */
+    void applyLikeState(Collection<PostListItemDto> items, UUID currentUserId);
+
+    /**
+     * Drop in-memory state for a post (e.g. after it was deleted)
+     * @param postId Post ID
+     */
+    void evict(UUID postId);
+
+    /**
+     * Write all pending toggles to the database
+     */
+    void flush();
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.jerrygram.application.interfaces;
+
+import com.jerrygram.domain.enums.NotificationType;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Aggregating notification writer with cached per-recipient unread counters
+ */
+public interface INotificationService {
+
+    /**
+     * Buffer a notification. Notifications of the same type on the same post are folded into the
+     * recipient's latest unread one if it is recent enough, otherwise a new row is created.
+     * @param recipientId User to notify
+     * @param fromUserId User who acted
+     * @param type Notification type
+     * @param postId Related post ID, or null
+     * @return Completes once the notification has been stored
+     */
+    CompletableFuture<Void> notifyUser(UUID recipientId, UUID fromUserId, NotificationType type, UUID postId);
+
+    /**
+     * Count a user's unread notifications without scanning the notifications table
+     * @param recipientId User ID
+     * @return Unread notification count
+     */
+    long countUnread(UUID recipientId);
+
+    /**
+     * Adjust a user's cached unread count after notifications were marked read
+     * @param recipientId User ID
+     * @param delta Change in the unread count
+     */
+    void adjustUnread(UUID recipientId, long delta);
+
+    /**
+     * Drop a user's cached unread count so the next read recounts it
+     * @param recipientId User ID
+     */
+    void invalidateUnread(UUID recipientId);
+}
\ No newline at end of file
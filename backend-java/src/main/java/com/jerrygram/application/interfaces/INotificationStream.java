@@ -0,0 +1,28 @@
+package com.jerrygram.application.interfaces;
+
+import com.jerrygram.application.dtos.NotificationDto;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+/**
+ * Live notification delivery to connected clients (Server-Sent Events)
+ */
+public interface INotificationStream {
+
+    /**
+     * Open a stream for a user on this node
+     * @param userId Connected user ID
+     * @param unreadCount Current unread count, sent as the first event
+     * @return Emitter to return from the controller
+     */
+    SseEmitter connect(UUID userId, long unreadCount);
+
+    /**
+     * Push a new or updated notification to the user's streams on every node
+     * @param userId Recipient ID
+     * @param notification Notification as returned by the notifications API
+     * @param unreadCount Recipient's unread count after the change
+     */
+    void push(UUID userId, NotificationDto notification, long unreadCount);
+}
\ No newline at end of file
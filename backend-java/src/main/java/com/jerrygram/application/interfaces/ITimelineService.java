@@ -0,0 +1,52 @@
+package com.jerrygram.application.interfaces;
+
+import com.jerrygram.application.common.PageCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Materialized per-user home timeline (fan-out-on-write with fan-out-on-read for large accounts)
+ */
+public interface ITimelineService {
+
+    /**
+     * Push a new post into the timelines of the author's followers
+     * @param authorId Post author ID
+     * @param postId Post ID
+     * @param createdAt Post creation time, used as the timeline score
+     */
+    void fanOut(UUID authorId, UUID postId, LocalDateTime createdAt);
+
+    /**
+     * Get a page of post IDs from the user's timeline, newest first
+     * @param userId Timeline owner ID
+     * @param page Zero-based page number
+     * @param pageSize Page size
+     * @return Ordered post IDs
+     */
+    List<UUID> getTimeline(UUID userId, int page, int pageSize);
+
+    /**
+     * Get timeline positions strictly older than the cursor, newest first (keyset paging)
+     * @param userId Timeline owner ID
+     * @param after Position of the last item already returned, or null for the first page
+     * @param limit Maximum number of positions
+     * @return Ordered (createdAt, postId) positions
+     */
+    List<PageCursor> getTimelineAfter(UUID userId, PageCursor after, int limit);
+
+    /**
+     * Get the number of entries in the user's materialized timeline
+     * @param userId Timeline owner ID
+     * @return Timeline size
+     */
+    long getTimelineSize(UUID userId);
+
+    /**
+     * Drop the user's materialized timeline so it is rebuilt on next read
+     * @param userId Timeline owner ID
+     */
+    void invalidate(UUID userId);
+}
\ No newline at end of file
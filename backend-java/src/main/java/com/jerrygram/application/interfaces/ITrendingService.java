@@ -0,0 +1,53 @@
+package com.jerrygram.application.interfaces;
+
+import com.jerrygram.application.dtos.PagedResult;
+import com.jerrygram.domain.enums.PostVisibility;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bounded ranking of the public posts with the most recent engagement (explore page)
+ */
+public interface ITrendingService {
+
+    /**
+     * Get a page of trending posts, best first
+     * @param excludedAuthorIds Authors whose posts are skipped (e.g. the viewer and the users they follow)
+     * @param page Zero-based page number
+     * @param pageSize Page size
+     * @return Ordered post IDs with the number of trending posts left after exclusion,
+     *         or empty while the ranking is loading
+     */
+    Optional<PagedResult<UUID>> getTrending(Set<UUID> excludedAuthorIds, int page, int pageSize);
+
+    /**
+     * Record a new or changed post; posts that are not public leave the ranking
+     * @param postId Post ID
+     * @param authorId Post author ID
+     * @param visibility Post visibility
+     * @param createdAt Post creation time
+     */
+    void recordPost(UUID postId, UUID authorId, PostVisibility visibility, LocalDateTime createdAt);
+
+    /**
+     * Record a like being added or removed
+     * @param postId Post ID
+     * @param liked True for a new like, false for a removed one
+     */
+    void recordLike(UUID postId, boolean liked);
+
+    /**
+     * Record a new comment
+     * @param postId Post ID
+     */
+    void recordComment(UUID postId);
+
+    /**
+     * Drop a deleted post
+     * @param postId Post ID
+     */
+    void remove(UUID postId);
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.jerrygram.application.queries.comments;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GetPostCommentsByCursorQuery {
+    private UUID postId;
+    private String cursor;
+    private int size;
+}
\ No newline at end of file
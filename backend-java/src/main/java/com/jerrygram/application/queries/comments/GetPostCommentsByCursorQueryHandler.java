@@ -0,0 +1,51 @@
+package com.jerrygram.application.queries.comments;
+
+import com.jerrygram.application.common.PageCursor;
+import com.jerrygram.application.dtos.CommentDto;
+import com.jerrygram.application.dtos.PagedResult;
+import com.jerrygram.application.dtos.SimpleUserDto;
+import com.jerrygram.application.interfaces.IQueryHandler;
+import com.jerrygram.infrastructure.repositories.CommentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GetPostCommentsByCursorQueryHandler implements IQueryHandler<GetPostCommentsByCursorQuery, PagedResult<CommentDto>> {
+
+    private final CommentRepository commentRepository;
+
+    @Override
+    public PagedResult<CommentDto> handle(GetPostCommentsByCursorQuery query) {
+        var postId = query.getPostId();
+        var cursor = PageCursor.decode(query.getCursor());
+        // One extra row tells whether a next page exists
+        var pageable = PageRequest.of(0, query.getSize() + 1);
+
+        log.info("Getting comments for post: {} by cursor, size: {}", postId, query.getSize());
+
+        var comments = cursor == null
+                ? commentRepository.findLatestByPostId(postId, pageable)
+                : commentRepository.findByPostIdAfter(postId, cursor.getCreatedAt(), cursor.getId(), pageable);
+
+        var commentDtos = comments.stream()
+                .map(comment -> CommentDto.builder()
+                        .id(comment.getId())
+                        .content(comment.getContent())
+                        .createdAt(comment.getCreatedAt())
+                        .user(SimpleUserDto.builder()
+                                .id(comment.getUser().getId())
+                                .username(comment.getUser().getUsername())
+                                .profileImageUrl(comment.getUser().getProfileImageUrl())
+                                .profileImageVariants(comment.getUser().getProfileImageVariants())
+                                .build())
+                        .build())
+                .toList();
+
+        return PagedResult.fromSeek(commentDtos, query.getSize(),
+                dto -> new PageCursor(dto.getCreatedAt(), dto.getId()));
+    }
+}
\ No newline at end of file
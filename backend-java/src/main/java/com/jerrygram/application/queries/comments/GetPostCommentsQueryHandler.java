@@ -34,6 +34,7 @@ public class GetPostCommentsQueryHandler implements IQueryHandler<GetPostComment
                         .id(comment.getUser().getId())
                         .username(comment.getUser().getUsername())
                         .profileImageUrl(comment.getUser().getProfileImageUrl())
+                        .profileImageVariants(comment.getUser().getProfileImageVariants())
                         .build())
                 .build());
     }
@@ -14,6 +14,7 @@ public class GetNotificationsQuery {
     private int page;
     private int pageSize;
     private boolean unreadOnly;
+    private String cursor;
     
     // Constructor without unreadOnly for backward compatibility
     public GetNotificationsQuery(UUID userId, int page, int pageSize) {
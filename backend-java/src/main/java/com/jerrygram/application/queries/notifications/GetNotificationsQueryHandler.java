@@ -1,5 +1,6 @@
 package com.jerrygram.application.queries.notifications;
 
+import com.jerrygram.application.common.PageCursor;
 import com.jerrygram.application.dtos.NotificationDto;
 import com.jerrygram.application.dtos.PagedResult;
 import com.jerrygram.application.dtos.SimpleUserDto;
@@ -22,6 +23,10 @@ public class GetNotificationsQueryHandler implements IQueryHandler<GetNotificati
 
     @Override
     public PagedResult<NotificationDto> handle(GetNotificationsQuery query) {
+        if (query.getCursor() != null) {
+            return handleByCursor(query);
+        }
+
         var userId = query.getUserId();
         var pageable = PageRequest.of(query.getPage(), query.getPageSize(), 
                 Sort.by("createdAt").descending());
@@ -42,6 +47,26 @@ public class GetNotificationsQueryHandler implements IQueryHandler<GetNotificati
                 .build();
     }
 
+    private PagedResult<NotificationDto> handleByCursor(GetNotificationsQuery query) {
+        var userId = query.getUserId();
+        var cursor = PageCursor.decode(query.getCursor());
+        // One extra row tells whether a next page exists
+        var pageable = PageRequest.of(0, query.getPageSize() + 1);
+
+        log.info("Getting notifications for user: {} by cursor", userId);
+
+        var notifications = cursor == null
+                ? notificationRepository.findLatestByRecipientId(userId, pageable)
+                : notificationRepository.findByRecipientIdAfter(userId, cursor.getCreatedAt(), cursor.getId(), pageable);
+
+        var notificationDtos = notifications.stream()
+                .map(this::mapToDto)
+                .toList();
+
+        return PagedResult.fromSeek(notificationDtos, query.getPageSize(),
+                dto -> new PageCursor(dto.getCreatedAt(), dto.getId()));
+    }
+
     private NotificationDto mapToDto(com.jerrygram.domain.entities.Notification notification) {
         SimpleUserDto fromUserDto = null;
         if (notification.getFromUser() != null) {
@@ -50,6 +75,7 @@ public class GetNotificationsQueryHandler implements IQueryHandler<GetNotificati
                     .id(fromUser.getId())
                     .username(fromUser.getUsername())
                     .profileImageUrl(fromUser.getProfileImageUrl())
+                    .profileImageVariants(fromUser.getProfileImageVariants())
                     .build();
         }
 
@@ -60,6 +86,7 @@ public class GetNotificationsQueryHandler implements IQueryHandler<GetNotificati
                 .createdAt(notification.getCreatedAt())
                 .isRead(notification.getIsRead())
                 .fromUser(fromUserDto)
+                .actorCount(notification.getActorCount())
                 .postId(notification.getPostId())
                 .build();
     }
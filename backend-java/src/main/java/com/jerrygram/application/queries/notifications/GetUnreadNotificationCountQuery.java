@@ -0,0 +1,14 @@
+package com.jerrygram.application.queries.notifications;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GetUnreadNotificationCountQuery {
+    private UUID userId;
+}
\ No newline at end of file
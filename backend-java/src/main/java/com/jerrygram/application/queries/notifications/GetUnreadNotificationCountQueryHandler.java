@@ -0,0 +1,21 @@
+package com.jerrygram.application.queries.notifications;
+
+import com.jerrygram.application.interfaces.INotificationService;
+import com.jerrygram.application.interfaces.IQueryHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GetUnreadNotificationCountQueryHandler implements IQueryHandler<GetUnreadNotificationCountQuery, Long> {
+
+    private final INotificationService notificationService;
+
+    @Override
+    public Long handle(GetUnreadNotificationCountQuery query) {
+        // Served from the cached counter; the table is only counted when the counter is missing
+        return notificationService.countUnread(query.getUserId());
+    }
+}
\ No newline at end of file
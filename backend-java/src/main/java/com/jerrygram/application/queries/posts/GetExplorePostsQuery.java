@@ -11,4 +11,6 @@ import java.util.UUID;
 @AllArgsConstructor
 public class GetExplorePostsQuery {
     private UUID userId; // Can be null for anonymous users
+    private int page;
+    private int pageSize;
 }
\ No newline at end of file
@@ -2,14 +2,24 @@ package com.jerrygram.application.queries.posts;
 
 import com.jerrygram.application.dtos.PostListItemDto;
 import com.jerrygram.application.dtos.PagedResult;
+import com.jerrygram.application.interfaces.ILikeService;
 import com.jerrygram.application.interfaces.IQueryHandler;
 import com.jerrygram.application.interfaces.IRecommendClient;
+import com.jerrygram.application.interfaces.ITrendingService;
 import com.jerrygram.infrastructure.repositories.PostRepository;
+import com.jerrygram.infrastructure.repositories.UserFollowRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -17,29 +27,69 @@ import java.util.List;
 public class GetExplorePostsQueryHandler implements IQueryHandler<GetExplorePostsQuery, PagedResult<PostListItemDto>> {
 
     private final PostRepository postRepository;
+    private final UserFollowRepository userFollowRepository;
     private final IRecommendClient recommendClient;
+    private final ITrendingService trendingService;
+    private final ILikeService likeService;
 
     @Override
     public PagedResult<PostListItemDto> handle(GetExplorePostsQuery query) {
         var userId = query.getUserId();
-        
-        List<PostListItemDto> posts;
-        if (userId == null) {
-            posts = postRepository.getPopularPosts();
-        } else {
+        var page = query.getPage();
+        var pageSize = query.getPageSize();
+
+        if (userId != null) {
             var recommended = recommendClient.getRecommendations(userId);
             if (!recommended.isEmpty()) {
-                posts = recommended;
-            } else {
-                posts = postRepository.getPopularPostsNotFollowed(userId);
+                int from = (int) Math.min((long) page * pageSize, recommended.size());
+                var items = recommended.subList(from, Math.min(from + pageSize, recommended.size()));
+                return toPage(items, recommended.size(), query);
             }
         }
 
+        // Explore shows what the viewer doesn't already see: their own and followed authors' posts are skipped
+        Set<UUID> excludedAuthorIds = new HashSet<>();
+        if (userId != null) {
+            excludedAuthorIds.addAll(userFollowRepository.getFollowingIds(userId));
+            excludedAuthorIds.add(userId);
+        }
+
+        var trending = trendingService.getTrending(excludedAuthorIds, page, pageSize);
+        if (trending.isPresent()) {
+            return toPage(hydrate(trending.get().getItems()), trending.get().getTotalCount(), query);
+        }
+
+        // Ranking still loading; counting every post not followed would cost more than the page itself,
+        // so the total is reported as unknown, as in cursor mode
+        var pageable = PageRequest.of(page, pageSize);
+        var posts = userId == null
+                ? postRepository.getPopularPosts(pageable)
+                : postRepository.getPopularPostsNotFollowed(userId, pageable);
+        return toPage(posts, null, query);
+    }
+
+    private PagedResult<PostListItemDto> toPage(List<PostListItemDto> items, Integer totalCount, GetExplorePostsQuery query) {
+        likeService.applyLikeState(items, query.getUserId());
+
         return PagedResult.<PostListItemDto>builder()
-                .items(posts)
-                .totalCount(posts.size())
-                .page(0)
-                .pageSize(posts.size())
+                .items(items)
+                .totalCount(totalCount)
+                .page(query.getPage())
+                .pageSize(query.getPageSize())
                 .build();
     }
+
+    // Loads only the page, in ranking order; posts deleted or hidden since drop out
+    private List<PostListItemDto> hydrate(List<UUID> postIds) {
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+
+        var byId = postRepository.getFeedItemsByIds(postIds).stream()
+                .collect(Collectors.toMap(PostListItemDto::getId, Function.identity()));
+        return postIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
 }
\ No newline at end of file
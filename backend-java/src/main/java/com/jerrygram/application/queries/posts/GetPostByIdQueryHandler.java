@@ -1,7 +1,9 @@
 package com.jerrygram.application.queries.posts;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jerrygram.application.dtos.PostListItemDto;
 import com.jerrygram.application.interfaces.ICacheService;
+import com.jerrygram.application.interfaces.ILikeService;
 import com.jerrygram.application.interfaces.IQueryHandler;
 import com.jerrygram.domain.enums.PostVisibility;
 import com.jerrygram.infrastructure.repositories.PostRepository;
@@ -11,7 +13,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -21,6 +25,8 @@ public class GetPostByIdQueryHandler implements IQueryHandler<GetPostByIdQuery,
     private final PostRepository postRepository;
     private final ICacheService cacheService;
     private final UserFollowRepository userFollowRepository;
+    private final ILikeService likeService;
+    private final ObjectMapper objectMapper;
 
     @Override
     public PostListItemDto handle(GetPostByIdQuery query) {
@@ -29,14 +35,21 @@ public class GetPostByIdQueryHandler implements IQueryHandler<GetPostByIdQuery,
         
         var cacheKey = "post_details_" + postId + "_" + currentUserId;
         
-        var cached = cacheService.get(cacheKey, PostListItemDto.class);
-        if (cached.isPresent()) {
-            log.debug("Post {} retrieved from cache", postId);
-            return cached.get();
-        }
+        // Concurrent misses for the same key share one load and hot entries refresh before expiry
+        var cached = cacheService.getOrCompute(cacheKey, PostListItemDto.class, Duration.ofMinutes(30),
+                () -> loadPost(postId, currentUserId));
+
+        // Cached instances are shared between requests; like state is applied to a copy
+        var result = objectMapper.convertValue(cached, PostListItemDto.class);
+        likeService.applyLikeState(List.of(result), currentUserId);
+
+        log.info("Post {} retrieved successfully", postId);
+        return result;
+    }
 
+    private PostListItemDto loadPost(UUID postId, UUID currentUserId) {
         // Get the post entity to check visibility rules first
-        var post = postRepository.getPostWithUserAndLikes(postId);
+        var post = postRepository.getPostWithUser(postId);
         
         if (post == null) {
             throw new NoSuchElementException("Post not found");
@@ -56,16 +69,12 @@ public class GetPostByIdQueryHandler implements IQueryHandler<GetPostByIdQuery,
         }
 
         // Get the DTO after permission checks pass
-        var result = postRepository.getPostDto(postId, currentUserId);
+        var result = postRepository.getPostDto(postId);
         
         if (result == null) {
             throw new NoSuchElementException("Post not found");
         }
 
-        // Cache for 30 minutes
-        cacheService.set(cacheKey, result, Duration.ofMinutes(30));
-
-        log.info("Post {} retrieved successfully", postId);
         return result;
     }
 }
\ No newline at end of file
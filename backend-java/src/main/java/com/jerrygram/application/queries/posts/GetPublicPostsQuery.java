@@ -13,4 +13,6 @@ public class GetPublicPostsQuery {
     private UUID currentUserId;
     private int page;
     private int pageSize;
+    // Keyset cursor mode when non-null (empty string for the first page)
+    private String cursor;
 }
\ No newline at end of file
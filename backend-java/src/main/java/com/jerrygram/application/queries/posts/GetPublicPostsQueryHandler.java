@@ -1,8 +1,12 @@
 package com.jerrygram.application.queries.posts;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jerrygram.application.common.CacheNamespaces;
+import com.jerrygram.application.common.PageCursor;
 import com.jerrygram.application.dtos.PagedResult;
 import com.jerrygram.application.dtos.PostListItemDto;
 import com.jerrygram.application.interfaces.ICacheService;
+import com.jerrygram.application.interfaces.ILikeService;
 import com.jerrygram.application.interfaces.IQueryHandler;
 import com.jerrygram.infrastructure.repositories.PostRepository;
 import lombok.RequiredArgsConstructor;
@@ -10,6 +14,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -18,25 +23,67 @@ public class GetPublicPostsQueryHandler implements IQueryHandler<GetPublicPostsQ
 
     private final PostRepository postRepository;
     private final ICacheService cacheService;
+    private final ILikeService likeService;
+    private final ObjectMapper objectMapper;
 
     @Override
     public PagedResult<PostListItemDto> handle(GetPublicPostsQuery query) {
-        var cacheKey = "public_posts_page_" + query.getPage() + "_" + query.getPageSize() + "_" + query.getCurrentUserId();
+        if (query.getCursor() != null) {
+            return handleByCursor(query);
+        }
+
+        // Pages are viewer-independent; liked flags are applied per request
+        var cacheKey = cacheService.namespacedKey(CacheNamespaces.PUBLIC_POSTS,
+                "page_" + query.getPage() + "_" + query.getPageSize());
         
         var cached = cacheService.get(cacheKey, PagedResult.class);
         if (cached.isPresent()) {
             log.debug("Public posts page {} retrieved from cache", query.getPage());
-            @SuppressWarnings("unchecked")
-            PagedResult<PostListItemDto> result = (PagedResult<PostListItemDto>) cached.get();
-            return result;
+            return withLikeState(cached.get(), query.getCurrentUserId());
         }
 
-        var result = postRepository.getPublicPosts(query.getCurrentUserId(), query.getPage(), query.getPageSize());
+        var result = postRepository.getPublicPosts(query.getPage(), query.getPageSize());
 
         // Cache for 15 minutes
         cacheService.set(cacheKey, result, Duration.ofMinutes(15));
 
         log.info("Retrieved {} public posts for page {}", result.getItems().size(), query.getPage());
-        return result;
+        return withLikeState(result, query.getCurrentUserId());
+    }
+
+    private PagedResult<PostListItemDto> handleByCursor(GetPublicPostsQuery query) {
+        var cursor = PageCursor.decode(query.getCursor());
+        var cacheKey = cacheService.namespacedKey(CacheNamespaces.PUBLIC_POSTS,
+                "cursor_" + query.getCursor() + "_" + query.getPageSize());
+
+        var cached = cacheService.get(cacheKey, PagedResult.class);
+        if (cached.isPresent()) {
+            log.debug("Public posts cursor page retrieved from cache");
+            return withLikeState(cached.get(), query.getCurrentUserId());
+        }
+
+        var result = postRepository.getPublicPostsByCursor(cursor, query.getPageSize());
+
+        // Same namespace as offset pages so post creation invalidates both
+        cacheService.set(cacheKey, result, Duration.ofMinutes(15));
+
+        log.info("Retrieved {} public posts by cursor", result.getItems().size());
+        return withLikeState(result, query.getCurrentUserId());
+    }
+
+    private PagedResult<PostListItemDto> withLikeState(PagedResult<?> page, UUID currentUserId) {
+        // Copy items: Redis hits hold untyped maps and memory hits are shared between viewers
+        var items = page.getItems().stream()
+                .map(item -> objectMapper.convertValue(item, PostListItemDto.class))
+                .toList();
+        likeService.applyLikeState(items, currentUserId);
+
+        return PagedResult.<PostListItemDto>builder()
+                .items(items)
+                .totalCount(page.getTotalCount())
+                .page(page.getPage())
+                .pageSize(page.getPageSize())
+                .nextCursor(page.getNextCursor())
+                .build();
     }
 }
\ No newline at end of file
@@ -13,4 +13,5 @@ public class GetTimelineQuery {
     private UUID userId;
     private int page;
     private int pageSize;
+    private String cursor;
 }
\ No newline at end of file
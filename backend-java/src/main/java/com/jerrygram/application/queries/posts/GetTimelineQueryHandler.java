@@ -1,15 +1,27 @@
 package com.jerrygram.application.queries.posts;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jerrygram.application.common.CacheNamespaces;
+import com.jerrygram.application.common.PageCursor;
 import com.jerrygram.application.dtos.PagedResult;
 import com.jerrygram.application.dtos.PostListItemDto;
+import com.jerrygram.application.interfaces.ICacheService;
+import com.jerrygram.application.interfaces.ILikeService;
 import com.jerrygram.application.interfaces.IQueryHandler;
+import com.jerrygram.application.interfaces.ITimelineService;
 import com.jerrygram.infrastructure.repositories.PostRepository;
-import com.jerrygram.infrastructure.repositories.UserFollowRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -17,14 +29,87 @@ import java.util.List;
 public class GetTimelineQueryHandler implements IQueryHandler<GetTimelineQuery, PagedResult<PostListItemDto>> {
 
     private final PostRepository postRepository;
-    private final UserFollowRepository userFollowRepository;
+    private final ITimelineService timelineService;
+    private final ILikeService likeService;
+    private final ICacheService cacheService;
+    private final ObjectMapper objectMapper;
 
     @Override
     public PagedResult<PostListItemDto> handle(GetTimelineQuery query) {
+        if (query.getCursor() != null) {
+            return handleByCursor(query);
+        }
+
+        var userId = query.getUserId();
+        var postIds = timelineService.getTimeline(userId, query.getPage(), query.getPageSize());
+        var items = hydrate(postIds, userId);
+
+        return PagedResult.<PostListItemDto>builder()
+                .items(items)
+                .totalCount((int) timelineService.getTimelineSize(userId))
+                .page(query.getPage())
+                .pageSize(query.getPageSize())
+                .build();
+    }
+
+    private PagedResult<PostListItemDto> handleByCursor(GetTimelineQuery query) {
         var userId = query.getUserId();
-        
-        var followingIds = userFollowRepository.getFollowingIds(userId);
+        var pageSize = query.getPageSize();
+
+        // One extra position tells whether a next page exists
+        var positions = timelineService.getTimelineAfter(userId, PageCursor.decode(query.getCursor()), pageSize + 1);
+        var hasMore = positions.size() > pageSize;
+        var page = hasMore ? positions.subList(0, pageSize) : positions;
+
+        var items = hydrate(page.stream().map(PageCursor::getId).toList(), userId);
+
+        // Cursor comes from the timeline position, so posts dropped during hydration don't end paging early;
+        // the materialized size is a cheap estimate of the total
+        return PagedResult.<PostListItemDto>builder()
+                .items(items)
+                .totalCount((int) timelineService.getTimelineSize(userId))
+                .pageSize(pageSize)
+                .nextCursor(hasMore ? page.get(page.size() - 1).encode() : null)
+                .build();
+    }
+
+    private List<PostListItemDto> hydrate(List<UUID> postIds, UUID userId) {
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+
+        var byId = loadFeedItems(postIds);
+
+        // Cached instances are shared between requests; like state is applied to copies
+        var items = postIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(item -> objectMapper.convertValue(item, PostListItemDto.class))
+                .toList();
+
+        likeService.applyLikeState(items, userId);
+        return items;
+    }
+
+    private Map<UUID, PostListItemDto> loadFeedItems(List<UUID> postIds) {
+        // One bulk cache read for the page, then one query for whatever missed
+        var cached = cacheService.getAll(postIds.stream().map(CacheNamespaces::feedItem).toList(), PostListItemDto.class);
+        Map<UUID, PostListItemDto> byId = new HashMap<>();
+        cached.values().forEach(item -> byId.put(item.getId(), item));
+
+        var missing = postIds.stream().filter(id -> !byId.containsKey(id)).toList();
+        if (missing.isEmpty()) {
+            return byId;
+        }
+
+        // Deleted or no longer public posts drop out here
+        var loaded = postRepository.getFeedItemsByIds(missing).stream()
+                .collect(Collectors.toMap(PostListItemDto::getId, Function.identity()));
+        cacheService.setAll(loaded.values().stream()
+                .collect(Collectors.toMap(item -> CacheNamespaces.feedItem(item.getId()), Function.identity())),
+                Duration.ofMinutes(5));
 
-        return postRepository.getUserFeed(followingIds, userId, query.getPage(), query.getPageSize());
+        byId.putAll(loaded);
+        return byId;
     }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.jerrygram.domain.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Blob waiting to be deleted from storage, recorded in the same transaction that stopped using it.
+ * Rows are deleted once the blob is gone; ClaimedUntil starts as the grace period before deletion
+ * and is then the lease (or retry backoff) of the instance currently sweeping the row.
+ */
+@Entity
+@Table(name = "\"BlobTombstones\"", indexes = {
+    @Index(name = "idx_blob_tombstones_claimed", columnList = "\"ClaimedUntil\"")
+}, uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"\"BlobUrl\""})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlobTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "\"Id\"")
+    private Long id;
+
+    @Column(name = "\"BlobUrl\"", nullable = false, length = 1024)
+    private String blobUrl;
+
+    @Column(name = "\"Attempts\"", nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(name = "\"CreatedAt\"", nullable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "\"ClaimedUntil\"", nullable = false)
+    private LocalDateTime claimedUntil;
+}
\ No newline at end of file
@@ -11,7 +11,8 @@ import java.util.UUID;
 @Entity
 @Table(name = "\"Comments\"", indexes = {
     @Index(name = "idx_comment_post_id", columnList = "\"PostId\""),
-    @Index(name = "idx_comment_user_id", columnList = "\"UserId\"")
+    @Index(name = "idx_comment_user_id", columnList = "\"UserId\""),
+    @Index(name = "idx_comment_post_created", columnList = "\"PostId\", \"CreatedAt\"")
 })
 @Data
 @Builder
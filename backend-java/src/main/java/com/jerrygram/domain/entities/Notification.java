@@ -14,7 +14,9 @@ import java.util.UUID;
 @Table(name = "\"Notifications\"", indexes = {
     @Index(name = "idx_notification_recipient", columnList = "\"RecipientId\""),
     @Index(name = "idx_notification_read", columnList = "\"IsRead\""),
-    @Index(name = "idx_notification_created", columnList = "\"CreatedAt\"")
+    @Index(name = "idx_notification_created", columnList = "\"CreatedAt\""),
+    @Index(name = "idx_notification_recipient_created", columnList = "\"RecipientId\", \"CreatedAt\""),
+    @Index(name = "idx_notification_group", columnList = "\"RecipientId\", \"Type\", \"PostId\"")
 })
 @Data
 @Builder
@@ -55,6 +57,11 @@ public class Notification {
     @Column(name = "\"Message\"", length = 500)
     private String message;
 
+    // Number of actors folded into this row (e.g. "alice and 57 others commented")
+    @Column(name = "\"ActorCount\"", nullable = false, columnDefinition = "integer default 1")
+    @Builder.Default
+    private int actorCount = 1;
+
     @Column(name = "\"IsRead\"")
     @Builder.Default
     private Boolean isRead = false;
@@ -63,6 +70,10 @@ public class Notification {
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Last time another actor was folded in; CreatedAt stays put so cursor pagination is stable
+    @Column(name = "\"UpdatedAt\"")
+    private LocalDateTime updatedAt;
+
     // Helper methods
     public void markAsRead() {
         this.isRead = true;
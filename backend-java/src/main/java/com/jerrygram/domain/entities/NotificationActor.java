@@ -0,0 +1,35 @@
+package com.jerrygram.domain.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * User folded into an aggregated notification; keeps ActorCount a count of distinct users
+ * however many times the same user acts on the post
+ */
+@Entity
+@Table(name = "\"NotificationActors\"", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"\"NotificationId\"", "\"ActorId\""})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationActor {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "\"Id\"")
+    private UUID id;
+
+    @Column(name = "\"NotificationId\"", nullable = false)
+    private UUID notificationId;
+
+    @Column(name = "\"ActorId\"", nullable = false)
+    private UUID actorId;
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.jerrygram.domain.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Domain event waiting to be delivered, stored in the same transaction as the change that raised it.
+ * Rows are deleted once every sink has accepted the event; ClaimedUntil is the lease of the
+ * instance currently delivering it, after which recovery may pick it up again. DeliveredTo lists
+ * the receivers (sinks, in-process handlers) that already accepted it, so retries skip them.
+ */
+@Entity
+@Table(name = "\"OutboxEvents\"", indexes = {
+    @Index(name = "idx_outbox_events_claimed", columnList = "\"ClaimedUntil\"")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "\"Id\"")
+    private Long id;
+
+    // Simple name of the DomainEvent record
+    @Column(name = "\"Type\"", nullable = false, length = 100)
+    private String type;
+
+    @Column(name = "\"AggregateId\"", nullable = false)
+    private UUID aggregateId;
+
+    @Column(name = "\"Payload\"", nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "\"Attempts\"", nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(name = "\"CreatedAt\"", nullable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "\"ClaimedUntil\"", nullable = false)
+    private LocalDateTime claimedUntil;
+
+    // Comma-separated receiver names
+    @Column(name = "\"DeliveredTo\"", columnDefinition = "text")
+    private String deliveredTo;
+}
\ No newline at end of file
@@ -10,18 +10,22 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Entity
 @Table(name = "\"Posts\"", indexes = {
     @Index(name = "idx_post_user_id", columnList = "\"UserId\""),
     @Index(name = "idx_post_created_at", columnList = "\"CreatedAt\""),
-    @Index(name = "idx_post_visibility", columnList = "\"Visibility\"")
+    @Index(name = "idx_post_visibility", columnList = "\"Visibility\""),
+    @Index(name = "idx_post_likes_count", columnList = "\"LikesCount\"")
 })
 @Data
 @Builder
@@ -44,6 +48,11 @@ public class Post {
     @Column(name = "\"ImageUrl\"", length = 300)
     private String imageUrl;
     
+    // Resized copies of the image keyed by variant name, recorded by the image pipeline once stored
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "\"ImageVariants\"")
+    private Map<String, String> imageVariants;
+    
     @Enumerated(EnumType.ORDINAL)
     @Column(name = "\"Visibility\"", nullable = false)
     @Builder.Default
@@ -54,6 +63,15 @@ public class Post {
     @Column(name = "\"CreatedAt\"", nullable = false)
     private LocalDateTime createdAt;
     
+    // Denormalized counters, only written by the write-behind counter buffer (never by entity updates)
+    @Column(name = "\"LikesCount\"", nullable = false, updatable = false, columnDefinition = "integer default 0")
+    @Builder.Default
+    private int likesCount = 0;
+    
+    @Column(name = "\"CommentsCount\"", nullable = false, updatable = false, columnDefinition = "integer default 0")
+    @Builder.Default
+    private int commentsCount = 0;
+    
     // Foreign Key
     @Column(name = "\"UserId\"", nullable = false)
     private UUID userId;
@@ -107,13 +125,4 @@ public class Post {
     public boolean hasHashtags() {
         return getPostCaption().hasHashtags();
     }
-    
-    // Calculate counts from relationships (to match .NET behavior)
-    public int getLikesCount() {
-        return postLikes != null ? postLikes.size() : 0;
-    }
-    
-    public int getCommentsCount() {
-        return comments != null ? comments.size() : 0;
-    }
 }
\ No newline at end of file
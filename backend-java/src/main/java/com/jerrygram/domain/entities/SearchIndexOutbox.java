@@ -0,0 +1,62 @@
+package com.jerrygram.domain.entities;
+
+import com.jerrygram.domain.enums.SearchIndexOperation;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pending Elasticsearch write, stored in the same transaction as the change it mirrors.
+ * Rows are deleted once the write reaches the index; ClaimedUntil is the lease of the
+ * instance currently processing the row, after which recovery may pick it up again.
+ * Applied deletes are kept for a while (AppliedAt set) so a late, older write for the
+ * same document can see it was superseded.
+ */
+@Entity
+@Table(name = "\"SearchIndexOutbox\"", indexes = {
+    @Index(name = "idx_search_index_outbox_claimed", columnList = "\"ClaimedUntil\""),
+    @Index(name = "idx_search_index_outbox_document", columnList = "\"DocumentId\", \"IndexName\"")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchIndexOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "\"Id\"")
+    private Long id;
+
+    @Column(name = "\"IndexName\"", nullable = false, length = 50)
+    private String indexName;
+
+    @Column(name = "\"DocumentId\"", nullable = false, length = 100)
+    private String documentId;
+
+    @Enumerated(EnumType.ORDINAL)
+    @Column(name = "\"Operation\"", nullable = false)
+    private SearchIndexOperation operation;
+
+    // JSON document for Index operations
+    @Column(name = "\"Payload\"", columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "\"Attempts\"", nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(name = "\"CreatedAt\"", nullable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "\"ClaimedUntil\"", nullable = false)
+    private LocalDateTime claimedUntil;
+
+    @Column(name = "\"AppliedAt\"")
+    private LocalDateTime appliedAt;
+}
\ No newline at end of file
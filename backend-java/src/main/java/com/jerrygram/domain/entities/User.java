@@ -8,10 +8,13 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Entity
@@ -42,11 +45,29 @@ public class User {
     @Column(name = "\"ProfileImageUrl\"", length = 300)
     private String profileImageUrl;
     
+    // Resized copies of the avatar keyed by variant name, recorded by the image pipeline once stored
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "\"ProfileImageVariants\"")
+    private Map<String, String> profileImageVariants;
+    
     
     @CreationTimestamp
     @Column(name = "\"CreatedAt\"", nullable = false)
     private LocalDateTime createdAt;
     
+    // Denormalized counters, only written by the write-behind counter buffer (never by entity updates)
+    @Column(name = "\"FollowersCount\"", nullable = false, updatable = false, columnDefinition = "integer default 0")
+    @Builder.Default
+    private int followersCount = 0;
+    
+    @Column(name = "\"FollowingCount\"", nullable = false, updatable = false, columnDefinition = "integer default 0")
+    @Builder.Default
+    private int followingCount = 0;
+    
+    @Column(name = "\"PostsCount\"", nullable = false, updatable = false, columnDefinition = "integer default 0")
+    @Builder.Default
+    private int postsCount = 0;
+    
     
     // Relationships
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
@@ -79,17 +100,4 @@ public class User {
     @Builder.Default
     @ToString.Exclude
     private List<Notification> notifications = new ArrayList<>();
-    
-    // Calculate counts from relationships (to match .NET behavior)
-    public int getFollowersCount() {
-        return followers != null ? followers.size() : 0;
-    }
-    
-    public int getFollowingCount() {
-        return followings != null ? followings.size() : 0;
-    }
-    
-    public int getPostsCount() {
-        return posts != null ? posts.size() : 0;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+package com.jerrygram.domain.enums;
+
+public enum SearchIndexOperation {
+    Index,
+    Delete
+}
\ No newline at end of file
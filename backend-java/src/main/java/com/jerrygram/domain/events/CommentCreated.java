@@ -0,0 +1,11 @@
+package com.jerrygram.domain.events;
+
+import java.util.UUID;
+
+public record CommentCreated(UUID commentId, UUID postId, UUID authorId, UUID postOwnerId) implements DomainEvent {
+
+    @Override
+    public UUID aggregateId() {
+        return postId;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.jerrygram.domain.events;
+
+import java.util.UUID;
+
+/**
+ * Something that happened in the domain, recorded in the outbox in the same transaction as the
+ * change itself and delivered to subscribers after commit. Delivery is at-least-once, so
+ * subscribers must tolerate seeing an event twice.
+ */
+public sealed interface DomainEvent
+        permits PostCreated, PostUpdated, PostDeleted, PostLiked, CommentCreated, UserFollowed, UserRegistered {
+
+    /**
+     * Entity the event is about; sinks that partition (e.g. Kafka) use it as the key
+     */
+    UUID aggregateId();
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.jerrygram.domain.events;
+
+import com.jerrygram.domain.enums.PostVisibility;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public record PostCreated(UUID postId, UUID authorId, List<String> hashtags, PostVisibility visibility,
+                          LocalDateTime createdAt) implements DomainEvent {
+
+    @Override
+    public UUID aggregateId() {
+        return postId;
+    }
+}
\ No newline at end of file
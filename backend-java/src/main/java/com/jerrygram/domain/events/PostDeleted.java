@@ -0,0 +1,14 @@
+package com.jerrygram.domain.events;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public record PostDeleted(UUID postId, UUID authorId, String imageUrl, List<String> hashtags,
+                          LocalDateTime createdAt) implements DomainEvent {
+
+    @Override
+    public UUID aggregateId() {
+        return postId;
+    }
+}
\ No newline at end of file
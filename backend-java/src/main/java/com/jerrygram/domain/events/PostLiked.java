@@ -0,0 +1,14 @@
+package com.jerrygram.domain.events;
+
+import java.util.UUID;
+
+/**
+ * A like was persisted (liked = true) or removed (liked = false)
+ */
+public record PostLiked(UUID postId, UUID userId, boolean liked) implements DomainEvent {
+
+    @Override
+    public UUID aggregateId() {
+        return postId;
+    }
+}
\ No newline at end of file
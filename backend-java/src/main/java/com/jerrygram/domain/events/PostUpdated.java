@@ -0,0 +1,19 @@
+package com.jerrygram.domain.events;
+
+import com.jerrygram.domain.enums.PostVisibility;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A post's caption or visibility changed; previousHashtags are the tags it carried before the change
+ */
+public record PostUpdated(UUID postId, UUID authorId, List<String> previousHashtags, List<String> hashtags,
+                          PostVisibility visibility, LocalDateTime createdAt) implements DomainEvent {
+
+    @Override
+    public UUID aggregateId() {
+        return postId;
+    }
+}
\ No newline at end of file
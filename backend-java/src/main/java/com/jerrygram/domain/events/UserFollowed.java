@@ -0,0 +1,14 @@
+package com.jerrygram.domain.events;
+
+import java.util.UUID;
+
+/**
+ * A follow was created (following = true) or removed (following = false)
+ */
+public record UserFollowed(UUID followerId, UUID followingId, boolean following) implements DomainEvent {
+
+    @Override
+    public UUID aggregateId() {
+        return followingId;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.jerrygram.domain.events;
+
+import java.util.UUID;
+
+public record UserRegistered(UUID userId, String username) implements DomainEvent {
+
+    @Override
+    public UUID aggregateId() {
+        return userId;
+    }
+}
\ No newline at end of file
@@ -3,9 +3,11 @@ package com.jerrygram.infrastructure.configuration;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jerrygram.application.common.AuthenticatedUser;
+import com.jerrygram.application.common.CacheNamespaces;
 import com.jerrygram.application.dtos.ErrorResponse;
+import com.jerrygram.application.interfaces.ICacheService;
 import com.jerrygram.application.interfaces.IJwtService;
-import com.jerrygram.domain.entities.User;
 import com.jerrygram.infrastructure.repositories.UserRepository;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
@@ -22,6 +24,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.UUID;
@@ -31,8 +34,13 @@ import java.util.UUID;
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // Bounds how long a principal can outlive a missed invalidation
+    private static final Duration PRINCIPAL_TTL = Duration.ofMinutes(10);
+    private static final String STREAM_PATH = "/api/notifications/stream";
+
     private final IJwtService jwtService;
     private final UserRepository userRepository;
+    private final ICacheService cacheService;
     private final ObjectMapper objectMapper = createObjectMapper();
     
     private static ObjectMapper createObjectMapper() {
@@ -46,8 +54,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
-        final String authHeader = request.getHeader("Authorization");
         final String requestURI = request.getRequestURI();
+        final String authHeader = resolveAuthHeader(request, requestURI);
         
         log.debug("Processing request: {} with auth header: {}", requestURI, authHeader != null ? "Bearer ***" : "null");
         
@@ -59,14 +67,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = authHeader.substring(7);
-            final UUID userId = jwtService.extractUserId(jwt);
-            log.debug("Extracted userId from JWT: {}", userId);
+            // At most one signature check per token lifetime (verified tokens are cached)
+            final UUID userId = jwtService.verifyToken(jwt);
+            log.debug("Verified userId from JWT: {}", userId);
 
             if (userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                User user = userRepository.findById(userId).orElse(null);
-                log.debug("Found user in database: {}", user != null ? user.getUsername() : "null");
+                // Cached snapshot instead of loading the User entity on every request
+                AuthenticatedUser user = cacheService.getOrCompute(CacheNamespaces.principal(userId),
+                        AuthenticatedUser.class, PRINCIPAL_TTL, () -> loadPrincipal(userId));
                 
-                if (user != null && jwtService.validateToken(jwt)) {
+                if (user != null) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             user, null, Collections.emptyList());
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -74,10 +84,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     
                     log.debug("Successfully authenticated user: {} for request: {}", user.getUsername(), requestURI);
                 } else {
-                    log.debug("Token validation failed for user: {}", userId);
+                    log.debug("User from token no longer exists: {}", userId);
                 }
             } else if (userId == null) {
-                log.warn("Failed to extract userId from JWT token");
+                log.warn("Invalid or expired JWT token for: {}", requestURI);
             } else {
                 log.debug("Authentication already exists in SecurityContext");
             }
@@ -90,6 +100,31 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    /**
+     * Authorization header, or for the notification stream the access_token query parameter
+     * (browsers' EventSource can't set headers)
+     */
+    private String resolveAuthHeader(HttpServletRequest request, String requestURI) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader == null && STREAM_PATH.equals(requestURI)) {
+            String token = request.getParameter("access_token");
+            if (token != null && !token.isBlank()) {
+                return "Bearer " + token;
+            }
+        }
+        return authHeader;
+    }
+    
+    private AuthenticatedUser loadPrincipal(UUID userId) {
+        return userRepository.findById(userId)
+                .map(user -> AuthenticatedUser.builder()
+                        .id(user.getId())
+                        .username(user.getUsername())
+                        .email(user.getEmail())
+                        .build())
+                .orElse(null);
+    }
+    
     private void sendErrorResponse(HttpServletResponse response, int status, String error, String message) {
         try {
             ErrorResponse errorResponse = ErrorResponse.builder()
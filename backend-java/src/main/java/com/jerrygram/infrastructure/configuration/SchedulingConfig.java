@@ -0,0 +1,23 @@
+package com.jerrygram.infrastructure.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Sizes the @Scheduled thread pool. Spring Boot defaults to a single thread, so one slow job
+ * (an index rebuild, a blob sweep) would delay the sub-second flushes and the SSE heartbeat.
+ * With virtual threads enabled Boot uses a virtual-thread scheduler and this is not applied.
+ */
+@Configuration
+public class SchedulingConfig {
+
+    @Value("${spring.task.scheduling.pool.size:8}")
+    private int poolSize;
+
+    @Bean
+    public ThreadPoolTaskSchedulerCustomizer schedulingPoolCustomizer() {
+        return scheduler -> scheduler.setPoolSize(poolSize);
+    }
+}
\ No newline at end of file
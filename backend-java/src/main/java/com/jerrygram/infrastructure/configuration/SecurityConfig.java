@@ -1,7 +1,9 @@
 package com.jerrygram.infrastructure.configuration;
 
+import com.jerrygram.application.interfaces.ICacheService;
 import com.jerrygram.application.interfaces.IJwtService;
 import com.jerrygram.infrastructure.repositories.UserRepository;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -29,6 +31,7 @@ public class SecurityConfig {
 
     private final IJwtService jwtService;
     private final UserRepository userRepository;
+    private final ICacheService cacheService;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -37,6 +40,8 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches (SSE completion) belong to a request that was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/explore/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/search/**").permitAll()
@@ -45,6 +50,8 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/api/posts/*/likes").permitAll() // GET /api/posts/{id}/likes
                         .requestMatchers(HttpMethod.GET, "/api/users/profile/*").permitAll() // GET /api/users/profile/{username}
                         .requestMatchers("/api/health/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/media/**").permitAll() // local blob store
+                        .requestMatchers(HttpMethod.HEAD, "/media/**").permitAll()
                         .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**", "/swagger-resources/**", "/webjars/**").permitAll()
                         .requestMatchers("/actuator/**").permitAll()
                         .anyRequest().authenticated()
@@ -71,7 +78,7 @@ public class SecurityConfig {
 
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtService, userRepository);
+        return new JwtAuthenticationFilter(jwtService, userRepository, cacheService);
     }
 
     @Bean
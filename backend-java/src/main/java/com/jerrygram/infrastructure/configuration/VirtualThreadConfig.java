@@ -0,0 +1,66 @@
+package com.jerrygram.infrastructure.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.AbstractProtocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Virtual-thread execution mode, switched on with spring.threads.virtual.enabled.
+ * Spring Boot then runs Tomcat requests, @Async work and @Scheduled jobs on virtual threads; this
+ * adds the limits that thread count used to provide implicitly. Tomcat accepts more connections
+ * since a parked request no longer holds a platform thread, and the JDBC pool stays sized for the
+ * database with a short acquire timeout, so a saturated pool sheds load instead of parking
+ * thousands of requests for the default 30s.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadConfig {
+
+    @Value("${virtual-threads.tomcat.max-connections:20000}")
+    private int maxConnections;
+
+    // 0 keeps spring.datasource.hikari.maximum-pool-size
+    @Value("${virtual-threads.jdbc.max-pool-size:0}")
+    private int maxPoolSize;
+
+    @Value("${virtual-threads.jdbc.connection-timeout:2s}")
+    private Duration connectionTimeout;
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> virtualThreadConnectorCustomizer() {
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            if (connector.getProtocolHandler() instanceof AbstractProtocol<?> protocol) {
+                protocol.setMaxConnections(maxConnections);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void sizeConnectionPool(ApplicationReadyEvent event) {
+        var dataSource = event.getApplicationContext().getBean(DataSource.class);
+        if (!(dataSource instanceof HikariDataSource hikari)) {
+            return;
+        }
+
+        // The config is sealed once the pool starts; the MXBean is the supported way to resize it
+        var pool = hikari.getHikariConfigMXBean();
+        if (maxPoolSize > 0) {
+            pool.setMaximumPoolSize(maxPoolSize);
+        }
+        pool.setConnectionTimeout(connectionTimeout.toMillis());
+        log.info("Virtual threads enabled: {} Tomcat connections, JDBC pool of {} with a {}ms acquire timeout",
+                maxConnections, pool.getMaximumPoolSize(), pool.getConnectionTimeout());
+    }
+}
\ No newline at end of file
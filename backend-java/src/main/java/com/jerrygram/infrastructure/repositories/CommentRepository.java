@@ -8,6 +8,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
@@ -18,6 +20,23 @@ public interface CommentRepository extends JpaRepository<Comment, UUID> {
      */
     Page<Comment> findByPostIdOrderByCreatedAtDesc(UUID postId, Pageable pageable);
     
+    /**
+     * Find latest comments by post ID with authors (first cursor page)
+     */
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.postId = :postId ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findLatestByPostId(@Param("postId") UUID postId, Pageable pageable);
+    
+    /**
+     * Find comments by post ID with authors after a keyset cursor
+     */
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.postId = :postId " +
+           "AND (c.createdAt < :cursorCreatedAt OR (c.createdAt = :cursorCreatedAt AND c.id < :cursorId)) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findByPostIdAfter(@Param("postId") UUID postId,
+                                    @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                    @Param("cursorId") UUID cursorId,
+                                    Pageable pageable);
+    
     /**
      * Find comments by author ID
      */
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -25,6 +26,24 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
      */
     Page<Notification> findByRecipientIdAndIsReadFalse(UUID recipientId, Pageable pageable);
     
+    /**
+     * Find latest notifications by recipient with senders (first cursor page)
+     */
+    @Query("SELECT n FROM Notification n JOIN FETCH n.fromUser WHERE n.recipientId = :recipientId " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findLatestByRecipientId(@Param("recipientId") UUID recipientId, Pageable pageable);
+    
+    /**
+     * Find notifications by recipient with senders after a keyset cursor
+     */
+    @Query("SELECT n FROM Notification n JOIN FETCH n.fromUser WHERE n.recipientId = :recipientId " +
+           "AND (n.createdAt < :cursorCreatedAt OR (n.createdAt = :cursorCreatedAt AND n.id < :cursorId)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findByRecipientIdAfter(@Param("recipientId") UUID recipientId,
+                                              @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                              @Param("cursorId") UUID cursorId,
+                                              Pageable pageable);
+    
     /**
      * Count unread notifications
      */
@@ -42,7 +61,7 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
      * Mark notification as read
      */
     @Modifying
-    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :notificationId")
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :notificationId AND n.isRead = false")
     int markAsRead(@Param("notificationId") UUID notificationId);
     
     /**
@@ -62,9 +81,18 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
             @Param("postId") UUID postId);
     
     /**
-     * Delete comment notification
+     * Delete the actor rows of the comment notifications deleteCommentNotification removes
+     */
+    @Modifying
+    @Query(value = "DELETE FROM \"NotificationActors\" WHERE \"NotificationId\" IN (" +
+           "SELECT n.\"Id\" FROM \"Notifications\" n WHERE n.\"PostId\" = :postId AND n.\"FromUserId\" = :fromUserId " +
+           "AND n.\"Type\" = 0 AND n.\"ActorCount\" = 1)", nativeQuery = true)
+    int deleteCommentNotificationActors(@Param("postId") UUID postId, @Param("fromUserId") UUID fromUserId);
+    
+    /**
+     * Delete comment notification (aggregated ones stand for other commenters too and are kept)
      */
     @Modifying
-    @Query("DELETE FROM Notification n WHERE n.postId = :postId AND n.fromUserId = :fromUserId AND n.type = 0")
+    @Query("DELETE FROM Notification n WHERE n.postId = :postId AND n.fromUserId = :fromUserId AND n.type = 0 AND n.actorCount = 1")
     int deleteCommentNotification(@Param("postId") UUID postId, @Param("fromUserId") UUID fromUserId);
 }
\ No newline at end of file
@@ -10,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -56,7 +57,7 @@ public interface PostLikeRepository extends JpaRepository<PostLike, UUID> {
     /**
      * Get post likes users with pagination (matching .NET GetPostLikesAsync)
      */
-    @Query("SELECT new com.jerrygram.application.dtos.SimpleUserDto(u.id, u.username, u.profileImageUrl) " +
+    @Query("SELECT new com.jerrygram.application.dtos.SimpleUserDto(u.id, u.username, u.profileImageUrl, u.profileImageVariants) " +
            "FROM PostLike pl JOIN pl.user u WHERE pl.post.id = :postId " +
            "ORDER BY pl.createdAt DESC")
     List<SimpleUserDto> getPostLikesUsers(@Param("postId") UUID postId, Pageable pageable);
@@ -66,4 +67,10 @@ public interface PostLikeRepository extends JpaRepository<PostLike, UUID> {
      */
     @Query("SELECT COUNT(pl) FROM PostLike pl WHERE pl.post.id = :postId")
     long countByPostId(@Param("postId") UUID postId);
+    
+    /**
+     * Get which of the given posts the user has liked
+     */
+    @Query("SELECT pl.post.id FROM PostLike pl WHERE pl.user.id = :userId AND pl.post.id IN :postIds")
+    List<UUID> getLikedPostIds(@Param("userId") UUID userId, @Param("postIds") Collection<UUID> postIds);
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.jerrygram.infrastructure.repositories;
 
+import com.jerrygram.application.common.PageCursor;
 import com.jerrygram.application.dtos.PagedResult;
 import com.jerrygram.application.dtos.PostListItemDto;
 import com.jerrygram.domain.entities.Post;
@@ -11,6 +12,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -40,11 +43,28 @@ public interface PostRepository extends JpaRepository<Post, UUID> {
     Page<Post> findTimelinePosts(@Param("userIds") List<UUID> userIds, Pageable pageable);
     
     /**
-     * Find posts by hashtag
+     * Find public posts by hashtag
      */
-    @Query("SELECT p FROM Post p WHERE p.caption LIKE %:hashtag% AND p.visibility = 0 ORDER BY p.createdAt DESC")
+    @Query("SELECT p FROM Post p WHERE p.id IN (SELECT pt.postId FROM PostTag pt JOIN pt.tag t WHERE t.name = :hashtag) " +
+           "AND p.visibility = 0 ORDER BY p.createdAt DESC")
     Page<Post> findByHashtag(@Param("hashtag") String hashtag, Pageable pageable);
     
+    /**
+     * Find posts by hashtag the viewer may see (public, or followers-only by someone they follow), with authors
+     */
+    @Query("SELECT p FROM Post p JOIN FETCH p.user " +
+           "WHERE p.id IN (SELECT pt.postId FROM PostTag pt JOIN pt.tag t WHERE t.name = :hashtag) " +
+           "AND (p.visibility = 0 OR (p.visibility = 1 AND p.user.id IN " +
+           "(SELECT uf.following.id FROM UserFollow uf WHERE uf.follower.id = :viewerId))) " +
+           "ORDER BY p.createdAt DESC")
+    List<Post> findVisibleByHashtag(@Param("hashtag") String hashtag, @Param("viewerId") UUID viewerId, Pageable pageable);
+    
+    /**
+     * Find posts with their authors by IDs
+     */
+    @Query("SELECT p FROM Post p JOIN FETCH p.user WHERE p.id IN :postIds")
+    List<Post> findWithUserByIdIn(@Param("postIds") Collection<UUID> postIds);
+    
     /**
      * Search posts by caption
      */
@@ -54,7 +74,7 @@ public interface PostRepository extends JpaRepository<Post, UUID> {
     /**
      * Get posts with most likes (for explore page)
      */
-    @Query("SELECT p FROM Post p LEFT JOIN p.postLikes pl WHERE p.visibility = 0 GROUP BY p ORDER BY COUNT(pl) DESC, p.createdAt DESC")
+    @Query("SELECT p FROM Post p WHERE p.visibility = 0 ORDER BY p.likesCount DESC, p.createdAt DESC")
     Page<Post> findTopPostsByLikes(Pageable pageable);
     
     /**
@@ -70,97 +90,64 @@ public interface PostRepository extends JpaRepository<Post, UUID> {
     Long getPostsCountByUser(@Param("userId") UUID userId);
     
     /**
-     * Get popular posts for explore page (matching .NET GetPopularPostsAsync)
+     * Get a page of popular posts for explore page (matching .NET GetPopularPostsAsync)
      */
     @Query("SELECT new com.jerrygram.application.dtos.PostListItemDto(" +
-           "p.id, p.caption, p.imageUrl, p.createdAt, " +
-           "CAST((SELECT COUNT(pl) FROM PostLike pl WHERE pl.post.id = p.id) AS int), " +
+           "p.id, p.caption, p.imageUrl, p.imageVariants, p.createdAt, " +
+           "p.likesCount, " +
            "false, " +
-           "new com.jerrygram.application.dtos.SimpleUserDto(p.user.id, p.user.username, p.user.profileImageUrl), " +
+           "new com.jerrygram.application.dtos.SimpleUserDto(p.user.id, p.user.username, p.user.profileImageUrl, p.user.profileImageVariants), " +
            "0.0) " +
            "FROM Post p WHERE p.visibility = 0 " +
-           "ORDER BY (SELECT COUNT(pl) FROM PostLike pl WHERE pl.post.id = p.id) DESC, p.createdAt DESC")
-    List<PostListItemDto> getPopularPosts();
+           "ORDER BY p.likesCount DESC, p.createdAt DESC")
+    List<PostListItemDto> getPopularPosts(Pageable pageable);
     
     /**
-     * Get popular posts not followed by user (matching .NET GetPopularPostsNotFollowedAsync)
+     * Get a page of popular posts not followed by user (matching .NET GetPopularPostsNotFollowedAsync)
      */
     @Query("SELECT new com.jerrygram.application.dtos.PostListItemDto(" +
-           "p.id, p.caption, p.imageUrl, p.createdAt, " +
-           "CAST((SELECT COUNT(pl) FROM PostLike pl WHERE pl.post.id = p.id) AS int), " +
+           "p.id, p.caption, p.imageUrl, p.imageVariants, p.createdAt, " +
+           "p.likesCount, " +
            "false, " +
-           "new com.jerrygram.application.dtos.SimpleUserDto(p.user.id, p.user.username, p.user.profileImageUrl), " +
+           "new com.jerrygram.application.dtos.SimpleUserDto(p.user.id, p.user.username, p.user.profileImageUrl, p.user.profileImageVariants), " +
            "0.0) " +
            "FROM Post p WHERE p.visibility = 0 " +
            "AND p.user.id NOT IN (" +
            "SELECT uf.following.id FROM UserFollow uf WHERE uf.follower.id = :userId" +
            ") AND p.user.id != :userId " +
-           "ORDER BY (SELECT COUNT(pl) FROM PostLike pl WHERE pl.post.id = p.id) DESC, p.createdAt DESC")
-    List<PostListItemDto> getPopularPostsNotFollowed(@Param("userId") UUID userId);
-    
-    /**
-     * Get post DTO with like status for authenticated user
-     */
-    @Query("SELECT new com.jerrygram.application.dtos.PostListItemDto(" +
-           "p.id, p.caption, p.imageUrl, p.createdAt, " +
-           "CAST((SELECT COUNT(pl) FROM PostLike pl WHERE pl.post.id = p.id) AS int), " +
-           "EXISTS(SELECT 1 FROM PostLike pl WHERE pl.post.id = p.id AND pl.user.id = :currentUserId), " +
-           "new com.jerrygram.application.dtos.SimpleUserDto(p.user.id, p.user.username, p.user.profileImageUrl), " +
-           "0.0) " +
-           "FROM Post p WHERE p.id = :postId")
-    PostListItemDto getPostDtoForUser(@Param("postId") UUID postId, @Param("currentUserId") UUID currentUserId);
+           "ORDER BY p.likesCount DESC, p.createdAt DESC")
+    List<PostListItemDto> getPopularPostsNotFollowed(@Param("userId") UUID userId, Pageable pageable);
     
     /**
-     * Get post DTO for anonymous user
+     * Get post DTO (liked flag is filled in by the like service)
      */
     @Query("SELECT new com.jerrygram.application.dtos.PostListItemDto(" +
-           "p.id, p.caption, p.imageUrl, p.createdAt, " +
-           "CAST((SELECT COUNT(pl) FROM PostLike pl WHERE pl.post.id = p.id) AS int), " +
+           "p.id, p.caption, p.imageUrl, p.imageVariants, p.createdAt, " +
+           "p.likesCount, " +
            "false, " +
-           "new com.jerrygram.application.dtos.SimpleUserDto(p.user.id, p.user.username, p.user.profileImageUrl), " +
+           "new com.jerrygram.application.dtos.SimpleUserDto(p.user.id, p.user.username, p.user.profileImageUrl, p.user.profileImageVariants), " +
            "0.0) " +
            "FROM Post p WHERE p.id = :postId")
-    PostListItemDto getPostDtoAnonymous(@Param("postId") UUID postId);
-    
-    default PostListItemDto getPostDto(UUID postId, UUID currentUserId) {
-        if (currentUserId != null) {
-            return getPostDtoForUser(postId, currentUserId);
-        } else {
-            return getPostDtoAnonymous(postId);
-        }
-    }
-    
-    /**
-     * Get post with user and likes for visibility checking (matching .NET GetPostWithUserAndLikesAsync)
-     */
-    @Query("SELECT p FROM Post p JOIN FETCH p.user LEFT JOIN FETCH p.postLikes WHERE p.id = :postId")
-    Post getPostWithUserAndLikes(@Param("postId") UUID postId);
+    PostListItemDto getPostDto(@Param("postId") UUID postId);
     
     /**
-     * Get public posts with pagination for authenticated users
+     * Get post with author for visibility checking
      */
-    @Query("SELECT new com.jerrygram.application.dtos.PostListItemDto(" +
-           "p.id, p.caption, p.imageUrl, p.createdAt, " +
-           "CAST((SELECT COUNT(pl) FROM PostLike pl WHERE pl.post.id = p.id) AS int), " +
-           "EXISTS(SELECT 1 FROM PostLike pl WHERE pl.post.id = p.id AND pl.user.id = :currentUserId), " +
-           "new com.jerrygram.application.dtos.SimpleUserDto(p.user.id, p.user.username, p.user.profileImageUrl), " +
-           "0.0) " +
-           "FROM Post p WHERE p.visibility = 0 " +
-           "ORDER BY p.createdAt DESC")
-    List<PostListItemDto> getPublicPostsItemsForUser(@Param("currentUserId") UUID currentUserId, Pageable pageable);
+    @Query("SELECT p FROM Post p JOIN FETCH p.user WHERE p.id = :postId")
+    Post getPostWithUser(@Param("postId") UUID postId);
     
     /**
-     * Get public posts with pagination for anonymous users
+     * Get public posts with pagination
      */
     @Query("SELECT new com.jerrygram.application.dtos.PostListItemDto(" +
-           "p.id, p.caption, p.imageUrl, p.createdAt, " +
-           "CAST((SELECT COUNT(pl) FROM PostLike pl WHERE pl.post.id = p.id) AS int), " +
+           "p.id, p.caption, p.imageUrl, p.imageVariants, p.createdAt, " +
+           "p.likesCount, " +
            "false, " +
-           "new com.jerrygram.application.dtos.SimpleUserDto(p.user.id, p.user.username, p.user.profileImageUrl), " +
+           "new com.jerrygram.application.dtos.SimpleUserDto(p.user.id, p.user.username, p.user.profileImageUrl, p.user.profileImageVariants), " +
            "0.0) " +
            "FROM Post p WHERE p.visibility = 0 " +
-           "ORDER BY p.createdAt DESC")
-    List<PostListItemDto> getPublicPostsItemsAnonymous(Pageable pageable);
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostListItemDto> getPublicPostsItems(Pageable pageable);
     
     /**
      * Count public posts
@@ -168,16 +155,9 @@ public interface PostRepository extends JpaRepository<Post, UUID> {
     @Query("SELECT COUNT(p) FROM Post p WHERE p.visibility = 0")
     long countPublicPosts();
     
-    default PagedResult<PostListItemDto> getPublicPosts(UUID currentUserId, int page, int pageSize) {
+    default PagedResult<PostListItemDto> getPublicPosts(int page, int pageSize) {
         var pageable = org.springframework.data.domain.PageRequest.of(page, pageSize);
-        List<PostListItemDto> items;
-        
-        if (currentUserId != null) {
-            items = getPublicPostsItemsForUser(currentUserId, pageable);
-        } else {
-            items = getPublicPostsItemsAnonymous(pageable);
-        }
-        
+        var items = getPublicPostsItems(pageable);
         var totalCount = countPublicPosts();
         
         return PagedResult.<PostListItemDto>builder()
@@ -189,34 +169,55 @@ public interface PostRepository extends JpaRepository<Post, UUID> {
     }
     
     /**
-     * Get user feed posts with pagination (matching .NET GetUserFeedAsync)
+     * Get public posts after a keyset cursor
      */
     @Query("SELECT new com.jerrygram.application.dtos.PostListItemDto(" +
-           "p.id, p.caption, p.imageUrl, p.createdAt, " +
-           "CAST((SELECT COUNT(pl) FROM PostLike pl WHERE pl.post.id = p.id) AS int), " +
-           "EXISTS(SELECT 1 FROM PostLike pl WHERE pl.post.id = p.id AND pl.user.id = :currentUserId), " +
-           "new com.jerrygram.application.dtos.SimpleUserDto(p.user.id, p.user.username, p.user.profileImageUrl), " +
+           "p.id, p.caption, p.imageUrl, p.imageVariants, p.createdAt, " +
+           "p.likesCount, " +
+           "false, " +
+           "new com.jerrygram.application.dtos.SimpleUserDto(p.user.id, p.user.username, p.user.profileImageUrl, p.user.profileImageVariants), " +
            "0.0) " +
-           "FROM Post p WHERE p.user.id IN :followingIds AND p.visibility = 0 " +
-           "ORDER BY p.createdAt DESC")
-    List<PostListItemDto> getUserFeedItems(@Param("followingIds") List<UUID> followingIds, @Param("currentUserId") UUID currentUserId, Pageable pageable);
+           "FROM Post p WHERE p.visibility = 0 " +
+           "AND (p.createdAt < :cursorCreatedAt OR (p.createdAt = :cursorCreatedAt AND p.id < :cursorId)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostListItemDto> getPublicPostsItemsAfter(@Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                                   @Param("cursorId") UUID cursorId,
+                                                   Pageable pageable);
     
     /**
-     * Count user feed posts
+     * Get public posts by keyset cursor, seeking on (createdAt, id) without a count query
      */
-    @Query("SELECT COUNT(p) FROM Post p WHERE p.user.id IN :followingIds AND p.visibility = 0")
-    long countUserFeedPosts(@Param("followingIds") List<UUID> followingIds);
-    
-    default PagedResult<PostListItemDto> getUserFeed(List<UUID> followingIds, UUID currentUserId, int page, int pageSize) {
-        var pageable = org.springframework.data.domain.PageRequest.of(page, pageSize);
-        var items = getUserFeedItems(followingIds, currentUserId, pageable);
-        var totalCount = countUserFeedPosts(followingIds);
+    default PagedResult<PostListItemDto> getPublicPostsByCursor(PageCursor cursor, int pageSize) {
+        // One extra row tells whether a next page exists
+        var pageable = org.springframework.data.domain.PageRequest.of(0, pageSize + 1);
+        var items = cursor == null
+                ? getPublicPostsItems(pageable)
+                : getPublicPostsItemsAfter(cursor.getCreatedAt(), cursor.getId(), pageable);
         
-        return PagedResult.<PostListItemDto>builder()
-                .items(items)
-                .totalCount((int) totalCount)
-                .page(page)
-                .pageSize(pageSize)
-                .build();
+        return PagedResult.fromSeek(items, pageSize, item -> new PageCursor(item.getCreatedAt(), item.getId()));
     }
+    
+    /**
+     * Get recent public post references (id, createdAt) by authors, for timeline materialization
+     */
+    @Query("SELECT p.id, p.createdAt FROM Post p WHERE p.user.id IN :userIds AND p.visibility = 0 ORDER BY p.createdAt DESC")
+    List<Object[]> getRecentPostRefsByUsers(@Param("userIds") Collection<UUID> userIds, Pageable pageable);
+    
+    /**
+     * Get public post references (id, createdAt) by authors created before a point in time
+     */
+    @Query("SELECT p.id, p.createdAt FROM Post p WHERE p.user.id IN :userIds AND p.visibility = 0 AND p.createdAt < :before ORDER BY p.createdAt DESC")
+    List<Object[]> getPostRefsByUsersBefore(@Param("userIds") Collection<UUID> userIds, @Param("before") LocalDateTime before, Pageable pageable);
+    
+    /**
+     * Get feed post DTOs by IDs (timeline hydration), unordered
+     */
+    @Query("SELECT new com.jerrygram.application.dtos.PostListItemDto(" +
+           "p.id, p.caption, p.imageUrl, p.imageVariants, p.createdAt, " +
+           "p.likesCount, " +
+           "false, " +
+           "new com.jerrygram.application.dtos.SimpleUserDto(p.user.id, p.user.username, p.user.profileImageUrl, p.user.profileImageVariants), " +
+           "0.0) " +
+           "FROM Post p WHERE p.id IN :postIds AND p.visibility = 0")
+    List<PostListItemDto> getFeedItemsByIds(@Param("postIds") Collection<UUID> postIds);
 }
\ No newline at end of file
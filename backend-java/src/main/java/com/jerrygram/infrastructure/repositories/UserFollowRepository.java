@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -61,6 +62,18 @@ public interface UserFollowRepository extends JpaRepository<UserFollow, UUID> {
     @Query("SELECT uf.following.id FROM UserFollow uf WHERE uf.follower.id = :userId")
     List<UUID> getFollowingIds(@Param("userId") UUID userId);
     
+    /**
+     * Get follower IDs for timeline fan-out
+     */
+    @Query("SELECT uf.follower.id FROM UserFollow uf WHERE uf.following.id = :userId")
+    List<UUID> getFollowerIds(@Param("userId") UUID userId);
+    
+    /**
+     * Get which of the candidate users are followed by a user
+     */
+    @Query("SELECT uf.following.id FROM UserFollow uf WHERE uf.follower.id = :userId AND uf.following.id IN :candidateIds")
+    List<UUID> getFollowedAmong(@Param("userId") UUID userId, @Param("candidateIds") Collection<UUID> candidateIds);
+    
     /**
      * Delete follow relationship
      */
@@ -79,7 +92,7 @@ public interface UserFollowRepository extends JpaRepository<UserFollow, UUID> {
     /**
      * Get followers (matching .NET GetFollowersAsync)
      */
-    @Query("SELECT new com.jerrygram.application.dtos.SimpleUserDto(u.id, u.username, u.profileImageUrl) " +
+    @Query("SELECT new com.jerrygram.application.dtos.SimpleUserDto(u.id, u.username, u.profileImageUrl, u.profileImageVariants) " +
            "FROM UserFollow uf JOIN uf.follower u WHERE uf.following.id = :userId " +
            "ORDER BY uf.createdAt DESC")
     List<com.jerrygram.application.dtos.SimpleUserDto> getFollowers(@Param("userId") UUID userId);
@@ -87,7 +100,7 @@ public interface UserFollowRepository extends JpaRepository<UserFollow, UUID> {
     /**
      * Get followings (matching .NET GetFollowingsAsync)
      */
-    @Query("SELECT new com.jerrygram.application.dtos.SimpleUserDto(u.id, u.username, u.profileImageUrl) " +
+    @Query("SELECT new com.jerrygram.application.dtos.SimpleUserDto(u.id, u.username, u.profileImageUrl, u.profileImageVariants) " +
            "FROM UserFollow uf JOIN uf.following u WHERE uf.follower.id = :userId " +
            "ORDER BY uf.createdAt DESC")
     List<com.jerrygram.application.dtos.SimpleUserDto> getFollowings(@Param("userId") UUID userId);
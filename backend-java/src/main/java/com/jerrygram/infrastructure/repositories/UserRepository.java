@@ -51,7 +51,7 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     /**
      * Get users with most followers (for explore page)
      */
-    @Query("SELECT u FROM User u LEFT JOIN u.followers f GROUP BY u ORDER BY COUNT(f) DESC")
+    @Query("SELECT u FROM User u ORDER BY u.followersCount DESC")
     Page<User> findTopUsersByFollowers(Pageable pageable);
     
     /**
@@ -72,12 +72,18 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     @Query("SELECT COUNT(u) FROM User u")
     Long getTotalUsersCount();
     
+    /**
+     * Get the denormalized followers count without loading the user
+     */
+    @Query("SELECT u.followersCount FROM User u WHERE u.id = :userId")
+    Optional<Integer> getFollowersCountById(@Param("userId") UUID userId);
+    
     /**
      * Get user profile by username (matching .NET structure)
      */
     @Query("SELECT new com.jerrygram.application.dtos.UserProfileDto(" +
            "u.id, u.username, u.email, u.profileImageUrl, u.createdAt, " +
-           "SIZE(u.followers), SIZE(u.followings)) " +
+           "u.followersCount, u.followingCount) " +
            "FROM User u WHERE LOWER(u.username) = LOWER(:username)")
     Optional<UserProfileDto> findUserProfileByUsername(@Param("username") String username);
 }
\ No newline at end of file
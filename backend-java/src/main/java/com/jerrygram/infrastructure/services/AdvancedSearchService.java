@@ -1,12 +1,19 @@
 package com.jerrygram.infrastructure.services;
 
+import com.jerrygram.application.common.CacheNamespaces;
 import com.jerrygram.application.common.HashtagExtractor;
+import com.jerrygram.application.common.PostIndex;
+import com.jerrygram.application.common.UserIndex;
 import com.jerrygram.application.dtos.PostDto;
 import com.jerrygram.application.dtos.SearchResultDto;
 import com.jerrygram.application.dtos.UserProfileDto;
+import com.jerrygram.application.interfaces.IAutocompleteIndex;
+import com.jerrygram.application.interfaces.IAutocompleteIndex.UserSuggestion;
 import com.jerrygram.application.interfaces.ICacheService;
 import com.jerrygram.application.interfaces.IElasticService;
 import com.jerrygram.application.interfaces.ISearchService;
+import com.jerrygram.domain.entities.Post;
+import com.jerrygram.domain.entities.User;
 import com.jerrygram.domain.enums.PostVisibility;
 import com.jerrygram.infrastructure.repositories.PostRepository;
 import com.jerrygram.infrastructure.repositories.PostTagRepository;
@@ -33,6 +40,7 @@ public class AdvancedSearchService implements ISearchService {
     private final UserFollowRepository userFollowRepository;
     private final IElasticService elasticService;
     private final ICacheService cacheService;
+    private final IAutocompleteIndex autocompleteIndex;
 
     @Override
     public SearchResultDto search(String query, String userId) {
@@ -65,25 +73,26 @@ public class AdvancedSearchService implements ISearchService {
     }
     
     public SearchResultDto autocomplete(String query) {
-        String cacheKey = "autocomplete:" + query.toLowerCase();
-        
-        try {
-            var cached = cacheService.get(cacheKey, SearchResultDto.class);
-            if (cached.isPresent()) {
-                log.debug("Autocomplete cache hit for: {}", query);
-                return cached.get();
-            }
-        } catch (Exception e) {
-            log.warn("Cache get failed for autocomplete: {}", query, e);
-        }
+        String normalizedQuery = query.toLowerCase();
+        String cacheKey = cacheService.namespacedKey(CacheNamespaces.autocomplete(normalizedQuery), normalizedQuery);
         
+        // Concurrent misses for the same query share one lookup
+        return cacheService.getOrCompute(cacheKey, SearchResultDto.class, Duration.ofMinutes(5),
+                () -> loadAutocomplete(query));
+    }
+    
+    private SearchResultDto loadAutocomplete(String query) {
         SearchResultDto result;
         
         if (query.startsWith("#")) {
-            // Hashtag autocomplete
-            var hashtags = postTagRepository.findTagNamesByPrefix(query.substring(1))
+            // Hashtag autocomplete, from the prefix index once it is loaded
+            var prefix = query.substring(1).toLowerCase();
+            var hashtags = autocompleteIndex.completeHashtags(prefix, 10)
+                    .orElseGet(() -> postTagRepository.findTagNamesByPrefix(prefix)
+                            .stream()
+                            .limit(10)
+                            .toList())
                     .stream()
-                    .limit(10)
                     .map(tag -> "#" + tag)
                     .toList();
             
@@ -93,20 +102,15 @@ public class AdvancedSearchService implements ISearchService {
                     .hashtags(hashtags)
                     .build();
         } else {
-            // User autocomplete
-            var pageable = PageRequest.of(0, 10);
-            var users = userRepository.findByUsernameStartingWithIgnoreCase(query, pageable)
-                    .stream()
-                    .map(user -> UserProfileDto.builder()
-                            .id(user.getId())
-                            .username(user.getUsername())
-                            .email(user.getEmail())
-                            .profileImageUrl(user.getProfileImageUrl())
-                            .createdAt(user.getCreatedAt())
-                            .followers(user.getFollowersCount())
-                            .followings(user.getFollowingCount())
-                            .build())
-                    .toList();
+            // User autocomplete, answered by the prefix index alone once it is loaded
+            var users = autocompleteIndex.completeUsers(query, 10)
+                    .map(suggestions -> suggestions.stream()
+                            .map(AdvancedSearchService::toUserProfile)
+                            .toList())
+                    .orElseGet(() -> userRepository.findByUsernameStartingWithIgnoreCase(query, PageRequest.of(0, 10))
+                            .stream()
+                            .map(AdvancedSearchService::toUserProfile)
+                            .toList());
             
             result = SearchResultDto.builder()
                     .users(users)
@@ -115,14 +119,6 @@ public class AdvancedSearchService implements ISearchService {
                     .build();
         }
         
-        // Cache the result
-        try {
-            cacheService.set(cacheKey, result, Duration.ofMinutes(5));
-            log.debug("Cached autocomplete result for: {}", query);
-        } catch (Exception e) {
-            log.warn("Cache set failed for autocomplete: {}", query, e);
-        }
-        
         return result;
     }
     
@@ -134,24 +130,7 @@ public class AdvancedSearchService implements ISearchService {
                 .stream()
                 .filter(post -> post.getVisibility() == PostVisibility.Public || 
                                followingIds.contains(post.getUser().getId()))
-                .map(post -> PostDto.builder()
-                        .id(post.getId())
-                        .caption(post.getCaption())
-                        .imageUrl(post.getImageUrl())
-                        .visibility(post.getVisibility())
-                        .author(UserProfileDto.builder()
-                                .id(post.getUser().getId())
-                                .username(post.getUser().getUsername())
-                                .email(post.getUser().getEmail())
-                                .profileImageUrl(post.getUser().getProfileImageUrl())
-                                .createdAt(post.getUser().getCreatedAt())
-                                .followers(post.getUser().getFollowersCount())
-                                .followings(post.getUser().getFollowingCount())
-                                .build())
-                        .likesCount(post.getLikesCount())
-                        .commentsCount(post.getCommentsCount())
-                        .createdAt(post.getCreatedAt())
-                        .build())
+                .map(AdvancedSearchService::toPostDto)
                 .toList();
         
         return SearchResultDto.builder()
@@ -167,32 +146,13 @@ public class AdvancedSearchService implements ISearchService {
         var tagIndices = elasticService.searchTags(query, 5);
         
         var users = userIndices.stream()
-                .map(userIndex -> UserProfileDto.builder()
-                        .id(UUID.fromString(userIndex.getId()))
-                        .username(userIndex.getUsername())
-                        .email(userIndex.getEmail())
-                        .profileImageUrl(userIndex.getProfileImageUrl())
-                        .followers(userIndex.getFollowersCount())
-                        .followings(userIndex.getFollowingCount())
-                        .build())
+                .map(AdvancedSearchService::toUserProfile)
                 .toList();
         
         var posts = postIndices.stream()
                 .filter(postIndex -> "Public".equals(postIndex.getVisibility()) || 
                                    followingIds.contains(UUID.fromString(postIndex.getAuthorId())))
-                .map(postIndex -> PostDto.builder()
-                        .id(UUID.fromString(postIndex.getId()))
-                        .caption(postIndex.getCaption())
-                        .imageUrl(postIndex.getImageUrl())
-                        .visibility(com.jerrygram.domain.enums.PostVisibility.valueOf(postIndex.getVisibility()))
-                        .author(UserProfileDto.builder()
-                                .id(UUID.fromString(postIndex.getAuthorId()))
-                                .username(postIndex.getAuthorUsername())
-                                .build())
-                        .likesCount(postIndex.getLikesCount())
-                        .commentsCount(postIndex.getCommentsCount())
-                        .createdAt(postIndex.getCreatedAt())
-                        .build())
+                .map(AdvancedSearchService::toPostDto)
                 .toList();
         
         var hashtags = tagIndices.stream()
@@ -211,37 +171,12 @@ public class AdvancedSearchService implements ISearchService {
         
         var users = userRepository.findByUsernameContainingIgnoreCase(query, pageable)
                 .stream()
-                .map(user -> UserProfileDto.builder()
-                        .id(user.getId())
-                        .username(user.getUsername())
-                        .email(user.getEmail())
-                        .profileImageUrl(user.getProfileImageUrl())
-                        .createdAt(user.getCreatedAt())
-                        .followers(user.getFollowersCount())
-                        .followings(user.getFollowingCount())
-                        .build())
+                .map(AdvancedSearchService::toUserProfile)
                 .toList();
         
         var posts = postRepository.findByCaptionContainingIgnoreCase(query, pageable)
                 .stream()
-                .map(post -> PostDto.builder()
-                        .id(post.getId())
-                        .caption(post.getCaption())
-                        .imageUrl(post.getImageUrl())
-                        .visibility(post.getVisibility())
-                        .author(UserProfileDto.builder()
-                                .id(post.getUser().getId())
-                                .username(post.getUser().getUsername())
-                                .email(post.getUser().getEmail())
-                                .profileImageUrl(post.getUser().getProfileImageUrl())
-                                .createdAt(post.getUser().getCreatedAt())
-                                .followers(post.getUser().getFollowersCount())
-                                .followings(post.getUser().getFollowingCount())
-                                .build())
-                        .likesCount(post.getLikesCount())
-                        .commentsCount(post.getCommentsCount())
-                        .createdAt(post.getCreatedAt())
-                        .build())
+                .map(AdvancedSearchService::toPostDto)
                 .toList();
         
         var hashtags = postTagRepository.findTagNamesByPrefix(query)
@@ -256,4 +191,67 @@ public class AdvancedSearchService implements ISearchService {
                 .hashtags(hashtags)
                 .build();
     }
+
+    // Mappings to the search DTOs; package-private so the jmh benchmarks can measure them directly
+
+    static UserProfileDto toUserProfile(User user) {
+        return UserProfileDto.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .profileImageUrl(user.getProfileImageUrl())
+                .createdAt(user.getCreatedAt())
+                .followers(user.getFollowersCount())
+                .followings(user.getFollowingCount())
+                .build();
+    }
+
+    static UserProfileDto toUserProfile(UserSuggestion suggestion) {
+        return UserProfileDto.builder()
+                .id(suggestion.id())
+                .username(suggestion.username())
+                .profileImageUrl(suggestion.profileImageUrl())
+                .followers((int) suggestion.followers())
+                .build();
+    }
+
+    static PostDto toPostDto(Post post) {
+        return PostDto.builder()
+                .id(post.getId())
+                .caption(post.getCaption())
+                .imageUrl(post.getImageUrl())
+                .visibility(post.getVisibility())
+                .author(toUserProfile(post.getUser()))
+                .likesCount(post.getLikesCount())
+                .commentsCount(post.getCommentsCount())
+                .createdAt(post.getCreatedAt())
+                .build();
+    }
+
+    static UserProfileDto toUserProfile(UserIndex userIndex) {
+        return UserProfileDto.builder()
+                .id(UUID.fromString(userIndex.getId()))
+                .username(userIndex.getUsername())
+                .email(userIndex.getEmail())
+                .profileImageUrl(userIndex.getProfileImageUrl())
+                .followers(userIndex.getFollowersCount())
+                .followings(userIndex.getFollowingCount())
+                .build();
+    }
+
+    static PostDto toPostDto(PostIndex postIndex) {
+        return PostDto.builder()
+                .id(UUID.fromString(postIndex.getId()))
+                .caption(postIndex.getCaption())
+                .imageUrl(postIndex.getImageUrl())
+                .visibility(PostVisibility.valueOf(postIndex.getVisibility()))
+                .author(UserProfileDto.builder()
+                        .id(UUID.fromString(postIndex.getAuthorId()))
+                        .username(postIndex.getAuthorUsername())
+                        .build())
+                .likesCount(postIndex.getLikesCount())
+                .commentsCount(postIndex.getCommentsCount())
+                .createdAt(postIndex.getCreatedAt())
+                .build();
+    }
 }
\ No newline at end of file
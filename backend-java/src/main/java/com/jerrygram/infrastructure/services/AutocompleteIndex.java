@@ -0,0 +1,681 @@
+package com.jerrygram.infrastructure.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jerrygram.application.interfaces.IAutocompleteIndex;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory autocomplete over usernames and hashtags.
+ * Each dictionary is a sorted, UTF-8 packed term array, so the terms sharing a prefix form one
+ * contiguous range found by binary search. A max-score tree over the array yields the best
+ * entries of that range in score order, so a top-10 costs a few dozen array reads whatever the
+ * prefix. Users rank by follower count, hashtags by the number of posts using them. User entries
+ * carry the display username and avatar URL, so completions are answered without a user lookup.
+ * New users and hashtags collect in a small sorted side map that is merged into the arrays
+ * periodically; usage changes of known hashtags and new avatars update entries in place. Follower
+ * counts are refreshed by a periodic rebuild from the database. Every rebuild is snapshotted to disk, so a
+ * restarting node answers from the snapshot while the database load runs. Deltas are broadcast on
+ * a Redis channel so every node's copy follows along.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AutocompleteIndex implements IAutocompleteIndex {
+
+    private static final String DELTA_CHANNEL = "autocomplete:index";
+
+    private static final String LOAD_USERS_SQL = """
+            SELECT "Id", "Username", "ProfileImageUrl", "FollowersCount" FROM "Users"
+            """;
+
+    private static final String LOAD_HASHTAGS_SQL = """
+            SELECT t."Name", COUNT(*) AS "Usage"
+            FROM "PostTags" pt
+            JOIN "Tags" t ON t."Id" = pt."TagId"
+            GROUP BY t."Name"
+            """;
+
+    // "JGAC", followed by a format version
+    private static final int SNAPSHOT_MAGIC = 0x4A474143;
+    private static final int SNAPSHOT_VERSION = 2;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectProvider<RedisMessageListenerContainer> listenerContainer;
+    private final ObjectMapper objectMapper;
+
+    // Null until loaded from the snapshot or the database; lookups use the database until then
+    private volatile Dictionary users;
+    private volatile Dictionary hashtags;
+    // Deltas seen while a rebuild loads, replayed onto the new dictionaries; guarded by this
+    private List<Delta> replay;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // Lets a node ignore its own broadcasts
+    private final String nodeId = UUID.randomUUID().toString();
+    private boolean broadcast;
+
+    @Value("${autocomplete.index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${autocomplete.index.snapshot-path:${java.io.tmpdir}/jerrygram/autocomplete.snapshot}")
+    private Path snapshotPath;
+
+    @PostConstruct
+    public void init() {
+        var container = listenerContainer.getIfAvailable();
+        if (container != null) {
+            container.addMessageListener(this::onDelta, new ChannelTopic(DELTA_CHANNEL));
+            broadcast = true;
+        }
+
+        if (enabled) {
+            readSnapshot();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (enabled) {
+            // Anything newer than the snapshot comes from the database; the snapshot serves meanwhile
+            Thread.ofVirtual().name("autocomplete-index-load").start(this::rebuild);
+        }
+    }
+
+    /**
+     * Reload both dictionaries from the database, refreshing follower-count ranking
+     */
+    @Scheduled(fixedDelayString = "${autocomplete.index.rebuild-interval:3600000}",
+            initialDelayString = "${autocomplete.index.rebuild-interval:3600000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        rebuildLock.lock();
+        try {
+            synchronized (this) {
+                replay = new ArrayList<>();
+            }
+
+            try {
+                long started = System.currentTimeMillis();
+                var loadedUsers = Segment.build(jdbcTemplate.query(LOAD_USERS_SQL, (rs, rowNum) -> new Entry(
+                        normalize(rs.getString("Username")),
+                        rs.getObject("Id", UUID.class),
+                        rs.getLong("FollowersCount"),
+                        rs.getString("Username"),
+                        rs.getString("ProfileImageUrl"))));
+                var loadedHashtags = Segment.build(jdbcTemplate.query(LOAD_HASHTAGS_SQL, (rs, rowNum) -> new Entry(
+                        rs.getString("Name"),
+                        null,
+                        rs.getLong("Usage"))));
+
+                synchronized (this) {
+                    var newUsers = new Dictionary(loadedUsers, false);
+                    var newHashtags = new Dictionary(loadedHashtags, true);
+                    replay.forEach(delta -> apply(newUsers, newHashtags, delta));
+                    replay = null;
+                    users = newUsers;
+                    hashtags = newHashtags;
+                }
+                log.info("Autocomplete index loaded: {} users, {} hashtags in {}ms",
+                        loadedUsers.size(), loadedHashtags.size(), System.currentTimeMillis() - started);
+            } catch (Exception e) {
+                synchronized (this) {
+                    replay = null;
+                }
+                log.warn("Autocomplete index load failed, {}", users == null
+                        ? "autocomplete stays on the database" : "keeping the current index", e);
+                return;
+            }
+
+            writeSnapshot();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Fold the users and hashtags added since the last merge into the sorted arrays
+     */
+    @Scheduled(fixedDelayString = "${autocomplete.index.merge-interval:60000}")
+    public void merge() {
+        var currentUsers = users;
+        var currentHashtags = hashtags;
+        if (currentUsers != null) {
+            currentUsers.merge();
+            currentHashtags.merge();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (enabled && users != null) {
+            merge();
+            writeSnapshot();
+        }
+    }
+
+    @Override
+    public Optional<List<UserSuggestion>> completeUsers(String prefix, int limit) {
+        var current = users;
+        if (current == null) {
+            return Optional.empty();
+        }
+        return Optional.of(current.complete(normalize(prefix), limit).stream()
+                .map(entry -> new UserSuggestion(entry.id(), entry.username(), entry.profileImageUrl(), entry.score()))
+                .toList());
+    }
+
+    @Override
+    public Optional<List<String>> completeHashtags(String prefix, int limit) {
+        var current = hashtags;
+        if (current == null) {
+            return Optional.empty();
+        }
+        return Optional.of(current.complete(normalize(prefix), limit).stream().map(Entry::term).toList());
+    }
+
+    @Override
+    public void addUser(UUID userId, String username) {
+        publish(new Delta(nodeId, userId, username, null, List.of(), 0));
+    }
+
+    @Override
+    public void updateAvatar(UUID userId, String username, String profileImageUrl) {
+        publish(new Delta(nodeId, userId, username, profileImageUrl, List.of(), 0));
+    }
+
+    @Override
+    public void adjustHashtags(Collection<String> hashtags, int delta) {
+        if (!hashtags.isEmpty() && delta != 0) {
+            publish(new Delta(nodeId, null, null, null, List.copyOf(hashtags), delta));
+        }
+    }
+
+    private void publish(Delta delta) {
+        if (!enabled) {
+            return;
+        }
+
+        apply(delta);
+        if (broadcast) {
+            try {
+                redisTemplate.convertAndSend(DELTA_CHANNEL, objectMapper.writeValueAsString(delta));
+            } catch (Exception e) {
+                // Other nodes catch up on their next rebuild
+                log.warn("Failed to broadcast autocomplete index update", e);
+            }
+        }
+    }
+
+    private synchronized void apply(Delta delta) {
+        if (replay != null) {
+            replay.add(delta);
+        }
+
+        var currentUsers = users;
+        if (currentUsers != null) {
+            apply(currentUsers, hashtags, delta);
+        }
+    }
+
+    private void apply(Dictionary userDictionary, Dictionary hashtagDictionary, Delta delta) {
+        if (delta.userId() != null) {
+            userDictionary.add(new Entry(normalize(delta.username()), delta.userId(), 0,
+                    delta.username(), delta.profileImageUrl()));
+        }
+        for (var hashtag : delta.hashtags()) {
+            hashtagDictionary.add(new Entry(normalize(hashtag), null, delta.usage()));
+        }
+    }
+
+    private void onDelta(Message message, byte[] pattern) {
+        try {
+            var delta = objectMapper.readValue(message.getBody(), Delta.class);
+            if (!nodeId.equals(delta.node())) {
+                apply(delta);
+            }
+        } catch (Exception e) {
+            log.warn("Ignoring malformed autocomplete index message", e);
+        }
+    }
+
+    private void readSnapshot() {
+        if (!Files.isReadable(snapshotPath)) {
+            return;
+        }
+
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                log.info("Ignoring autocomplete snapshot in an old format: {}", snapshotPath);
+                return;
+            }
+
+            var snapshotUsers = Segment.read(in);
+            var snapshotHashtags = Segment.read(in);
+            synchronized (this) {
+                users = new Dictionary(snapshotUsers, false);
+                hashtags = new Dictionary(snapshotHashtags, true);
+            }
+            log.info("Autocomplete index restored from snapshot: {} users, {} hashtags",
+                    snapshotUsers.size(), snapshotHashtags.size());
+        } catch (Exception e) {
+            log.warn("Unreadable autocomplete snapshot {}, loading from the database", snapshotPath, e);
+        }
+    }
+
+    private void writeSnapshot() {
+        var currentUsers = users;
+        var currentHashtags = hashtags;
+        if (currentUsers == null) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(snapshotPath.toAbsolutePath().getParent());
+            // Written aside and moved into place, so a crash never leaves half a snapshot
+            var temp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                currentUsers.segment.write(out);
+                currentHashtags.segment.write(out);
+            }
+            Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Autocomplete snapshot written to {}", snapshotPath);
+        } catch (Exception e) {
+            log.warn("Failed to write autocomplete snapshot {}", snapshotPath, e);
+        }
+    }
+
+    private static String normalize(String term) {
+        return term.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // A user delta without an avatar leaves the current one in place
+    private record Delta(String node, UUID userId, String username, String profileImageUrl,
+                         List<String> hashtags, int usage) {
+    }
+
+    // Username and avatar are only set on user entries
+    record Entry(String term, UUID id, long score, String username, String profileImageUrl) {
+
+        Entry(String term, UUID id, long score) {
+            this(term, id, score, null, null);
+        }
+
+        // Users can share a normalized username, so they are told apart by ID
+        String key() {
+            return id == null ? term : term + '\u0000' + id;
+        }
+    }
+
+    /**
+     * A segment plus the entries added since it was built. Only the index's single writer
+     * mutates it; lookups merge both without locking.
+     */
+    static final class Dictionary {
+        // Hashtags no post uses anymore are left out of completions
+        private final boolean dropUnused;
+        private volatile Segment segment;
+        private final ConcurrentSkipListMap<String, Entry> pending = new ConcurrentSkipListMap<>();
+
+        Dictionary(Segment segment, boolean dropUnused) {
+            this.segment = segment;
+            this.dropUnused = dropUnused;
+        }
+
+        List<Entry> complete(String prefix, int limit) {
+            var found = segment.top(prefix.getBytes(StandardCharsets.UTF_8), limit, dropUnused);
+            var added = pending.subMap(prefix, prefix + Character.MAX_VALUE).values();
+            if (added.isEmpty()) {
+                return found;
+            }
+
+            // A merge in progress can briefly show an entry in both
+            Map<String, Entry> merged = new LinkedHashMap<>();
+            found.forEach(entry -> merged.put(entry.key(), entry));
+            added.forEach(entry -> merged.putIfAbsent(entry.key(), entry));
+            return merged.values().stream()
+                    .filter(entry -> !dropUnused || entry.score() > 0)
+                    .sorted(Comparator.comparingLong(Entry::score).reversed().thenComparing(Entry::term))
+                    .limit(limit)
+                    .toList();
+        }
+
+        // Users are added once and only their avatar changes; hashtag scores accumulate
+        synchronized void add(Entry entry) {
+            var current = segment;
+            int existing = current.find(entry.term(), entry.id());
+            if (existing >= 0) {
+                if (entry.score() != 0) {
+                    current.addScore(existing, entry.score());
+                }
+                if (entry.profileImageUrl() != null) {
+                    current.setProfileImageUrl(existing, entry.profileImageUrl());
+                }
+                return;
+            }
+
+            pending.merge(entry.key(), entry, (previous, added) -> new Entry(entry.term(), entry.id(),
+                    previous.score() + added.score(),
+                    added.username() != null ? added.username() : previous.username(),
+                    added.profileImageUrl() != null ? added.profileImageUrl() : previous.profileImageUrl()));
+        }
+
+        synchronized void merge() {
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            segment = segment.merge(List.copyOf(pending.values()));
+            pending.clear();
+        }
+    }
+
+    /**
+     * Immutable sorted term array with mutable scores. Terms are UTF-8 bytes packed end to end and
+     * ordered byte-wise; a max-score tree over the positions answers "best entry in this range".
+     */
+    static final class Segment {
+        private final byte[] terms;
+        private final int[] offsets;
+        private final long[] scores;
+        // Entry IDs as long pairs, with the user details; null for dictionaries without IDs
+        private final long[] idHi;
+        private final long[] idLo;
+        private final String[] usernames;
+        private final String[] profileImageUrls;
+        // Position of the best-scored entry below each tree node; leaves start at width
+        private final int[] tree;
+        private final int width;
+
+        private Segment(byte[] terms, int[] offsets, long[] scores, long[] idHi, long[] idLo,
+                        String[] usernames, String[] profileImageUrls) {
+            this.terms = terms;
+            this.offsets = offsets;
+            this.scores = scores;
+            this.idHi = idHi;
+            this.idLo = idLo;
+            this.usernames = usernames;
+            this.profileImageUrls = profileImageUrls;
+
+            int leaves = 1;
+            while (leaves < scores.length) {
+                leaves <<= 1;
+            }
+            width = leaves;
+            tree = new int[2 * leaves];
+            for (int i = 0; i < leaves; i++) {
+                tree[leaves + i] = i < scores.length ? i : -1;
+            }
+            for (int node = leaves - 1; node >= 1; node--) {
+                tree[node] = better(tree[2 * node], tree[2 * node + 1]);
+            }
+        }
+
+        static Segment build(List<Entry> entries) {
+            List<byte[]> encoded = new ArrayList<>(entries.size());
+            Integer[] order = new Integer[entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                encoded.add(entries.get(i).term().getBytes(StandardCharsets.UTF_8));
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(encoded.get(a), encoded.get(b)));
+
+            List<Entry> sorted = new ArrayList<>(entries.size());
+            List<byte[]> sortedTerms = new ArrayList<>(entries.size());
+            for (int i : order) {
+                sorted.add(entries.get(i));
+                sortedTerms.add(encoded.get(i));
+            }
+            return pack(sorted, sortedTerms);
+        }
+
+        // Linear merge with entries that are not in this segment yet
+        Segment merge(List<Entry> additions) {
+            var added = build(additions);
+            int total = size() + added.size();
+            List<Entry> merged = new ArrayList<>(total);
+            List<byte[]> mergedTerms = new ArrayList<>(total);
+
+            int i = 0;
+            int j = 0;
+            while (i < size() || j < added.size()) {
+                boolean takeOwn = j == added.size() || (i < size()
+                        && Arrays.compareUnsigned(terms, offsets[i], offsets[i + 1],
+                        added.terms, added.offsets[j], added.offsets[j + 1]) <= 0);
+                var source = takeOwn ? this : added;
+                int position = takeOwn ? i++ : j++;
+                merged.add(source.entry(position));
+                mergedTerms.add(Arrays.copyOfRange(source.terms, source.offsets[position], source.offsets[position + 1]));
+            }
+            return pack(merged, mergedTerms);
+        }
+
+        private static Segment pack(List<Entry> sorted, List<byte[]> sortedTerms) {
+            int count = sorted.size();
+            boolean withIds = sorted.stream().anyMatch(entry -> entry.id() != null);
+            int[] offsets = new int[count + 1];
+            for (int i = 0; i < count; i++) {
+                offsets[i + 1] = offsets[i] + sortedTerms.get(i).length;
+            }
+
+            byte[] terms = new byte[offsets[count]];
+            long[] scores = new long[count];
+            long[] idHi = withIds ? new long[count] : null;
+            long[] idLo = withIds ? new long[count] : null;
+            String[] usernames = withIds ? new String[count] : null;
+            String[] profileImageUrls = withIds ? new String[count] : null;
+            for (int i = 0; i < count; i++) {
+                var entry = sorted.get(i);
+                System.arraycopy(sortedTerms.get(i), 0, terms, offsets[i], sortedTerms.get(i).length);
+                scores[i] = entry.score();
+                if (withIds) {
+                    idHi[i] = entry.id().getMostSignificantBits();
+                    idLo[i] = entry.id().getLeastSignificantBits();
+                    usernames[i] = entry.username();
+                    profileImageUrls[i] = entry.profileImageUrl();
+                }
+            }
+            return new Segment(terms, offsets, scores, idHi, idLo, usernames, profileImageUrls);
+        }
+
+        int size() {
+            return scores.length;
+        }
+
+        Entry entry(int i) {
+            var term = new String(terms, offsets[i], offsets[i + 1] - offsets[i], StandardCharsets.UTF_8);
+            if (idHi == null) {
+                return new Entry(term, null, scores[i]);
+            }
+            return new Entry(term, new UUID(idHi[i], idLo[i]), scores[i], usernames[i], profileImageUrls[i]);
+        }
+
+        int find(String term, UUID id) {
+            var bytes = term.getBytes(StandardCharsets.UTF_8);
+            for (int i = bound(bytes, false); i < size() && Arrays.equals(terms, offsets[i], offsets[i + 1], bytes, 0, bytes.length); i++) {
+                if (id == null || idHi == null
+                        || (idHi[i] == id.getMostSignificantBits() && idLo[i] == id.getLeastSignificantBits())) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        void setProfileImageUrl(int i, String profileImageUrl) {
+            profileImageUrls[i] = profileImageUrl;
+        }
+
+        void addScore(int i, long delta) {
+            scores[i] += delta;
+            for (int node = (width + i) >> 1; node >= 1; node >>= 1) {
+                tree[node] = better(tree[2 * node], tree[2 * node + 1]);
+            }
+        }
+
+        // Best-first walk: take the best entry of a range, then split the range around it
+        List<Entry> top(byte[] prefix, int limit, boolean dropUnused) {
+            int from = bound(prefix, false);
+            int to = bound(prefix, true);
+            List<Entry> result = new ArrayList<>(limit);
+            if (from >= to) {
+                return result;
+            }
+
+            PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> Long.compare(scores[b[2]], scores[a[2]]));
+            ranges.add(new int[]{from, to, best(from, to)});
+            while (!ranges.isEmpty() && result.size() < limit) {
+                var range = ranges.poll();
+                int position = range[2];
+                if (dropUnused && scores[position] <= 0) {
+                    break;
+                }
+
+                result.add(entry(position));
+                if (range[0] < position) {
+                    ranges.add(new int[]{range[0], position, best(range[0], position)});
+                }
+                if (position + 1 < range[1]) {
+                    ranges.add(new int[]{position + 1, range[1], best(position + 1, range[1])});
+                }
+            }
+            return result;
+        }
+
+        // First position whose term, cut to the prefix length, is >= the prefix (> for upper)
+        private int bound(byte[] prefix, boolean upper) {
+            int low = 0;
+            int high = size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int start = offsets[mid];
+                int end = Math.min(offsets[mid + 1], start + prefix.length);
+                int cmp = Arrays.compareUnsigned(terms, start, end, prefix, 0, prefix.length);
+                if (cmp < 0 || (upper && cmp == 0)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // Best-scored position in [from, to)
+        private int best(int from, int to) {
+            int result = -1;
+            for (int left = from + width, right = to + width; left < right; left >>= 1, right >>= 1) {
+                if ((left & 1) == 1) {
+                    result = better(result, tree[left++]);
+                }
+                if ((right & 1) == 1) {
+                    result = better(result, tree[--right]);
+                }
+            }
+            return result;
+        }
+
+        private int better(int a, int b) {
+            if (a < 0) {
+                return b;
+            }
+            if (b < 0) {
+                return a;
+            }
+            return scores[b] > scores[a] || (scores[b] == scores[a] && b < a) ? b : a;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeInt(size());
+            out.writeBoolean(idHi != null);
+            out.writeInt(terms.length);
+            out.write(terms);
+            for (int i = 0; i < size(); i++) {
+                out.writeInt(offsets[i + 1] - offsets[i]);
+                out.writeLong(scores[i]);
+                if (idHi != null) {
+                    out.writeLong(idHi[i]);
+                    out.writeLong(idLo[i]);
+                    writeNullable(out, usernames[i]);
+                    writeNullable(out, profileImageUrls[i]);
+                }
+            }
+        }
+
+        static Segment read(DataInputStream in) throws IOException {
+            int count = in.readInt();
+            boolean withIds = in.readBoolean();
+            byte[] terms = new byte[in.readInt()];
+            in.readFully(terms);
+
+            int[] offsets = new int[count + 1];
+            long[] scores = new long[count];
+            long[] idHi = withIds ? new long[count] : null;
+            long[] idLo = withIds ? new long[count] : null;
+            String[] usernames = withIds ? new String[count] : null;
+            String[] profileImageUrls = withIds ? new String[count] : null;
+            for (int i = 0; i < count; i++) {
+                offsets[i + 1] = offsets[i] + in.readInt();
+                scores[i] = in.readLong();
+                if (withIds) {
+                    idHi[i] = in.readLong();
+                    idLo[i] = in.readLong();
+                    usernames[i] = readNullable(in);
+                    profileImageUrls[i] = readNullable(in);
+                }
+            }
+            return new Segment(terms, offsets, scores, idHi, idLo, usernames, profileImageUrls);
+        }
+
+        private static void writeNullable(DataOutputStream out, String value) throws IOException {
+            out.writeBoolean(value != null);
+            if (value != null) {
+                out.writeUTF(value);
+            }
+        }
+
+        private static String readNullable(DataInputStream in) throws IOException {
+            return in.readBoolean() ? in.readUTF() : null;
+        }
+    }
+}
\ No newline at end of file
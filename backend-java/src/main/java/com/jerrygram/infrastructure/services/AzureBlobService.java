@@ -1,38 +1,99 @@
 package com.jerrygram.infrastructure.services;
 
+import com.azure.core.http.rest.Response;
+import com.azure.core.util.Context;
 import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.BlobServiceClient;
 import com.azure.storage.blob.BlobServiceClientBuilder;
+import com.azure.storage.blob.BlobUrlParts;
+import com.azure.storage.blob.batch.BlobBatchClient;
+import com.azure.storage.blob.batch.BlobBatchClientBuilder;
+import com.azure.storage.blob.models.BlobErrorCode;
+import com.azure.storage.blob.models.BlobHttpHeaders;
+import com.azure.storage.blob.models.BlobRequestConditions;
+import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.models.ParallelTransferOptions;
 import com.azure.storage.blob.models.PublicAccessType;
+import com.azure.storage.blob.options.BlobContainerCreateOptions;
+import com.azure.storage.blob.options.BlobParallelUploadOptions;
+import com.jerrygram.application.common.BlobContainers;
 import com.jerrygram.application.interfaces.IBlobService;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URLConnection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 @Service
+@ConditionalOnProperty(name = "blob.store", havingValue = "azure", matchIfMissing = true)
 @Slf4j
 public class AzureBlobService implements IBlobService {
 
+    // Most sub-requests the Blob Batch API accepts in one request
+    private static final int MAX_BATCH_SIZE = 256;
+
     private final BlobServiceClient blobServiceClient;
+    private final BlobBatchClient blobBatchClient;
+
+    // Containers known to exist, so uploads skip the exists/create round trips
+    private final Map<String, BlobContainerClient> containers = new ConcurrentHashMap<>();
+
+    // Uploads are split into blocks sent in parallel; at most blockSize * maxConcurrency is buffered
+    @Value("${azure.blob.upload.block-size:4MB}")
+    private DataSize blockSize;
+
+    @Value("${azure.blob.upload.max-concurrency:4}")
+    private int maxConcurrency;
+
+    // Streams up to this size go in a single request
+    @Value("${azure.blob.upload.max-single-upload-size:4MB}")
+    private DataSize maxSingleUploadSize;
+
+    @Value("${azure.blob.upload.timeout:2m}")
+    private Duration uploadTimeout;
+
+    @Value("${azure.blob.batch.timeout:30s}")
+    private Duration batchTimeout;
 
     public AzureBlobService(@Value("${azure.blob.connection-string}") String connectionString) {
         this.blobServiceClient = new BlobServiceClientBuilder()
                 .connectionString(connectionString)
                 .buildClient();
+        this.blobBatchClient = new BlobBatchClientBuilder(blobServiceClient).buildClient();
         log.info("Azure Blob Service initialized");
     }
 
+    @PostConstruct
+    public void init() {
+        for (var containerName : List.of(BlobContainers.POSTS, BlobContainers.PROFILES)) {
+            try {
+                getOrCreateContainer(containerName);
+            } catch (Exception e) {
+                log.warn("Could not prepare Azure Blob container {}, retrying on first upload", containerName, e);
+            }
+        }
+    }
+
     @Override
     public String upload(MultipartFile file, String containerName) {
-        try {
-            return upload(file.getInputStream(), file.getOriginalFilename(), containerName);
+        // Multipart bodies are spooled to disk by the servlet container, so this streams from the temp file
+        try (var fileStream = file.getInputStream()) {
+            return upload(fileStream, file.getOriginalFilename(), file.getContentType(), containerName);
         } catch (IOException e) {
             log.error("Failed to upload file to Azure Blob Storage: {}", file.getOriginalFilename(), e);
             throw new RuntimeException("Azure Blob upload failed", e);
@@ -41,19 +102,16 @@ public class AzureBlobService implements IBlobService {
 
     @Override
     public String upload(InputStream fileStream, String fileName, String containerName) {
+        return upload(fileStream, fileName, URLConnection.guessContentTypeFromName(fileName), containerName);
+    }
+
+    private String upload(InputStream fileStream, String fileName, String contentType, String containerName) {
         try {
-            BlobContainerClient containerClient = getOrCreateContainer(containerName);
-            
             // Generate unique filename
             String fileExtension = getFileExtension(fileName);
             String uniqueFileName = UUID.randomUUID().toString() + fileExtension;
             
-            BlobClient blobClient = containerClient.getBlobClient(uniqueFileName);
-            
-            // Upload file
-            blobClient.upload(fileStream, fileStream.available(), true);
-            
-            String blobUrl = blobClient.getBlobUrl();
+            String blobUrl = store(fileStream, uniqueFileName, contentType, containerName);
             log.info("File uploaded successfully to Azure Blob Storage: {}", blobUrl);
             
             return blobUrl;
@@ -63,19 +121,48 @@ public class AzureBlobService implements IBlobService {
         }
     }
 
+    @Override
+    public String uploadAs(InputStream fileStream, String blobName, String contentType, String containerName) {
+        try {
+            return store(fileStream, blobName, contentType, containerName);
+        } catch (BlobStorageException e) {
+            if (BlobErrorCode.BLOB_ALREADY_EXISTS.equals(e.getErrorCode())) {
+                return getUrl(blobName, containerName);
+            }
+            log.error("Failed to upload file to Azure Blob Storage: {}", blobName, e);
+            throw new RuntimeException("Azure Blob upload failed", e);
+        } catch (Exception e) {
+            log.error("Failed to upload file to Azure Blob Storage: {}", blobName, e);
+            throw new RuntimeException("Azure Blob upload failed", e);
+        }
+    }
+
+    @Override
+    public String getUrl(String blobName, String containerName) {
+        return blobServiceClient.getBlobContainerClient(containerName).getBlobClient(blobName).getBlobUrl();
+    }
+
+    private String store(InputStream fileStream, String blobName, String contentType, String containerName) {
+        BlobClient blobClient = getOrCreateContainer(containerName).getBlobClient(blobName);
+
+        // Stream in blocks; the length doesn't need to be known up front
+        var options = new BlobParallelUploadOptions(fileStream)
+                .setParallelTransferOptions(new ParallelTransferOptions()
+                        .setBlockSizeLong(blockSize.toBytes())
+                        .setMaxConcurrency(maxConcurrency)
+                        .setMaxSingleUploadSizeLong(maxSingleUploadSize.toBytes()))
+                .setHeaders(new BlobHttpHeaders().setContentType(contentType))
+                .setRequestConditions(new BlobRequestConditions().setIfNoneMatch("*"));
+        blobClient.uploadWithResponse(options, uploadTimeout, Context.NONE);
+
+        return blobClient.getBlobUrl();
+    }
+
     @Override
     public void delete(String blobUrl) {
         try {
-            // Extract container and blob name from URL
-            String[] urlParts = extractBlobInfo(blobUrl);
-            String containerName = urlParts[0];
-            String blobName = urlParts[1];
-            
-            BlobContainerClient containerClient = blobServiceClient.getBlobContainerClient(containerName);
-            BlobClient blobClient = containerClient.getBlobClient(blobName);
-            
-            if (blobClient.exists()) {
-                blobClient.delete();
+            // One round trip rather than an exists check followed by the delete
+            if (getBlobClient(blobUrl).deleteIfExists()) {
                 log.info("File deleted successfully from Azure Blob Storage: {}", blobUrl);
             } else {
                 log.warn("Blob not found for deletion: {}", blobUrl);
@@ -93,42 +180,88 @@ public class AzureBlobService implements IBlobService {
     @Override
     public boolean exists(String blobUrl) {
         try {
-            String[] urlParts = extractBlobInfo(blobUrl);
-            String containerName = urlParts[0];
-            String blobName = urlParts[1];
-            
-            BlobContainerClient containerClient = blobServiceClient.getBlobContainerClient(containerName);
-            BlobClient blobClient = containerClient.getBlobClient(blobName);
-            
-            return blobClient.exists();
+            return getBlobClient(blobUrl).exists();
         } catch (Exception e) {
             log.error("Failed to check blob existence: {}", blobUrl, e);
             return false;
         }
     }
 
+    @Override
+    public List<String> deleteAll(List<String> blobUrls) {
+        List<String> failed = new ArrayList<>();
+        for (int from = 0; from < blobUrls.size(); from += MAX_BATCH_SIZE) {
+            var chunk = blobUrls.subList(from, Math.min(from + MAX_BATCH_SIZE, blobUrls.size()));
+            try {
+                var batch = blobBatchClient.getBlobBatch();
+                Map<String, Response<Void>> responses = new LinkedHashMap<>();
+                for (var blobUrl : chunk) {
+                    if (!responses.containsKey(blobUrl)) {
+                        responses.put(blobUrl, batch.deleteBlob(blobUrl));
+                    }
+                }
+
+                // Per-blob outcomes are read from the responses rather than thrown
+                blobBatchClient.submitBatchWithResponse(batch, false, batchTimeout, Context.NONE);
+                responses.forEach((blobUrl, response) -> {
+                    if (!isDeleted(response)) {
+                        failed.add(blobUrl);
+                    }
+                });
+                log.info("Batch deleted {} blobs from Azure Blob Storage", responses.size());
+            } catch (Exception e) {
+                log.warn("Batch delete of {} blobs failed", chunk.size(), e);
+                failed.addAll(chunk);
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public Stream<BlobEntry> list(String containerName) {
+        var containerClient = getOrCreateContainer(containerName);
+        return containerClient.listBlobs().stream()
+                .map(item -> new BlobEntry(
+                        containerClient.getBlobClient(item.getName()).getBlobUrl(),
+                        item.getName(),
+                        item.getProperties().getLastModified().toInstant()));
+    }
+
+    private static boolean isDeleted(Response<Void> response) {
+        try {
+            int status = response.getStatusCode();
+            return status == 202 || status == 404;
+        } catch (BlobStorageException e) {
+            return e.getStatusCode() == 404;
+        }
+    }
+
     private BlobContainerClient getOrCreateContainer(String containerName) {
+        var cached = containers.get(containerName);
+        if (cached != null) {
+            return cached;
+        }
+
         BlobContainerClient containerClient = blobServiceClient.getBlobContainerClient(containerName);
-        
-        if (!containerClient.exists()) {
-            containerClient.createWithResponse(null, PublicAccessType.BLOB, null, null);
+        boolean created = containerClient.createIfNotExistsWithResponse(
+                new BlobContainerCreateOptions().setPublicAccessType(PublicAccessType.BLOB), null, Context.NONE).getValue();
+        if (created) {
             log.info("Created Azure Blob container: {}", containerName);
         }
-        
+
+        containers.put(containerName, containerClient);
         return containerClient;
     }
 
-    private String[] extractBlobInfo(String blobUrl) {
-        // Example URL: https://storageaccount.blob.core.windows.net/container/blobname
-        String[] parts = blobUrl.split("/");
-        if (parts.length < 5) {
+    private BlobClient getBlobClient(String blobUrl) {
+        // Handles both account-host URLs and path-style ones (Azurite, custom endpoints)
+        var parts = BlobUrlParts.parse(blobUrl);
+        if (parts.getBlobContainerName() == null || parts.getBlobName() == null) {
             throw new IllegalArgumentException("Invalid blob URL format: " + blobUrl);
         }
-        
-        String containerName = parts[3]; // container name
-        String blobName = parts[4]; // blob name
-        
-        return new String[]{containerName, blobName};
+
+        return blobServiceClient.getBlobContainerClient(parts.getBlobContainerName())
+                .getBlobClient(parts.getBlobName());
     }
 
     private String getFileExtension(String fileName) {
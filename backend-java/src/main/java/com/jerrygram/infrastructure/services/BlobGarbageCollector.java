@@ -0,0 +1,326 @@
+package com.jerrygram.infrastructure.services;
+
+import com.jerrygram.application.common.BlobContainers;
+import com.jerrygram.application.interfaces.IBlobCollector;
+import com.jerrygram.application.interfaces.IBlobService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Blob garbage collector.
+ * Blobs that stop being used are recorded in the BlobTombstones table, inside the transaction that
+ * dropped them, and deleted later by a background sweep: claimed in batches, deleted with one
+ * batch request where the store supports it, rate limited, and retried with exponential backoff.
+ * A periodic reconciliation lists each container and tombstones blobs no row refers to (failed
+ * compensations, crashes between upload and commit, variants no post shares any more).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BlobGarbageCollector implements IBlobCollector {
+
+    private static final String INSERT_SQL_PREFIX = """
+            INSERT INTO "BlobTombstones" ("BlobUrl", "Attempts", "CreatedAt", "ClaimedUntil")
+            VALUES\s""";
+
+    private static final String INSERT_SQL_SUFFIX = """
+             ON CONFLICT ("BlobUrl") DO NOTHING""";
+
+    private static final String DELETE_SQL = """
+            DELETE FROM "BlobTombstones" WHERE "Id" = ?
+            """;
+
+    private static final String RETAIN_SQL = """
+            DELETE FROM "BlobTombstones" WHERE "BlobUrl" = ?
+            """;
+
+    private static final String FAILED_SQL = """
+            UPDATE "BlobTombstones" SET "Attempts" = ?, "ClaimedUntil" = ? WHERE "Id" = ?
+            """;
+
+    private static final String RELEASE_SQL = """
+            UPDATE "BlobTombstones" SET "ClaimedUntil" = ? WHERE "BlobUrl" = ? AND "Attempts" = 0
+            """;
+
+    // Claims rows whose grace period, lease or backoff expired; SKIP LOCKED lets several instances sweep concurrently
+    private static final String CLAIM_SQL = """
+            UPDATE "BlobTombstones" SET "ClaimedUntil" = ?
+            WHERE "Id" IN (SELECT "Id" FROM "BlobTombstones"
+                           WHERE "ClaimedUntil" < ? AND "Attempts" < ?
+                           ORDER BY "ClaimedUntil"
+                           LIMIT ?
+                           FOR UPDATE SKIP LOCKED)
+            RETURNING "Id", "BlobUrl", "Attempts"
+            """;
+
+    // Everything a blob in each container can be referenced from, variants included
+    private static final String POST_REFERENCES_SQL = """
+            SELECT "ImageUrl" FROM "Posts" WHERE "ImageUrl" IS NOT NULL
+            UNION ALL
+            SELECT v.value FROM "Posts" p CROSS JOIN LATERAL jsonb_each_text(p."ImageVariants") v
+            """;
+
+    private static final String PROFILE_REFERENCES_SQL = """
+            SELECT "ProfileImageUrl" FROM "Users" WHERE "ProfileImageUrl" IS NOT NULL
+            UNION ALL
+            SELECT v.value FROM "Users" u CROSS JOIN LATERAL jsonb_each_text(u."ProfileImageVariants") v
+            """;
+
+    private static final List<ReferenceSource> SOURCES = List.of(
+            new ReferenceSource(BlobContainers.POSTS, POST_REFERENCES_SQL),
+            new ReferenceSource(BlobContainers.PROFILES, PROFILE_REFERENCES_SQL));
+
+    // Keeps each insert well below the driver's bind parameter limit
+    private static final int INSERT_CHUNK_SIZE = 1000;
+
+    private static final RowMapper<Tombstone> TOMBSTONE_MAPPER = (rs, rowNum) -> new Tombstone(
+            rs.getLong("Id"),
+            rs.getString("BlobUrl"),
+            rs.getInt("Attempts"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IBlobService blobService;
+    private final MeterRegistry meterRegistry;
+    private final ClusterLock clusterLock;
+
+    private Counter deleted;
+    private Counter failed;
+    private Counter orphaned;
+
+    // Time a dropped blob stays in storage, so pages and caches still holding its URL can finish loading it
+    @Value("${blob.gc.delete-delay:5m}")
+    private Duration deleteDelay;
+
+    @Value("${blob.gc.sweep-interval:10000}")
+    private long sweepInterval;
+
+    @Value("${blob.gc.batch-size:100}")
+    private int batchSize;
+
+    // Average delete rate per instance; each sweep deletes at most this many per second of its interval
+    @Value("${blob.gc.max-deletes-per-second:50}")
+    private int maxDeletesPerSecond;
+
+    @Value("${blob.gc.lease:2m}")
+    private Duration lease;
+
+    @Value("${blob.gc.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${blob.gc.initial-backoff:30s}")
+    private Duration initialBackoff;
+
+    @Value("${blob.gc.reconcile.enabled:true}")
+    private boolean reconcileEnabled;
+
+    // Blobs younger than this may belong to an upload whose row hasn't committed yet
+    @Value("${blob.gc.reconcile.grace:24h}")
+    private Duration orphanGrace;
+
+    @Value("${blob.gc.reconcile.max-orphans:100000}")
+    private int maxOrphans;
+
+    @PostConstruct
+    public void init() {
+        deleted = meterRegistry.counter("blob.gc.deleted");
+        failed = meterRegistry.counter("blob.gc.failed");
+        orphaned = meterRegistry.counter("blob.gc.orphans");
+    }
+
+    @Override
+    public void collect(String blobUrl) {
+        if (blobUrl == null || blobUrl.isEmpty()) {
+            return;
+        }
+        insert(List.of(blobUrl), LocalDateTime.now().plus(deleteDelay));
+    }
+
+    @Override
+    public void retain(Collection<String> blobUrls) {
+        if (blobUrls.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(RETAIN_SQL, blobUrls.stream().map(url -> new Object[]{url}).toList());
+    }
+
+    /**
+     * Delete due blobs batch by batch, up to this sweep's share of the rate limit
+     */
+    @Scheduled(fixedDelayString = "${blob.gc.sweep-interval:10000}")
+    public void sweep() {
+        long budget = Math.max(1, maxDeletesPerSecond * sweepInterval / 1000);
+        try {
+            while (budget > 0) {
+                var now = LocalDateTime.now();
+                int limit = (int) Math.min(batchSize, budget);
+                var claimed = jdbcTemplate.query(CLAIM_SQL, TOMBSTONE_MAPPER,
+                        Timestamp.valueOf(now.plus(lease)), Timestamp.valueOf(now), maxAttempts, limit);
+                if (claimed.isEmpty()) {
+                    return;
+                }
+
+                budget -= claimed.size();
+                delete(claimed);
+                if (claimed.size() < limit) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Blob sweep failed", e);
+        }
+    }
+
+    /**
+     * Tombstone blobs that no row refers to. Listing whole containers is expensive, so only one
+     * instance runs it at a time.
+     */
+    @Scheduled(fixedDelayString = "${blob.gc.reconcile.interval:21600000}",
+            initialDelayString = "${blob.gc.reconcile.initial-delay:600000}")
+    public void reconcile() {
+        if (!reconcileEnabled) {
+            return;
+        }
+
+        try {
+            boolean ran = clusterLock.tryRun(ClusterLock.BLOB_RECONCILE, () -> {
+                for (var source : SOURCES) {
+                    try {
+                        reconcile(source);
+                    } catch (Exception e) {
+                        log.warn("Blob reconciliation failed for container {}", source.container(), e);
+                    }
+                }
+            });
+            if (!ran) {
+                log.debug("Blob reconciliation running on another instance");
+            }
+        } catch (Exception e) {
+            log.warn("Blob reconciliation failed", e);
+        }
+    }
+
+    private void reconcile(ReferenceSource source) {
+        var referenced = referencedNames(source);
+        var cutoff = Instant.now().minus(orphanGrace);
+        List<String> candidates;
+        try (var blobs = blobService.list(source.container())) {
+            candidates = blobs
+                    .filter(blob -> blob.lastModified().isBefore(cutoff) && !referenced.contains(blob.name()))
+                    .limit(maxOrphans)
+                    .map(IBlobService.BlobEntry::url)
+                    .toList();
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // Held back until the references are read again: a new image may have reused a
+        // content-addressed variant after the first read, and its retain() may already have run
+        insert(candidates, LocalDateTime.now().plus(orphanGrace));
+        var stillReferenced = referencedNames(source);
+        List<String> reused = new ArrayList<>();
+        List<String> orphans = new ArrayList<>();
+        candidates.forEach(url -> (stillReferenced.contains(nameOf(url)) ? reused : orphans).add(url));
+
+        retain(reused);
+        var dueAt = Timestamp.valueOf(LocalDateTime.now().plus(deleteDelay));
+        jdbcTemplate.batchUpdate(RELEASE_SQL, orphans.stream().map(url -> new Object[]{dueAt, url}).toList());
+
+        orphaned.increment(orphans.size());
+        log.info("Found {} orphaned blobs in container {}", orphans.size(), source.container());
+    }
+
+    private Set<String> referencedNames(ReferenceSource source) {
+        // Compared by name: URLs for the same blob may differ in host or query string
+        Set<String> names = new HashSet<>();
+        jdbcTemplate.query(source.referencesSql(), rs -> {
+            names.add(nameOf(rs.getString(1)));
+        });
+        return names;
+    }
+
+    private void delete(List<Tombstone> claimed) {
+        var failedUrls = new HashSet<>(blobService.deleteAll(claimed.stream().map(Tombstone::blobUrl).toList()));
+
+        List<Long> done = new ArrayList<>();
+        List<Tombstone> retries = new ArrayList<>();
+        claimed.forEach(tombstone -> {
+            if (failedUrls.contains(tombstone.blobUrl())) {
+                retries.add(tombstone);
+            } else {
+                done.add(tombstone.id());
+            }
+        });
+
+        if (!done.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_SQL, done.stream().map(id -> new Object[]{id}).toList());
+            deleted.increment(done.size());
+            log.debug("Deleted {} blobs", done.size());
+        }
+        retries.forEach(this::retry);
+    }
+
+    private void retry(Tombstone tombstone) {
+        failed.increment();
+        int attempts = tombstone.attempts() + 1;
+        var now = LocalDateTime.now();
+        if (attempts >= maxAttempts) {
+            // The row stays for inspection; the sweep skips it from now on
+            log.error("Giving up on deleting blob {} after {} attempts", tombstone.blobUrl(), attempts);
+            jdbcTemplate.update(FAILED_SQL, attempts, Timestamp.valueOf(now), tombstone.id());
+            return;
+        }
+
+        var backoff = initialBackoff.multipliedBy(1L << (attempts - 1));
+        log.warn("Deleting blob {} failed (attempt {}), retrying in {}", tombstone.blobUrl(), attempts, backoff);
+        jdbcTemplate.update(FAILED_SQL, attempts, Timestamp.valueOf(now.plus(backoff)), tombstone.id());
+    }
+
+    private void insert(List<String> blobUrls, LocalDateTime dueAt) {
+        var createdAt = Timestamp.valueOf(LocalDateTime.now());
+        var claimedUntil = Timestamp.valueOf(dueAt);
+
+        for (int from = 0; from < blobUrls.size(); from += INSERT_CHUNK_SIZE) {
+            var chunk = blobUrls.subList(from, Math.min(from + INSERT_CHUNK_SIZE, blobUrls.size()));
+            List<Object> args = new ArrayList<>(chunk.size() * 3);
+            for (var blobUrl : chunk) {
+                Collections.addAll(args, blobUrl, createdAt, claimedUntil);
+            }
+
+            var sql = INSERT_SQL_PREFIX + String.join(", ", Collections.nCopies(chunk.size(), "(?, 0, ?, ?)"))
+                    + INSERT_SQL_SUFFIX;
+            jdbcTemplate.update(sql, args.toArray());
+        }
+    }
+
+    private static String nameOf(String blobUrl) {
+        int query = blobUrl.indexOf('?');
+        var path = query >= 0 ? blobUrl.substring(0, query) : blobUrl;
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    private record Tombstone(long id, String blobUrl, int attempts) {
+    }
+
+    private record ReferenceSource(String container, String referencesSql) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.jerrygram.infrastructure.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Runs maintenance jobs on one instance at a time using PostgreSQL session advisory locks.
+ * The lock is held on a dedicated connection for the duration of the job; a crashed instance's
+ * session ends with it, so the lock is never left behind.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ClusterLock {
+
+    public static final long COUNTER_RECONCILE = 0x4A47_0001L;
+    public static final long BLOB_RECONCILE = 0x4A47_0002L;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Run the task unless another instance is already running it
+     * @param lockId Advisory lock ID identifying the job
+     * @param task Job to run while holding the lock
+     * @return true if the task ran, false if the lock was held elsewhere
+     */
+    public boolean tryRun(long lockId, Runnable task) {
+        Boolean ran = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!call(connection, "SELECT pg_try_advisory_lock(?)", lockId)) {
+                return false;
+            }
+            try {
+                task.run();
+                return true;
+            } finally {
+                try {
+                    call(connection, "SELECT pg_advisory_unlock(?)", lockId);
+                } catch (SQLException e) {
+                    log.warn("Failed to release advisory lock {}", lockId, e);
+                }
+            }
+        });
+        return Boolean.TRUE.equals(ran);
+    }
+
+    private static boolean call(Connection connection, String sql, long lockId) throws SQLException {
+        try (var statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, lockId);
+            try (var rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+}
\ No newline at end of file
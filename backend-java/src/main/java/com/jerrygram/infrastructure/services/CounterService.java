@@ -0,0 +1,309 @@
+package com.jerrygram.infrastructure.services;
+
+import com.jerrygram.application.common.AfterCommit;
+import com.jerrygram.application.interfaces.ICounterService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coalescing write-behind buffer for the denormalized counter columns.
+ * Each (counter, row) pair holds a single pending delta, so a burst of likes on a hot post
+ * turns into one row update per flush instead of one row lock per request.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CounterService implements ICounterService {
+
+    // Rows whose stored counters disagree with the source tables, with both sides of each counter
+    private static final String DRIFTED_POSTS_SQL = """
+            SELECT id, likes_stored, comments_stored, likes, comments FROM (
+                SELECT p."Id" AS id, p."LikesCount" AS likes_stored, p."CommentsCount" AS comments_stored,
+                       (SELECT COUNT(*) FROM "PostLikes" pl WHERE pl."PostId" = p."Id") AS likes,
+                       (SELECT COUNT(*) FROM "Comments" cm WHERE cm."PostId" = p."Id") AS comments
+                FROM "Posts" p) c
+            WHERE likes_stored <> likes OR comments_stored <> comments
+            """;
+
+    private static final String DRIFTED_USERS_SQL = """
+            SELECT id, followers_stored, following_stored, posts_stored, followers, following, posts FROM (
+                SELECT u."Id" AS id, u."FollowersCount" AS followers_stored,
+                       u."FollowingCount" AS following_stored, u."PostsCount" AS posts_stored,
+                       (SELECT COUNT(*) FROM "UserFollows" uf WHERE uf."FollowingId" = u."Id") AS followers,
+                       (SELECT COUNT(*) FROM "UserFollows" uf WHERE uf."FollowerId" = u."Id") AS following,
+                       (SELECT COUNT(*) FROM "Posts" p WHERE p."UserId" = u."Id") AS posts
+                FROM "Users" u) c
+            WHERE followers_stored <> followers OR following_stored <> following OR posts_stored <> posts
+            """;
+
+    // Only applied if neither the stored counters nor the source counts moved since the drift was seen
+    private static final String FIX_POST_SQL = """
+            UPDATE "Posts" p SET "LikesCount" = ?, "CommentsCount" = ?
+            WHERE p."Id" = ? AND p."LikesCount" = ? AND p."CommentsCount" = ?
+              AND (SELECT COUNT(*) FROM "PostLikes" pl WHERE pl."PostId" = p."Id") = ?
+              AND (SELECT COUNT(*) FROM "Comments" cm WHERE cm."PostId" = p."Id") = ?
+            """;
+
+    private static final String FIX_USER_SQL = """
+            UPDATE "Users" u SET "FollowersCount" = ?, "FollowingCount" = ?, "PostsCount" = ?
+            WHERE u."Id" = ? AND u."FollowersCount" = ? AND u."FollowingCount" = ? AND u."PostsCount" = ?
+              AND (SELECT COUNT(*) FROM "UserFollows" uf WHERE uf."FollowingId" = u."Id") = ?
+              AND (SELECT COUNT(*) FROM "UserFollows" uf WHERE uf."FollowerId" = u."Id") = ?
+              AND (SELECT COUNT(*) FROM "Posts" p WHERE p."UserId" = u."Id") = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ClusterLock clusterLock;
+
+    private final Map<CounterKey, Long> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean reconciling = new AtomicBoolean();
+
+    // Periodic repair; a full-table scan of Posts and Users, so it is off unless drift shows up
+    @Value("${counters.reconcile.enabled:false}")
+    private boolean reconcileEnabled;
+
+    // Longer than any instance keeps a delta buffered, including flush retries
+    @Value("${counters.reconcile.settle-time:1m}")
+    private Duration settleTime;
+
+    @Value("${counters.reconcile.max-passes:5}")
+    private int maxPasses;
+
+    @Override
+    public void addPostLikes(UUID postId, int delta) {
+        buffer(Counter.POST_LIKES, postId, delta);
+    }
+
+    @Override
+    public void addPostComments(UUID postId, int delta) {
+        buffer(Counter.POST_COMMENTS, postId, delta);
+    }
+
+    @Override
+    public void addUserFollowers(UUID userId, int delta) {
+        buffer(Counter.USER_FOLLOWERS, userId, delta);
+    }
+
+    @Override
+    public void addUserFollowing(UUID userId, int delta) {
+        buffer(Counter.USER_FOLLOWING, userId, delta);
+    }
+
+    @Override
+    public void addUserPosts(UUID userId, int delta) {
+        buffer(Counter.USER_POSTS, userId, delta);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${counters.flush-interval:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            // remove() is atomic per key, so deltas merged concurrently either land in this
+            // drain or stay in the map for the next one
+            Map<CounterKey, Long> drained = new HashMap<>();
+            for (var key : pending.keySet()) {
+                Long delta = pending.remove(key);
+                if (delta != null && delta != 0) {
+                    drained.put(key, delta);
+                }
+            }
+
+            if (drained.isEmpty()) {
+                return;
+            }
+
+            // Sorted row order keeps lock acquisition consistent across instances
+            Map<Counter, List<Object[]>> batches = new EnumMap<>(Counter.class);
+            drained.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey((a, b) -> a.id().compareTo(b.id())))
+                    .forEach(entry -> batches
+                            .computeIfAbsent(entry.getKey().counter(), counter -> new ArrayList<>())
+                            .add(new Object[]{entry.getValue(), entry.getKey().id()}));
+
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        batches.forEach((counter, args) -> jdbcTemplate.batchUpdate(counter.sql, args)));
+                log.debug("Flushed {} counter deltas", drained.size());
+            } catch (Exception e) {
+                log.warn("Counter flush failed, re-queueing {} deltas", drained.size(), e);
+                drained.forEach((key, delta) -> pending.merge(key, delta, Long::sum));
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Backfill the counter columns on startup; they are added with a default of 0, and explore
+     * ranking, fan-out routing and autocomplete all read them. Rows already in sync are skipped,
+     * so after the first deploy this is a scan that finds no drift.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        startReconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${counters.reconcile.interval:86400000}",
+            initialDelayString = "${counters.reconcile.initial-delay:300000}")
+    public void reconcile() {
+        if (reconcileEnabled) {
+            startReconcile();
+        }
+    }
+
+    // The settle time would hold a scheduler thread for a minute, so the run gets its own thread
+    private void startReconcile() {
+        if (!reconciling.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofVirtual().name("counter-reconcile").start(() -> {
+            try {
+                runReconcile();
+            } finally {
+                reconciling.set(false);
+            }
+        });
+    }
+
+    /**
+     * Recompute counters that drifted from the source tables.
+     * Other instances may hold committed but unflushed deltas for a drifted row, so a row is only
+     * corrected if it still shows the same drift after the settle time; anything in flight has
+     * either been flushed by then or moves the row, and the row is left for the next run.
+     */
+    private void runReconcile() {
+        try {
+            boolean ran = clusterLock.tryRun(ClusterLock.COUNTER_RECONCILE, () -> {
+                flush();
+                // A row that kept moving during the settle time is retried on the next pass
+                for (int pass = 1; pass <= maxPasses; pass++) {
+                    var posts = findDrift(DRIFTED_POSTS_SQL, 2);
+                    var users = findDrift(DRIFTED_USERS_SQL, 3);
+                    if (posts.isEmpty() && users.isEmpty()) {
+                        log.info("Counter reconciliation found no drift");
+                        return;
+                    }
+
+                    try {
+                        Thread.sleep(settleTime.toMillis());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+
+                    int fixedPosts = fixDrift(FIX_POST_SQL, posts);
+                    int fixedUsers = fixDrift(FIX_USER_SQL, users);
+                    log.info("Reconciled counters: {}/{} posts, {}/{} users updated",
+                            fixedPosts, posts.size(), fixedUsers, users.size());
+                    if (fixedPosts == posts.size() && fixedUsers == users.size()) {
+                        return;
+                    }
+                }
+            });
+            if (!ran) {
+                log.debug("Counter reconciliation running on another instance");
+            }
+        } catch (Exception e) {
+            log.warn("Counter reconciliation failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void buffer(Counter counter, UUID id, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        // Only committed changes are counted
+        AfterCommit.run(() -> pending.merge(new CounterKey(counter, id), (long) delta, Long::sum));
+    }
+
+    private enum Counter {
+        POST_LIKES("Posts", "LikesCount"),
+        POST_COMMENTS("Posts", "CommentsCount"),
+        USER_FOLLOWERS("Users", "FollowersCount"),
+        USER_FOLLOWING("Users", "FollowingCount"),
+        USER_POSTS("Users", "PostsCount");
+
+        private final String sql;
+
+        Counter(String table, String column) {
+            this.sql = "UPDATE \"" + table + "\" SET \"" + column + "\" = GREATEST(\"" + column + "\" + ?, 0) WHERE \"Id\" = ?";
+        }
+    }
+
+    private List<Drift> findDrift(String sql, int counters) {
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            long[] stored = new long[counters];
+            long[] actual = new long[counters];
+            for (int i = 0; i < counters; i++) {
+                stored[i] = rs.getLong(2 + i);
+                actual[i] = rs.getLong(2 + counters + i);
+            }
+            return new Drift(rs.getObject(1, UUID.class), stored, actual);
+        });
+    }
+
+    private int fixDrift(String sql, List<Drift> drifted) {
+        if (drifted.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> args = new ArrayList<>(drifted.size());
+        for (var drift : drifted) {
+            List<Object> row = new ArrayList<>();
+            for (long value : drift.actual()) {
+                row.add(value);
+            }
+            row.add(drift.id());
+            for (long value : drift.stored()) {
+                row.add(value);
+            }
+            for (long value : drift.actual()) {
+                row.add(value);
+            }
+            args.add(row.toArray());
+        }
+
+        int fixed = 0;
+        for (int count : jdbcTemplate.batchUpdate(sql, args)) {
+            fixed += Math.max(count, 0);
+        }
+        return fixed;
+    }
+
+    private record CounterKey(Counter counter, UUID id) {
+    }
+
+    private record Drift(UUID id, long[] stored, long[] actual) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,276 @@
+package com.jerrygram.infrastructure.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jerrygram.application.common.AfterCommit;
+import com.jerrygram.application.interfaces.IEventPublisher;
+import com.jerrygram.application.interfaces.IEventSink;
+import com.jerrygram.domain.events.DomainEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Transactional outbox for domain events.
+ * Events are inserted into the OutboxEvents table inside the caller's transaction, so a command
+ * only pays for that insert. After commit each event is handed to every sink on its own virtual
+ * thread; the row is deleted once all sinks accept it. Failed or dropped deliveries stay in the
+ * table and are retried by the recovery pass with exponential backoff (at-least-once delivery).
+ * Receivers that accepted an event are recorded on the row, so a retry only reaches the ones that
+ * failed; a receiver sees an event twice only if the instance stops before recording that.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DomainEventDispatcher implements IEventPublisher {
+
+    private static final String INSERT_SQL_PREFIX = """
+            INSERT INTO "OutboxEvents" ("Type", "AggregateId", "Payload", "Attempts", "CreatedAt", "ClaimedUntil")
+            VALUES\s""";
+
+    private static final String DELETE_SQL = """
+            DELETE FROM "OutboxEvents" WHERE "Id" = ?
+            """;
+
+    private static final String FAILED_SQL = """
+            UPDATE "OutboxEvents" SET "Attempts" = ?, "ClaimedUntil" = ?, "DeliveredTo" = ? WHERE "Id" = ?
+            """;
+
+    // Claims rows whose lease or backoff expired; SKIP LOCKED lets several instances recover concurrently
+    private static final String CLAIM_SQL = """
+            UPDATE "OutboxEvents" SET "ClaimedUntil" = ?
+            WHERE "Id" IN (SELECT "Id" FROM "OutboxEvents"
+                           WHERE "ClaimedUntil" < ? AND "Attempts" < ?
+                           ORDER BY "Id"
+                           LIMIT ?
+                           FOR UPDATE SKIP LOCKED)
+            RETURNING "Id", "Type", "Payload", "Attempts", "DeliveredTo"
+            """;
+
+    // Keeps each insert well below the driver's bind parameter limit
+    private static final int INSERT_CHUNK_SIZE = 1000;
+
+    // Event types by the name stored in the Type column
+    private static final Map<String, Class<?>> EVENT_TYPES = Arrays.stream(DomainEvent.class.getPermittedSubclasses())
+            .collect(Collectors.toUnmodifiableMap(Class::getSimpleName, Function.identity()));
+
+    private static final RowMapper<Entry> ENTRY_MAPPER = (rs, rowNum) -> new Entry(
+            rs.getLong("Id"),
+            rs.getString("Type"),
+            rs.getString("Payload"),
+            rs.getInt("Attempts"),
+            parseDelivered(rs.getString("DeliveredTo")));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final List<IEventSink> sinks;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private Semaphore permits;
+
+    // Deliveries in progress at once; beyond this events wait in the outbox for recovery
+    @Value("${events.dispatch.max-concurrency:256}")
+    private int maxConcurrency;
+
+    @Value("${events.lease:2m}")
+    private Duration lease;
+
+    @Value("${events.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${events.initial-backoff:1s}")
+    private Duration initialBackoff;
+
+    @Value("${events.recovery-batch-size:500}")
+    private int recoveryBatchSize;
+
+    @PostConstruct
+    public void init() {
+        permits = new Semaphore(maxConcurrency);
+        log.info("Domain events delivered to sinks: {}", sinks.stream().map(IEventSink::name).toList());
+    }
+
+    @Override
+    public void publish(DomainEvent event) {
+        publishAll(List.of(event));
+    }
+
+    @Override
+    public void publishAll(Collection<? extends DomainEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        List<? extends DomainEvent> all = List.copyOf(events);
+        for (int from = 0; from < all.size(); from += INSERT_CHUNK_SIZE) {
+            insert(all.subList(from, Math.min(from + INSERT_CHUNK_SIZE, all.size())));
+        }
+    }
+
+    /**
+     * Re-submit outbox rows nobody is working on: deliveries that failed and waited out their
+     * backoff, were dropped because too many were in flight, or belonged to a stopped instance
+     */
+    @Scheduled(fixedDelayString = "${events.recovery-interval:5000}")
+    public void recover() {
+        int capacity = Math.min(permits.availablePermits(), recoveryBatchSize);
+        if (capacity == 0) {
+            return;
+        }
+
+        try {
+            var now = LocalDateTime.now();
+            var claimed = jdbcTemplate.query(CLAIM_SQL, ENTRY_MAPPER,
+                    Timestamp.valueOf(now.plus(lease)), Timestamp.valueOf(now), maxAttempts, capacity);
+
+            claimed.forEach(this::submit);
+            if (!claimed.isEmpty()) {
+                log.info("Recovered {} pending domain events from the outbox", claimed.size());
+            }
+        } catch (Exception e) {
+            log.warn("Domain event outbox recovery failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Anything still running when the timeout hits is delivered again from the outbox
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void insert(List<? extends DomainEvent> events) {
+        var now = LocalDateTime.now();
+        var createdAt = Timestamp.valueOf(now);
+        var claimedUntil = Timestamp.valueOf(now.plus(lease));
+
+        List<Object> args = new ArrayList<>(events.size() * 5);
+        for (var event : events) {
+            Collections.addAll(args, event.getClass().getSimpleName(), event.aggregateId(), serialize(event), createdAt, claimedUntil);
+        }
+
+        var sql = INSERT_SQL_PREFIX + String.join(", ", Collections.nCopies(events.size(), "(?, ?, ?, 0, ?, ?)"))
+                + " RETURNING \"Id\", \"Type\", \"Payload\", \"Attempts\", \"DeliveredTo\"";
+        var inserted = jdbcTemplate.query(sql, ENTRY_MAPPER, args.toArray());
+        AfterCommit.run(() -> inserted.forEach(this::submit));
+    }
+
+    private void submit(Entry entry) {
+        if (!permits.tryAcquire()) {
+            log.debug("Event dispatch saturated, outbox event {} left for recovery", entry.id());
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    deliver(entry);
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (Exception e) {
+            // Executor shut down; the row stays in the outbox
+            permits.release();
+        }
+    }
+
+    private void deliver(Entry entry) {
+        DomainEvent event;
+        try {
+            event = deserialize(entry);
+        } catch (Exception e) {
+            log.error("Unreadable outbox event {} of type {}", entry.id(), entry.type(), e);
+            fail(entry, maxAttempts, entry.delivered());
+            return;
+        }
+
+        // One failing sink doesn't hold back the others
+        Set<String> delivered = new LinkedHashSet<>(entry.delivered());
+        boolean failed = false;
+        for (var sink : sinks) {
+            try {
+                sink.deliver(entry.id(), event, entry.payload(), delivered);
+            } catch (Exception e) {
+                log.warn("Sink {} failed to deliver {} (outbox event {}, attempt {}): {}",
+                        sink.name(), entry.type(), entry.id(), entry.attempts() + 1, e.getMessage());
+                failed = true;
+            }
+        }
+
+        if (failed) {
+            fail(entry, entry.attempts() + 1, delivered);
+            return;
+        }
+
+        try {
+            jdbcTemplate.update(DELETE_SQL, entry.id());
+        } catch (Exception e) {
+            // Delivered again after the lease expires; subscribers tolerate duplicates
+            log.warn("Failed to acknowledge outbox event {}", entry.id(), e);
+        }
+    }
+
+    private void fail(Entry entry, int attempts, Set<String> delivered) {
+        if (attempts >= maxAttempts) {
+            // The row stays in the outbox for inspection; recovery skips it from now on
+            log.error("Giving up on outbox event {} ({}) after {} attempts", entry.id(), entry.type(), attempts);
+        }
+
+        long backoff = initialBackoff.toMillis() << Math.min(attempts - 1, 20);
+        try {
+            jdbcTemplate.update(FAILED_SQL, attempts,
+                    Timestamp.valueOf(LocalDateTime.now().plus(Duration.ofMillis(backoff))),
+                    delivered.isEmpty() ? null : String.join(",", delivered), entry.id());
+        } catch (Exception e) {
+            log.warn("Failed to record delivery failure for outbox event {}", entry.id(), e);
+        }
+    }
+
+    private String serialize(DomainEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize domain event " + event.getClass().getSimpleName(), e);
+        }
+    }
+
+    private DomainEvent deserialize(Entry entry) throws JsonProcessingException {
+        var type = EVENT_TYPES.get(entry.type());
+        if (type == null) {
+            throw new IllegalStateException("Unknown domain event type: " + entry.type());
+        }
+        return (DomainEvent) objectMapper.readValue(entry.payload(), type);
+    }
+
+    private static Set<String> parseDelivered(String deliveredTo) {
+        return deliveredTo == null || deliveredTo.isBlank() ? Set.of() : Set.of(deliveredTo.split(","));
+    }
+
+    private record Entry(long id, String type, String payload, int attempts, Set<String> delivered) {
+    }
+}
\ No newline at end of file
@@ -8,7 +8,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
 import org.springframework.data.elasticsearch.core.SearchHits;
-import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
 import org.springframework.data.elasticsearch.core.query.Criteria;
 import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
 import org.springframework.data.elasticsearch.core.query.Query;
@@ -16,71 +15,52 @@ import org.springframework.stereotype.Service;
 
 import java.util.List;
 
+/**
+ * Writes are handed to the indexing pipeline (outbox, bulk, retry) and reach Elasticsearch
+ * after the caller's transaction commits; searches query Elasticsearch directly.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ElasticService implements IElasticService {
 
     private final ElasticsearchOperations elasticsearchOperations;
+    private final SearchIndexingPipeline indexingPipeline;
 
     @Override
     public void indexUser(UserIndex userIndex) {
-        try {
-            elasticsearchOperations.save(userIndex);
-            log.debug("Indexed user: {}", userIndex.getId());
-        } catch (Exception e) {
-            log.error("Failed to index user: {}", userIndex.getId(), e);
-        }
+        indexingPipeline.index("users", userIndex.getId(), userIndex);
+        log.debug("Queued user for indexing: {}", userIndex.getId());
     }
 
     @Override
     public void indexPost(PostIndex postIndex) {
-        try {
-            elasticsearchOperations.save(postIndex);
-            log.debug("Indexed post: {}", postIndex.getId());
-        } catch (Exception e) {
-            log.error("Failed to index post: {}", postIndex.getId(), e);
-        }
+        indexingPipeline.index("posts", postIndex.getId(), postIndex);
+        log.debug("Queued post for indexing: {}", postIndex.getId());
     }
 
     @Override
     public void indexTag(TagIndex tagIndex) {
-        try {
-            elasticsearchOperations.save(tagIndex);
-            log.debug("Indexed tag: {}", tagIndex.getName());
-        } catch (Exception e) {
-            log.error("Failed to index tag: {}", tagIndex.getName(), e);
-        }
+        indexingPipeline.index("tags", tagIndex.getId(), tagIndex);
+        log.debug("Queued tag for indexing: {}", tagIndex.getName());
     }
 
     @Override
     public void updateUser(UserIndex userIndex) {
-        try {
-            elasticsearchOperations.save(userIndex);
-            log.debug("Updated user index: {}", userIndex.getId());
-        } catch (Exception e) {
-            log.error("Failed to update user index: {}", userIndex.getId(), e);
-        }
+        indexingPipeline.index("users", userIndex.getId(), userIndex);
+        log.debug("Queued user index update: {}", userIndex.getId());
     }
 
     @Override
     public void updatePost(PostIndex postIndex) {
-        try {
-            elasticsearchOperations.save(postIndex);
-            log.debug("Updated post index: {}", postIndex.getId());
-        } catch (Exception e) {
-            log.error("Failed to update post index: {}", postIndex.getId(), e);
-        }
+        indexingPipeline.index("posts", postIndex.getId(), postIndex);
+        log.debug("Queued post index update: {}", postIndex.getId());
     }
 
     @Override
     public void deletePost(String postId) {
-        try {
-            elasticsearchOperations.delete(postId, IndexCoordinates.of("posts"));
-            log.debug("Deleted post from index: {}", postId);
-        } catch (Exception e) {
-            log.error("Failed to delete post from index: {}", postId, e);
-        }
+        indexingPipeline.delete("posts", postId);
+        log.debug("Queued post removal from index: {}", postId);
     }
 
     @Override
@@ -0,0 +1,504 @@
+package com.jerrygram.infrastructure.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jerrygram.application.interfaces.IHashtagIndex;
+import com.jerrygram.domain.enums.PostVisibility;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory hashtag postings.
+ * Each tag maps to parallel primitive arrays (creation time, post and author IDs as long pairs,
+ * visibility) sorted by creation time, so a hashtag search walks the newest postings, filters
+ * visibility and stops as soon as it has a page, without touching the database. Readers work on
+ * an immutable snapshot of a list; writers append past its end or copy it on insert.
+ * The index is loaded from PostTags once the application is up and rebuilt periodically to heal
+ * missed updates. Deltas from post events are applied locally and broadcast on a Redis channel so
+ * every node's copy follows along. Each tag keeps only its newest postings; pages reaching past
+ * them are answered by the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HashtagIndex implements IHashtagIndex {
+
+    private static final String DELTA_CHANNEL = "hashtags:index";
+
+    // Ascending creation time turns the load into appends
+    private static final String LOAD_SQL = """
+            SELECT t."Name", p."Id", p."UserId", p."Visibility", p."CreatedAt"
+            FROM "PostTags" pt
+            JOIN "Tags" t ON t."Id" = pt."TagId"
+            JOIN "Posts" p ON p."Id" = pt."PostId"
+            ORDER BY p."CreatedAt"
+            """;
+
+    private static final byte REMOVED = -1;
+    private static final byte PUBLIC = (byte) PostVisibility.Public.ordinal();
+    private static final byte FOLLOWERS_ONLY = (byte) PostVisibility.FollowersOnly.ordinal();
+
+    // Creation time of a removal whose post time isn't known; the posting is looked up by ID alone
+    private static final long UNKNOWN_TIME = Long.MIN_VALUE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectProvider<RedisMessageListenerContainer> listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    // Null until the first load completes; searches use the database until then
+    private volatile Map<String, Postings> postings;
+    // Deltas seen while a rebuild loads, replayed onto the new index; guarded by this
+    private List<Delta> replay;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // Lets a node ignore its own broadcasts
+    private final String nodeId = UUID.randomUUID().toString();
+    private boolean broadcast;
+
+    @Value("${hashtags.index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${hashtags.index.max-postings-per-tag:100000}")
+    private int maxPostingsPerTag;
+
+    @Value("${hashtags.index.load-fetch-size:5000}")
+    private int loadFetchSize;
+
+    @PostConstruct
+    public void init() {
+        var container = listenerContainer.getIfAvailable();
+        if (container != null) {
+            container.addMessageListener(this::onDelta, new ChannelTopic(DELTA_CHANNEL));
+            broadcast = true;
+        }
+
+        meterRegistry.gauge("hashtags.index.postings", this, HashtagIndex::countPostings);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (enabled) {
+            // Off the startup thread: a large index takes a while and searches have a fallback
+            Thread.ofVirtual().name("hashtag-index-load").start(this::rebuild);
+        }
+    }
+
+    /**
+     * Reload the index from PostTags, picking up anything a lost delta left out
+     */
+    @Scheduled(fixedDelayString = "${hashtags.index.rebuild-interval:21600000}",
+            initialDelayString = "${hashtags.index.rebuild-interval:21600000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        rebuildLock.lock();
+        try {
+            synchronized (this) {
+                replay = new ArrayList<>();
+            }
+
+            try {
+                long started = System.currentTimeMillis();
+                Map<String, Postings> loaded = new ConcurrentHashMap<>();
+                var streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+                streaming.setFetchSize(loadFetchSize);
+
+                // PostgreSQL only streams a result set through a cursor inside a transaction
+                transactionTemplate.executeWithoutResult(status -> streaming.query(LOAD_SQL, (RowCallbackHandler) rs ->
+                        loaded.computeIfAbsent(rs.getString("Name"), tag -> new Postings(maxPostingsPerTag)).upsert(
+                                toMillis(rs.getTimestamp("CreatedAt").toLocalDateTime()),
+                                rs.getObject("Id", UUID.class),
+                                rs.getObject("UserId", UUID.class),
+                                (byte) rs.getInt("Visibility"))));
+
+                synchronized (this) {
+                    replay.forEach(delta -> apply(loaded, delta));
+                    replay = null;
+                    postings = loaded;
+                }
+                log.info("Hashtag index loaded: {} tags, {} postings in {}ms",
+                        loaded.size(), countPostings(), System.currentTimeMillis() - started);
+            } catch (Exception e) {
+                synchronized (this) {
+                    replay = null;
+                }
+                log.warn("Hashtag index load failed, {}", postings == null
+                        ? "hashtag search stays on the database" : "keeping the current index", e);
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<List<UUID>> search(String tag, UUID viewerId, Set<UUID> followingIds, int offset, int limit) {
+        var current = postings;
+        if (current == null) {
+            return Optional.empty();
+        }
+
+        var list = current.get(tag);
+        if (list == null) {
+            return Optional.of(List.of());
+        }
+        return list.snapshot.page(viewerId == null ? Set.of() : followingIds, offset, limit);
+    }
+
+    @Override
+    public void index(UUID postId, UUID authorId, PostVisibility visibility, LocalDateTime createdAt, Collection<String> hashtags) {
+        if (visibility == null || createdAt == null) {
+            // Events recorded before these fields existed; the next rebuild picks the post up
+            log.debug("Skipping hashtag index update without visibility or time for post: {}", postId);
+            return;
+        }
+        publish(new Delta(nodeId, postId, authorId, visibility, createdAt, List.copyOf(hashtags), false));
+    }
+
+    @Override
+    public void remove(UUID postId, LocalDateTime createdAt, Collection<String> hashtags) {
+        publish(new Delta(nodeId, postId, null, null, createdAt, List.copyOf(hashtags), true));
+    }
+
+    private void publish(Delta delta) {
+        if (!enabled || delta.hashtags().isEmpty()) {
+            return;
+        }
+
+        apply(delta);
+        if (broadcast) {
+            try {
+                redisTemplate.convertAndSend(DELTA_CHANNEL, objectMapper.writeValueAsString(delta));
+            } catch (Exception e) {
+                // Other nodes catch up on their next rebuild
+                log.warn("Failed to broadcast hashtag index update for post: {}", delta.postId(), e);
+            }
+        }
+    }
+
+    // Writers are serialized here, so a list only ever has one writer
+    private synchronized void apply(Delta delta) {
+        if (replay != null) {
+            replay.add(delta);
+        }
+
+        var current = postings;
+        if (current != null) {
+            apply(current, delta);
+        }
+    }
+
+    private void apply(Map<String, Postings> index, Delta delta) {
+        if (delta.removed()) {
+            long createdAt = delta.createdAt() == null ? UNKNOWN_TIME : toMillis(delta.createdAt());
+            for (var tag : delta.hashtags()) {
+                var list = index.get(tag);
+                if (list != null) {
+                    list.remove(createdAt, delta.postId());
+                }
+            }
+        } else {
+            long createdAt = toMillis(delta.createdAt());
+            var visibility = (byte) delta.visibility().ordinal();
+            for (var tag : delta.hashtags()) {
+                index.computeIfAbsent(tag, key -> new Postings(maxPostingsPerTag))
+                        .upsert(createdAt, delta.postId(), delta.authorId(), visibility);
+            }
+        }
+    }
+
+    private void onDelta(Message message, byte[] pattern) {
+        try {
+            var delta = objectMapper.readValue(message.getBody(), Delta.class);
+            if (!nodeId.equals(delta.node())) {
+                apply(delta);
+            }
+        } catch (Exception e) {
+            log.warn("Ignoring malformed hashtag index message", e);
+        }
+    }
+
+    private double countPostings() {
+        var current = postings;
+        return current == null ? 0 : current.values().stream().mapToLong(list -> list.snapshot.size).sum();
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private record Delta(String node, UUID postId, UUID authorId, PostVisibility visibility,
+                         LocalDateTime createdAt, List<String> hashtags, boolean removed) {
+    }
+
+    /**
+     * Postings of one tag. Only the index's single writer mutates it; readers take the current
+     * snapshot, whose slots below its size never move (a visibility byte may flip in place).
+     */
+    static final class Postings {
+        private final int maxSize;
+        // Room for a quarter more than maxSize, so trimming the oldest postings is amortized
+        private final int maxCapacity;
+        volatile Snapshot snapshot = new Snapshot(8);
+        private int removed;
+
+        Postings(int maxSize) {
+            this.maxSize = maxSize;
+            this.maxCapacity = maxSize + maxSize / 4;
+        }
+
+        void upsert(long createdAt, UUID postId, UUID authorId, byte visibility) {
+            var current = snapshot;
+            int existing = current.find(createdAt, postId);
+            if (existing >= 0) {
+                if (current.visibility[existing] == REMOVED) {
+                    removed--;
+                }
+                current.visibility[existing] = visibility;
+                return;
+            }
+
+            if (current.truncated && current.size > 0 && createdAt < current.createdAt[0]) {
+                // Older than everything kept; pages that deep come from the database
+                return;
+            }
+
+            int at = current.upperBound(createdAt);
+            if (at == current.size && current.size < current.capacity()) {
+                // Readers of the current snapshot never look past its size
+                current.set(at, createdAt, postId, authorId, visibility);
+                snapshot = current.withSize(current.size + 1);
+            } else {
+                int capacity = current.size < current.capacity() ? current.capacity()
+                        : Math.min(current.capacity() * 2, maxCapacity);
+                snapshot = current.insert(at, Math.max(capacity, current.size + 1), createdAt, postId, authorId, visibility);
+            }
+
+            if (snapshot.size >= maxCapacity) {
+                compact();
+            }
+        }
+
+        void remove(long createdAt, UUID postId) {
+            var current = snapshot;
+            int existing = current.find(createdAt, postId);
+            if (existing < 0 || current.visibility[existing] == REMOVED) {
+                return;
+            }
+
+            current.visibility[existing] = REMOVED;
+            removed++;
+            if (removed > 64 && removed > current.size / 4) {
+                compact();
+            }
+        }
+
+        // Drops removed postings and everything older than the newest maxSize
+        private void compact() {
+            var current = snapshot;
+            int keep = Math.min(current.size - removed, maxSize);
+            var compacted = new Snapshot(Math.max(8, keep));
+
+            int from = current.size;
+            int alive = 0;
+            while (from > 0 && alive < keep) {
+                if (current.visibility[--from] != REMOVED) {
+                    alive++;
+                }
+            }
+
+            for (int i = from; i < current.size; i++) {
+                if (current.visibility[i] != REMOVED) {
+                    compacted.copyFrom(current, i, compacted.size++);
+                }
+            }
+            compacted.truncated = current.truncated || alive < current.size - removed;
+
+            removed = 0;
+            snapshot = compacted;
+        }
+    }
+
+    /**
+     * Parallel posting arrays in ascending creation time, valid below size
+     */
+    static final class Snapshot {
+        final long[] createdAt;
+        final long[] postHi;
+        final long[] postLo;
+        final long[] authorHi;
+        final long[] authorLo;
+        final byte[] visibility;
+        int size;
+        // Older postings were dropped to bound memory
+        boolean truncated;
+
+        Snapshot(int capacity) {
+            createdAt = new long[capacity];
+            postHi = new long[capacity];
+            postLo = new long[capacity];
+            authorHi = new long[capacity];
+            authorLo = new long[capacity];
+            visibility = new byte[capacity];
+        }
+
+        private Snapshot(Snapshot source, int size) {
+            createdAt = source.createdAt;
+            postHi = source.postHi;
+            postLo = source.postLo;
+            authorHi = source.authorHi;
+            authorLo = source.authorLo;
+            visibility = source.visibility;
+            truncated = source.truncated;
+            this.size = size;
+        }
+
+        int capacity() {
+            return createdAt.length;
+        }
+
+        Snapshot withSize(int size) {
+            return new Snapshot(this, size);
+        }
+
+        Snapshot insert(int at, int capacity, long time, UUID postId, UUID authorId, byte postVisibility) {
+            var result = new Snapshot(capacity);
+            copyRange(this, 0, result, 0, at);
+            copyRange(this, at, result, at + 1, size - at);
+            result.set(at, time, postId, authorId, postVisibility);
+            result.size = size + 1;
+            result.truncated = truncated;
+            return result;
+        }
+
+        void set(int i, long time, UUID postId, UUID authorId, byte postVisibility) {
+            createdAt[i] = time;
+            postHi[i] = postId.getMostSignificantBits();
+            postLo[i] = postId.getLeastSignificantBits();
+            authorHi[i] = authorId.getMostSignificantBits();
+            authorLo[i] = authorId.getLeastSignificantBits();
+            visibility[i] = postVisibility;
+        }
+
+        void copyFrom(Snapshot source, int from, int to) {
+            copyRange(source, from, this, to, 1);
+        }
+
+        int find(long time, UUID postId) {
+            long hi = postId.getMostSignificantBits();
+            long lo = postId.getLeastSignificantBits();
+
+            if (time == UNKNOWN_TIME) {
+                for (int i = size - 1; i >= 0; i--) {
+                    if (postHi[i] == hi && postLo[i] == lo) {
+                        return i;
+                    }
+                }
+                return -1;
+            }
+
+            for (int i = lowerBound(time); i < size && createdAt[i] == time; i++) {
+                if (postHi[i] == hi && postLo[i] == lo) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        // First slot created at or after time
+        int lowerBound(long time) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (createdAt[mid] < time) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // First slot created after time
+        int upperBound(long time) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (createdAt[mid] <= time) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        Optional<List<UUID>> page(Set<UUID> followingIds, int offset, int limit) {
+            List<UUID> page = new ArrayList<>(limit);
+            int skipped = 0;
+
+            for (int i = size - 1; i >= 0 && page.size() < limit; i--) {
+                byte postVisibility = visibility[i];
+                boolean visible = postVisibility == PUBLIC
+                        || (postVisibility == FOLLOWERS_ONLY && !followingIds.isEmpty()
+                        && followingIds.contains(new UUID(authorHi[i], authorLo[i])));
+                if (!visible) {
+                    continue;
+                }
+
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    page.add(new UUID(postHi[i], postLo[i]));
+                }
+            }
+
+            // Ran out of kept postings; only the database knows whether older ones exist
+            if (page.size() < limit && truncated) {
+                return Optional.empty();
+            }
+            return Optional.of(page);
+        }
+
+        private static void copyRange(Snapshot source, int from, Snapshot target, int to, int length) {
+            System.arraycopy(source.createdAt, from, target.createdAt, to, length);
+            System.arraycopy(source.postHi, from, target.postHi, to, length);
+            System.arraycopy(source.postLo, from, target.postLo, to, length);
+            System.arraycopy(source.authorHi, from, target.authorHi, to, length);
+            System.arraycopy(source.authorLo, from, target.authorLo, to, length);
+            System.arraycopy(source.visibility, from, target.visibility, to, length);
+        }
+    }
+}
\ No newline at end of file
@@ -1,14 +1,34 @@
 package com.jerrygram.infrastructure.services;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jerrygram.application.interfaces.ICacheService;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
 
+/**
+ * Two-tier cache: the bounded memory cache is a near cache (L1) in front of Redis (L2).
+ * Writes and deletes are broadcast on a pub/sub channel so other instances drop their
+ * L1 copies; near entries also carry a short TTL, which bounds staleness if a broadcast
+ * is missed while the subscription reconnects. When Redis is unreachable L1 doubles as
+ * the fallback store.
+ */
 @Service
 @Primary
 @ConditionalOnProperty(name = "cache.use-redis", havingValue = "true")
@@ -16,13 +36,34 @@ import java.time.Duration;
 @Slf4j
 public class HybridCacheService implements ICacheService {
 
+    private static final String INVALIDATION_CHANNEL = "cache:invalidate";
+    private static final String GENERATION_KEY_PREFIX = "cache:gen:";
+
     private final RedisCacheService redisCacheService;
     private final MemoryCacheService memoryCacheService;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final SingleFlightCacheLoader cacheLoader;
+
+    // Lets an instance ignore its own broadcasts
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${cache.near.ttl:30s}")
+    private Duration nearTtl;
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this::onInvalidation, new ChannelTopic(INVALIDATION_CHANNEL));
+        log.info("Near cache enabled with TTL {} (node {})", nearTtl, nodeId);
+    }
 
     @Override
     public <T> void set(String key, T value, Duration expiration) {
         try {
             redisCacheService.set(key, value, expiration);
+            memoryCacheService.set(key, value, shorter(expiration, nearTtl));
+            publish(new Invalidation(nodeId, List.of(key), null));
             log.debug("Set cache in Redis for key: {}", key);
         } catch (Exception e) {
             log.warn("Redis set failed for key: {}, falling back to memory cache", key, e);
@@ -32,23 +73,67 @@ public class HybridCacheService implements ICacheService {
 
     @Override
     public <T> java.util.Optional<T> get(String key, Class<T> type) {
+        java.util.Optional<T> near = memoryCacheService.get(key, type);
+        if (near.isPresent()) {
+            log.debug("Cache hit in memory for key: {}", key);
+            return near;
+        }
+
         try {
             java.util.Optional<T> value = redisCacheService.get(key, type);
             if (value.isPresent()) {
                 log.debug("Cache hit in Redis for key: {}", key);
-                return value;
+                memoryCacheService.set(key, value.get(), nearTtl);
+            } else {
+                log.debug("Cache miss for key: {}", key);
             }
+            return value;
         } catch (Exception e) {
-            log.warn("Redis get failed for key: {}, trying memory cache", key, e);
+            log.warn("Redis get failed for key: {}", key, e);
+            return java.util.Optional.empty();
         }
+    }
 
-        java.util.Optional<T> value = memoryCacheService.get(key, type);
-        if (value.isPresent()) {
-            log.debug("Cache hit in memory for key: {}", key);
-        } else {
-            log.debug("Cache miss for key: {}", key);
+    @Override
+    public <T> Map<String, T> getAll(Collection<String> keys, Class<T> type) {
+        Map<String, T> result = new HashMap<>(memoryCacheService.getAll(keys, type));
+
+        var missing = keys.stream().filter(key -> !result.containsKey(key)).distinct().toList();
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        try {
+            var fromRedis = redisCacheService.getAll(missing, type);
+            memoryCacheService.setAll(fromRedis, nearTtl);
+            result.putAll(fromRedis);
+            log.debug("Bulk cache get: {} from memory, {} from Redis, {} missed",
+                    keys.size() - missing.size(), fromRedis.size(), missing.size() - fromRedis.size());
+        } catch (Exception e) {
+            log.warn("Redis bulk get failed for {} keys", missing.size(), e);
         }
-        return value;
+        return result;
+    }
+
+    @Override
+    public <T> void setAll(Map<String, T> values, Duration ttl) {
+        if (values.isEmpty()) {
+            return;
+        }
+
+        try {
+            redisCacheService.setAll(values, ttl);
+            memoryCacheService.setAll(values, shorter(ttl, nearTtl));
+            publish(new Invalidation(nodeId, List.copyOf(values.keySet()), null));
+        } catch (Exception e) {
+            log.warn("Redis bulk set failed for {} keys, falling back to memory cache", values.size(), e);
+            memoryCacheService.setAll(values, ttl);
+        }
+    }
+
+    @Override
+    public <T> T getOrCompute(String key, Class<T> type, Duration ttl, Supplier<T> loader) {
+        return cacheLoader.getOrCompute(this, redisCacheService, key, type, ttl, loader);
     }
 
     @Override
@@ -58,8 +143,9 @@ public class HybridCacheService implements ICacheService {
         } catch (Exception e) {
             log.warn("Redis delete failed for key: {}", key, e);
         }
-        
+
         memoryCacheService.delete(key);
+        publish(new Invalidation(nodeId, List.of(key), null));
     }
 
     @Override
@@ -69,17 +155,22 @@ public class HybridCacheService implements ICacheService {
         } catch (Exception e) {
             log.warn("Redis deleteByPattern failed for pattern: {}", pattern, e);
         }
-        
+
         memoryCacheService.deleteByPattern(pattern);
+        publish(new Invalidation(nodeId, null, pattern));
     }
 
     @Override
     public boolean exists(String key) {
+        if (memoryCacheService.exists(key)) {
+            return true;
+        }
+
         try {
             return redisCacheService.exists(key);
         } catch (Exception e) {
-            log.warn("Redis exists check failed for key: {}, checking memory cache", key, e);
-            return memoryCacheService.exists(key);
+            log.warn("Redis exists check failed for key: {}", key, e);
+            return false;
         }
     }
 
@@ -94,8 +185,113 @@ public class HybridCacheService implements ICacheService {
             redisCacheService.expire(key, ttl);
         } catch (Exception e) {
             log.warn("Redis expire failed for key: {}", key, e);
+            memoryCacheService.expire(key, ttl);
+            return;
         }
-        
-        memoryCacheService.expire(key, ttl);
+
+        // Near copies are re-read from Redis so they pick up the new TTL
+        memoryCacheService.delete(key);
+        publish(new Invalidation(nodeId, List.of(key), null));
+    }
+
+    @Override
+    public String namespacedKey(String namespace, String key) {
+        var generationKey = GENERATION_KEY_PREFIX + namespace;
+
+        // Generations are near-cached too, so building a key normally costs no round trip
+        var cached = memoryCacheService.get(generationKey, Long.class);
+        if (cached.isPresent()) {
+            return namespace + ":v" + cached.get() + ":" + key;
+        }
+
+        try {
+            long generation = redisCacheService.generation(namespace);
+            memoryCacheService.set(generationKey, generation, nearTtl);
+            return namespace + ":v" + generation + ":" + key;
+        } catch (Exception e) {
+            log.warn("Redis generation lookup failed for namespace: {}, using memory cache", namespace, e);
+            return memoryCacheService.namespacedKey(namespace, key);
+        }
+    }
+
+    @Override
+    public void invalidateNamespace(String namespace) {
+        // Also covers keys written to the memory fallback while Redis was unreachable
+        memoryCacheService.invalidateNamespace(namespace);
+
+        var generationKey = GENERATION_KEY_PREFIX + namespace;
+        try {
+            long generation = redisCacheService.incrementGeneration(namespace);
+            memoryCacheService.set(generationKey, generation, nearTtl);
+            publish(new Invalidation(nodeId, List.of(generationKey), null));
+        } catch (Exception e) {
+            log.warn("Redis invalidateNamespace failed for namespace: {}", namespace, e);
+            memoryCacheService.delete(generationKey);
+        }
+    }
+
+    // Counters change on every write, so they live in Redis only and are never near-cached
+
+    @Override
+    public java.util.Optional<Long> getCounter(String key) {
+        try {
+            return redisCacheService.getCounter(key);
+        } catch (Exception e) {
+            log.warn("Redis getCounter failed for key: {}, using memory cache", key, e);
+            return memoryCacheService.getCounter(key);
+        }
+    }
+
+    @Override
+    public void initCounter(String key, long value, Duration ttl) {
+        try {
+            redisCacheService.initCounter(key, value, ttl);
+        } catch (Exception e) {
+            log.warn("Redis initCounter failed for key: {}, using memory cache", key, e);
+            memoryCacheService.initCounter(key, value, ttl);
+        }
+    }
+
+    @Override
+    public void incrementCounter(String key, long delta) {
+        try {
+            redisCacheService.incrementCounter(key, delta);
+        } catch (Exception e) {
+            log.warn("Redis incrementCounter failed for key: {}", key, e);
+        }
+        // Keep a fallback copy from an outage consistent as well
+        memoryCacheService.incrementCounter(key, delta);
+    }
+
+    private void publish(Invalidation invalidation) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, objectMapper.writeValueAsString(invalidation));
+        } catch (Exception e) {
+            log.warn("Failed to broadcast cache invalidation for {}", invalidation, e);
+        }
+    }
+
+    private void onInvalidation(Message message, byte[] pattern) {
+        try {
+            var invalidation = objectMapper.readValue(message.getBody(), Invalidation.class);
+            if (nodeId.equals(invalidation.node())) {
+                return;
+            }
+
+            if (invalidation.keys() != null) {
+                invalidation.keys().forEach(memoryCacheService::delete);
+            } else if (invalidation.pattern() != null) {
+                memoryCacheService.deleteByPattern(invalidation.pattern());
+            }
+        } catch (Exception e) {
+            log.warn("Ignoring malformed cache invalidation message", e);
+        }
+    }
+
+    private static Duration shorter(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private record Invalidation(String node, List<String> keys, String pattern) {
     }
 }
\ No newline at end of file
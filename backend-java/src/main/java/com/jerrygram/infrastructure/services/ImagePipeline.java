@@ -0,0 +1,443 @@
+package com.jerrygram.infrastructure.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jerrygram.application.common.BlobContainers;
+import com.jerrygram.application.common.CacheNamespaces;
+import com.jerrygram.application.interfaces.IBlobCollector;
+import com.jerrygram.application.interfaces.IBlobService;
+import com.jerrygram.application.interfaces.ICacheService;
+import com.jerrygram.application.interfaces.IImagePipeline;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import java.awt.Color;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Resizes uploads into display and thumbnail variants on a bounded worker pool.
+ * Each image is decoded once, turned upright from its EXIF orientation, and scaled down in a
+ * cascade (every variant from the next larger one). Variants are re-encoded as JPEG without any
+ * of the original's metadata and stored under the SHA-256 of the original, so an image uploaded
+ * twice is only processed and stored once. Uploads the pool has no room for keep just their
+ * original, which clients fall back to.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImagePipeline implements IImagePipeline {
+
+    private static final String UPDATE_POST_SQL = """
+            UPDATE "Posts" SET "ImageVariants" = CAST(? AS jsonb) WHERE "Id" = ? AND "ImageUrl" = ?
+            """;
+
+    private static final String UPDATE_USER_SQL = """
+            UPDATE "Users" SET "ProfileImageVariants" = CAST(? AS jsonb) WHERE "Id" = ? AND "ProfileImageUrl" = ?
+            """;
+
+    private final IBlobService blobService;
+    private final IBlobCollector blobCollector;
+    private final ICacheService cacheService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private ThreadPoolExecutor workers;
+    private Path workDir;
+    private Timer processingTimer;
+
+    // Resizing is CPU-bound, so the pool stays small and uses platform threads
+    @Value("${images.pipeline.workers:2}")
+    private int workerCount;
+
+    @Value("${images.pipeline.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${images.pipeline.quality:0.82}")
+    private float quality;
+
+    // Decoding takes width * height * 4 bytes of heap; larger images keep only their original
+    @Value("${images.pipeline.max-pixels:40000000}")
+    private long maxPixels;
+
+    @Value("${images.pipeline.work-dir:${java.io.tmpdir}/jerrygram/images}")
+    private String workDirPath;
+
+    @PostConstruct
+    public void init() throws IOException {
+        workDir = Files.createDirectories(Path.of(workDirPath));
+        // Uploads spooled before a restart have lost their queue entry
+        try (var leftovers = Files.list(workDir)) {
+            leftovers.forEach(this::deleteQuietly);
+        }
+
+        workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("image-pipeline-", 0).daemon(true).factory());
+        processingTimer = meterRegistry.timer("images.pipeline.duration");
+        meterRegistry.gauge("images.pipeline.queued", workers.getQueue(), Collection::size);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    @Override
+    public void processPostImage(UUID postId, String imageUrl, MultipartFile image) {
+        submit(Target.Post, postId, imageUrl, image);
+    }
+
+    @Override
+    public void processAvatar(UUID userId, String imageUrl, MultipartFile avatar) {
+        submit(Target.Avatar, userId, imageUrl, avatar);
+    }
+
+    private void submit(Target target, UUID id, String imageUrl, MultipartFile image) {
+        // The multipart file goes away with the request, so the worker gets its own copy
+        Path spooled;
+        try {
+            spooled = Files.createTempFile(workDir, "upload-", ".tmp");
+            try (var in = image.getInputStream()) {
+                Files.copy(in, spooled, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            log.warn("Could not spool image for {} {}, serving the original only", target, id, e);
+            return;
+        }
+
+        try {
+            workers.execute(() -> processingTimer.record(() -> process(target, id, imageUrl, spooled)));
+        } catch (RejectedExecutionException e) {
+            log.warn("Image pipeline full, {} {} keeps its original only", target, id);
+            deleteQuietly(spooled);
+        }
+    }
+
+    private void process(Target target, UUID id, String imageUrl, Path file) {
+        try {
+            var hash = sha256(file);
+            Map<String, String> urls = new LinkedHashMap<>();
+            target.variants.forEach(variant -> urls.put(variant.name(), blobService.getUrl(blobName(hash, variant), target.container)));
+
+            // Variants of an image seen before are reused, as long as garbage collection left all of them.
+            // Pending deletions are cancelled before the check, so no sweep claims a variant after it passed;
+            // if the row update below doesn't happen, reconciliation finds any variant left unused
+            blobCollector.retain(urls.values());
+            if (!allExist(urls) && !upload(target, hash, file, urls)) {
+                return;
+            }
+
+            // A newer upload may have replaced the image meanwhile; its own job records its variants
+            int updated = jdbcTemplate.update(target.updateSql, objectMapper.writeValueAsString(urls), id, imageUrl);
+            if (updated > 0) {
+                // Reconciliation may have found reused variants orphaned meanwhile; they are referenced again
+                blobCollector.retain(urls.values());
+                // A sweep that claimed a variant just before the first retain may have deleted it since;
+                // names are content-addressed, so uploading again restores the recorded URLs
+                if (!allExist(urls)) {
+                    upload(target, hash, file, urls);
+                }
+                cacheService.delete(target.cacheKey.apply(id));
+            }
+            log.debug("Stored {} image variants for {} {}", urls.size(), target, id);
+        } catch (Exception e) {
+            log.warn("Image variants failed for {} {}, serving the original only", target, id, e);
+        } finally {
+            deleteQuietly(file);
+        }
+    }
+
+    private boolean allExist(Map<String, String> urls) {
+        return urls.values().stream().allMatch(blobService::exists);
+    }
+
+    /**
+     * Encode and store every variant of the image, recording their URLs
+     * @return false if the file isn't a decodable image
+     */
+    private boolean upload(Target target, String hash, Path file, Map<String, String> urls) throws IOException {
+        var image = decode(file);
+        if (image == null) {
+            return false;
+        }
+
+        byte[] encoded = null;
+        for (var variant : target.variants) {
+            var scaled = variant.apply(image);
+            // Images smaller than a variant aren't upscaled, so the previous encoding still fits
+            if (scaled != image || encoded == null) {
+                encoded = encode(scaled);
+            }
+            urls.put(variant.name(), blobService.uploadAs(new ByteArrayInputStream(encoded),
+                    blobName(hash, variant), "image/jpeg", target.container));
+            image = scaled;
+        }
+        return true;
+    }
+
+    private BufferedImage decode(Path file) throws IOException {
+        BufferedImage decoded;
+        try (var input = ImageIO.createImageInputStream(file.toFile())) {
+            var readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                log.warn("Unsupported image format in {}", file);
+                return null;
+            }
+
+            var reader = readers.next();
+            try {
+                // Metadata is never read, let alone carried over to the variants
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    log.warn("Image of {} pixels is over the {} pixel limit, skipping variants", pixels, maxPixels);
+                    return null;
+                }
+                decoded = reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        return orient(decoded, exifOrientation(file));
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        var writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        var params = writer.getDefaultWriteParam();
+        params.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        params.setCompressionQuality(quality);
+        params.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+
+        var out = new ByteArrayOutputStream();
+        try (var output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), params);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Redraw the decoded image upright on an opaque RGB canvas, the layout every later step expects.
+     * Decoders ignore EXIF orientation, and the re-encoded variants no longer carry it.
+     */
+    private static BufferedImage orient(BufferedImage image, int orientation) {
+        int w = image.getWidth();
+        int h = image.getHeight();
+        var transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w);
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, w);
+            default -> new AffineTransform();
+        };
+
+        boolean swapped = orientation >= 5 && orientation <= 8;
+        var upright = new BufferedImage(swapped ? h : w, swapped ? w : h, BufferedImage.TYPE_INT_RGB);
+        var graphics = upright.createGraphics();
+        try {
+            // Transparent areas become white rather than JPEG's black
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, upright.getWidth(), upright.getHeight());
+            graphics.drawImage(image, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return upright;
+    }
+
+    /**
+     * EXIF orientation (1-8) of a JPEG, or 1 when it has none
+     */
+    private static int exifOrientation(Path file) throws IOException {
+        byte[] head;
+        try (var in = Files.newInputStream(file)) {
+            // APP1 segments are at most 64KB and come before the image data
+            head = in.readNBytes(65536 + 4);
+        }
+
+        var jpeg = ByteBuffer.wrap(head);
+        if (jpeg.remaining() < 4 || (jpeg.getShort() & 0xFFFF) != 0xFFD8) {
+            return 1;
+        }
+
+        while (jpeg.remaining() >= 4) {
+            int marker = jpeg.getShort() & 0xFFFF;
+            int length = jpeg.getShort() & 0xFFFF;
+            int end = jpeg.position() + length - 2;
+            // Start of scan: no metadata past this point
+            if ((marker & 0xFF00) != 0xFF00 || marker == 0xFFDA || length < 2 || end > jpeg.limit()) {
+                return 1;
+            }
+            // APP1 starting with "Exif\0\0", followed by a TIFF structure
+            if (marker == 0xFFE1 && length >= 16 && jpeg.getInt(jpeg.position()) == 0x45786966) {
+                return tiffOrientation(jpeg.slice(jpeg.position() + 6, end - jpeg.position() - 6));
+            }
+            jpeg.position(end);
+        }
+        return 1;
+    }
+
+    private static int tiffOrientation(ByteBuffer tiff) {
+        tiff.order(tiff.getShort(0) == 0x4949 ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        int ifd = tiff.getInt(4);
+        if (ifd < 8 || ifd + 2 > tiff.limit()) {
+            return 1;
+        }
+
+        int entries = tiff.getShort(ifd) & 0xFFFF;
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > tiff.limit()) {
+                break;
+            }
+            if ((tiff.getShort(entry) & 0xFFFF) == 0x0112) {
+                int orientation = tiff.getShort(entry + 8) & 0xFFFF;
+                return orientation >= 1 && orientation <= 8 ? orientation : 1;
+            }
+        }
+        return 1;
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        try (var in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String blobName(String hash, Variant variant) {
+        return hash + "-" + variant.name() + ".jpg";
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete image work file {}", file, e);
+        }
+    }
+
+    private enum Target {
+        // Largest first, so each variant is scaled from the one before it
+        Post(List.of(
+                new Variant("large", 1080, false),
+                new Variant("medium", 640, false),
+                new Variant("small", 320, false),
+                new Variant("thumb", 150, true)),
+                BlobContainers.POSTS, UPDATE_POST_SQL, CacheNamespaces::feedItem),
+        Avatar(List.of(
+                new Variant("large", 320, true),
+                new Variant("medium", 150, true),
+                new Variant("small", 64, true)),
+                BlobContainers.PROFILES, UPDATE_USER_SQL, CacheNamespaces::principal);
+
+        private final List<Variant> variants;
+        private final String container;
+        private final String updateSql;
+        private final Function<UUID, String> cacheKey;
+
+        Target(List<Variant> variants, String container, String updateSql, Function<UUID, String> cacheKey) {
+            this.variants = variants;
+            this.container = container;
+            this.updateSql = updateSql;
+            this.cacheKey = cacheKey;
+        }
+    }
+
+    /**
+     * One output size: the longest side is scaled down to size (never up), after a center crop
+     * to a square for thumbnails and avatars
+     */
+    private record Variant(String name, int size, boolean square) {
+
+        BufferedImage apply(BufferedImage source) {
+            var image = source;
+            int w = image.getWidth();
+            int h = image.getHeight();
+            if (square && w != h) {
+                int side = Math.min(w, h);
+                image = image.getSubimage((w - side) / 2, (h - side) / 2, side, side);
+                w = h = side;
+            }
+
+            double ratio = (double) size / Math.max(w, h);
+            if (ratio >= 1.0) {
+                return image;
+            }
+            return scale(image, Math.max(1, (int) Math.round(w * ratio)), Math.max(1, (int) Math.round(h * ratio)));
+        }
+
+        private static BufferedImage scale(BufferedImage image, int width, int height) {
+            var current = image;
+            // Halving first keeps bilinear filtering from skipping pixels on large reductions
+            while (current.getWidth() / 2 >= width && current.getHeight() / 2 >= height) {
+                current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+            }
+            if (current.getWidth() == width && current.getHeight() == height) {
+                return current;
+            }
+            return draw(current, width, height);
+        }
+
+        private static BufferedImage draw(BufferedImage source, int width, int height) {
+            var target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            var graphics = target.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(source, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            return target;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.jerrygram.infrastructure.services;
+
+import com.jerrygram.application.interfaces.IDomainEventHandler;
+import com.jerrygram.application.interfaces.IEventSink;
+import com.jerrygram.domain.events.DomainEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers domain events to the IDomainEventHandler beans of this application.
+ * Runs on the dispatcher's virtual thread; every handler of the event is invoked even if one
+ * fails. Each handler acknowledges the event on its own, so a redelivery only reaches the
+ * handlers that failed. A handler subscribed to DomainEvent itself receives every event.
+ */
+@Service
+@ConditionalOnProperty(name = "events.in-process.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class InProcessEventSink implements IEventSink {
+
+    // Handlers by concrete event type, resolved once so delivery is a single lookup
+    private final Map<Class<?>, List<IDomainEventHandler<?>>> handlers;
+
+    public InProcessEventSink(List<IDomainEventHandler<?>> handlers) {
+        this.handlers = Arrays.stream(DomainEvent.class.getPermittedSubclasses())
+                .collect(Collectors.toUnmodifiableMap(Function.identity(), type -> handlers.stream()
+                        .filter(handler -> handler.eventType().isAssignableFrom(type))
+                        .toList()));
+        log.info("In-process event handlers: {}", handlers.stream().map(h -> h.getClass().getSimpleName()).toList());
+    }
+
+    @Override
+    public String name() {
+        return "in-process";
+    }
+
+    @Override
+    public void deliver(long eventId, DomainEvent event, String payload) {
+        deliver(eventId, event, payload, new HashSet<>());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void deliver(long eventId, DomainEvent event, String payload, Set<String> delivered) {
+        RuntimeException failure = null;
+
+        for (var handler : handlers.getOrDefault(event.getClass(), List.of())) {
+            var receiver = name() + ":" + ClassUtils.getUserClass(handler).getSimpleName();
+            if (delivered.contains(receiver)) {
+                continue;
+            }
+
+            try {
+                ((IDomainEventHandler<DomainEvent>) handler).handle(event);
+                delivered.add(receiver);
+            } catch (RuntimeException e) {
+                log.warn("Event handler {} failed for {}", handler.getClass().getSimpleName(), event, e);
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
\ No newline at end of file
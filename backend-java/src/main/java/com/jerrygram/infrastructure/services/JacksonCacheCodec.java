@@ -0,0 +1,126 @@
+package com.jerrygram.infrastructure.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jerrygram.application.interfaces.ICacheCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Jackson-based cache codec. The format (json, smile or cbor) is chosen by config; payloads
+ * above the compression threshold are LZ4-compressed. Every payload starts with a one-byte
+ * header so compressed and plain values can be told apart on read.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JacksonCacheCodec implements ICacheCodec {
+
+    private static final byte PLAIN = 0;
+    private static final byte LZ4 = 1;
+
+    // Header byte plus the original length that LZ4 needs to decompress
+    private static final int LZ4_HEADER_BYTES = 1 + Integer.BYTES;
+
+    private final MeterRegistry meterRegistry;
+
+    private ObjectMapper mapper;
+    private LZ4Compressor compressor;
+    private LZ4FastDecompressor decompressor;
+    private Counter serializedBytes;
+    private Counter storedBytes;
+
+    @Value("${cache.codec.format:smile}")
+    private String format;
+
+    @Value("${cache.codec.compress-threshold:1KB}")
+    private DataSize compressThreshold;
+
+    @PostConstruct
+    public void init() {
+        mapper = switch (format.toLowerCase()) {
+            case "json" -> new ObjectMapper();
+            case "smile" -> new SmileMapper();
+            case "cbor" -> new CBORMapper();
+            default -> throw new IllegalArgumentException("Unsupported cache codec format: " + format);
+        };
+        mapper.registerModule(new JavaTimeModule());
+
+        var lz4 = LZ4Factory.fastestInstance();
+        compressor = lz4.fastCompressor();
+        decompressor = lz4.fastDecompressor();
+
+        // Saved bytes = serialized - stored
+        serializedBytes = meterRegistry.counter("cache.codec.bytes", "stage", "serialized", "format", format);
+        storedBytes = meterRegistry.counter("cache.codec.bytes", "stage", "stored", "format", format);
+
+        log.info("Cache codec: {} with LZ4 above {}", format, compressThreshold);
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        byte[] serialized = mapper.writeValueAsBytes(value);
+        byte[] payload = serialized.length >= compressThreshold.toBytes() ? compress(serialized) : null;
+
+        if (payload == null) {
+            payload = new byte[serialized.length + 1];
+            payload[0] = PLAIN;
+            System.arraycopy(serialized, 0, payload, 1, serialized.length);
+        }
+
+        serializedBytes.increment(serialized.length);
+        storedBytes.increment(payload.length);
+        return payload;
+    }
+
+    @Override
+    public <T> T decode(byte[] payload, Class<T> type) throws IOException {
+        if (payload.length == 0) {
+            throw new IOException("Empty cache payload");
+        }
+
+        return switch (payload[0]) {
+            case PLAIN -> mapper.readValue(payload, 1, payload.length - 1, type);
+            case LZ4 -> {
+                int length = ByteBuffer.wrap(payload, 1, Integer.BYTES).getInt();
+                byte[] serialized = decompressor.decompress(payload, LZ4_HEADER_BYTES, length);
+                yield mapper.readValue(serialized, type);
+            }
+            // e.g. a JSON string written before the codec was introduced
+            default -> throw new IOException("Unknown cache payload header: " + payload[0]);
+        };
+    }
+
+    /**
+     * Compress a serialized value, or return null if compression doesn't pay off
+     */
+    private byte[] compress(byte[] serialized) {
+        int maxLength = compressor.maxCompressedLength(serialized.length);
+        byte[] buffer = new byte[LZ4_HEADER_BYTES + maxLength];
+        int compressedLength = compressor.compress(serialized, 0, serialized.length, buffer, LZ4_HEADER_BYTES, maxLength);
+
+        if (LZ4_HEADER_BYTES + compressedLength >= serialized.length + 1) {
+            return null;
+        }
+
+        buffer[0] = LZ4;
+        ByteBuffer.wrap(buffer, 1, Integer.BYTES).putInt(serialized.length);
+        byte[] payload = new byte[LZ4_HEADER_BYTES + compressedLength];
+        System.arraycopy(buffer, 0, payload, 0, payload.length);
+        return payload;
+    }
+}
\ No newline at end of file
@@ -1,5 +1,8 @@
 package com.jerrygram.infrastructure.services;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.jerrygram.application.interfaces.IJwtService;
 import com.jerrygram.domain.entities.User;
 import io.jsonwebtoken.Claims;
@@ -10,10 +13,15 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @Slf4j
@@ -21,12 +29,19 @@ public class JwtService implements IJwtService {
 
     private final SecretKey secretKey;
     private final long jwtExpiration;
+    // SHA-256 of the token -> verified token, held until the token expires
+    private final Cache<String, VerifiedToken> verifiedTokens;
 
     public JwtService(
             @Value("${jwt.secret}") String secret,
-            @Value("${jwt.expiration}") long jwtExpiration) {
+            @Value("${jwt.expiration}") long jwtExpiration,
+            @Value("${jwt.verified-cache.max-entries:100000}") long verifiedCacheMaxEntries) {
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes());
         this.jwtExpiration = jwtExpiration;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxEntries)
+                .expireAfter(new TokenExpiry())
+                .build();
     }
 
     @Override
@@ -63,6 +78,26 @@ public class JwtService implements IJwtService {
         return extractClaims(token).getSubject();
     }
 
+    @Override
+    public UUID verifyToken(String token) {
+        var tokenHash = hash(token);
+        var verified = verifiedTokens.getIfPresent(tokenHash);
+        if (verified != null) {
+            return verified.userId();
+        }
+
+        try {
+            // Signature and expiry are both checked by the parser
+            var claims = extractClaims(token);
+            verified = new VerifiedToken(UUID.fromString(claims.get("userId", String.class)), claims.getExpiration().getTime());
+            verifiedTokens.put(tokenHash, verified);
+            return verified.userId();
+        } catch (Exception e) {
+            log.debug("JWT token verification failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
     @Override
     public boolean validateToken(String token) {
         try {
@@ -87,4 +122,34 @@ public class JwtService implements IJwtService {
         Date expiration = extractClaims(token).getExpiration();
         return expiration.before(new Date());
     }
+
+    private static String hash(String token) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record VerifiedToken(UUID userId, long expiresAtMillis) {
+    }
+
+    private static class TokenExpiry implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+            long remainingMillis = token.expiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.jerrygram.infrastructure.services;
+
+import com.jerrygram.application.interfaces.IEventSink;
+import com.jerrygram.domain.events.DomainEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes domain events to Kafka for consumers outside this service.
+ * Records are keyed by aggregate ID, so events about one entity share a partition, but they are
+ * not guaranteed to arrive in order: events are delivered concurrently and failed deliveries are
+ * retried later. The "event-id" header carries the outbox ID, which grows in the order events were
+ * recorded; consumers keep the highest ID applied per aggregate and drop anything older. The event
+ * type travels in the "type" header. Enabled with events.kafka.enabled=true, using the spring.kafka.*
+ * connection settings.
+ */
+@Service
+@ConditionalOnProperty(name = "events.kafka.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class KafkaEventSink implements IEventSink {
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+
+    @Value("${events.kafka.topic:jerrygram.domain-events}")
+    private String topic;
+
+    @Value("${events.kafka.send-timeout:10s}")
+    private Duration sendTimeout;
+
+    @Override
+    public String name() {
+        return "kafka";
+    }
+
+    @Override
+    public void deliver(long eventId, DomainEvent event, String payload) {
+        var record = new ProducerRecord<>(topic, event.aggregateId().toString(), payload);
+        record.headers().add("type", event.getClass().getSimpleName().getBytes(StandardCharsets.UTF_8));
+        record.headers().add("event-id", Long.toString(eventId).getBytes(StandardCharsets.UTF_8));
+
+        try {
+            // Wait for the broker ack so the outbox row is only deleted once Kafka has the event
+            kafkaTemplate.send(record).get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing " + event.getClass().getSimpleName(), e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Failed to publish " + event.getClass().getSimpleName() + " to " + topic, e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,557 @@
+package com.jerrygram.infrastructure.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jerrygram.application.dtos.PostListItemDto;
+import com.jerrygram.application.interfaces.ICounterService;
+import com.jerrygram.application.interfaces.IEventPublisher;
+import com.jerrygram.application.interfaces.ILikeService;
+import com.jerrygram.domain.events.PostLiked;
+import com.jerrygram.infrastructure.repositories.PostLikeRepository;
+import com.jerrygram.infrastructure.repositories.PostRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps like state for recently toggled posts in memory. Toggles only touch the post's
+ * liker set and striped counter, so a viral post never serializes on a row lock or a
+ * per-toggle transaction; pending toggles are coalesced per user and flushed in batches.
+ * Flushed toggles are broadcast to the other instances over Redis, and resident posts are
+ * reloaded every {@code likes.refresh-interval} to pick up anything a lost message left out.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LikeService implements ILikeService {
+
+    private static final String INSERT_LIKE_SQL = """
+            INSERT INTO "PostLikes" ("Id", "PostId", "UserId", "CreatedAt") VALUES (?, ?, ?, ?)
+            ON CONFLICT ("PostId", "UserId") DO NOTHING
+            """;
+
+    private static final String DELETE_LIKE_SQL = """
+            DELETE FROM "PostLikes" WHERE "PostId" = ? AND "UserId" = ?
+            """;
+
+    // uuid ordering in PostgreSQL is bytewise, which matches LikerSet's unsigned comparison
+    private static final String LOAD_LIKERS_SQL = """
+            SELECT "UserId" FROM "PostLikes" WHERE "PostId" = ? ORDER BY "UserId"
+            """;
+
+    private static final String DELTA_CHANNEL = "likes:toggles";
+
+    private final PostRepository postRepository;
+    private final PostLikeRepository postLikeRepository;
+    private final ICounterService counterService;
+    private final IEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectProvider<RedisMessageListenerContainer> listenerContainer;
+    private final ObjectMapper objectMapper;
+
+    private final Map<UUID, PostLikes> posts = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // Lets a node ignore its own broadcasts
+    private final String nodeId = UUID.randomUUID().toString();
+    private boolean broadcast;
+
+    @Value("${likes.max-resident-posts:10000}")
+    private int maxResidentPosts;
+
+    @Value("${likes.idle-timeout:10m}")
+    private Duration idleTimeout;
+
+    @Value("${likes.refresh-interval:10m}")
+    private Duration refreshInterval;
+
+    @PostConstruct
+    public void init() {
+        var container = listenerContainer.getIfAvailable();
+        if (container != null) {
+            container.addMessageListener(this::onDelta, new ChannelTopic(DELTA_CHANNEL));
+            broadcast = true;
+        }
+    }
+
+    @Override
+    public boolean toggle(UUID postId, UUID userId) {
+        var state = posts.get(postId);
+        if (state == null) {
+            // Loaded outside the map: a viral post's likers take a while and computeIfAbsent
+            // would block every other caller hashing to the same bin
+            var loaded = load(postId);
+            state = posts.putIfAbsent(postId, loaded);
+            if (state == null) {
+                state = loaded;
+            }
+        }
+        return state.toggle(userId);
+    }
+
+    @Override
+    public void applyLikeState(Collection<PostListItemDto> items, UUID currentUserId) {
+        List<PostListItemDto> cold = new ArrayList<>();
+
+        for (var item : items) {
+            var state = posts.get(item.getId());
+            if (state != null) {
+                item.setLikes(state.count());
+                item.setLiked(currentUserId != null && state.isLikedBy(currentUserId));
+            } else {
+                item.setLiked(false);
+                cold.add(item);
+            }
+        }
+
+        // Posts that are not resident have no unflushed toggles, so the table is authoritative
+        if (currentUserId == null || cold.isEmpty()) {
+            return;
+        }
+
+        var liked = new HashSet<>(postLikeRepository.getLikedPostIds(
+                currentUserId, cold.stream().map(PostListItemDto::getId).toList()));
+        cold.forEach(item -> item.setLiked(liked.contains(item.getId())));
+    }
+
+    @Override
+    public void evict(UUID postId) {
+        posts.remove(postId);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${likes.flush-interval:500}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            posts.forEach((postId, state) -> {
+                flushPost(postId, state);
+                state.likers.compactIfNeeded();
+            });
+            evictIdle();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private PostLikes load(UUID postId) {
+        if (!postRepository.existsById(postId)) {
+            throw new IllegalArgumentException("Post not found");
+        }
+
+        var likers = new LikerSet.Builder();
+        jdbcTemplate.query(LOAD_LIKERS_SQL, (RowCallbackHandler) rs -> likers.add(rs.getObject(1, UUID.class)), postId);
+        var state = new PostLikes(likers.build());
+        log.debug("Loaded like state for post {} with {} likes", postId, state.count());
+        return state;
+    }
+
+    private void flushPost(UUID postId, PostLikes state) {
+        var drained = state.drainPending();
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        try {
+            var applied = transactionTemplate.execute(status -> writeLikes(postId, drained));
+            log.debug("Flushed {} like toggles for post {}", drained.size(), postId);
+            broadcast(postId, applied);
+        } catch (DataIntegrityViolationException e) {
+            // The post or one of the users was deleted; find out which toggles can still be applied
+            log.warn("Like flush failed for post {}, writing {} toggles one at a time", postId, drained.size(), e);
+            flushEach(postId, state, drained);
+        } catch (Exception e) {
+            log.warn("Like flush failed for post {}, re-queueing {} toggles", postId, drained.size(), e);
+            state.requeue(drained);
+        }
+    }
+
+    private void flushEach(UUID postId, PostLikes state, Map<UUID, Boolean> drained) {
+        Map<UUID, Boolean> applied = new HashMap<>();
+        Map<UUID, Boolean> failed = new HashMap<>();
+        int dropped = 0;
+
+        for (var toggle : drained.entrySet()) {
+            try {
+                applied.putAll(transactionTemplate.execute(status -> writeLikes(postId, Map.of(toggle.getKey(), toggle.getValue()))));
+            } catch (DataIntegrityViolationException e) {
+                // Can never be applied; take it back out of the resident state too
+                state.applyRemote(toggle.getKey(), !toggle.getValue());
+                dropped++;
+            } catch (Exception e) {
+                failed.put(toggle.getKey(), toggle.getValue());
+            }
+        }
+
+        if (dropped == drained.size()) {
+            // Nothing could be written, so the post itself is gone
+            log.warn("Dropping {} like toggles for post {}", dropped, postId);
+            posts.remove(postId, state);
+            return;
+        }
+        if (dropped > 0) {
+            log.warn("Dropped {} like toggles for post {} by deleted users", dropped, postId);
+        }
+        if (!failed.isEmpty()) {
+            state.requeue(failed);
+        }
+        broadcast(postId, applied);
+    }
+
+    /**
+     * @return Toggles that changed a row, keyed by user ID
+     */
+    private Map<UUID, Boolean> writeLikes(UUID postId, Map<UUID, Boolean> toggles) {
+        var now = Timestamp.valueOf(LocalDateTime.now());
+        List<UUID> likers = new ArrayList<>();
+        List<UUID> unlikers = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+
+        toggles.forEach((userId, liked) -> {
+            if (liked) {
+                likers.add(userId);
+                inserts.add(new Object[]{UUID.randomUUID(), postId, userId, now});
+            } else {
+                unlikers.add(userId);
+                deletes.add(new Object[]{postId, userId});
+            }
+        });
+
+        Map<UUID, Boolean> applied = new HashMap<>();
+        if (!inserts.isEmpty()) {
+            collectApplied(jdbcTemplate.batchUpdate(INSERT_LIKE_SQL, inserts), likers, true, applied);
+        }
+        if (!deletes.isEmpty()) {
+            collectApplied(jdbcTemplate.batchUpdate(DELETE_LIKE_SQL, deletes), unlikers, false, applied);
+        }
+
+        // Buffered by the counter service once this transaction commits
+        counterService.addPostLikes(postId, applied.values().stream().mapToInt(liked -> liked ? 1 : -1).sum());
+        eventPublisher.publishAll(applied.entrySet().stream()
+                .map(toggle -> new PostLiked(postId, toggle.getKey(), toggle.getValue()))
+                .toList());
+        return applied;
+    }
+
+    private void broadcast(UUID postId, Map<UUID, Boolean> applied) {
+        if (!broadcast || applied.isEmpty()) {
+            return;
+        }
+
+        try {
+            redisTemplate.convertAndSend(DELTA_CHANNEL, objectMapper.writeValueAsString(new Delta(nodeId, postId, applied)));
+        } catch (Exception e) {
+            // Other nodes catch up when they next reload the post
+            log.warn("Failed to broadcast like toggles for post: {}", postId, e);
+        }
+    }
+
+    private void onDelta(Message message, byte[] pattern) {
+        try {
+            var delta = objectMapper.readValue(message.getBody(), Delta.class);
+            if (nodeId.equals(delta.node())) {
+                return;
+            }
+            var state = posts.get(delta.postId());
+            if (state != null) {
+                delta.toggles().forEach(state::applyRemote);
+            }
+        } catch (Exception e) {
+            log.warn("Ignoring malformed like toggle message", e);
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        long idleBefore = now - idleTimeout.toMillis();
+        long loadedBefore = now - refreshInterval.toMillis();
+        posts.forEach((postId, state) -> {
+            if (state.lastAccess < idleBefore || state.loadedAt < loadedBefore) {
+                evictIfClean(postId, state);
+            }
+        });
+
+        int excess = posts.size() - maxResidentPosts;
+        if (excess > 0) {
+            posts.entrySet().stream()
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().lastAccess))
+                    .limit(excess)
+                    .toList()
+                    .forEach(entry -> evictIfClean(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    private void evictIfClean(UUID postId, PostLikes state) {
+        if (!state.isClean() || !posts.remove(postId, state)) {
+            return;
+        }
+        // A toggle may have raced with the removal; persist it rather than lose it
+        if (!state.isClean()) {
+            flushPost(postId, state);
+        }
+    }
+
+    // ON CONFLICT DO NOTHING and deletes of missing rows report 0: this node's view was stale
+    private static void collectApplied(int[] counts, List<UUID> userIds, boolean liked, Map<UUID, Boolean> applied) {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == Statement.SUCCESS_NO_INFO || counts[i] > 0) {
+                applied.put(userIds.get(i), liked);
+            }
+        }
+    }
+
+    private record Delta(String node, UUID postId, Map<UUID, Boolean> toggles) {
+    }
+
+    private static class PostLikes {
+        private final LikerSet likers;
+        private final LongAdder count = new LongAdder();
+        // Unflushed toggles: user ID -> like state to persist
+        private final ConcurrentHashMap<UUID, Boolean> pending = new ConcurrentHashMap<>();
+        private final long loadedAt = System.currentTimeMillis();
+        private volatile long lastAccess = loadedAt;
+
+        PostLikes(LikerSet likers) {
+            this.likers = likers;
+            count.add(likers.size());
+        }
+
+        boolean toggle(UUID userId) {
+            lastAccess = System.currentTimeMillis();
+            boolean[] liked = new boolean[1];
+
+            // compute() serializes toggles by the same user without blocking other users
+            pending.compute(userId, (id, previous) -> {
+                liked[0] = !likers.contains(id);
+                likers.set(id, liked[0]);
+                if (liked[0]) {
+                    count.increment();
+                } else {
+                    count.decrement();
+                }
+                // A second toggle before the flush cancels out the first
+                return previous == null ? liked[0] : null;
+            });
+
+            return liked[0];
+        }
+
+        // A toggle flushed by another instance; an unflushed local toggle by the same user wins
+        void applyRemote(UUID userId, boolean liked) {
+            pending.compute(userId, (id, previous) -> {
+                if (previous == null && likers.contains(id) != liked) {
+                    likers.set(id, liked);
+                    if (liked) {
+                        count.increment();
+                    } else {
+                        count.decrement();
+                    }
+                }
+                return previous;
+            });
+        }
+
+        boolean isLikedBy(UUID userId) {
+            return likers.contains(userId);
+        }
+
+        int count() {
+            return count.intValue();
+        }
+
+        boolean isClean() {
+            return pending.isEmpty();
+        }
+
+        Map<UUID, Boolean> drainPending() {
+            Map<UUID, Boolean> drained = new HashMap<>();
+            for (var userId : pending.keySet()) {
+                Boolean liked = pending.remove(userId);
+                if (liked != null) {
+                    drained.put(userId, liked);
+                }
+            }
+            return drained;
+        }
+
+        void requeue(Map<UUID, Boolean> drained) {
+            // Same cancellation rule as toggle(): a newer opposite toggle means the row is already right
+            drained.forEach((userId, liked) -> pending.compute(userId, (id, current) -> current == null ? liked : null));
+        }
+    }
+
+    /**
+     * Likers of one post as a sorted array of UUID halves (16 bytes per liker) plus a small map of
+     * changes not yet merged into it. Merging builds a new array and swaps it in, so lookups never lock.
+     */
+    static class LikerSet {
+        private static final int MIN_COMPACT_CHANGES = 64;
+
+        // Unsigned-sorted (mostSigBits, leastSigBits) pairs, interleaved
+        private volatile long[] sorted;
+        // User ID -> liked, overriding the sorted array
+        private final ConcurrentHashMap<UUID, Boolean> changes = new ConcurrentHashMap<>();
+
+        private LikerSet(long[] sorted) {
+            this.sorted = sorted;
+        }
+
+        boolean contains(UUID userId) {
+            Boolean changed = changes.get(userId);
+            return changed != null ? changed : indexOf(sorted, userId) >= 0;
+        }
+
+        void set(UUID userId, boolean liked) {
+            changes.put(userId, liked);
+        }
+
+        int size() {
+            int size = sorted.length / 2;
+            for (var change : changes.entrySet()) {
+                boolean inSorted = indexOf(sorted, change.getKey()) >= 0;
+                if (change.getValue() != inSorted) {
+                    size += change.getValue() ? 1 : -1;
+                }
+            }
+            return size;
+        }
+
+        /**
+         * Merge the changes into the sorted array once they are a sizeable fraction of it.
+         * Called from one thread at a time (the flush).
+         */
+        void compactIfNeeded() {
+            if (changes.size() < Math.max(MIN_COMPACT_CHANGES, sorted.length / 32)) {
+                return;
+            }
+
+            List<Map.Entry<UUID, Boolean>> snapshot = new ArrayList<>(changes.size());
+            changes.forEach((userId, liked) -> snapshot.add(Map.entry(userId, liked)));
+            snapshot.sort((a, b) -> compare(a.getKey(), b.getKey()));
+
+            var current = sorted;
+            long[] merged = new long[current.length + 2 * snapshot.size()];
+            int length = 0;
+            int i = 0;
+            int j = 0;
+            while (i < current.length || j < snapshot.size()) {
+                int order = i >= current.length ? 1
+                        : j >= snapshot.size() ? -1
+                        : compare(current[i], current[i + 1], snapshot.get(j).getKey());
+                if (order < 0) {
+                    merged[length++] = current[i];
+                    merged[length++] = current[i + 1];
+                    i += 2;
+                } else {
+                    var change = snapshot.get(j++);
+                    if (change.getValue()) {
+                        merged[length++] = change.getKey().getMostSignificantBits();
+                        merged[length++] = change.getKey().getLeastSignificantBits();
+                    }
+                    if (order == 0) {
+                        i += 2;
+                    }
+                }
+            }
+            sorted = Arrays.copyOf(merged, length);
+
+            // A change made after the snapshot has a different value and keeps overriding the array
+            snapshot.forEach(change -> changes.remove(change.getKey(), change.getValue()));
+        }
+
+        private static int indexOf(long[] sorted, UUID userId) {
+            int low = 0;
+            int high = sorted.length / 2 - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int order = compare(sorted[2 * mid], sorted[2 * mid + 1], userId);
+                if (order < 0) {
+                    low = mid + 1;
+                } else if (order > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+
+        private static int compare(long most, long least, UUID userId) {
+            int order = Long.compareUnsigned(most, userId.getMostSignificantBits());
+            return order != 0 ? order : Long.compareUnsigned(least, userId.getLeastSignificantBits());
+        }
+
+        private static int compare(UUID a, UUID b) {
+            return compare(a.getMostSignificantBits(), a.getLeastSignificantBits(), b);
+        }
+
+        static class Builder {
+            private long[] ids = new long[32];
+            private int length;
+            private boolean ordered = true;
+
+            void add(UUID userId) {
+                if (length == ids.length) {
+                    ids = Arrays.copyOf(ids, ids.length * 2);
+                }
+                if (length > 0 && compare(ids[length - 2], ids[length - 1], userId) >= 0) {
+                    ordered = false;
+                }
+                ids[length++] = userId.getMostSignificantBits();
+                ids[length++] = userId.getLeastSignificantBits();
+            }
+
+            LikerSet build() {
+                if (ordered) {
+                    return new LikerSet(Arrays.copyOf(ids, length));
+                }
+
+                // Rows arrived in a different collation; sort by the set's own order
+                List<UUID> userIds = new ArrayList<>(length / 2);
+                for (int i = 0; i < length; i += 2) {
+                    userIds.add(new UUID(ids[i], ids[i + 1]));
+                }
+                var rebuilt = new Builder();
+                userIds.stream().distinct().sorted(LikerSet::compare).forEach(rebuilt::add);
+                return rebuilt.build();
+            }
+        }
+    }
+}
\ No newline at end of file
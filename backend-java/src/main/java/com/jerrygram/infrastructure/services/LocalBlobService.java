@@ -0,0 +1,522 @@
+package com.jerrygram.infrastructure.services;
+
+import com.jerrygram.application.interfaces.IBlobService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Blob store on the local filesystem, selected with blob.store=local (on-prem nodes, tests,
+ * benchmarks without the network).
+ * Files live under root/container/xx/yy/name, bucketed by the leading characters of the name:
+ * the content hash for content-addressed blobs, a random UUID for uploads. Writes land in a temp
+ * file that is renamed into place, so readers never see a partial blob. Size, modification time
+ * and content type are kept in a memory-mapped index, so serving and existence checks need no
+ * filesystem metadata calls. Blobs are served by MediaController under blob.local.public-url.
+ */
+@Service
+@ConditionalOnProperty(name = "blob.store", havingValue = "local")
+@Slf4j
+public class LocalBlobService implements IBlobService {
+
+    // Container and blob names are generated (UUIDs, hashes) or fixed; anything else is rejected
+    private static final Pattern SAFE_NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0,127}");
+    private static final Pattern SAFE_EXTENSION = Pattern.compile("\\.[A-Za-z0-9]{1,8}");
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    private Path root;
+    private Path tempDir;
+    private BlobIndex index;
+
+    @Value("${blob.local.root:./uploads/media}")
+    private String rootPath;
+
+    @Value("${blob.local.public-url:/media}")
+    private String publicUrl;
+
+    // Flush each blob to disk before it becomes visible
+    @Value("${blob.local.fsync:true}")
+    private boolean fsync;
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Files.createDirectories(Path.of(rootPath)).toAbsolutePath().normalize();
+        tempDir = Files.createDirectories(root.resolve(".tmp"));
+        // Writes interrupted by a restart never became visible
+        try (var leftovers = Files.list(tempDir)) {
+            for (var file : (Iterable<Path>) leftovers::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        index = BlobIndex.open(root.resolve("index.dat"), root);
+        log.info("Local blob store at {} with {} blobs", root, index.size());
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        index.close();
+    }
+
+    @Override
+    public String upload(MultipartFile file, String containerName) {
+        try (var fileStream = file.getInputStream()) {
+            return upload(fileStream, file.getOriginalFilename(), file.getContentType(), containerName);
+        } catch (IOException e) {
+            log.error("Failed to store file locally: {}", file.getOriginalFilename(), e);
+            throw new RuntimeException("Local blob upload failed", e);
+        }
+    }
+
+    @Override
+    public String upload(InputStream fileStream, String fileName, String containerName) {
+        return upload(fileStream, fileName, URLConnection.guessContentTypeFromName(fileName), containerName);
+    }
+
+    private String upload(InputStream fileStream, String fileName, String contentType, String containerName) {
+        var blobName = UUID.randomUUID() + getFileExtension(fileName);
+        var blobUrl = store(fileStream, blobName, contentType, containerName);
+        log.info("File stored locally: {}", blobUrl);
+        return blobUrl;
+    }
+
+    @Override
+    public String uploadAs(InputStream fileStream, String blobName, String contentType, String containerName) {
+        if (index.get(key(containerName, blobName)) != null) {
+            return getUrl(blobName, containerName);
+        }
+        return store(fileStream, blobName, contentType, containerName);
+    }
+
+    @Override
+    public String getUrl(String blobName, String containerName) {
+        return publicUrl + "/" + containerName + "/" + blobName;
+    }
+
+    @Override
+    public void delete(String blobUrl) {
+        try {
+            if (remove(parseUrl(blobUrl))) {
+                log.info("File deleted from local blob store: {}", blobUrl);
+            } else {
+                log.warn("Blob not found for deletion: {}", blobUrl);
+            }
+        } catch (Exception e) {
+            log.error("Failed to delete file from local blob store: {}", blobUrl, e);
+        }
+    }
+
+    @Override
+    public void delete(String blobUrl, String containerName) {
+        delete(blobUrl);
+    }
+
+    @Override
+    public boolean exists(String blobUrl) {
+        try {
+            return index.get(parseUrl(blobUrl)) != null;
+        } catch (Exception e) {
+            log.error("Failed to check blob existence: {}", blobUrl, e);
+            return false;
+        }
+    }
+
+    @Override
+    public List<String> deleteAll(List<String> blobUrls) {
+        List<String> failed = new ArrayList<>();
+        for (var blobUrl : blobUrls) {
+            try {
+                remove(parseUrl(blobUrl));
+            } catch (Exception e) {
+                log.warn("Failed to delete file from local blob store: {}", blobUrl, e);
+                failed.add(blobUrl);
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public Stream<BlobEntry> list(String containerName) {
+        if (!SAFE_NAME.matcher(containerName).matches()) {
+            throw new IllegalArgumentException("Invalid container name: " + containerName);
+        }
+
+        var prefix = containerName + "/";
+        // The index already holds every blob with its modification time, so no directory walk is needed
+        return index.snapshot().entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(prefix))
+                .map(entry -> {
+                    var blobName = entry.getKey().substring(prefix.length());
+                    return new BlobEntry(getUrl(blobName, containerName), blobName,
+                            Instant.ofEpochMilli(entry.getValue().lastModified()));
+                });
+    }
+
+    /**
+     * Look up a stored blob for serving
+     * @param containerName Container name
+     * @param blobName Blob name
+     * @return The blob, or empty if there is no such blob (or the names are not valid)
+     */
+    public Optional<StoredBlob> find(String containerName, String blobName) {
+        if (!isValid(containerName, blobName)) {
+            return Optional.empty();
+        }
+
+        var entry = index.get(key(containerName, blobName));
+        if (entry == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new StoredBlob(pathOf(containerName, blobName), entry.size(), entry.lastModified(), entry.contentType()));
+    }
+
+    private String store(InputStream fileStream, String blobName, String contentType, String containerName) {
+        var key = key(containerName, blobName);
+        var target = pathOf(containerName, blobName);
+        Path temp = null;
+        boolean moved = false;
+        try {
+            temp = Files.createTempFile(tempDir, "blob-", ".tmp");
+            long size = Files.copy(fileStream, temp, StandardCopyOption.REPLACE_EXISTING);
+            if (fsync) {
+                try (var channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    channel.force(true);
+                }
+            }
+
+            Files.createDirectories(target.getParent());
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            moved = true;
+            index.put(key, size, Files.getLastModifiedTime(target).toMillis(),
+                    contentType != null ? contentType : DEFAULT_CONTENT_TYPE);
+            return getUrl(blobName, containerName);
+        } catch (Exception e) {
+            log.error("Failed to store file locally: {}", key, e);
+            // An unindexed file would never be served nor collected
+            if (moved && index.get(key) == null) {
+                try {
+                    Files.deleteIfExists(target);
+                } catch (IOException cleanup) {
+                    log.warn("Could not delete unindexed blob {}", target, cleanup);
+                }
+            }
+            throw new RuntimeException("Local blob upload failed", e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    log.warn("Could not delete blob temp file {}", temp, e);
+                }
+            }
+        }
+    }
+
+    private boolean remove(String key) throws IOException {
+        // Unlisted first, so it stops being served before the file goes
+        if (!index.remove(key)) {
+            return false;
+        }
+        var separator = key.indexOf('/');
+        Files.deleteIfExists(pathOf(key.substring(0, separator), key.substring(separator + 1)));
+        return true;
+    }
+
+    private Path pathOf(String containerName, String blobName) {
+        return root.resolve(containerName).resolve(bucket(blobName, 0)).resolve(bucket(blobName, 2)).resolve(blobName);
+    }
+
+    private static String bucket(String blobName, int offset) {
+        return blobName.length() >= offset + 2 ? blobName.substring(offset, offset + 2).toLowerCase() : "_";
+    }
+
+    private String key(String containerName, String blobName) {
+        if (!isValid(containerName, blobName)) {
+            throw new IllegalArgumentException("Invalid blob name: " + containerName + "/" + blobName);
+        }
+        return containerName + "/" + blobName;
+    }
+
+    // Safe names are ASCII, so the key's length is its size in the index
+    private static boolean isValid(String containerName, String blobName) {
+        return SAFE_NAME.matcher(containerName).matches() && SAFE_NAME.matcher(blobName).matches()
+                && containerName.length() + 1 + blobName.length() <= BlobIndex.MAX_KEY_BYTES;
+    }
+
+    private String parseUrl(String blobUrl) {
+        // Example URL: /media/container/blobname
+        var prefix = publicUrl + "/";
+        if (blobUrl == null || !blobUrl.startsWith(prefix)) {
+            throw new IllegalArgumentException("Invalid blob URL format: " + blobUrl);
+        }
+
+        var path = blobUrl.substring(prefix.length());
+        var separator = path.indexOf('/');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid blob URL format: " + blobUrl);
+        }
+        return key(path.substring(0, separator), path.substring(separator + 1));
+    }
+
+    private String getFileExtension(String fileName) {
+        if (fileName == null) {
+            return "";
+        }
+
+        int lastDotIndex = fileName.lastIndexOf('.');
+        if (lastDotIndex == -1) {
+            return "";
+        }
+
+        var extension = fileName.substring(lastDotIndex);
+        return SAFE_EXTENSION.matcher(extension).matches() ? extension.toLowerCase() : "";
+    }
+
+    public record StoredBlob(Path path, long size, long lastModified, String contentType) {
+
+        /**
+         * Strong validator; blob names are never rewritten with different bytes
+         */
+        public String etag() {
+            return Long.toHexString(lastModified) + "-" + Long.toHexString(size);
+        }
+    }
+
+    /**
+     * Blob metadata in a memory-mapped file of fixed-size records, mirrored in a hash map for
+     * lookups. Adding a blob writes into the mapping rather than making a syscall; deleting one
+     * flips its record's state byte. The file is compacted (and rebuilt from the directory tree
+     * if missing or unreadable) each time it is opened.
+     */
+    private static final class BlobIndex implements Closeable {
+        private static final int MAGIC = 0x4A47424C;
+        private static final int VERSION = 1;
+        private static final int HEADER_SIZE = 16;
+        private static final int RECORD_SIZE = 256;
+        private static final int MAX_TYPE_BYTES = 64;
+        private static final int MAX_KEY_BYTES = 160;
+        private static final int GROW_RECORDS = 4096;
+
+        // Record layout: state, key length, type length, padding, size, modified, type, key
+        private static final int STATE = 0;
+        private static final int KEY_LENGTH = 1;
+        private static final int TYPE_LENGTH = 2;
+        private static final int SIZE = 8;
+        private static final int MODIFIED = 16;
+        private static final int TYPE = 24;
+        private static final int KEY = TYPE + MAX_TYPE_BYTES;
+
+        private static final byte FREE = 0;
+        private static final byte LIVE = 1;
+        private static final byte DELETED = 2;
+
+        private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+        // Guards the mapping and slot allocation; lookups only read the map
+        private final ReentrantLock lock = new ReentrantLock();
+        private final FileChannel channel;
+        private MappedByteBuffer mapping;
+        private int slots;
+
+        private BlobIndex(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        static BlobIndex open(Path file, Path root) throws IOException {
+            var live = Files.exists(file) ? read(file) : null;
+            if (live == null) {
+                live = scan(root);
+                log.info("Rebuilt local blob index from {} files", live.size());
+            }
+
+            // Compact into a fresh file, then swap it in
+            var compacted = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.deleteIfExists(compacted);
+            var index = new BlobIndex(FileChannel.open(compacted,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE));
+            index.mapping = index.channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_SIZE + (long) RECORD_SIZE * (live.size() + GROW_RECORDS));
+            index.mapping.putInt(0, MAGIC).putInt(4, VERSION);
+            for (var record : live) {
+                index.put(record.key(), record.size(), record.lastModified(), record.contentType());
+            }
+            index.mapping.force();
+            Files.move(compacted, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return index;
+        }
+
+        int size() {
+            return entries.size();
+        }
+
+        Entry get(String key) {
+            return entries.get(key);
+        }
+
+        Map<String, Entry> snapshot() {
+            return Map.copyOf(entries);
+        }
+
+        void put(String key, long size, long lastModified, String contentType) {
+            var keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            var typeBytes = contentType.getBytes(StandardCharsets.UTF_8);
+            if (keyBytes.length > MAX_KEY_BYTES) {
+                throw new IllegalArgumentException("Blob key too long: " + key);
+            }
+            if (typeBytes.length > MAX_TYPE_BYTES) {
+                contentType = DEFAULT_CONTENT_TYPE;
+                typeBytes = contentType.getBytes(StandardCharsets.UTF_8);
+            }
+
+            lock.lock();
+            try {
+                ensureCapacity(slots + 1);
+                int slot = slots++;
+                int offset = offset(slot);
+                mapping.put(offset + KEY_LENGTH, (byte) keyBytes.length)
+                        .put(offset + TYPE_LENGTH, (byte) typeBytes.length)
+                        .putLong(offset + SIZE, size)
+                        .putLong(offset + MODIFIED, lastModified)
+                        .put(offset + TYPE, typeBytes)
+                        .put(offset + KEY, keyBytes);
+                // State last, so a record torn by a crash is never read back as live
+                mapping.put(offset + STATE, LIVE);
+
+                var previous = entries.put(key, new Entry(slot, size, lastModified, contentType));
+                if (previous != null) {
+                    mapping.put(offset(previous.slot()) + STATE, DELETED);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not grow the blob index", e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean remove(String key) {
+            lock.lock();
+            try {
+                var entry = entries.remove(key);
+                if (entry == null) {
+                    return false;
+                }
+                mapping.put(offset(entry.slot()) + STATE, DELETED);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            lock.lock();
+            try {
+                mapping.force();
+                channel.close();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void ensureCapacity(int records) throws IOException {
+            long required = HEADER_SIZE + (long) RECORD_SIZE * records;
+            if (required <= mapping.capacity()) {
+                return;
+            }
+            // Mapping past the end extends the file; the old mapping is released by GC
+            mapping = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_SIZE + (long) RECORD_SIZE * (records + GROW_RECORDS));
+        }
+
+        private static int offset(int slot) {
+            return HEADER_SIZE + slot * RECORD_SIZE;
+        }
+
+        /**
+         * Live records of an index file, or null if it isn't one
+         */
+        private static List<Record> read(Path file) {
+            try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                    log.warn("Ignoring local blob index in an unknown format: {}", file);
+                    return null;
+                }
+
+                List<Record> live = new ArrayList<>();
+                for (int offset = HEADER_SIZE; offset + RECORD_SIZE <= buffer.capacity(); offset += RECORD_SIZE) {
+                    byte state = buffer.get(offset + STATE);
+                    if (state == FREE) {
+                        break;
+                    }
+                    if (state != LIVE) {
+                        continue;
+                    }
+
+                    var type = new byte[Math.min(buffer.get(offset + TYPE_LENGTH) & 0xFF, MAX_TYPE_BYTES)];
+                    var key = new byte[Math.min(buffer.get(offset + KEY_LENGTH) & 0xFF, MAX_KEY_BYTES)];
+                    buffer.get(offset + TYPE, type).get(offset + KEY, key);
+                    live.add(new Record(new String(key, StandardCharsets.UTF_8), buffer.getLong(offset + SIZE),
+                            buffer.getLong(offset + MODIFIED), new String(type, StandardCharsets.UTF_8)));
+                }
+                return live;
+            } catch (IOException e) {
+                log.warn("Unreadable local blob index {}, rebuilding it", file, e);
+                return null;
+            }
+        }
+
+        private static List<Record> scan(Path root) throws IOException {
+            List<Record> live = new ArrayList<>();
+            // root/container/xx/yy/name
+            try (var files = Files.find(root, 4, (path, attributes) -> attributes.isRegularFile()
+                    && root.relativize(path).getNameCount() == 4)) {
+                for (var path : (Iterable<Path>) files::iterator) {
+                    var relative = root.relativize(path);
+                    var container = relative.getName(0).toString();
+                    var name = relative.getFileName().toString();
+                    if (!SAFE_NAME.matcher(container).matches() || !SAFE_NAME.matcher(name).matches()) {
+                        continue;
+                    }
+
+                    var contentType = URLConnection.guessContentTypeFromName(name);
+                    live.add(new Record(container + "/" + name, Files.size(path),
+                            Files.getLastModifiedTime(path).toMillis(),
+                            contentType != null ? contentType : DEFAULT_CONTENT_TYPE));
+                }
+            }
+            return live;
+        }
+
+        private record Entry(int slot, long size, long lastModified, String contentType) {
+        }
+
+        private record Record(String key, long size, long lastModified, String contentType) {
+        }
+    }
+}
\ No newline at end of file
@@ -1,96 +1,156 @@
 package com.jerrygram.infrastructure.services;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.jerrygram.application.dtos.PagedResult;
 import com.jerrygram.application.interfaces.ICacheService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 
 import java.time.Duration;
-import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
+/**
+ * Bounded in-process cache. Caffeine's W-TinyLFU policy decides admission and eviction,
+ * and per-entry TTLs sit on its timer wheel so expired entries are dropped proactively
+ * instead of waiting for the next read.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MemoryCacheService implements ICacheService {
 
-    private final Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
+    // Rough per-entry bookkeeping cost (node, entry wrapper, key object header)
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final SingleFlightCacheLoader cacheLoader;
+
+    private Cache<String, CacheEntry> cache;
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();
+
+    @Value("${cache.memory.max-entries:10000}")
+    private long maxEntries;
+
+    @Value("${cache.memory.max-weight:64MB}")
+    private DataSize maxWeight;
+
+    // Assumed footprint of one element of a cached collection, page or DTO
+    @Value("${cache.memory.item-weight:1KB}")
+    private DataSize itemWeight;
+
+    @PostConstruct
+    public void init() {
+        // Every entry weighs at least maxWeight / maxEntries, so the weight bound also caps the entry count
+        long minEntryWeight = Math.max(1, maxWeight.toBytes() / maxEntries);
+
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight.toBytes())
+                .weigher((String key, CacheEntry entry) -> (int) Math.min(Integer.MAX_VALUE, Math.max(minEntryWeight, entry.weight())))
+                .expireAfter(new EntryExpiry())
+                .scheduler(Scheduler.systemScheduler())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "memory");
+        log.info("Memory cache bounded to {} entries / {}", maxEntries, maxWeight);
+    }
 
     @Override
     public <T> void set(String key, T value, Duration expiration) {
-        LocalDateTime expiryTime = LocalDateTime.now().plus(expiration);
-        CacheEntry entry = new CacheEntry(value, expiryTime);
-        cache.put(key, entry);
+        cache.put(key, new CacheEntry(value, expiration.toNanos(), estimateWeight(key, value)));
         log.debug("Set memory cache for key: {} with expiration: {}", key, expiration);
     }
 
     @Override
     public <T> java.util.Optional<T> get(String key, Class<T> type) {
-        CacheEntry entry = cache.get(key);
+        CacheEntry entry = cache.getIfPresent(key);
         if (entry == null) {
             log.debug("Memory cache miss for key: {}", key);
             return java.util.Optional.empty();
         }
 
-        if (entry.isExpired()) {
-            cache.remove(key);
-            log.debug("Memory cache entry expired for key: {}", key);
-            return java.util.Optional.empty();
-        }
+        return convert(key, entry, type);
+    }
 
+    @Override
+    public <T> Map<String, T> getAll(Collection<String> keys, Class<T> type) {
+        Map<String, T> result = new HashMap<>();
+        cache.getAllPresent(keys).forEach((key, entry) ->
+                convert(key, entry, type).ifPresent(value -> result.put(key, value)));
+
+        log.debug("Memory cache bulk get: {} of {} keys hit", result.size(), keys.size());
+        return result;
+    }
+
+    @Override
+    public <T> void setAll(Map<String, T> values, Duration ttl) {
+        values.forEach((key, value) -> cache.put(key, new CacheEntry(value, ttl.toNanos(), estimateWeight(key, value))));
+        log.debug("Set {} memory cache keys with expiration: {}", values.size(), ttl);
+    }
+
+    private <T> java.util.Optional<T> convert(String key, CacheEntry entry, Class<T> type) {
         try {
-            if (type.isInstance(entry.getValue())) {
+            if (type.isInstance(entry.value())) {
                 log.debug("Memory cache hit for key: {}", key);
-                return java.util.Optional.of(type.cast(entry.getValue()));
+                return java.util.Optional.of(type.cast(entry.value()));
             } else {
-                String json = objectMapper.writeValueAsString(entry.getValue());
-                T value = objectMapper.readValue(json, type);
+                // Token-buffer conversion, no JSON text round trip
+                T value = objectMapper.convertValue(entry.value(), type);
                 log.debug("Memory cache hit with conversion for key: {}", key);
                 return java.util.Optional.of(value);
             }
         } catch (Exception e) {
             log.warn("Failed to convert cached value for key: {}", key, e);
-            cache.remove(key);
+            cache.invalidate(key);
             return java.util.Optional.empty();
         }
     }
 
+    @Override
+    public <T> T getOrCompute(String key, Class<T> type, Duration ttl, Supplier<T> loader) {
+        return cacheLoader.getOrCompute(this, null, key, type, ttl, loader);
+    }
+
     @Override
     public void delete(String key) {
-        CacheEntry removed = cache.remove(key);
-        log.debug("Deleted memory cache key: {} (existed: {})", key, removed != null);
+        boolean existed = cache.asMap().remove(key) != null;
+        log.debug("Deleted memory cache key: {} (existed: {})", key, existed);
     }
 
     @Override
     public void deleteByPattern(String pattern) {
         String regexPattern = pattern.replace("*", ".*");
         Pattern compiledPattern = Pattern.compile(regexPattern);
-        
-        int initialSize = cache.size();
-        cache.entrySet().removeIf(entry -> 
-            compiledPattern.matcher(entry.getKey()).matches());
-        long removedCount = initialSize - cache.size();
-        
+
+        long initialSize = cache.estimatedSize();
+        cache.asMap().keySet().removeIf(key -> compiledPattern.matcher(key).matches());
+        long removedCount = initialSize - cache.estimatedSize();
+
         log.debug("Deleted {} memory cache keys matching pattern: {}", removedCount, pattern);
     }
 
     @Override
     public boolean exists(String key) {
-        CacheEntry entry = cache.get(key);
-        if (entry == null) {
-            return false;
-        }
-        
-        if (entry.isExpired()) {
-            cache.remove(key);
-            return false;
-        }
-        
-        return true;
+        // Peek through the map view so existence checks don't count as hits or feed the frequency sketch
+        return cache.asMap().containsKey(key);
     }
 
     @Override
@@ -100,28 +160,99 @@ public class MemoryCacheService implements ICacheService {
 
     @Override
     public void expire(String key, Duration ttl) {
-        CacheEntry entry = cache.get(key);
-        if (entry != null) {
-            LocalDateTime newExpiry = LocalDateTime.now().plus(ttl);
-            cache.put(key, new CacheEntry(entry.getValue(), newExpiry));
+        cache.policy().expireVariably().ifPresent(policy -> policy.setExpiresAfter(key, ttl));
+    }
+
+    @Override
+    public String namespacedKey(String namespace, String key) {
+        // "m" keeps these apart from Redis generations when this cache stands in for Redis
+        return namespace + ":m" + generations.getOrDefault(namespace, 0L) + ":" + key;
+    }
+
+    @Override
+    public void invalidateNamespace(String namespace) {
+        long generation = generations.merge(namespace, 1L, Long::sum);
+        log.debug("Invalidated memory cache namespace: {} (generation {})", namespace, generation);
+    }
+
+    @Override
+    public java.util.Optional<Long> getCounter(String key) {
+        CacheEntry entry = cache.getIfPresent(key);
+        if (entry != null && entry.value() instanceof AtomicLong counter) {
+            return java.util.Optional.of(counter.get());
         }
+        return java.util.Optional.empty();
     }
 
-    private static class CacheEntry {
-        private final Object value;
-        private final LocalDateTime expiryTime;
+    @Override
+    public void initCounter(String key, long value, Duration ttl) {
+        cache.asMap().putIfAbsent(key, new CacheEntry(new AtomicLong(value), ttl.toNanos(), ENTRY_OVERHEAD_BYTES + 2L * key.length() + Long.BYTES));
+    }
+
+    @Override
+    public void incrementCounter(String key, long delta) {
+        // Mutating in place keeps the entry's TTL and weight unchanged
+        CacheEntry entry = cache.getIfPresent(key);
+        if (entry != null && entry.value() instanceof AtomicLong counter) {
+            counter.addAndGet(delta);
+        }
+    }
+
+    /**
+     * Hit, miss and eviction counts since startup (also published as cache.* metrics tagged cache=memory)
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    // Structural estimate: weighing runs on every set, so it must not walk or serialize the value
+    private long estimateWeight(String key, Object value) {
+        return ENTRY_OVERHEAD_BYTES + 2L * key.length() + estimateValueWeight(value);
+    }
+
+    private long estimateValueWeight(Object value) {
+        if (value instanceof CharSequence text) {
+            return 2L * text.length();
+        }
+        if (value instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        if (value == null || value instanceof Number || value instanceof Boolean) {
+            return 0;
+        }
+        if (value instanceof PagedResult<?> page) {
+            return itemWeight.toBytes() * (1 + (page.getItems() != null ? page.getItems().size() : 0));
+        }
+        if (value instanceof Collection<?> collection) {
+            return itemWeight.toBytes() * collection.size();
+        }
+        if (value instanceof Map<?, ?> map) {
+            return itemWeight.toBytes() * map.size();
+        }
+        return itemWeight.toBytes();
+    }
+
+    private record CacheEntry(Object value, long ttlNanos, long weight) {
+    }
 
-        public CacheEntry(Object value, LocalDateTime expiryTime) {
-            this.value = value;
-            this.expiryTime = expiryTime;
+    private static class EntryExpiry implements Expiry<String, CacheEntry> {
+        @Override
+        public long expireAfterCreate(String key, CacheEntry entry, long currentTime) {
+            return entry.ttlNanos();
         }
 
-        public Object getValue() {
-            return value;
+        @Override
+        public long expireAfterUpdate(String key, CacheEntry entry, long currentTime, long currentDuration) {
+            return entry.ttlNanos();
         }
 
-        public boolean isExpired() {
-            return LocalDateTime.now().isAfter(expiryTime);
+        @Override
+        public long expireAfterRead(String key, CacheEntry entry, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
 }
\ No newline at end of file
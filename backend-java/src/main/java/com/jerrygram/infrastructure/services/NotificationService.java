@@ -0,0 +1,410 @@
+package com.jerrygram.infrastructure.services;
+
+import com.jerrygram.application.common.CacheNamespaces;
+import com.jerrygram.application.common.NotificationMessages;
+import com.jerrygram.application.dtos.NotificationDto;
+import com.jerrygram.application.dtos.SimpleUserDto;
+import com.jerrygram.application.interfaces.ICacheService;
+import com.jerrygram.application.interfaces.INotificationService;
+import com.jerrygram.application.interfaces.INotificationStream;
+import com.jerrygram.domain.entities.User;
+import com.jerrygram.domain.enums.NotificationType;
+import com.jerrygram.infrastructure.repositories.NotificationRepository;
+import com.jerrygram.infrastructure.repositories.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind notification store.
+ * Notifications are buffered per (recipient, type, post) group, so a burst of comments on a
+ * popular post collapses in memory first; each flush then folds a group into the recipient's
+ * latest unread notification for that post when it falls inside the aggregation window, and
+ * batch-inserts the rest. Actors are recorded per notification, so ActorCount counts distinct
+ * users across flushes. Unread counts live in the cache and are adjusted as rows are created
+ * or read, so the notifications table is only counted when a counter is missing. Every written
+ * notification is pushed to the recipient's live streams once the flush commits, and the
+ * futures returned by notifyUser complete then. A group that can never be stored (its post or
+ * recipient was deleted) is dropped on its own, and one that keeps failing is given up after
+ * {@code notifications.max-flush-attempts} flushes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationService implements INotificationService {
+
+    // Claims the latest unread row of the group, if it was active inside the window. CreatedAt is the
+    // pagination key and never moves; the latest activity goes to UpdatedAt
+    private static final String BUMP_SQL = """
+            UPDATE "Notifications" SET "FromUserId" = ?, "UpdatedAt" = ?
+            WHERE "Id" = (SELECT "Id" FROM "Notifications"
+                          WHERE "RecipientId" = ? AND "Type" = ? AND "PostId" IS NOT DISTINCT FROM ?
+                            AND "IsRead" = false AND COALESCE("UpdatedAt", "CreatedAt") >= ?
+                          ORDER BY "CreatedAt" DESC
+                          LIMIT 1
+                          FOR UPDATE)
+            RETURNING "Id", "ActorCount", "CreatedAt"
+            """;
+
+    private static final String INSERT_ACTOR_SQL = """
+            INSERT INTO "NotificationActors" ("Id", "NotificationId", "ActorId") VALUES (?, ?, ?)
+            ON CONFLICT ("NotificationId", "ActorId") DO NOTHING
+            """;
+
+    private static final String SET_MESSAGE_SQL = """
+            UPDATE "Notifications" SET "Message" = ?, "ActorCount" = ? WHERE "Id" = ?
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO "Notifications" ("Id", "RecipientId", "FromUserId", "Type", "PostId", "Message", "ActorCount", "IsRead", "CreatedAt")
+            VALUES (?, ?, ?, ?, ?, ?, ?, false, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final ICacheService cacheService;
+    private final INotificationStream notificationStream;
+
+    private final Map<GroupKey, PendingGroup> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Value("${notifications.aggregation-window:1h}")
+    private Duration aggregationWindow;
+
+    @Value("${notifications.unread-counter-ttl:1h}")
+    private Duration unreadCounterTtl;
+
+    @Value("${notifications.max-flush-attempts:10}")
+    private int maxFlushAttempts;
+
+    @Override
+    public CompletableFuture<Void> notifyUser(UUID recipientId, UUID fromUserId, NotificationType type, UUID postId) {
+        var now = LocalDateTime.now();
+        var stored = new CompletableFuture<Void>();
+        // compute() runs under the map's bin lock, so the flush never sees a half-updated group
+        pending.compute(new GroupKey(recipientId, type, postId), (key, group) -> {
+            var result = group == null ? new PendingGroup() : group;
+            result.add(fromUserId, now, stored);
+            return result;
+        });
+        return stored;
+    }
+
+    @Override
+    public long countUnread(UUID recipientId) {
+        var key = CacheNamespaces.unreadNotifications(recipientId);
+        try {
+            var cached = cacheService.getCounter(key);
+            if (cached.isPresent()) {
+                return Math.max(0, cached.get());
+            }
+        } catch (Exception e) {
+            log.warn("Unread counter lookup failed for user: {}", recipientId, e);
+        }
+
+        long count = notificationRepository.countUnreadNotifications(recipientId);
+        try {
+            cacheService.initCounter(key, count, unreadCounterTtl);
+        } catch (Exception e) {
+            log.warn("Failed to seed unread counter for user: {}", recipientId, e);
+        }
+        return count;
+    }
+
+    @Override
+    public void adjustUnread(UUID recipientId, long delta) {
+        try {
+            cacheService.incrementCounter(CacheNamespaces.unreadNotifications(recipientId), delta);
+        } catch (Exception e) {
+            log.warn("Failed to adjust unread counter for user: {}, dropping it", recipientId, e);
+            invalidateUnread(recipientId);
+        }
+    }
+
+    @Override
+    public void invalidateUnread(UUID recipientId) {
+        try {
+            cacheService.delete(CacheNamespaces.unreadNotifications(recipientId));
+        } catch (Exception e) {
+            log.warn("Failed to drop unread counter for user: {}", recipientId, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.flush-interval:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            Map<GroupKey, PendingGroup> drained = new HashMap<>();
+            for (var key : pending.keySet()) {
+                var group = pending.remove(key);
+                if (group != null) {
+                    drained.put(key, group);
+                }
+            }
+
+            if (drained.isEmpty()) {
+                return;
+            }
+
+            Map<UUID, Long> created = new HashMap<>();
+            List<Written> written = new ArrayList<>();
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(drained, created, written));
+                drained.values().forEach(PendingGroup::complete);
+                log.debug("Flushed {} notification groups ({} new rows)", drained.size(),
+                        created.values().stream().mapToLong(Long::longValue).sum());
+            } catch (DataIntegrityViolationException e) {
+                // A post or user was deleted since; write the groups one at a time so only theirs are lost
+                log.warn("Notification flush failed, retrying {} groups one at a time", drained.size(), e);
+                created.clear();
+                written.clear();
+                drained.forEach((key, group) -> flushGroup(key, group, created, written));
+            } catch (Exception e) {
+                log.warn("Notification flush failed, re-queueing {} groups", drained.size(), e);
+                drained.forEach(this::requeue);
+                return;
+            }
+
+            // Bumped rows were already unread; only new rows change the counters
+            created.forEach(this::adjustUnread);
+
+            Map<UUID, Long> unreadCounts = new HashMap<>();
+            for (var entry : written) {
+                var recipientId = entry.recipientId();
+                try {
+                    long unread = unreadCounts.computeIfAbsent(recipientId, this::countUnread);
+                    notificationStream.push(recipientId, entry.notification(), unread);
+                } catch (Exception e) {
+                    log.warn("Failed to push notification to user: {}", recipientId, e);
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void flushGroup(GroupKey key, PendingGroup group, Map<UUID, Long> created, List<Written> written) {
+        Map<UUID, Long> groupCreated = new HashMap<>();
+        List<Written> groupWritten = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(Map.of(key, group), groupCreated, groupWritten));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Dropping {} notification for user {} on post {}", key.type(), key.recipientId(), key.postId(), e);
+            group.complete();
+            return;
+        } catch (Exception e) {
+            requeue(key, group);
+            return;
+        }
+
+        group.complete();
+        groupCreated.forEach((recipientId, count) -> created.merge(recipientId, count, Long::sum));
+        written.addAll(groupWritten);
+    }
+
+    private void requeue(GroupKey key, PendingGroup group) {
+        if (group.recordFailure() >= maxFlushAttempts) {
+            log.warn("Dropping {} notification for user {} after {} failed flushes", key.type(), key.recipientId(), maxFlushAttempts);
+            group.fail(new IllegalStateException("Notification was not stored after " + maxFlushAttempts + " attempts"));
+            return;
+        }
+        pending.merge(key, group, PendingGroup::merge);
+    }
+
+    private void write(Map<GroupKey, PendingGroup> groups, Map<UUID, Long> created, List<Written> written) {
+        var actors = userRepository.findAllById(groups.values().stream().map(PendingGroup::latestActorId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        var windowStart = Timestamp.valueOf(LocalDateTime.now().minus(aggregationWindow));
+
+        List<Object[]> messages = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> actorInserts = new ArrayList<>();
+
+        // Sorted so concurrent flushes on several instances lock rows in the same order
+        groups.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.comparing(GroupKey::recipientId)))
+                .forEach(entry -> {
+                    var key = entry.getKey();
+                    var group = entry.getValue();
+                    var actor = actors.get(group.latestActorId());
+                    if (actor == null) {
+                        // Actor deleted since; nothing sensible to show
+                        return;
+                    }
+
+                    var lastAt = Timestamp.valueOf(group.lastAt());
+                    var bumped = jdbcTemplate.query(BUMP_SQL,
+                            (rs, rowNum) -> new Bumped(rs.getObject("Id", UUID.class), rs.getInt("ActorCount"),
+                                    rs.getTimestamp("CreatedAt").toLocalDateTime()),
+                            group.latestActorId(), lastAt,
+                            key.recipientId(), key.type().ordinal(), key.postId(), windowStart);
+
+                    UUID id;
+                    int actorCount;
+                    LocalDateTime createdAt;
+                    if (!bumped.isEmpty()) {
+                        id = bumped.get(0).id();
+                        createdAt = bumped.get(0).createdAt();
+                        // Only users not already folded into the row add to the count
+                        actorCount = bumped.get(0).actorCount() + insertActors(id, group.actors());
+                        messages.add(new Object[]{NotificationMessages.format(key.type(), actor.getUsername(), actorCount), actorCount, id});
+                    } else {
+                        id = UUID.randomUUID();
+                        createdAt = group.lastAt();
+                        actorCount = group.actors().size();
+                        inserts.add(new Object[]{id, key.recipientId(), actor.getId(), key.type().ordinal(),
+                                key.postId(), NotificationMessages.format(key.type(), actor.getUsername(), actorCount), actorCount, lastAt});
+                        actorInserts.addAll(actorRows(id, group.actors()));
+                        created.merge(key.recipientId(), 1L, Long::sum);
+                    }
+
+                    var notification = NotificationDto.builder()
+                            .id(id)
+                            .message(NotificationMessages.format(key.type(), actor.getUsername(), actorCount))
+                            .type(key.type())
+                            .createdAt(createdAt)
+                            .isRead(false)
+                            .fromUser(SimpleUserDto.builder()
+                                    .id(actor.getId())
+                                    .username(actor.getUsername())
+                                    .profileImageUrl(actor.getProfileImageUrl())
+                                    .profileImageVariants(actor.getProfileImageVariants())
+                                    .build())
+                            .actorCount(actorCount)
+                            .postId(key.postId())
+                            .build();
+                    written.add(new Written(key.recipientId(), notification));
+                });
+
+        if (!messages.isEmpty()) {
+            jdbcTemplate.batchUpdate(SET_MESSAGE_SQL, messages);
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+        if (!actorInserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ACTOR_SQL, actorInserts);
+        }
+    }
+
+    /**
+     * @return Number of actors that weren't recorded for the notification yet
+     */
+    private int insertActors(UUID notificationId, Set<UUID> actorIds) {
+        int inserted = 0;
+        for (int count : jdbcTemplate.batchUpdate(INSERT_ACTOR_SQL, actorRows(notificationId, actorIds))) {
+            inserted += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+        }
+        return inserted;
+    }
+
+    private static List<Object[]> actorRows(UUID notificationId, Set<UUID> actorIds) {
+        return actorIds.stream()
+                .map(actorId -> new Object[]{UUID.randomUUID(), notificationId, actorId})
+                .toList();
+    }
+
+    private record GroupKey(UUID recipientId, NotificationType type, UUID postId) {
+    }
+
+    private record Written(UUID recipientId, NotificationDto notification) {
+    }
+
+    private record Bumped(UUID id, int actorCount, LocalDateTime createdAt) {
+    }
+
+    /**
+     * Actors buffered for one group since the last flush, and the callers waiting for them to be stored
+     */
+    private static class PendingGroup {
+        private final Set<UUID> actors = new LinkedHashSet<>();
+        private final List<CompletableFuture<Void>> waiters = new ArrayList<>();
+        private UUID latestActorId;
+        private LocalDateTime lastAt;
+        private int failures;
+
+        void add(UUID actorId, LocalDateTime at, CompletableFuture<Void> stored) {
+            actors.add(actorId);
+            waiters.add(stored);
+            latestActorId = actorId;
+            lastAt = at;
+        }
+
+        void complete() {
+            waiters.forEach(waiter -> waiter.complete(null));
+        }
+
+        void fail(Throwable cause) {
+            waiters.forEach(waiter -> waiter.completeExceptionally(cause));
+        }
+
+        /**
+         * @return Failed flushes so far, including this one
+         */
+        int recordFailure() {
+            return ++failures;
+        }
+
+        // Combines a failed flush's group with whatever was buffered since
+        PendingGroup merge(PendingGroup other) {
+            var latest = other.lastAt.isAfter(lastAt) ? other : this;
+            var merged = new PendingGroup();
+            merged.actors.addAll(actors);
+            merged.actors.addAll(other.actors);
+            merged.waiters.addAll(waiters);
+            merged.waiters.addAll(other.waiters);
+            merged.latestActorId = latest.latestActorId;
+            merged.lastAt = latest.lastAt;
+            merged.failures = Math.max(failures, other.failures);
+            return merged;
+        }
+
+        Set<UUID> actors() {
+            return actors;
+        }
+
+        UUID latestActorId() {
+            return latestActorId;
+        }
+
+        LocalDateTime lastAt() {
+            return lastAt;
+        }
+    }
+}
\ No newline at end of file
@@ -1,60 +1,276 @@
 package com.jerrygram.infrastructure.services;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.jerrygram.application.dtos.PostListItemDto;
 import com.jerrygram.application.interfaces.IRecommendClient;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.time.Duration;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
+/**
+ * Client for the recommendation service, built so a slow or failing recommender costs explore at
+ * most a fixed budget.
+ * Requests go through a pooled keep-alive HTTP client with connect and per-attempt timeouts. An
+ * attempt still running after the hedge delay gets a second, parallel one and the first answer
+ * wins. A circuit breaker stops calling after consecutive failures and lets one trial request
+ * through once it has been open for a while. Results are cached per user: fresh entries are
+ * served directly, stale ones are served while a background refresh runs, and a caller without
+ * an entry waits at most the budget; the fetch keeps going in the background to fill the cache.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class RecommendClient implements IRecommendClient {
 
-    private final RestTemplate restTemplate;
+    private static final TypeReference<List<PostListItemDto>> RESPONSE_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+
+    // Refreshes in progress, so concurrent misses and revalidations for a user share one fetch
+    private final Map<UUID, CompletableFuture<List<PostListItemDto>>> inFlight = new ConcurrentHashMap<>();
+
+    private HttpClient httpClient;
+    private Cache<UUID, Cached> cache;
+    private CircuitBreaker breaker;
 
     @Value("${recommendation.service.url:http://localhost:3001}")
     private String recommendationServiceUrl;
 
+    // Per attempt; attempts outliving the budget still fill the cache
     @Value("${recommendation.service.timeout:3000}")
     private Duration timeout;
 
+    @Value("${recommendation.service.connect-timeout:500ms}")
+    private Duration connectTimeout;
+
+    // Most an explore request waits for recommendations that aren't cached
+    @Value("${recommendation.service.budget:250ms}")
+    private Duration budget;
+
+    @Value("${recommendation.service.hedge-delay:100ms}")
+    private Duration hedgeDelay;
+
+    @Value("${recommendation.service.fresh-for:1m}")
+    private Duration freshFor;
+
+    // How long past freshness an entry is still served while it revalidates
+    @Value("${recommendation.service.stale-for:10m}")
+    private Duration staleFor;
+
+    @Value("${recommendation.service.cache-size:100000}")
+    private long cacheSize;
+
+    @Value("${recommendation.service.breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${recommendation.service.breaker.open-for:30s}")
+    private Duration openFor;
+
+    @PostConstruct
+    public void init() {
+        // The JDK client keeps idle HTTP/1.1 connections alive and reuses them per host
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(freshFor.plus(staleFor))
+                .build();
+        breaker = new CircuitBreaker(failureThreshold, openFor.toNanos());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        httpClient.shutdownNow();
+    }
+
     @Override
     public List<PostListItemDto> getRecommendations(UUID userId) {
+        var cached = cache.getIfPresent(userId);
+        if (cached != null) {
+            if (System.nanoTime() - cached.fetchedAt() > freshFor.toNanos()) {
+                // Stale: answer now, revalidate in the background
+                refresh(userId);
+            }
+            return copy(cached.posts());
+        }
+
         try {
-            String url = recommendationServiceUrl + "/recommend?userId=" + userId;
-            
-            log.info("Calling recommendation service for user: {} at {}", userId, url);
-            
-            ResponseEntity<List<PostListItemDto>> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    null,
-                    new ParameterizedTypeReference<List<PostListItemDto>>() {}
-            );
-            
-            List<PostListItemDto> recommendations = response.getBody();
-            if (recommendations != null) {
-                log.info("Received {} recommendations for user: {}", recommendations.size(), userId);
-                return recommendations;
+            return copy(refresh(userId).get(budget.toMillis(), TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            log.debug("Recommendations for user {} not ready within {}, serving explore without them", userId, budget);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.debug("Recommendations unavailable for user {}: {}", userId, e.getMessage());
+        }
+        return List.of();
+    }
+
+    private CompletableFuture<List<PostListItemDto>> refresh(UUID userId) {
+        var existing = inFlight.get(userId);
+        if (existing != null) {
+            return existing;
+        }
+
+        var created = new CompletableFuture<List<PostListItemDto>>();
+        existing = inFlight.putIfAbsent(userId, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        fetch(userId).whenComplete((posts, error) -> {
+            inFlight.remove(userId, created);
+            if (error == null) {
+                cache.put(userId, new Cached(posts, System.nanoTime()));
+                created.complete(posts);
             } else {
-                log.warn("Received null recommendations for user: {}", userId);
-                return new ArrayList<>();
+                created.completeExceptionally(error);
             }
-            
-        } catch (Exception e) {
-            log.error("Failed to get recommendations for user: {}", userId, e);
-            return new ArrayList<>();
+        });
+        return created;
+    }
+
+    private CompletableFuture<List<PostListItemDto>> fetch(UUID userId) {
+        if (!breaker.allowRequest()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Recommendation service circuit is open"));
+        }
+
+        var request = HttpRequest.newBuilder(URI.create(recommendationServiceUrl + "/recommend?userId=" + userId))
+                .timeout(timeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        var result = new CompletableFuture<List<PostListItemDto>>();
+        var pending = new AtomicInteger(1);
+        // First success wins; the fetch fails only once every attempt has
+        BiConsumer<List<PostListItemDto>, Throwable> onAttempt = (posts, error) -> {
+            if (error == null) {
+                result.complete(posts);
+            } else if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(error);
+            }
+        };
+
+        send(request).whenComplete(onAttempt);
+        CompletableFuture.delayedExecutor(hedgeDelay.toMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+            if (!result.isDone() && breaker.isClosed()) {
+                pending.incrementAndGet();
+                send(request).whenComplete(onAttempt);
+            }
+        });
+
+        return result.whenComplete((posts, error) -> {
+            if (error == null) {
+                breaker.onSuccess();
+            } else if (breaker.onFailure()) {
+                log.warn("Recommendation service failing, circuit opened for {}: {}", openFor, error.getMessage());
+            }
+        });
+    }
+
+    private CompletableFuture<List<PostListItemDto>> send(HttpRequest request) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("Recommendation service returned " + response.statusCode());
+                    }
+                    try {
+                        var posts = objectMapper.readValue(response.body(), RESPONSE_TYPE);
+                        return posts == null ? List.<PostListItemDto>of() : posts;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    // Cached instances are shared; callers apply per-user like state to copies
+    private List<PostListItemDto> copy(List<PostListItemDto> posts) {
+        return posts.stream()
+                .map(post -> objectMapper.convertValue(post, PostListItemDto.class))
+                .toList();
+    }
+
+    private record Cached(List<PostListItemDto> posts, long fetchedAt) {
+    }
+
+    /**
+     * Consecutive-failure circuit breaker. Open rejects calls until openFor has passed, then lets a
+     * single trial through (half-open); its outcome closes or re-opens the circuit.
+     */
+    private static final class CircuitBreaker {
+        private final int failureThreshold;
+        private final long openForNanos;
+
+        private int failures;
+        private long openUntil;
+        private boolean open;
+        private boolean trialInFlight;
+
+        CircuitBreaker(int failureThreshold, long openForNanos) {
+            this.failureThreshold = failureThreshold;
+            this.openForNanos = openForNanos;
+        }
+
+        synchronized boolean allowRequest() {
+            if (!open) {
+                return true;
+            }
+            if (trialInFlight || System.nanoTime() < openUntil) {
+                return false;
+            }
+            trialInFlight = true;
+            return true;
+        }
+
+        synchronized boolean isClosed() {
+            return !open;
+        }
+
+        synchronized void onSuccess() {
+            failures = 0;
+            open = false;
+            trialInFlight = false;
+        }
+
+        // True when this failure opened the circuit
+        synchronized boolean onFailure() {
+            failures++;
+            boolean opening = trialInFlight || (!open && failures >= failureThreshold);
+            if (opening) {
+                open = true;
+                openUntil = System.nanoTime() + openForNanos;
+            }
+            trialInFlight = false;
+            return opening;
         }
     }
 }
\ No newline at end of file
@@ -1,32 +1,59 @@
 package com.jerrygram.infrastructure.services;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jerrygram.application.interfaces.ICacheCodec;
 import com.jerrygram.application.interfaces.ICacheService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class RedisCacheService implements ICacheService {
 
+    private static final String GENERATION_KEY_PREFIX = "cache:gen:";
+    private static final String LOCK_KEY_PREFIX = "cache:lock:";
+
+    // Only the holder's token may release the lock, so a holder that overran its TTL can't free someone else's
+    private static final DefaultRedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) else return 0 end",
+            Long.class);
+
+    // INCRBY only if the counter was seeded; a missing counter stays missing
+    private static final DefaultRedisScript<Long> INCREMENT_IF_PRESENT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return redis.call('INCRBY', KEYS[1], ARGV[1]) else return nil end",
+            Long.class);
+
+    // Generations, locks and counters are plain strings; cached values go through the codec
     private final RedisTemplate<String, String> redisTemplate;
-    private final ObjectMapper objectMapper;
+    private final RedisTemplate<String, byte[]> binaryRedisTemplate;
+    private final ICacheCodec cacheCodec;
+    private final SingleFlightCacheLoader cacheLoader;
 
     @Override
     public <T> void set(String key, T value, Duration expiration) {
         try {
-            String serializedValue = objectMapper.writeValueAsString(value);
-            redisTemplate.opsForValue().set(key, serializedValue, expiration);
+            byte[] serializedValue = cacheCodec.encode(value);
+            binaryRedisTemplate.opsForValue().set(key, serializedValue, expiration);
             log.debug("Set cache key: {} with expiration: {}", key, expiration);
-        } catch (JsonProcessingException e) {
+        } catch (IOException e) {
             log.error("Failed to serialize value for key: {}", key, e);
             throw new RuntimeException("Cache serialization failed", e);
         }
@@ -35,21 +62,79 @@ public class RedisCacheService implements ICacheService {
     @Override
     public <T> java.util.Optional<T> get(String key, Class<T> type) {
         try {
-            String serializedValue = redisTemplate.opsForValue().get(key);
+            byte[] serializedValue = binaryRedisTemplate.opsForValue().get(key);
             if (serializedValue == null) {
                 log.debug("Cache miss for key: {}", key);
                 return java.util.Optional.empty();
             }
             
-            T value = objectMapper.readValue(serializedValue, type);
+            T value = cacheCodec.decode(serializedValue, type);
             log.debug("Cache hit for key: {}", key);
             return java.util.Optional.of(value);
-        } catch (JsonProcessingException e) {
+        } catch (IOException e) {
             log.error("Failed to deserialize value for key: {}", key, e);
+            // Unreadable (e.g. written by an older codec); drop it so the next read recomputes
+            redisTemplate.delete(key);
             return java.util.Optional.empty();
         }
     }
 
+    @Override
+    public <T> Map<String, T> getAll(Collection<String> keys, Class<T> type) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+
+        // MGET: one round trip for the whole batch
+        List<String> keyList = new ArrayList<>(new LinkedHashSet<>(keys));
+        List<byte[]> values = binaryRedisTemplate.opsForValue().multiGet(keyList);
+
+        Map<String, T> result = new HashMap<>();
+        for (int i = 0; values != null && i < keyList.size(); i++) {
+            if (values.get(i) == null) {
+                continue;
+            }
+            try {
+                result.put(keyList.get(i), cacheCodec.decode(values.get(i), type));
+            } catch (IOException e) {
+                log.error("Failed to deserialize value for key: {}", keyList.get(i), e);
+            }
+        }
+
+        log.debug("Cache bulk get: {} of {} keys hit", result.size(), keyList.size());
+        return result;
+    }
+
+    @Override
+    public <T> void setAll(Map<String, T> values, Duration ttl) {
+        if (values.isEmpty()) {
+            return;
+        }
+
+        Map<byte[], byte[]> encoded = new HashMap<>();
+        try {
+            for (var entry : values.entrySet()) {
+                encoded.put(entry.getKey().getBytes(StandardCharsets.UTF_8), cacheCodec.encode(entry.getValue()));
+            }
+        } catch (IOException e) {
+            log.error("Failed to serialize values for bulk cache set", e);
+            throw new RuntimeException("Cache serialization failed", e);
+        }
+
+        // Pipelined SETEX: one round trip, and each key keeps its own TTL (MSET can't set one)
+        long seconds = Math.max(1, ttl.toSeconds());
+        binaryRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            encoded.forEach((key, value) -> connection.stringCommands().setEx(key, seconds, value));
+            return null;
+        });
+        log.debug("Set {} cache keys with expiration: {}", values.size(), ttl);
+    }
+
+    @Override
+    public <T> T getOrCompute(String key, Class<T> type, Duration ttl, Supplier<T> loader) {
+        return cacheLoader.getOrCompute(this, this, key, type, ttl, loader);
+    }
+
     @Override
     public void delete(String key) {
         Boolean deleted = redisTemplate.delete(key);
@@ -100,4 +185,71 @@ public class RedisCacheService implements ICacheService {
         redisTemplate.expire(key, ttl);
         log.debug("Set expiration for key: {} to {}", key, ttl);
     }
+
+    @Override
+    public String namespacedKey(String namespace, String key) {
+        return namespace + ":v" + generation(namespace) + ":" + key;
+    }
+
+    @Override
+    public void invalidateNamespace(String namespace) {
+        long generation = incrementGeneration(namespace);
+        log.debug("Invalidated cache namespace: {} (generation {})", namespace, generation);
+    }
+
+    /**
+     * Current generation of a namespace (0 until first invalidated)
+     */
+    public long generation(String namespace) {
+        String value = redisTemplate.opsForValue().get(GENERATION_KEY_PREFIX + namespace);
+        return value == null ? 0 : Long.parseLong(value);
+    }
+
+    /**
+     * Bump a namespace's generation and return the new value
+     */
+    public long incrementGeneration(String namespace) {
+        Long generation = redisTemplate.opsForValue().increment(GENERATION_KEY_PREFIX + namespace);
+        return generation == null ? 0 : generation;
+    }
+
+    @Override
+    public java.util.Optional<Long> getCounter(String key) {
+        String value = redisTemplate.opsForValue().get(key);
+        if (value == null) {
+            return java.util.Optional.empty();
+        }
+
+        try {
+            return java.util.Optional.of(Long.parseLong(value));
+        } catch (NumberFormatException e) {
+            log.warn("Dropping non-numeric counter at key: {}", key);
+            redisTemplate.delete(key);
+            return java.util.Optional.empty();
+        }
+    }
+
+    @Override
+    public void initCounter(String key, long value, Duration ttl) {
+        redisTemplate.opsForValue().setIfAbsent(key, String.valueOf(value), ttl);
+    }
+
+    @Override
+    public void incrementCounter(String key, long delta) {
+        redisTemplate.execute(INCREMENT_IF_PRESENT_SCRIPT, List.of(key), String.valueOf(delta));
+    }
+
+    /**
+     * Try to take the short-lived compute lock for a key
+     * @return Lock token, or null if another holder has it
+     */
+    public String tryLock(String key, Duration ttl) {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY_PREFIX + key, token, ttl);
+        return Boolean.TRUE.equals(acquired) ? token : null;
+    }
+
+    public void unlock(String key, String token) {
+        redisTemplate.execute(UNLOCK_SCRIPT, List.of(LOCK_KEY_PREFIX + key), token);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,408 @@
+package com.jerrygram.infrastructure.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jerrygram.application.common.AfterCommit;
+import com.jerrygram.application.common.PostIndex;
+import com.jerrygram.application.common.TagIndex;
+import com.jerrygram.application.common.UserIndex;
+import com.jerrygram.domain.enums.SearchIndexOperation;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Asynchronous Elasticsearch writer.
+ * Each write is recorded in the SearchIndexOutbox table inside the caller's transaction and
+ * handed to a bounded in-memory queue once that transaction commits. The queue is drained in
+ * _bulk requests; failed writes are retried with exponential backoff. Rows are deleted once
+ * Elasticsearch has them, so anything lost from memory (full queue, crash) is picked up again
+ * from the table when its lease runs out.
+ * Writes can therefore arrive out of order. A write is skipped if the outbox holds a newer row
+ * for the same document (pending, or an applied delete kept as a tombstone), and documents are
+ * indexed with the outbox ID as external version so Elasticsearch rejects an older write that
+ * races a newer one.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndexingPipeline {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO "SearchIndexOutbox" ("IndexName", "DocumentId", "Operation", "Payload", "Attempts", "CreatedAt", "ClaimedUntil")
+            VALUES (?, ?, ?, ?, 0, ?, ?)
+            RETURNING "Id"
+            """;
+
+    private static final String DELETE_SQL = """
+            DELETE FROM "SearchIndexOutbox" WHERE "Id" = ?
+            """;
+
+    private static final String TOMBSTONE_SQL = """
+            UPDATE "SearchIndexOutbox" SET "AppliedAt" = ? WHERE "Id" = ?
+            """;
+
+    private static final String PURGE_TOMBSTONES_SQL = """
+            DELETE FROM "SearchIndexOutbox" WHERE "AppliedAt" < ?
+            """;
+
+    // Newest row per document among the given documents; the IN list is appended per batch
+    private static final String NEWEST_SQL = """
+            SELECT "IndexName", "DocumentId", MAX("Id") AS "NewestId" FROM "SearchIndexOutbox"
+            WHERE "DocumentId" IN (%s)
+            GROUP BY "IndexName", "DocumentId"
+            """;
+
+    private static final String VERSION_CONFLICT = "version_conflict_engine_exception";
+
+    private static final String GIVE_UP_SQL = """
+            UPDATE "SearchIndexOutbox" SET "Attempts" = ? WHERE "Id" = ?
+            """;
+
+    // Claims rows whose lease expired; SKIP LOCKED lets several instances recover concurrently
+    private static final String CLAIM_SQL = """
+            UPDATE "SearchIndexOutbox" SET "ClaimedUntil" = ?
+            WHERE "Id" IN (SELECT "Id" FROM "SearchIndexOutbox"
+                           WHERE "ClaimedUntil" < ? AND "Attempts" < ? AND "AppliedAt" IS NULL
+                           ORDER BY "Id"
+                           LIMIT ?
+                           FOR UPDATE SKIP LOCKED)
+            RETURNING "Id", "IndexName", "DocumentId", "Operation", "Payload", "Attempts"
+            """;
+
+    private static final Map<String, Class<?>> DOCUMENT_TYPES = Map.of(
+            "posts", PostIndex.class,
+            "users", UserIndex.class,
+            "tags", TagIndex.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ObjectMapper objectMapper;
+
+    private BlockingQueue<Entry> queue;
+    // Failed writes waiting for their backoff to pass; guarded by flushLock
+    private final List<Entry> retries = new ArrayList<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Value("${elastic.indexing.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${elastic.indexing.bulk-size:500}")
+    private int bulkSize;
+
+    @Value("${elastic.indexing.lease:2m}")
+    private Duration lease;
+
+    @Value("${elastic.indexing.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${elastic.indexing.initial-backoff:500ms}")
+    private Duration initialBackoff;
+
+    // Must outlast the lease plus all retries, so every older write for a deleted document sees it
+    @Value("${elastic.indexing.tombstone-retention:1h}")
+    private Duration tombstoneRetention;
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Queue a document to be indexed (created or replaced)
+     */
+    public void index(String indexName, String documentId, Object document) {
+        try {
+            enqueue(indexName, documentId, SearchIndexOperation.Index, objectMapper.writeValueAsString(document));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize search document " + indexName + "/" + documentId, e);
+        }
+    }
+
+    /**
+     * Queue a document to be removed from an index
+     */
+    public void delete(String indexName, String documentId) {
+        enqueue(indexName, documentId, SearchIndexOperation.Delete, null);
+    }
+
+    @Scheduled(fixedDelayString = "${elastic.indexing.flush-interval:200}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            while (true) {
+                List<Entry> batch = new ArrayList<>();
+                long now = System.currentTimeMillis();
+
+                var due = retries.iterator();
+                while (due.hasNext() && batch.size() < bulkSize) {
+                    var entry = due.next();
+                    if (entry.notBefore() <= now) {
+                        batch.add(entry);
+                        due.remove();
+                    }
+                }
+                queue.drainTo(batch, bulkSize - batch.size());
+
+                if (batch.isEmpty()) {
+                    return;
+                }
+                process(batch);
+                if (batch.size() < bulkSize) {
+                    return;
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Re-queue outbox rows nobody is working on: writes dropped by a full queue, given up
+     * in memory, or left behind by an instance that stopped before reaching Elasticsearch
+     */
+    @Scheduled(fixedDelayString = "${elastic.indexing.recovery-interval:30000}")
+    public void recover() {
+        try {
+            jdbcTemplate.update(PURGE_TOMBSTONES_SQL, Timestamp.valueOf(LocalDateTime.now().minus(tombstoneRetention)));
+        } catch (Exception e) {
+            log.warn("Failed to purge search index tombstones", e);
+        }
+
+        int capacity = queue.remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+
+        try {
+            var now = LocalDateTime.now();
+            var claimed = jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> new Entry(
+                            rs.getLong("Id"),
+                            rs.getString("IndexName"),
+                            rs.getString("DocumentId"),
+                            SearchIndexOperation.values()[rs.getInt("Operation")],
+                            rs.getString("Payload"),
+                            rs.getInt("Attempts"),
+                            0),
+                    Timestamp.valueOf(now.plus(lease)), Timestamp.valueOf(now), maxAttempts, capacity);
+
+            claimed.forEach(queue::offer);
+            if (!claimed.isEmpty()) {
+                log.info("Recovered {} pending search index writes from the outbox", claimed.size());
+            }
+        } catch (Exception e) {
+            log.warn("Search index outbox recovery failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Whatever doesn't make it is still in the outbox
+        flush();
+    }
+
+    private void enqueue(String indexName, String documentId, SearchIndexOperation operation, String payload) {
+        var now = LocalDateTime.now();
+        Long id = jdbcTemplate.queryForObject(INSERT_SQL, Long.class,
+                indexName, documentId, operation.ordinal(), payload,
+                Timestamp.valueOf(now), Timestamp.valueOf(now.plus(lease)));
+
+        var entry = new Entry(id, indexName, documentId, operation, payload, 0, 0);
+        AfterCommit.run(() -> {
+            if (!queue.offer(entry)) {
+                log.debug("Indexing queue full, {}/{} left for outbox recovery", indexName, documentId);
+            }
+        });
+    }
+
+    private void process(List<Entry> batch) {
+        // Only the newest write per document goes to Elasticsearch; older ones are superseded
+        Map<String, Entry> latest = new LinkedHashMap<>();
+        List<Long> superseded = new ArrayList<>();
+        batch.stream()
+                .sorted(Comparator.comparingLong(Entry::id))
+                .forEach(entry -> {
+                    var previous = latest.put(documentKey(entry.indexName(), entry.documentId()), entry);
+                    if (previous != null) {
+                        superseded.add(previous.id());
+                    }
+                });
+
+        // Late writes (dropped from the queue, recovered, retried) may have been overtaken outside this batch
+        try {
+            var newest = findNewest(latest.values());
+            latest.values().removeIf(entry -> {
+                Long newestId = newest.get(documentKey(entry.indexName(), entry.documentId()));
+                if (newestId != null && newestId > entry.id()) {
+                    superseded.add(entry.id());
+                    return true;
+                }
+                return false;
+            });
+        } catch (Exception e) {
+            // External versions still keep Elasticsearch from going backwards for indexed documents
+            log.warn("Failed to check search index writes for newer versions", e);
+        }
+        acknowledge(superseded);
+
+        latest.values().stream()
+                .collect(Collectors.groupingBy(Entry::indexName, LinkedHashMap::new, Collectors.toList()))
+                .forEach(this::write);
+    }
+
+    private void write(String indexName, List<Entry> entries) {
+        var indexes = entries.stream().filter(entry -> entry.operation() == SearchIndexOperation.Index).toList();
+        var deletes = entries.stream().filter(entry -> entry.operation() == SearchIndexOperation.Delete).toList();
+        var coordinates = IndexCoordinates.of(indexName);
+
+        if (!indexes.isEmpty()) {
+            try {
+                var queries = indexes.stream()
+                        .map(entry -> new IndexQueryBuilder()
+                                .withId(entry.documentId())
+                                .withObject(readDocument(entry))
+                                // External versioning (the @Document default): older writes are rejected
+                                .withVersion(entry.id())
+                                .build())
+                        .toList();
+                elasticsearchOperations.bulkIndex(queries, coordinates);
+                acknowledge(indexes.stream().map(Entry::id).toList());
+                log.debug("Bulk indexed {} documents into {}", indexes.size(), indexName);
+            } catch (BulkFailureException e) {
+                // Partial failure: retry only the documents Elasticsearch rejected; a version
+                // conflict means a newer write is already indexed, so that one is done
+                Set<String> failedIds = new HashSet<>();
+                e.getFailedDocuments().forEach((documentId, failure) -> {
+                    if (!String.valueOf(failure).contains(VERSION_CONFLICT)) {
+                        failedIds.add(documentId);
+                    }
+                });
+                acknowledge(indexes.stream().filter(entry -> !failedIds.contains(entry.documentId())).map(Entry::id).toList());
+                indexes.stream().filter(entry -> failedIds.contains(entry.documentId())).forEach(entry -> retry(entry, e));
+            } catch (Exception e) {
+                indexes.forEach(entry -> retry(entry, e));
+            }
+        }
+
+        if (!deletes.isEmpty()) {
+            try {
+                var ids = deletes.stream().map(Entry::documentId).toList();
+                elasticsearchOperations.delete(elasticsearchOperations.idsQuery(ids), DOCUMENT_TYPES.get(indexName), coordinates);
+                markApplied(deletes.stream().map(Entry::id).toList());
+                log.debug("Bulk deleted {} documents from {}", deletes.size(), indexName);
+            } catch (Exception e) {
+                deletes.forEach(entry -> retry(entry, e));
+            }
+        }
+    }
+
+    private Object readDocument(Entry entry) {
+        var type = DOCUMENT_TYPES.get(entry.indexName());
+        if (type == null) {
+            throw new IllegalStateException("Unknown search index: " + entry.indexName());
+        }
+
+        try {
+            return objectMapper.readValue(entry.payload(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable search document " + entry.indexName() + "/" + entry.documentId(), e);
+        }
+    }
+
+    private void retry(Entry entry, Exception cause) {
+        int attempts = entry.attempts() + 1;
+        if (attempts >= maxAttempts) {
+            // The row stays in the outbox for inspection; recovery skips it from now on
+            log.error("Giving up on search index write {}/{} after {} attempts",
+                    entry.indexName(), entry.documentId(), attempts, cause);
+            try {
+                jdbcTemplate.update(GIVE_UP_SQL, attempts, entry.id());
+            } catch (Exception e) {
+                log.warn("Failed to record abandoned search index write {}", entry.id(), e);
+            }
+            return;
+        }
+
+        long backoff = initialBackoff.toMillis() << (attempts - 1);
+        log.warn("Search index write {}/{} failed (attempt {}), retrying in {}ms: {}",
+                entry.indexName(), entry.documentId(), attempts, backoff, cause.getMessage());
+        retries.add(entry.retry(attempts, System.currentTimeMillis() + backoff));
+    }
+
+    private Map<String, Long> findNewest(Collection<Entry> entries) {
+        if (entries.isEmpty()) {
+            return Map.of();
+        }
+
+        var documentIds = entries.stream().map(Entry::documentId).distinct().toList();
+        var sql = NEWEST_SQL.formatted(String.join(", ", Collections.nCopies(documentIds.size(), "?")));
+        Map<String, Long> newest = new HashMap<>();
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> newest.put(
+                documentKey(rs.getString("IndexName"), rs.getString("DocumentId")), rs.getLong("NewestId")),
+                documentIds.toArray());
+        return newest;
+    }
+
+    private void markApplied(List<Long> ids) {
+        var now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            jdbcTemplate.batchUpdate(TOMBSTONE_SQL, ids.stream().map(id -> new Object[]{now, id}).toList());
+        } catch (Exception e) {
+            // The delete will be re-sent after its lease expires; deleting twice is harmless
+            log.warn("Failed to record {} applied search index deletes", ids.size(), e);
+        }
+    }
+
+    private static String documentKey(String indexName, String documentId) {
+        return indexName + "/" + documentId;
+    }
+
+    private void acknowledge(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(DELETE_SQL, ids.stream().map(id -> new Object[]{id}).toList());
+        } catch (Exception e) {
+            // Rows will be re-sent after their lease expires; writes are idempotent
+            log.warn("Failed to acknowledge {} search index writes", ids.size(), e);
+        }
+    }
+
+    private record Entry(long id, String indexName, String documentId, SearchIndexOperation operation,
+                         String payload, int attempts, long notBefore) {
+
+        Entry retry(int attempts, long notBefore) {
+            return new Entry(id, indexName, documentId, operation, payload, attempts, notBefore);
+        }
+    }
+}
\ No newline at end of file
@@ -1,9 +1,13 @@
 package com.jerrygram.infrastructure.services;
 
+import com.jerrygram.application.common.CacheNamespaces;
 import com.jerrygram.application.dtos.PostDto;
 import com.jerrygram.application.dtos.SearchResultDto;
 import com.jerrygram.application.dtos.UserProfileDto;
+import com.jerrygram.application.interfaces.IAutocompleteIndex;
+import com.jerrygram.application.interfaces.IAutocompleteIndex.UserSuggestion;
 import com.jerrygram.application.interfaces.ICacheService;
+import com.jerrygram.application.interfaces.IHashtagIndex;
 import com.jerrygram.application.interfaces.ISearchService;
 import com.jerrygram.domain.entities.Post;
 import com.jerrygram.domain.entities.User;
@@ -14,12 +18,18 @@ import com.jerrygram.infrastructure.repositories.UserFollowRepository;
 import com.jerrygram.infrastructure.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -31,6 +41,11 @@ public class SearchService implements ISearchService {
     private final UserFollowRepository userFollowRepository;
     private final PostTagRepository postTagRepository;
     private final ICacheService cacheService;
+    private final IHashtagIndex hashtagIndex;
+    private final IAutocompleteIndex autocompleteIndex;
+
+    @Value("${search.hashtag.page-size:50}")
+    private int hashtagPageSize;
 
     @Override
     public SearchResultDto search(String query, String userId) {
@@ -67,11 +82,16 @@ public class SearchService implements ISearchService {
     
     private SearchResultDto searchByHashtag(String query, UUID userId, List<UUID> followingIds) {
         String tag = query.substring(1).toLowerCase();
-        var postIds = postTagRepository.getPostIdsByTag(tag);
-        var posts = postRepository.findByIdIn(postIds);
+        var following = new HashSet<>(followingIds);
+        
+        // The index picks the newest visible posts; only that page is loaded
+        var posts = hashtagIndex.search(tag, userId, following, 0, hashtagPageSize)
+                .map(this::findInOrder)
+                .orElseGet(() -> postRepository.findVisibleByHashtag(tag, userId, PageRequest.of(0, hashtagPageSize)));
         
         var filteredPosts = posts.stream()
-                .filter(post -> isPostVisible(post, userId, followingIds))
+                // The index can trail a visibility change by a moment
+                .filter(post -> isPostVisible(post, userId, following))
                 .map(this::mapToPostDto)
                 .toList();
         
@@ -82,6 +102,20 @@ public class SearchService implements ISearchService {
                 .build();
     }
     
+    private List<Post> findInOrder(List<UUID> postIds) {
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+        
+        var postsById = postRepository.findWithUserByIdIn(postIds)
+                .stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        return postIds.stream()
+                .map(postsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+    
     private SearchResultDto searchGeneral(String query, UUID userId, List<UUID> followingIds) {
         var pageable = PageRequest.of(0, 10);
         
@@ -103,7 +137,7 @@ public class SearchService implements ISearchService {
                 .build();
     }
     
-    private boolean isPostVisible(Post post, UUID userId, List<UUID> followingIds) {
+    private boolean isPostVisible(Post post, UUID userId, Collection<UUID> followingIds) {
         return post.getVisibility() == PostVisibility.Public ||
                (post.getVisibility() == PostVisibility.FollowersOnly && 
                 userId != null && followingIds.contains(post.getUser().getId()));
@@ -134,46 +168,26 @@ public class SearchService implements ISearchService {
                 .build();
     }
 
+    private UserProfileDto mapToUserDto(UserSuggestion suggestion) {
+        return UserProfileDto.builder()
+                .id(suggestion.id())
+                .username(suggestion.username())
+                .profileImageUrl(suggestion.profileImageUrl())
+                .followers(0)
+                .followings(0)
+                .build();
+    }
+
     @Override
     public SearchResultDto autocomplete(String query) {
         log.info("Autocomplete for: {}", query);
         
-        String cacheKey = "autocomplete:" + query.trim().toLowerCase();
-        
-        // Try cache first
-        var cached = tryGetFromCache(cacheKey);
-        if (cached != null) {
-            log.debug("Autocomplete cache hit for query: {}", query);
-            return cached;
-        }
-        
-        log.debug("Autocomplete cache miss for query: {}", query);
+        String normalizedQuery = query.trim().toLowerCase();
+        String cacheKey = cacheService.namespacedKey(CacheNamespaces.autocomplete(normalizedQuery), normalizedQuery);
         
-        SearchResultDto result = performAutocomplete(query.trim());
-        
-        // Cache for 5 minutes
-        trySetCache(cacheKey, result);
-        
-        return result;
-    }
-    
-    private SearchResultDto tryGetFromCache(String cacheKey) {
-        try {
-            var cached = cacheService.get(cacheKey, SearchResultDto.class);
-            return cached.orElse(null);
-        } catch (Exception e) {
-            log.warn("Cache get failed for key: {}", cacheKey, e);
-            return null;
-        }
-    }
-    
-    private void trySetCache(String cacheKey, SearchResultDto result) {
-        try {
-            cacheService.set(cacheKey, result, Duration.ofMinutes(5));
-            log.info("Autocomplete result cached");
-        } catch (Exception e) {
-            log.warn("Cache set failed for key: {}", cacheKey, e);
-        }
+        // Cache for 5 minutes; concurrent misses for the same query share one lookup
+        return cacheService.getOrCompute(cacheKey, SearchResultDto.class, Duration.ofMinutes(5),
+                () -> performAutocomplete(query.trim()));
     }
     
     private SearchResultDto performAutocomplete(String query) {
@@ -185,38 +199,38 @@ public class SearchService implements ISearchService {
     }
     
     private SearchResultDto autocompleteHashtag(String keyword) {
-        var hashtags = postTagRepository.findHashtagsByPrefix(keyword)
-                .stream()
-                .limit(3)
-                .toList();
-        
-        var users = userRepository.findByUsernameStartingWithIgnoreCase(keyword, PageRequest.of(0, 10))
-                .stream()
-                .map(this::mapToUserDto)
-                .toList();
-        
         return SearchResultDto.builder()
-                .users(users)
+                .users(completeUsers(keyword))
                 .posts(List.of())
-                .hashtags(hashtags)
+                .hashtags(completeHashtags(keyword))
                 .build();
     }
     
     private SearchResultDto autocompleteGeneral(String query) {
-        var hashtags = postTagRepository.findHashtagsByPrefix(query.toLowerCase())
-                .stream()
-                .limit(3)
-                .toList();
-        
-        var users = userRepository.findByUsernameStartingWithIgnoreCase(query, PageRequest.of(0, 10))
-                .stream()
-                .map(this::mapToUserDto)
-                .toList();
-        
         return SearchResultDto.builder()
-                .users(users)
+                .users(completeUsers(query))
                 .posts(List.of())
-                .hashtags(hashtags)
+                .hashtags(completeHashtags(query.toLowerCase()))
                 .build();
     }
+    
+    // Served by the in-memory prefix index; the database only answers while it loads
+    private List<String> completeHashtags(String prefix) {
+        return autocompleteIndex.completeHashtags(prefix, 3)
+                .orElseGet(() -> postTagRepository.findHashtagsByPrefix(prefix)
+                        .stream()
+                        .limit(3)
+                        .toList());
+    }
+    
+    private List<UserProfileDto> completeUsers(String prefix) {
+        return autocompleteIndex.completeUsers(prefix, 10)
+                .map(suggestions -> suggestions.stream()
+                        .map(this::mapToUserDto)
+                        .toList())
+                .orElseGet(() -> userRepository.findByUsernameStartingWithIgnoreCase(prefix, PageRequest.of(0, 10))
+                        .stream()
+                        .map(this::mapToUserDto)
+                        .toList());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,186 @@
+package com.jerrygram.infrastructure.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jerrygram.application.interfaces.ICacheService;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Shared getOrCompute implementation for the cache services.
+ * Concurrent misses for a key on one instance share a single loader call, an optional
+ * Redis lock keeps other instances from recomputing the same key at the same time, and
+ * entries are refreshed probabilistically ahead of expiry (XFetch) so a hot key never
+ * expires under load.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SingleFlightCacheLoader {
+
+    private static final long LOCK_POLL_MILLIS = 20;
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    // Higher values refresh earlier; 1.0 is the XFetch default
+    @Value("${cache.early-refresh.beta:1.0}")
+    private double beta;
+
+    @Value("${cache.compute-lock.enabled:true}")
+    private boolean lockEnabled;
+
+    @Value("${cache.compute-lock.ttl:5s}")
+    private Duration lockTtl;
+
+    @Value("${cache.compute-lock.wait:200ms}")
+    private Duration lockWait;
+
+    /**
+     * @param cache Cache holding the value
+     * @param lockService Redis service used for the cross-instance lock, or null for in-process only
+     */
+    public <T> T getOrCompute(ICacheService cache, RedisCacheService lockService,
+                              String key, Class<T> type, Duration ttl, Supplier<T> loader) {
+        var cached = cache.get(key, CachedValue.class);
+        if (cached.isPresent()) {
+            var entry = cached.get();
+            // While a refresh is running, everyone else keeps getting the current value
+            if (!shouldRefreshEarly(entry) || inFlight.containsKey(key)) {
+                return convert(entry.getValue(), type);
+            }
+            log.debug("Refreshing cache key {} ahead of expiry", key);
+        }
+
+        var flight = new CompletableFuture<Object>();
+        var existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            log.debug("Joining in-flight load for cache key {}", key);
+            return convert(await(existing), type);
+        }
+
+        try {
+            T value = computeWithLock(cache, lockEnabled ? lockService : null, key, type, ttl, loader);
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private <T> T computeWithLock(ICacheService cache, RedisCacheService lockService,
+                                  String key, Class<T> type, Duration ttl, Supplier<T> loader) {
+        String token = null;
+        if (lockService != null) {
+            try {
+                token = lockService.tryLock(key, lockTtl);
+                if (token == null) {
+                    // Another instance is computing; give it a moment to publish the value
+                    var published = waitForValue(cache, key, type);
+                    if (published != null) {
+                        return published;
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("Compute lock unavailable for key: {}", key, e);
+            }
+        }
+
+        try {
+            long start = System.currentTimeMillis();
+            T value = loader.get();
+            long computeMillis = System.currentTimeMillis() - start;
+
+            if (value != null) {
+                try {
+                    var entry = new CachedValue(value, computeMillis, System.currentTimeMillis() + ttl.toMillis());
+                    cache.set(key, entry, ttl);
+                } catch (Exception e) {
+                    log.warn("Cache set failed for key: {}", key, e);
+                }
+            }
+            return value;
+        } finally {
+            if (token != null) {
+                try {
+                    lockService.unlock(key, token);
+                } catch (Exception e) {
+                    log.warn("Failed to release compute lock for key: {}", key, e);
+                }
+            }
+        }
+    }
+
+    private <T> T waitForValue(ICacheService cache, String key, Class<T> type) {
+        long deadline = System.currentTimeMillis() + lockWait.toMillis();
+        while (System.currentTimeMillis() < deadline) {
+            var cached = cache.get(key, CachedValue.class);
+            if (cached.isPresent()) {
+                return convert(cached.get().getValue(), type);
+            }
+
+            try {
+                Thread.sleep(LOCK_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * XFetch: refresh with a probability that rises as expiry nears, weighted by how long the value took to compute
+     */
+    private boolean shouldRefreshEarly(CachedValue entry) {
+        double gap = -entry.getComputeMillis() * beta * Math.log(ThreadLocalRandom.current().nextDouble());
+        return System.currentTimeMillis() + gap >= entry.getExpiresAt();
+    }
+
+    private static Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private <T> T convert(Object value, Class<T> type) {
+        if (value == null || type.isInstance(value)) {
+            return type.cast(value);
+        }
+        // Values read back from Redis are untyped maps
+        return objectMapper.convertValue(value, type);
+    }
+
+    /**
+     * Cached value plus what early refresh needs to know about it
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CachedValue {
+        private Object value;
+        private long computeMillis;
+        private long expiresAt;
+    }
+}
\ No newline at end of file
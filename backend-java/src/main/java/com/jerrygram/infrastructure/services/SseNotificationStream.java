@@ -0,0 +1,178 @@
+package com.jerrygram.infrastructure.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jerrygram.application.dtos.NotificationDto;
+import com.jerrygram.application.interfaces.INotificationStream;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Server-Sent Events notification stream.
+ * Each node keeps a registry of its own connected users. A push is delivered to local streams
+ * directly and broadcast on a Redis channel so the nodes holding the recipient's other streams
+ * deliver it too (local only when Redis is off). Writes go out on virtual threads, so a slow
+ * client only ever blocks its own send; a periodic heartbeat keeps proxies from closing idle
+ * streams and weeds out dead connections.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SseNotificationStream implements INotificationStream {
+
+    private static final String PUSH_CHANNEL = "notifications:push";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectProvider<RedisMessageListenerContainer> listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<UUID, Set<SseEmitter>> connections = new ConcurrentHashMap<>();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Lets a node ignore its own broadcasts
+    private final String nodeId = UUID.randomUUID().toString();
+    private boolean broadcast;
+
+    // Clients reconnect (EventSource does so automatically) once a stream times out
+    @Value("${notifications.stream.timeout:30m}")
+    private Duration timeout;
+
+    @Value("${notifications.stream.max-per-user:5}")
+    private int maxPerUser;
+
+    @PostConstruct
+    public void init() {
+        var container = listenerContainer.getIfAvailable();
+        if (container != null) {
+            container.addMessageListener(this::onPush, new ChannelTopic(PUSH_CHANNEL));
+            broadcast = true;
+        }
+
+        meterRegistry.gauge("notifications.stream.connections", connections,
+                map -> map.values().stream().mapToInt(Set::size).sum());
+        log.info("Notification stream ready (cross-node fan-out: {})", broadcast);
+    }
+
+    @Override
+    public SseEmitter connect(UUID userId, long unreadCount) {
+        var emitter = new SseEmitter(timeout.toMillis());
+        // compute() keeps this from racing with remove() dropping the user's last stream
+        var streams = connections.compute(userId, (id, existing) -> {
+            var result = existing == null ? ConcurrentHashMap.<SseEmitter>newKeySet() : existing;
+            if (result.size() >= maxPerUser) {
+                // Caps streams held open by forgotten tabs; the evicted client reconnects if still alive
+                result.stream().findFirst().ifPresent(SseEmitter::complete);
+            }
+            result.add(emitter);
+            return result;
+        });
+
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(e -> remove(userId, emitter));
+
+        send(userId, emitter, SseEmitter.event().name("unread-count").data(Map.of("count", unreadCount)));
+        log.debug("User {} connected to notification stream ({} on this node)", userId, streams.size());
+        return emitter;
+    }
+
+    @Override
+    public void push(UUID userId, NotificationDto notification, long unreadCount) {
+        deliver(userId, notification, unreadCount);
+
+        if (broadcast) {
+            try {
+                var message = new Push(nodeId, userId, notification, unreadCount);
+                redisTemplate.convertAndSend(PUSH_CHANNEL, objectMapper.writeValueAsString(message));
+            } catch (Exception e) {
+                log.warn("Failed to broadcast notification for user: {}", userId, e);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.stream.heartbeat-interval:20000}")
+    public void heartbeat() {
+        connections.forEach((userId, streams) ->
+                streams.forEach(emitter -> send(userId, emitter, SseEmitter.event().comment("ping"))));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connections.values().forEach(streams -> streams.forEach(SseEmitter::complete));
+        sender.shutdown();
+    }
+
+    private void deliver(UUID userId, NotificationDto notification, long unreadCount) {
+        var streams = connections.get(userId);
+        if (streams == null || streams.isEmpty()) {
+            return;
+        }
+
+        for (var emitter : streams) {
+            send(userId, emitter,
+                    SseEmitter.event().name("notification").id(String.valueOf(notification.getId())).data(notification),
+                    SseEmitter.event().name("unread-count").data(Map.of("count", unreadCount)));
+        }
+    }
+
+    // Events passed together are written in order by one task
+    private void send(UUID userId, SseEmitter emitter, SseEmitter.SseEventBuilder... events) {
+        try {
+            sender.execute(() -> {
+                try {
+                    for (var event : events) {
+                        emitter.send(event);
+                    }
+                } catch (Exception e) {
+                    // Client went away; completing triggers the removal callback
+                    log.debug("Dropping notification stream for user {}: {}", userId, e.getMessage());
+                    remove(userId, emitter);
+                    emitter.completeWithError(e);
+                }
+            });
+        } catch (Exception e) {
+            log.debug("Notification stream sender unavailable", e);
+        }
+    }
+
+    private void remove(UUID userId, SseEmitter emitter) {
+        connections.computeIfPresent(userId, (id, streams) -> {
+            streams.remove(emitter);
+            return streams.isEmpty() ? null : streams;
+        });
+    }
+
+    private void onPush(Message message, byte[] pattern) {
+        try {
+            var push = objectMapper.readValue(message.getBody(), Push.class);
+            if (!nodeId.equals(push.node())) {
+                deliver(push.userId(), push.notification(), push.unreadCount());
+            }
+        } catch (Exception e) {
+            log.warn("Ignoring malformed notification push message", e);
+        }
+    }
+
+    private record Push(String node, UUID userId, NotificationDto notification, long unreadCount) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,469 @@
+package com.jerrygram.infrastructure.services;
+
+import com.jerrygram.application.common.PageCursor;
+import com.jerrygram.application.interfaces.ITimelineService;
+import com.jerrygram.infrastructure.repositories.PostRepository;
+import com.jerrygram.infrastructure.repositories.UserFollowRepository;
+import com.jerrygram.infrastructure.repositories.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Per-user home timelines stored as Redis sorted sets (post ID scored by creation time),
+ * with an in-process fallback used while Redis is unavailable.
+ * Posts from accounts with more than {@code timeline.fan-out.max-followers} followers are
+ * not pushed; they are merged into the timeline at read time instead.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TimelineService implements ITimelineService {
+
+    private static final String TIMELINE_KEY_PREFIX = "timeline:";
+    private static final String LARGE_ACCOUNTS_KEY = "timeline:large_accounts";
+    private static final int FAN_OUT_BATCH_SIZE = 1000;
+    private static final Duration LARGE_ACCOUNTS_REFRESH = Duration.ofSeconds(30);
+
+    // Placeholder member scored below every post, so a materialized timeline with no posts
+    // still exists in Redis (empty sorted sets are deleted) and is not rebuilt on every read
+    private static final String EMPTY_MARKER = "-";
+    private static final double EMPTY_MARKER_SCORE = -1;
+
+    // Only pushes into timelines that are already materialized, then trims to the size bound
+    private static final byte[] FAN_OUT_SCRIPT = ("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                redis.call('ZADD', KEYS[1], ARGV[1], ARGV[2])
+                redis.call('ZREMRANGEBYRANK', KEYS[1], 0, -(tonumber(ARGV[3]) + 1))
+                return 1
+            end
+            return 0
+            """).getBytes(StandardCharsets.UTF_8);
+
+    private static final Comparator<TimelineEntry> NEWEST_FIRST = Comparator
+            .comparingLong(TimelineEntry::score).reversed()
+            .thenComparing(TimelineEntry::postId);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final UserFollowRepository userFollowRepository;
+    private final UserRepository userRepository;
+    private final PostRepository postRepository;
+
+    private final Map<UUID, MemoryTimeline> memoryTimelines = new ConcurrentHashMap<>();
+    private final Set<UUID> memoryLargeAccounts = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor fanOutExecutor;
+
+    private volatile Set<UUID> largeAccounts = Set.of();
+    private volatile long largeAccountsLoadedAt;
+
+    @Value("${timeline.max-size:800}")
+    private int maxSize;
+
+    @Value("${timeline.fan-out.max-followers:10000}")
+    private int fanOutMaxFollowers;
+
+    @Value("${timeline.ttl:7d}")
+    private Duration ttl;
+
+    @Value("${timeline.memory.ttl:5m}")
+    private Duration memoryTtl;
+
+    @Value("${timeline.memory.max-users:10000}")
+    private int memoryMaxUsers;
+
+    @Value("${timeline.fan-out.threads:2}")
+    private int fanOutThreads;
+
+    @Value("${timeline.fan-out.queue-capacity:10000}")
+    private int fanOutQueueCapacity;
+
+    @PostConstruct
+    public void init() {
+        // When the queue is full the committing request thread does the fan-out itself,
+        // which slows posting down instead of dropping the post from followers' timelines
+        fanOutExecutor = new ThreadPoolExecutor(fanOutThreads, fanOutThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fanOutQueueCapacity),
+                Thread.ofPlatform().name("timeline-fan-out-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Override
+    public void fanOut(UUID authorId, UUID postId, LocalDateTime createdAt) {
+        long score = toScore(createdAt != null ? createdAt : LocalDateTime.now());
+
+        fanOutExecutor.execute(() -> {
+            try {
+                doFanOut(authorId, new TimelineEntry(postId, score));
+            } catch (Exception e) {
+                log.warn("Timeline fan-out failed for post: {}", postId, e);
+            }
+        });
+    }
+
+    @Override
+    public List<UUID> getTimeline(UUID userId, int page, int pageSize) {
+        int offset = page * pageSize;
+
+        return readMergedTimeline(userId, offset + pageSize).stream()
+                .skip(offset)
+                .limit(pageSize)
+                .map(TimelineEntry::postId)
+                .toList();
+    }
+
+    @Override
+    public List<PageCursor> getTimelineAfter(UUID userId, PageCursor after, int limit) {
+        if (after == null) {
+            return toCursors(readMergedTimeline(userId, limit));
+        }
+
+        var cursor = new TimelineEntry(after.getId(), toScore(after.getCreatedAt()));
+        var entries = readTimelineAfter(userId, cursor, limit);
+
+        var followedLargeAccounts = getFollowedLargeAccounts(userId);
+        if (!followedLargeAccounts.isEmpty()) {
+            // Upper bound is exclusive, so widen by 1ms to keep same-millisecond ties and filter them below
+            var pulled = toEntries(postRepository.getPostRefsByUsersBefore(
+                    followedLargeAccounts, toDateTime(cursor.score() + 1), PageRequest.of(0, limit)));
+            entries = merge(entries, olderThan(pulled.stream(), cursor).toList(), limit);
+        }
+
+        return toCursors(entries);
+    }
+
+    @Override
+    public long getTimelineSize(UUID userId) {
+        try {
+            Long size = redisTemplate.opsForZSet().count(timelineKey(userId), 0, Double.POSITIVE_INFINITY);
+            return size != null ? size : 0;
+        } catch (Exception e) {
+            log.warn("Redis timeline size failed for user: {}, using memory timeline", userId, e);
+            var timeline = memoryTimelines.get(userId);
+            return timeline != null ? timeline.size() : 0;
+        }
+    }
+
+    @Override
+    public void invalidate(UUID userId) {
+        try {
+            redisTemplate.delete(timelineKey(userId));
+        } catch (Exception e) {
+            log.warn("Redis timeline invalidation failed for user: {}", userId, e);
+        }
+
+        memoryTimelines.remove(userId);
+        log.debug("Invalidated timeline for user: {}", userId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOutExecutor.shutdown();
+    }
+
+    private void doFanOut(UUID authorId, TimelineEntry entry) {
+        // Decide on the denormalized count first; loading the IDs is the expensive part for large accounts
+        int followersCount = userRepository.getFollowersCountById(authorId).orElse(0);
+        if (followersCount > fanOutMaxFollowers) {
+            markLargeAccount(authorId);
+            log.debug("Skipped fan-out for post {}: author {} has {} followers",
+                    entry.postId(), authorId, followersCount);
+            return;
+        }
+
+        var followerIds = userFollowRepository.getFollowerIds(authorId);
+
+        try {
+            pushToRedis(followerIds, entry);
+        } catch (Exception e) {
+            log.warn("Redis timeline fan-out failed for post: {}", entry.postId(), e);
+        }
+
+        // Keep fallback timelines that are currently materialized in sync
+        for (UUID followerId : followerIds) {
+            var timeline = memoryTimelines.get(followerId);
+            if (timeline != null) {
+                timeline.add(entry, maxSize);
+            }
+        }
+
+        log.debug("Fanned out post {} to {} followers", entry.postId(), followerIds.size());
+    }
+
+    private void pushToRedis(List<UUID> followerIds, TimelineEntry entry) {
+        byte[] score = Long.toString(entry.score()).getBytes(StandardCharsets.UTF_8);
+        byte[] member = entry.postId().toString().getBytes(StandardCharsets.UTF_8);
+        byte[] bound = Integer.toString(maxSize).getBytes(StandardCharsets.UTF_8);
+
+        for (int from = 0; from < followerIds.size(); from += FAN_OUT_BATCH_SIZE) {
+            var batch = followerIds.subList(from, Math.min(from + FAN_OUT_BATCH_SIZE, followerIds.size()));
+
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (UUID followerId : batch) {
+                    byte[] key = timelineKey(followerId).getBytes(StandardCharsets.UTF_8);
+                    connection.scriptingCommands().eval(FAN_OUT_SCRIPT, ReturnType.INTEGER, 1, key, score, member, bound);
+                }
+                return null;
+            });
+        }
+    }
+
+    private List<TimelineEntry> readMergedTimeline(UUID userId, int limit) {
+        var entries = readTimeline(userId, limit);
+
+        var followedLargeAccounts = getFollowedLargeAccounts(userId);
+        if (!followedLargeAccounts.isEmpty()) {
+            var pulled = toEntries(postRepository.getRecentPostRefsByUsers(
+                    followedLargeAccounts, PageRequest.of(0, limit)));
+            entries = merge(entries, pulled, limit);
+        }
+
+        return entries;
+    }
+
+    private List<TimelineEntry> readTimeline(UUID userId, int limit) {
+        try {
+            return readRedisTimeline(userId, limit);
+        } catch (Exception e) {
+            log.warn("Redis timeline read failed for user: {}, using memory timeline", userId, e);
+            return readMemoryTimeline(userId, limit);
+        }
+    }
+
+    private List<TimelineEntry> readRedisTimeline(UUID userId, int limit) {
+        var key = timelineKey(userId);
+        var tuples = redisTemplate.opsForZSet().reverseRangeWithScores(key, 0, limit - 1);
+
+        if (tuples != null && !tuples.isEmpty()) {
+            return toEntries(tuples.stream());
+        }
+
+        var entries = rebuild(userId);
+        Set<ZSetOperations.TypedTuple<String>> values = entries.stream()
+                .map(entry -> (ZSetOperations.TypedTuple<String>) new DefaultTypedTuple<>(
+                        entry.postId().toString(), (double) entry.score()))
+                .collect(Collectors.toCollection(HashSet::new));
+        values.add(new DefaultTypedTuple<>(EMPTY_MARKER, EMPTY_MARKER_SCORE));
+        redisTemplate.opsForZSet().add(key, values);
+        redisTemplate.expire(key, ttl);
+
+        return entries.stream().limit(limit).toList();
+    }
+
+    private List<TimelineEntry> readTimelineAfter(UUID userId, TimelineEntry cursor, int limit) {
+        try {
+            return readRedisTimelineAfter(userId, cursor, limit);
+        } catch (Exception e) {
+            log.warn("Redis timeline read failed for user: {}, using memory timeline", userId, e);
+            return olderThan(readMemoryTimeline(userId, maxSize).stream(), cursor)
+                    .limit(limit)
+                    .toList();
+        }
+    }
+
+    private List<TimelineEntry> readRedisTimelineAfter(UUID userId, TimelineEntry cursor, int limit) {
+        var key = timelineKey(userId);
+
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(key))) {
+            // Expired or invalidated between pages: rebuild, then seek in the rebuilt entries
+            return olderThan(readRedisTimeline(userId, maxSize).stream(), cursor)
+                    .limit(limit)
+                    .toList();
+        }
+
+        // Scores are whole milliseconds: entries sharing the cursor's score are ordered by ID,
+        // everything strictly older can be range-read directly
+        var ties = redisTemplate.opsForZSet().rangeByScoreWithScores(key, cursor.score(), cursor.score());
+        var older = redisTemplate.opsForZSet().reverseRangeByScoreWithScores(
+                key, 0, cursor.score() - 1, 0, limit);
+
+        var entries = toEntries(Stream.of(ties, older)
+                .filter(Objects::nonNull)
+                .flatMap(Set::stream));
+
+        return olderThan(entries.stream(), cursor)
+                .sorted(NEWEST_FIRST)
+                .limit(limit)
+                .toList();
+    }
+
+    private List<TimelineEntry> readMemoryTimeline(UUID userId, int limit) {
+        var timeline = memoryTimelines.get(userId);
+        if (timeline != null && !timeline.isExpired()) {
+            return timeline.top(limit);
+        }
+
+        var entries = rebuild(userId);
+        if (memoryTimelines.size() < memoryMaxUsers) {
+            var rebuilt = new MemoryTimeline(System.currentTimeMillis() + memoryTtl.toMillis());
+            entries.forEach(entry -> rebuilt.add(entry, maxSize));
+            memoryTimelines.put(userId, rebuilt);
+        }
+
+        return entries.stream().limit(limit).toList();
+    }
+
+    private List<TimelineEntry> rebuild(UUID userId) {
+        var followingIds = userFollowRepository.getFollowingIds(userId);
+        if (followingIds.isEmpty()) {
+            return List.of();
+        }
+
+        var entries = toEntries(postRepository.getRecentPostRefsByUsers(followingIds, PageRequest.of(0, maxSize)));
+        log.debug("Rebuilt timeline for user {} with {} entries", userId, entries.size());
+        return entries;
+    }
+
+    private List<UUID> getFollowedLargeAccounts(UUID userId) {
+        var accounts = getLargeAccounts();
+        if (accounts.isEmpty()) {
+            return List.of();
+        }
+        return userFollowRepository.getFollowedAmong(userId, accounts);
+    }
+
+    private Set<UUID> getLargeAccounts() {
+        long now = System.currentTimeMillis();
+        if (now - largeAccountsLoadedAt < LARGE_ACCOUNTS_REFRESH.toMillis()) {
+            return largeAccounts;
+        }
+
+        Set<UUID> loaded = new HashSet<>(memoryLargeAccounts);
+        try {
+            var members = redisTemplate.opsForSet().members(LARGE_ACCOUNTS_KEY);
+            if (members != null) {
+                members.forEach(member -> loaded.add(UUID.fromString(member)));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to load large accounts from Redis", e);
+        }
+
+        largeAccounts = Set.copyOf(loaded);
+        largeAccountsLoadedAt = now;
+        return largeAccounts;
+    }
+
+    private void markLargeAccount(UUID authorId) {
+        memoryLargeAccounts.add(authorId);
+        try {
+            redisTemplate.opsForSet().add(LARGE_ACCOUNTS_KEY, authorId.toString());
+        } catch (Exception e) {
+            log.warn("Failed to record large account in Redis: {}", authorId, e);
+        }
+        largeAccountsLoadedAt = 0;
+    }
+
+    private List<TimelineEntry> merge(List<TimelineEntry> pushed, List<TimelineEntry> pulled, int limit) {
+        Map<UUID, TimelineEntry> merged = new LinkedHashMap<>();
+        for (var entry : pushed) {
+            merged.putIfAbsent(entry.postId(), entry);
+        }
+        for (var entry : pulled) {
+            merged.putIfAbsent(entry.postId(), entry);
+        }
+
+        return merged.values().stream()
+                .sorted(NEWEST_FIRST)
+                .limit(limit)
+                .toList();
+    }
+
+    private List<TimelineEntry> toEntries(Collection<Object[]> refs) {
+        var entries = new ArrayList<TimelineEntry>(refs.size());
+        for (Object[] row : refs) {
+            entries.add(new TimelineEntry((UUID) row[0], toScore((LocalDateTime) row[1])));
+        }
+        return entries;
+    }
+
+    private static Stream<TimelineEntry> olderThan(Stream<TimelineEntry> entries, TimelineEntry cursor) {
+        return entries.filter(entry -> NEWEST_FIRST.compare(entry, cursor) > 0);
+    }
+
+    private static List<PageCursor> toCursors(List<TimelineEntry> entries) {
+        return entries.stream()
+                .map(entry -> new PageCursor(toDateTime(entry.score()), entry.postId()))
+                .toList();
+    }
+
+    private static List<TimelineEntry> toEntries(Stream<ZSetOperations.TypedTuple<String>> tuples) {
+        return tuples
+                .filter(tuple -> !EMPTY_MARKER.equals(tuple.getValue()))
+                .map(tuple -> new TimelineEntry(UUID.fromString(tuple.getValue()), tuple.getScore().longValue()))
+                .toList();
+    }
+
+    private static LocalDateTime toDateTime(long score) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(score), ZoneOffset.UTC);
+    }
+
+    private static long toScore(LocalDateTime createdAt) {
+        return createdAt.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static String timelineKey(UUID userId) {
+        return TIMELINE_KEY_PREFIX + userId;
+    }
+
+    private record TimelineEntry(UUID postId, long score) {
+    }
+
+    private static class MemoryTimeline {
+        private final TreeSet<TimelineEntry> entries = new TreeSet<>(NEWEST_FIRST);
+        private final long expiresAt;
+
+        MemoryTimeline(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+
+        synchronized void add(TimelineEntry entry, int maxSize) {
+            entries.add(entry);
+            while (entries.size() > maxSize) {
+                entries.pollLast();
+            }
+        }
+
+        synchronized List<TimelineEntry> top(int count) {
+            return entries.stream().limit(count).toList();
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
\ No newline at end of file
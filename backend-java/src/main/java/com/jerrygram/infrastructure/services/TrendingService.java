@@ -0,0 +1,377 @@
+package com.jerrygram.infrastructure.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jerrygram.application.dtos.PagedResult;
+import com.jerrygram.application.interfaces.ITrendingService;
+import com.jerrygram.domain.enums.PostVisibility;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Time-decayed trending ranking for the explore page.
+ * A post's score is the sum of its creation and engagement weights (likes, comments), each
+ * halving every half-life. Scores are stored relative to a fixed epoch as weight * 2^(age of the
+ * epoch / half-life), which orders posts exactly as the decayed scores would at any instant, so
+ * an engagement is a single addition and nothing has to be decayed over time.
+ * Only the best `capacity` posts are kept, in a score-ordered set whose weakest entry is evicted
+ * when a stronger one arrives. Explore reads an immutable array of that order, republished a few
+ * seconds after changes. A periodic rebuild recomputes scores from PostLikes and Comments,
+ * resets the epoch and re-admits posts that came back into favor after being evicted. Deltas are
+ * broadcast on a Redis channel so every node's ranking follows along.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrendingService implements ITrendingService {
+
+    private static final String DELTA_CHANNEL = "trending:deltas";
+
+    // Recent engagement, each weighted and grown from the epoch, summed per public post
+    private static final String LOAD_SQL = """
+            WITH engagement AS (
+                SELECT "PostId", CAST(? AS float8) AS "Weight", "CreatedAt" FROM "PostLikes" WHERE "CreatedAt" >= ?
+                UNION ALL
+                SELECT "PostId", CAST(? AS float8), "CreatedAt" FROM "Comments" WHERE "CreatedAt" >= ?
+            )
+            SELECT p."Id", p."UserId",
+                   ? * POWER(2.0, EXTRACT(EPOCH FROM (p."CreatedAt" - ?))::float8 / ?)
+                     + COALESCE(SUM(e."Weight" * POWER(2.0, EXTRACT(EPOCH FROM (e."CreatedAt" - ?))::float8 / ?)), 0) AS "Score"
+            FROM "Posts" p
+            LEFT JOIN engagement e ON e."PostId" = p."Id"
+            WHERE p."Visibility" = 0 AND (p."CreatedAt" >= ? OR e."PostId" IS NOT NULL)
+            GROUP BY p."Id", p."UserId", p."CreatedAt"
+            ORDER BY "Score" DESC
+            LIMIT ?
+            """;
+
+    private static final Comparator<Candidate> BY_SCORE = Comparator.comparingDouble(Candidate::score)
+            .thenComparing(Candidate::postId);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectProvider<RedisMessageListenerContainer> listenerContainer;
+    private final ObjectMapper objectMapper;
+
+    // Guarded by this
+    private final Map<UUID, Candidate> candidates = new HashMap<>();
+    private final TreeSet<Candidate> byScore = new TreeSet<>(BY_SCORE);
+    private long epochMillis;
+    private boolean dirty;
+
+    // Null until the first load completes; explore uses the database until then
+    private volatile Ranking ranking;
+
+    // Lets a node ignore its own broadcasts
+    private final String nodeId = UUID.randomUUID().toString();
+    private boolean broadcast;
+
+    @Value("${trending.enabled:true}")
+    private boolean enabled;
+
+    @Value("${trending.capacity:5000}")
+    private int capacity;
+
+    @Value("${trending.half-life:12h}")
+    private Duration halfLife;
+
+    // How far back the rebuild looks for posts and engagement
+    @Value("${trending.window:7d}")
+    private Duration window;
+
+    @Value("${trending.post-weight:1.0}")
+    private double postWeight;
+
+    @Value("${trending.like-weight:1.0}")
+    private double likeWeight;
+
+    @Value("${trending.comment-weight:3.0}")
+    private double commentWeight;
+
+    @PostConstruct
+    public void init() {
+        var container = listenerContainer.getIfAvailable();
+        if (container != null) {
+            container.addMessageListener(this::onDelta, new ChannelTopic(DELTA_CHANNEL));
+            broadcast = true;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (enabled) {
+            Thread.ofVirtual().name("trending-load").start(this::rebuild);
+        }
+    }
+
+    /**
+     * Recompute scores from the database with a fresh epoch
+     */
+    @Scheduled(fixedDelayString = "${trending.rebuild-interval:600000}",
+            initialDelayString = "${trending.rebuild-interval:600000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            long started = System.currentTimeMillis();
+            var now = LocalDateTime.now();
+            var epoch = Timestamp.valueOf(now);
+            var since = Timestamp.valueOf(now.minus(window));
+            double halfLifeSeconds = halfLife.toSeconds();
+
+            var loaded = jdbcTemplate.query(LOAD_SQL, (rs, rowNum) -> new Candidate(
+                            rs.getObject("Id", UUID.class),
+                            rs.getObject("UserId", UUID.class),
+                            rs.getDouble("Score")),
+                    likeWeight, since, commentWeight, since,
+                    postWeight, epoch, halfLifeSeconds, epoch, halfLifeSeconds,
+                    since, capacity);
+
+            // Engagement recorded while the query ran may be counted twice or not at all; only ranking is affected
+            synchronized (this) {
+                epochMillis = toMillis(now);
+                candidates.clear();
+                byScore.clear();
+                loaded.forEach(candidate -> {
+                    candidates.put(candidate.postId(), candidate);
+                    byScore.add(candidate);
+                });
+                dirty = true;
+            }
+            publishRanking();
+            log.info("Trending ranking loaded: {} posts in {}ms", loaded.size(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.warn("Trending ranking load failed, {}", ranking == null
+                    ? "explore stays on the database" : "keeping the current ranking", e);
+        }
+    }
+
+    /**
+     * Republish the ranking read by explore if it changed since the last run
+     */
+    @Scheduled(fixedDelayString = "${trending.refresh-interval:5000}")
+    public void publishRanking() {
+        List<Candidate> ordered;
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            ordered = new ArrayList<>(byScore.descendingSet());
+            dirty = false;
+        }
+        ranking = new Ranking(ordered);
+    }
+
+    @Override
+    public Optional<PagedResult<UUID>> getTrending(Set<UUID> excludedAuthorIds, int page, int pageSize) {
+        var current = ranking;
+        if (current == null) {
+            return Optional.empty();
+        }
+        return Optional.of(current.page(excludedAuthorIds, page, pageSize));
+    }
+
+    @Override
+    public void recordPost(UUID postId, UUID authorId, PostVisibility visibility, LocalDateTime createdAt) {
+        if (visibility == null || createdAt == null) {
+            // Events recorded before these fields existed; the next rebuild picks the post up
+            return;
+        }
+        publish(new Delta(nodeId, Change.Post, postId, authorId, visibility == PostVisibility.Public, toMillis(createdAt)));
+    }
+
+    @Override
+    public void recordLike(UUID postId, boolean liked) {
+        publish(new Delta(nodeId, liked ? Change.Like : Change.Unlike, postId, null, true, toMillis(LocalDateTime.now())));
+    }
+
+    @Override
+    public void recordComment(UUID postId) {
+        publish(new Delta(nodeId, Change.Comment, postId, null, true, toMillis(LocalDateTime.now())));
+    }
+
+    @Override
+    public void remove(UUID postId) {
+        publish(new Delta(nodeId, Change.Post, postId, null, false, 0));
+    }
+
+    private void publish(Delta delta) {
+        if (!enabled) {
+            return;
+        }
+
+        apply(delta);
+        if (broadcast) {
+            try {
+                redisTemplate.convertAndSend(DELTA_CHANNEL, objectMapper.writeValueAsString(delta));
+            } catch (Exception e) {
+                // Other nodes catch up on their next rebuild
+                log.warn("Failed to broadcast trending update for post: {}", delta.postId(), e);
+            }
+        }
+    }
+
+    private synchronized void apply(Delta delta) {
+        if (epochMillis == 0) {
+            // Not loaded yet; the load includes this change
+            return;
+        }
+
+        switch (delta.change()) {
+            case Post -> {
+                if (!delta.visible()) {
+                    var removed = candidates.remove(delta.postId());
+                    if (removed != null) {
+                        byScore.remove(removed);
+                        dirty = true;
+                    }
+                } else if (!candidates.containsKey(delta.postId())) {
+                    admit(new Candidate(delta.postId(), delta.authorId(), postWeight * growth(delta.at())));
+                }
+            }
+            case Like -> adjust(delta.postId(), likeWeight * growth(delta.at()));
+            // Taken off at today's weight, so a quick like/unlike nets out
+            case Unlike -> adjust(delta.postId(), -likeWeight * growth(delta.at()));
+            case Comment -> adjust(delta.postId(), commentWeight * growth(delta.at()));
+        }
+    }
+
+    // Engagement on posts outside the ranking waits for the next rebuild to be counted
+    private void adjust(UUID postId, double amount) {
+        var candidate = candidates.get(postId);
+        if (candidate == null) {
+            return;
+        }
+
+        byScore.remove(candidate);
+        var updated = new Candidate(postId, candidate.authorId(), Math.max(0, candidate.score() + amount));
+        candidates.put(postId, updated);
+        byScore.add(updated);
+        dirty = true;
+    }
+
+    private void admit(Candidate candidate) {
+        if (candidates.size() >= capacity) {
+            var weakest = byScore.first();
+            if (BY_SCORE.compare(candidate, weakest) <= 0) {
+                return;
+            }
+            byScore.pollFirst();
+            candidates.remove(weakest.postId());
+        }
+
+        candidates.put(candidate.postId(), candidate);
+        byScore.add(candidate);
+        dirty = true;
+    }
+
+    private double growth(long atMillis) {
+        return Math.pow(2, (double) (atMillis - epochMillis) / halfLife.toMillis());
+    }
+
+    private void onDelta(Message message, byte[] pattern) {
+        try {
+            var delta = objectMapper.readValue(message.getBody(), Delta.class);
+            if (!nodeId.equals(delta.node())) {
+                apply(delta);
+            }
+        } catch (Exception e) {
+            log.warn("Ignoring malformed trending message", e);
+        }
+    }
+
+    // Stored times are local; any fixed offset works as long as every time goes through here
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private enum Change {
+        Post,
+        Like,
+        Unlike,
+        Comment
+    }
+
+    // visible is false for posts leaving the ranking; at is the post or engagement time
+    private record Delta(String node, Change change, UUID postId, UUID authorId, boolean visible, long at) {
+    }
+
+    private record Candidate(UUID postId, UUID authorId, double score) {
+    }
+
+    /**
+     * Published ranking, best first, as parallel ID arrays
+     */
+    private static final class Ranking {
+        private final long[] postHi;
+        private final long[] postLo;
+        private final long[] authorHi;
+        private final long[] authorLo;
+
+        Ranking(List<Candidate> ordered) {
+            int size = ordered.size();
+            postHi = new long[size];
+            postLo = new long[size];
+            authorHi = new long[size];
+            authorLo = new long[size];
+            for (int i = 0; i < size; i++) {
+                var candidate = ordered.get(i);
+                postHi[i] = candidate.postId().getMostSignificantBits();
+                postLo[i] = candidate.postId().getLeastSignificantBits();
+                authorHi[i] = candidate.authorId().getMostSignificantBits();
+                authorLo[i] = candidate.authorId().getLeastSignificantBits();
+            }
+        }
+
+        PagedResult<UUID> page(Set<UUID> excludedAuthorIds, int page, int pageSize) {
+            long from = (long) page * pageSize;
+            List<UUID> items = new ArrayList<>(pageSize);
+            int visible = 0;
+
+            // Walks the whole ranking to count what's left after exclusion; it is small and in memory
+            for (int i = 0; i < postHi.length; i++) {
+                if (!excludedAuthorIds.isEmpty() && excludedAuthorIds.contains(new UUID(authorHi[i], authorLo[i]))) {
+                    continue;
+                }
+                if (visible >= from && items.size() < pageSize) {
+                    items.add(new UUID(postHi[i], postLo[i]));
+                }
+                visible++;
+            }
+
+            return PagedResult.<UUID>builder()
+                    .items(items)
+                    .totalCount(visible)
+                    .page(page)
+                    .pageSize(pageSize)
+                    .build();
+        }
+    }
+}
\ No newline at end of file
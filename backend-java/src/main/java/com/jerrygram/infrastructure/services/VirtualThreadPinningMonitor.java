@@ -0,0 +1,80 @@
+package com.jerrygram.infrastructure.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads pinned to their carrier, typically by blocking I/O inside a synchronized
+ * block or a native frame. Listens to the JDK's jdk.VirtualThreadPinned JFR event in-process, counts
+ * every occurrence in jvm.threads.virtual.pinned and logs each distinct call site once at WARN
+ * (later hits at DEBUG). -Djdk.tracePinnedThreads=short gives a similar report on stdout without JFR.
+ */
+@Service
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+    private Counter pinned;
+
+    // Pins shorter than this are ordinary monitor hand-offs, not blocked I/O
+    @Value("${virtual-threads.pinning.threshold:20ms}")
+    private Duration threshold;
+
+    @Value("${virtual-threads.pinning.stack-depth:8}")
+    private int stackDepth;
+
+    @PostConstruct
+    public void start() {
+        pinned = meterRegistry.counter("jvm.threads.virtual.pinned");
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::report);
+        stream.startAsync();
+        log.info("Watching for virtual threads pinned longer than {}", threshold);
+    }
+
+    @PreDestroy
+    public void stop() {
+        stream.close();
+    }
+
+    private void report(RecordedEvent event) {
+        pinned.increment();
+
+        var stackTrace = event.getStackTrace();
+        var site = stackTrace == null ? "unknown" : stackTrace.getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .limit(stackDepth)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n\tat ", "\n\tat ", ""));
+
+        if (reportedSites.add(site)) {
+            log.warn("Virtual thread pinned its carrier for {}ms{}", event.getDuration().toMillis(), site);
+        } else {
+            log.debug("Virtual thread pinned its carrier for {}ms{}", event.getDuration().toMillis(), site);
+        }
+    }
+}
\ No newline at end of file
@@ -3,10 +3,12 @@ package com.jerrygram.presentation.controllers;
 import com.jerrygram.application.commands.comments.CreateCommentCommand;
 import com.jerrygram.application.commands.comments.DeleteCommentCommand;
 import com.jerrygram.application.dtos.CommentDto;
+import com.jerrygram.application.dtos.PagedResult;
 import com.jerrygram.application.interfaces.ICommandHandler;
 import com.jerrygram.application.interfaces.IQueryHandler;
+import com.jerrygram.application.queries.comments.GetPostCommentsByCursorQuery;
 import com.jerrygram.application.queries.comments.GetPostCommentsQuery;
-import com.jerrygram.domain.entities.User;
+import com.jerrygram.application.common.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -26,13 +28,14 @@ public class CommentController {
     private final ICommandHandler<CreateCommentCommand, CommentDto> createCommentCommandHandler;
     private final ICommandHandler<DeleteCommentCommand, Boolean> deleteCommentCommandHandler;
     private final IQueryHandler<GetPostCommentsQuery, Page<CommentDto>> getPostCommentsQueryHandler;
+    private final IQueryHandler<GetPostCommentsByCursorQuery, PagedResult<CommentDto>> getPostCommentsByCursorQueryHandler;
 
     @PostMapping
     public ResponseEntity<CommentDto> createComment(
             @RequestBody Map<String, Object> request,
             Authentication authentication) {
         
-        User currentUser = (User) authentication.getPrincipal();
+        AuthenticatedUser currentUser = (AuthenticatedUser) authentication.getPrincipal();
         var postId = UUID.fromString((String) request.get("postId"));
         var content = (String) request.get("content");
         
@@ -60,12 +63,27 @@ public class CommentController {
         return ResponseEntity.ok(result);
     }
 
+    @GetMapping(value = "/post/{postId}", params = "cursor")
+    public ResponseEntity<PagedResult<CommentDto>> getPostCommentsByCursor(
+            @PathVariable UUID postId,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        
+        log.info("Getting comments for post: {} by cursor, size: {}", postId, size);
+        
+        var query = new GetPostCommentsByCursorQuery(postId, cursor, size);
+        var result = getPostCommentsByCursorQueryHandler.handle(query);
+        
+        log.info("Retrieved {} comments for post", result.getItems().size());
+        return ResponseEntity.ok(result);
+    }
+
     @DeleteMapping("/{commentId}")
     public ResponseEntity<Boolean> deleteComment(
             @PathVariable UUID commentId,
             Authentication authentication) {
         
-        User currentUser = (User) authentication.getPrincipal();
+        AuthenticatedUser currentUser = (AuthenticatedUser) authentication.getPrincipal();
         log.info("User {} deleting comment: {}", currentUser.getUsername(), commentId);
         
         var command = new DeleteCommentCommand(commentId, currentUser.getId());
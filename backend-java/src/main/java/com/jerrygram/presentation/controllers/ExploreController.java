@@ -4,13 +4,14 @@ import com.jerrygram.application.dtos.PostListItemDto;
 import com.jerrygram.application.dtos.PagedResult;
 import com.jerrygram.application.interfaces.IQueryHandler;
 import com.jerrygram.application.queries.posts.GetExplorePostsQuery;
-import com.jerrygram.domain.entities.User;
+import com.jerrygram.application.common.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -19,16 +20,24 @@ import org.springframework.web.bind.annotation.RestController;
 @Slf4j
 public class ExploreController {
 
+    // The endpoint is public, so paging is clamped before it sizes any buffer or query
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final IQueryHandler<GetExplorePostsQuery, PagedResult<PostListItemDto>> getExplorePostsQueryHandler;
 
     @GetMapping
-    public ResponseEntity<PagedResult<PostListItemDto>> getExploreFeed(Authentication authentication) {
-        User currentUser = authentication != null ? (User) authentication.getPrincipal() : null;
+    public ResponseEntity<PagedResult<PostListItemDto>> getExploreFeed(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        AuthenticatedUser currentUser = authentication != null ? (AuthenticatedUser) authentication.getPrincipal() : null;
         var userId = currentUser != null ? currentUser.getId() : null;
+        page = Math.max(page, 0);
+        size = Math.clamp(size, 1, MAX_PAGE_SIZE);
         
-        log.info("Getting explore feed for user: {}", userId);
+        log.info("Getting explore feed for user: {}, page: {}, size: {}", userId, page, size);
         
-        var query = new GetExplorePostsQuery(userId);
+        var query = new GetExplorePostsQuery(userId, page, size);
         var result = getExplorePostsQueryHandler.handle(query);
         
         log.info("Retrieved {} explore posts", result.getItems().size());
@@ -4,14 +4,18 @@ import com.jerrygram.application.commands.notifications.MarkNotificationAsReadCo
 import com.jerrygram.application.dtos.NotificationDto;
 import com.jerrygram.application.dtos.PagedResult;
 import com.jerrygram.application.interfaces.ICommandHandler;
+import com.jerrygram.application.interfaces.INotificationStream;
 import com.jerrygram.application.interfaces.IQueryHandler;
 import com.jerrygram.application.queries.notifications.GetNotificationsQuery;
-import com.jerrygram.domain.entities.User;
+import com.jerrygram.application.queries.notifications.GetUnreadNotificationCountQuery;
+import com.jerrygram.application.common.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.UUID;
 
@@ -22,32 +26,56 @@ import java.util.UUID;
 public class NotificationsController {
 
     private final IQueryHandler<GetNotificationsQuery, PagedResult<NotificationDto>> getNotificationsQueryHandler;
+    private final IQueryHandler<GetUnreadNotificationCountQuery, Long> getUnreadNotificationCountQueryHandler;
     private final ICommandHandler<MarkNotificationAsReadCommand, Boolean> markNotificationAsReadCommandHandler;
+    private final INotificationStream notificationStream;
 
     @GetMapping
     public ResponseEntity<PagedResult<NotificationDto>> getNotifications(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "false") boolean unreadOnly,
+            @RequestParam(required = false) String cursor,
             Authentication authentication) {
         
-        User currentUser = (User) authentication.getPrincipal();
+        AuthenticatedUser currentUser = (AuthenticatedUser) authentication.getPrincipal();
         log.info("Getting notifications for user: {}, unreadOnly: {}", 
                 currentUser.getUsername(), unreadOnly);
         
-        var query = new GetNotificationsQuery(currentUser.getId(), page, size, unreadOnly);
+        var query = new GetNotificationsQuery(currentUser.getId(), page, size, unreadOnly, cursor);
         var result = getNotificationsQueryHandler.handle(query);
         
         log.info("Retrieved {} notifications for user", result.getItems().size());
         return ResponseEntity.ok(result);
     }
 
+    @GetMapping("/unread-count")
+    public ResponseEntity<Long> getUnreadCount(Authentication authentication) {
+        AuthenticatedUser currentUser = (AuthenticatedUser) authentication.getPrincipal();
+        
+        var query = new GetUnreadNotificationCountQuery(currentUser.getId());
+        return ResponseEntity.ok(getUnreadNotificationCountQueryHandler.handle(query));
+    }
+
+    /**
+     * Live stream of new notifications and unread counts (Server-Sent Events); replaces polling.
+     * EventSource can't send headers, so the JWT may also be passed as ?access_token=
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(Authentication authentication) {
+        AuthenticatedUser currentUser = (AuthenticatedUser) authentication.getPrincipal();
+        log.info("User {} opened notification stream", currentUser.getUsername());
+        
+        var unread = getUnreadNotificationCountQueryHandler.handle(new GetUnreadNotificationCountQuery(currentUser.getId()));
+        return notificationStream.connect(currentUser.getId(), unread);
+    }
+
     @PutMapping("/{notificationId}/read")
     public ResponseEntity<Boolean> markAsRead(
             @PathVariable UUID notificationId,
             Authentication authentication) {
         
-        User currentUser = (User) authentication.getPrincipal();
+        AuthenticatedUser currentUser = (AuthenticatedUser) authentication.getPrincipal();
         log.info("User {} marking notification {} as read", 
                 currentUser.getUsername(), notificationId);
         
@@ -18,7 +18,7 @@ import com.jerrygram.application.queries.posts.GetPostByIdQuery;
 import com.jerrygram.application.queries.posts.GetPostLikesQuery;
 import com.jerrygram.application.queries.posts.GetPublicPostsQuery;
 import com.jerrygram.application.queries.posts.GetTimelineQuery;
-import com.jerrygram.domain.entities.User;
+import com.jerrygram.application.common.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -49,7 +49,7 @@ public class PostController {
             @RequestParam(value = "visibility", defaultValue = "0") int visibilityValue,
             Authentication authentication) {
         
-        User currentUser = (User) authentication.getPrincipal();
+        AuthenticatedUser currentUser = (AuthenticatedUser) authentication.getPrincipal();
         log.info("Creating post for user: {}", currentUser.getUsername());
         
         // Convert int to PostVisibility enum
@@ -71,7 +71,7 @@ public class PostController {
             @RequestBody UpdatePostDto updatePostDto,
             Authentication authentication) {
         
-        User currentUser = (User) authentication.getPrincipal();
+        AuthenticatedUser currentUser = (AuthenticatedUser) authentication.getPrincipal();
         log.info("User {} updating post: {}", currentUser.getUsername(), postId);
         
         var command = new UpdatePostCommand(postId, currentUser.getId(), updatePostDto);
@@ -86,7 +86,7 @@ public class PostController {
             @PathVariable UUID postId,
             Authentication authentication) {
         
-        User currentUser = (User) authentication.getPrincipal();
+        AuthenticatedUser currentUser = (AuthenticatedUser) authentication.getPrincipal();
         log.info("User {} toggling like for post: {}", currentUser.getUsername(), postId);
         
         var command = new LikePostCommand(postId, currentUser.getId());
@@ -100,14 +100,15 @@ public class PostController {
     public ResponseEntity<PagedResult<PostListItemDto>> getAllPosts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
             Authentication authentication) {
         
-        User currentUser = authentication != null ? (User) authentication.getPrincipal() : null;
+        AuthenticatedUser currentUser = authentication != null ? (AuthenticatedUser) authentication.getPrincipal() : null;
         var userId = currentUser != null ? currentUser.getId() : null;
         
         log.info("Getting public posts for user: {}, page: {}, size: {}", userId, page, size);
         
-        var query = new GetPublicPostsQuery(userId, page, size);
+        var query = new GetPublicPostsQuery(userId, page, size, cursor);
         var result = getPublicPostsQueryHandler.handle(query);
         
         log.info("Retrieved {} public posts", result.getItems().size());
@@ -119,7 +120,7 @@ public class PostController {
             @PathVariable UUID postId,
             Authentication authentication) {
         
-        User currentUser = authentication != null ? (User) authentication.getPrincipal() : null;
+        AuthenticatedUser currentUser = authentication != null ? (AuthenticatedUser) authentication.getPrincipal() : null;
         var userId = currentUser != null ? currentUser.getId() : null;
         
         log.info("Getting post: {} for user: {}", postId, userId);
@@ -149,13 +150,14 @@ public class PostController {
     public ResponseEntity<PagedResult<PostListItemDto>> getUserFeed(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
             Authentication authentication) {
         
-        User currentUser = (User) authentication.getPrincipal();
+        AuthenticatedUser currentUser = (AuthenticatedUser) authentication.getPrincipal();
         log.info("Getting feed for user: {}, page: {}, size: {}", 
                 currentUser.getUsername(), page, size);
         
-        var query = new GetTimelineQuery(currentUser.getId(), page, size);
+        var query = new GetTimelineQuery(currentUser.getId(), page, size, cursor);
         var result = getTimelineQueryHandler.handle(query);
         
         log.info("Retrieved {} posts for user feed", result.getItems().size());
@@ -167,7 +169,7 @@ public class PostController {
             @PathVariable UUID postId,
             Authentication authentication) {
         
-        User currentUser = (User) authentication.getPrincipal();
+        AuthenticatedUser currentUser = (AuthenticatedUser) authentication.getPrincipal();
         log.info("User {} deleting post: {}", currentUser.getUsername(), postId);
         
         var command = new DeletePostCommand(postId, currentUser.getId());
@@ -2,7 +2,7 @@ package com.jerrygram.presentation.controllers;
 
 import com.jerrygram.application.dtos.SearchResultDto;
 import com.jerrygram.application.interfaces.ISearchService;
-import com.jerrygram.domain.entities.User;
+import com.jerrygram.application.common.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -29,7 +29,7 @@ public class SearchController {
             return ResponseEntity.badRequest().build();
         }
         
-        User currentUser = authentication != null ? (User) authentication.getPrincipal() : null;
+        AuthenticatedUser currentUser = authentication != null ? (AuthenticatedUser) authentication.getPrincipal() : null;
         String userId = currentUser != null ? currentUser.getId().toString() : null;
         
         log.info("Search request: '{}' by user: {}", query, userId);
@@ -12,7 +12,7 @@ import com.jerrygram.application.queries.users.GetFollowersQuery;
 import com.jerrygram.application.queries.users.GetFollowingQuery;
 import com.jerrygram.application.queries.users.GetUserProfileByUsernameQuery;
 import com.jerrygram.application.queries.users.GetUserProfileQuery;
-import com.jerrygram.domain.entities.User;
+import com.jerrygram.application.common.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import java.util.List;
@@ -40,7 +40,7 @@ public class UsersController {
 
     @GetMapping("/me")
     public ResponseEntity<UserProfileDto> getCurrentUser(Authentication authentication) {
-        User currentUser = (User) authentication.getPrincipal();
+        AuthenticatedUser currentUser = (AuthenticatedUser) authentication.getPrincipal();
         log.info("Getting current user: {}", currentUser.getUsername());
         
         var query = new GetCurrentUserQuery(currentUser.getId());
@@ -54,7 +54,7 @@ public class UsersController {
             @PathVariable UUID userId,
             Authentication authentication) {
         
-        User currentUser = (User) authentication.getPrincipal();
+        AuthenticatedUser currentUser = (AuthenticatedUser) authentication.getPrincipal();
         log.info("Getting user profile: {} for current user: {}", userId, currentUser.getUsername());
         
         var query = new GetUserProfileQuery(userId, currentUser.getId());
@@ -68,7 +68,7 @@ public class UsersController {
             @PathVariable String username,
             Authentication authentication) {
         
-        User currentUser = authentication != null ? (User) authentication.getPrincipal() : null;
+        AuthenticatedUser currentUser = authentication != null ? (AuthenticatedUser) authentication.getPrincipal() : null;
         var currentUserId = currentUser != null ? currentUser.getId() : null;
         
         log.info("Getting user profile by username: {} for current user: {}", 
@@ -85,7 +85,7 @@ public class UsersController {
             @PathVariable UUID userId,
             Authentication authentication) {
         
-        User currentUser = (User) authentication.getPrincipal();
+        AuthenticatedUser currentUser = (AuthenticatedUser) authentication.getPrincipal();
         log.info("User {} toggling follow for user: {}", currentUser.getUsername(), userId);
         
         var command = new FollowUserCommand(currentUser.getId(), userId);
@@ -99,7 +99,7 @@ public class UsersController {
             @RequestParam("avatar") MultipartFile avatar,
             Authentication authentication) {
         
-        User currentUser = (User) authentication.getPrincipal();
+        AuthenticatedUser currentUser = (AuthenticatedUser) authentication.getPrincipal();
         log.info("User {} uploading avatar", currentUser.getUsername());
         
         var uploadDto = new UploadAvatarDto(avatar);
@@ -117,7 +117,7 @@ public class UsersController {
             @RequestParam(defaultValue = "10") int size,
             Authentication authentication) {
         
-        User currentUser = authentication != null ? (User) authentication.getPrincipal() : null;
+        AuthenticatedUser currentUser = authentication != null ? (AuthenticatedUser) authentication.getPrincipal() : null;
         log.info("Getting followers for user: {}", userId);
         
         var query = new GetFollowersQuery(userId, page, size);
@@ -134,7 +134,7 @@ public class UsersController {
             @RequestParam(defaultValue = "10") int size,
             Authentication authentication) {
         
-        User currentUser = authentication != null ? (User) authentication.getPrincipal() : null;
+        AuthenticatedUser currentUser = authentication != null ? (AuthenticatedUser) authentication.getPrincipal() : null;
         log.info("Getting following list for user: {}", userId);
         
         var query = new GetFollowingQuery(userId, page, size);
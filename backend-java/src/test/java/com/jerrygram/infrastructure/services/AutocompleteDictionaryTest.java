@@ -0,0 +1,154 @@
+package com.jerrygram.infrastructure.services;
+
+import com.jerrygram.infrastructure.services.AutocompleteIndex.Dictionary;
+import com.jerrygram.infrastructure.services.AutocompleteIndex.Entry;
+import com.jerrygram.infrastructure.services.AutocompleteIndex.Segment;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AutocompleteDictionaryTest {
+
+    private static final UUID SAM = new UUID(0, 1);
+    private static final UUID OTHER_SAM = new UUID(0, 2);
+
+    @Test
+    void segmentRanksPrefixMatchesByScore() {
+        var segment = hashtags();
+
+        assertThat(terms(segment.top(bytes("ja"), 10, false)))
+                .containsExactly("javascript", "jazz", "java", "ja");
+        assertThat(terms(segment.top(bytes("jav"), 1, false))).containsExactly("javascript");
+        assertThat(segment.top(bytes("x"), 10, false)).isEmpty();
+    }
+
+    @Test
+    void equalScoresFollowTermOrder() {
+        var segment = Segment.build(List.of(new Entry("b", null, 3), new Entry("c", null, 3), new Entry("a", null, 3)));
+
+        assertThat(terms(segment.top(bytes(""), 3, false))).containsExactly("a", "b", "c");
+    }
+
+    @Test
+    void unusedHashtagsAreDropped() {
+        var segment = Segment.build(List.of(new Entry("java", null, 2), new Entry("jazz", null, 0)));
+
+        assertThat(terms(segment.top(bytes("ja"), 10, true))).containsExactly("java");
+        assertThat(terms(segment.top(bytes("ja"), 10, false))).containsExactly("java", "jazz");
+    }
+
+    @Test
+    void scoreChangeReordersMatches() {
+        var segment = hashtags();
+
+        segment.addScore(segment.find("java", null), 10);
+
+        assertThat(terms(segment.top(bytes("ja"), 2, false))).containsExactly("java", "javascript");
+    }
+
+    @Test
+    void completionsMergeSegmentAndPendingEntries() {
+        var dictionary = new Dictionary(hashtags(), true);
+
+        dictionary.add(new Entry("javafx", null, 6));
+        // Already in the segment: the score is added in place
+        dictionary.add(new Entry("java", null, 10));
+
+        var expected = List.of("java", "javascript", "jazz", "javafx", "ja");
+        assertThat(terms(dictionary.complete("ja", 10))).containsExactlyElementsOf(expected);
+        assertThat(terms(dictionary.complete("ja", 3))).containsExactly("java", "javascript", "jazz");
+        assertThat(dictionary.complete("ja", 10).get(0).score()).isEqualTo(15);
+
+        dictionary.merge();
+
+        assertThat(terms(dictionary.complete("ja", 10))).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void pendingScoresAccumulate() {
+        var dictionary = new Dictionary(hashtags(), true);
+
+        dictionary.add(new Entry("javafx", null, 6));
+        dictionary.add(new Entry("javafx", null, 6));
+
+        assertThat(terms(dictionary.complete("ja", 1))).containsExactly("javafx");
+        assertThat(dictionary.complete("javaf", 1).get(0).score()).isEqualTo(12);
+    }
+
+    @Test
+    void usersSharingAUsernameAreToldApartById() {
+        var dictionary = new Dictionary(Segment.build(List.of(new Entry("sam", SAM, 10, "Sam", "sam.jpg"))), false);
+
+        dictionary.add(new Entry("sam", OTHER_SAM, 0, "sam", null));
+
+        assertThat(dictionary.complete("sa", 10)).extracting(Entry::id).containsExactly(SAM, OTHER_SAM);
+
+        dictionary.merge();
+
+        assertThat(dictionary.complete("sa", 10)).extracting(Entry::id).containsExactly(SAM, OTHER_SAM);
+    }
+
+    @Test
+    void avatarChangeUpdatesTheExistingUser() {
+        var dictionary = new Dictionary(Segment.build(List.of(new Entry("sam", SAM, 10, "Sam", "sam.jpg"))), false);
+
+        dictionary.add(new Entry("sam", SAM, 0, "Sam", "new.jpg"));
+
+        assertThat(dictionary.complete("sam", 10))
+                .containsExactly(new Entry("sam", SAM, 10, "Sam", "new.jpg"));
+    }
+
+    @Test
+    void snapshotRoundTripKeepsEntriesAndDetails() throws IOException {
+        var users = Segment.build(List.of(
+                new Entry("sam", SAM, 10, "Sam", "sam.jpg"),
+                new Entry("zoë", OTHER_SAM, 4, "Zoë", null)));
+        var tags = hashtags();
+
+        var buffer = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(buffer)) {
+            users.write(out);
+            tags.write(out);
+        }
+
+        Segment readUsers;
+        Segment readTags;
+        try (var in = new DataInputStream(new ByteArrayInputStream(buffer.toByteArray()))) {
+            readUsers = Segment.read(in);
+            readTags = Segment.read(in);
+        }
+
+        assertThat(readUsers.size()).isEqualTo(2);
+        assertThat(readUsers.top(bytes(""), 10, false)).isEqualTo(users.top(bytes(""), 10, false));
+        assertThat(readUsers.top(bytes("zo"), 10, false))
+                .containsExactly(new Entry("zoë", OTHER_SAM, 4, "Zoë", null));
+        assertThat(readTags.top(bytes(""), 10, false)).isEqualTo(tags.top(bytes(""), 10, false));
+        assertThat(readTags.top(bytes("ja"), 1, false)).containsExactly(new Entry("javascript", null, 9));
+    }
+
+    private static Segment hashtags() {
+        return Segment.build(List.of(
+                new Entry("java", null, 5),
+                new Entry("javascript", null, 9),
+                new Entry("jazz", null, 7),
+                new Entry("kotlin", null, 100),
+                new Entry("ja", null, 1)));
+    }
+
+    private static List<String> terms(List<Entry> entries) {
+        return entries.stream().map(Entry::term).toList();
+    }
+
+    private static byte[] bytes(String prefix) {
+        return prefix.getBytes(StandardCharsets.UTF_8);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,228 @@
+package com.jerrygram.infrastructure.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jerrygram.application.interfaces.IDomainEventHandler;
+import com.jerrygram.application.interfaces.IEventSink;
+import com.jerrygram.domain.events.DomainEvent;
+import com.jerrygram.domain.events.PostLiked;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class DomainEventDispatcherTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private JdbcTemplate jdbcTemplate;
+    private DomainEventDispatcher dispatcher;
+
+    @BeforeEach
+    void createOutbox() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword()));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS \"OutboxEvents\"");
+        jdbcTemplate.execute("""
+                CREATE TABLE "OutboxEvents" (
+                    "Id" bigserial PRIMARY KEY,
+                    "Type" varchar(100) NOT NULL,
+                    "AggregateId" uuid NOT NULL,
+                    "Payload" text NOT NULL,
+                    "Attempts" integer NOT NULL,
+                    "CreatedAt" timestamp NOT NULL,
+                    "ClaimedUntil" timestamp NOT NULL,
+                    "DeliveredTo" text)
+                """);
+    }
+
+    @AfterEach
+    void shutdown() throws InterruptedException {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void deletesEventOnceEverySinkAcceptedIt() {
+        var first = new RecordingSink("first", 0);
+        var second = new RecordingSink("second", 0);
+        dispatcher = dispatcher(first, second);
+
+        dispatcher.publish(liked());
+
+        await(() -> outboxSize() == 0);
+        assertThat(first.eventIds).hasSize(1);
+        assertThat(second.eventIds).isEqualTo(first.eventIds);
+    }
+
+    @Test
+    void retriesOnlyTheSinkThatFailed() {
+        var healthy = new RecordingSink("healthy", 0);
+        var flaky = new RecordingSink("flaky", 1);
+        dispatcher = dispatcher(healthy, flaky);
+
+        dispatcher.publish(liked());
+
+        await(() -> Integer.valueOf(1).equals(outboxRow().get("Attempts")));
+        assertThat(outboxRow().get("DeliveredTo")).isEqualTo("healthy");
+
+        dispatcher.recover();
+
+        await(() -> outboxSize() == 0);
+        assertThat(healthy.calls).hasValue(1);
+        assertThat(flaky.calls).hasValue(2);
+    }
+
+    @Test
+    void retriesOnlyTheHandlerThatFailed() {
+        var counting = new CountingHandler();
+        var flaky = new FlakyHandler(1);
+        dispatcher = dispatcher(new InProcessEventSink(List.of(counting, flaky)));
+
+        dispatcher.publish(liked());
+
+        await(() -> Integer.valueOf(1).equals(outboxRow().get("Attempts")));
+        dispatcher.recover();
+
+        await(() -> outboxSize() == 0);
+        assertThat(counting.calls).hasValue(1);
+        assertThat(flaky.calls).hasValue(2);
+    }
+
+    @Test
+    void keepsEventForInspectionAfterMaxAttempts() {
+        var broken = new RecordingSink("broken", Integer.MAX_VALUE);
+        dispatcher = dispatcher(broken);
+
+        dispatcher.publish(liked());
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            int expected = attempt;
+            await(() -> Integer.valueOf(expected).equals(outboxRow().get("Attempts")));
+            dispatcher.recover();
+        }
+
+        assertThat(outboxSize()).isEqualTo(1);
+        assertThat(broken.calls).hasValue(MAX_ATTEMPTS);
+    }
+
+    private DomainEventDispatcher dispatcher(IEventSink... sinks) {
+        var created = new DomainEventDispatcher(jdbcTemplate, new ObjectMapper().findAndRegisterModules(), List.of(sinks));
+        ReflectionTestUtils.setField(created, "maxConcurrency", 16);
+        ReflectionTestUtils.setField(created, "lease", Duration.ofMinutes(2));
+        ReflectionTestUtils.setField(created, "maxAttempts", MAX_ATTEMPTS);
+        // No backoff, so a failed event can be recovered right away
+        ReflectionTestUtils.setField(created, "initialBackoff", Duration.ZERO);
+        ReflectionTestUtils.setField(created, "recoveryBatchSize", 100);
+        created.init();
+        return created;
+    }
+
+    private static PostLiked liked() {
+        return new PostLiked(UUID.randomUUID(), UUID.randomUUID(), true);
+    }
+
+    private int outboxSize() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM \"OutboxEvents\"", Integer.class);
+    }
+
+    private Map<String, Object> outboxRow() {
+        return jdbcTemplate.queryForMap("SELECT \"Attempts\", \"DeliveredTo\" FROM \"OutboxEvents\"");
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met within 10s");
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError("Interrupted", e);
+            }
+        }
+    }
+
+    private static class RecordingSink implements IEventSink {
+        private final String name;
+        private final AtomicInteger failuresLeft;
+        private final AtomicInteger calls = new AtomicInteger();
+        private final List<Long> eventIds = new CopyOnWriteArrayList<>();
+
+        RecordingSink(String name, int failures) {
+            this.name = name;
+            this.failuresLeft = new AtomicInteger(failures);
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void deliver(long eventId, DomainEvent event, String payload) {
+            calls.incrementAndGet();
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new IllegalStateException(name + " unavailable");
+            }
+            eventIds.add(eventId);
+        }
+    }
+
+    private static class CountingHandler implements IDomainEventHandler<PostLiked> {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public Class<PostLiked> eventType() {
+            return PostLiked.class;
+        }
+
+        @Override
+        public void handle(PostLiked event) {
+            calls.incrementAndGet();
+        }
+    }
+
+    private static class FlakyHandler implements IDomainEventHandler<PostLiked> {
+        private final AtomicInteger failuresLeft;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        FlakyHandler(int failures) {
+            this.failuresLeft = new AtomicInteger(failures);
+        }
+
+        @Override
+        public Class<PostLiked> eventType() {
+            return PostLiked.class;
+        }
+
+        @Override
+        public void handle(PostLiked event) {
+            calls.incrementAndGet();
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new IllegalStateException("handler unavailable");
+            }
+        }
+    }
+}
\ No newline at end of file
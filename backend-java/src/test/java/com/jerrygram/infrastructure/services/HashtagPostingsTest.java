@@ -0,0 +1,148 @@
+package com.jerrygram.infrastructure.services;
+
+import com.jerrygram.domain.enums.PostVisibility;
+import com.jerrygram.infrastructure.services.HashtagIndex.Postings;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashtagPostingsTest {
+
+    private static final byte PUBLIC = (byte) PostVisibility.Public.ordinal();
+    private static final byte FOLLOWERS_ONLY = (byte) PostVisibility.FollowersOnly.ordinal();
+    private static final UUID AUTHOR = new UUID(0, 1);
+
+    @Test
+    void pagesNewestFirstWhateverTheArrivalOrder() {
+        var postings = new Postings(100);
+        var first = post(1);
+        var second = post(2);
+        var third = post(3);
+
+        postings.upsert(1000, first, AUTHOR, PUBLIC);
+        postings.upsert(3000, third, AUTHOR, PUBLIC);
+        postings.upsert(2000, second, AUTHOR, PUBLIC);
+
+        assertThat(postings.snapshot.page(Set.of(), 0, 10)).contains(List.of(third, second, first));
+        assertThat(postings.snapshot.page(Set.of(), 1, 1)).contains(List.of(second));
+    }
+
+    @Test
+    void upsertOfAnIndexedPostChangesItsVisibilityInPlace() {
+        var postings = new Postings(100);
+        var postId = post(1);
+        postings.upsert(1000, postId, AUTHOR, PUBLIC);
+
+        postings.upsert(1000, postId, AUTHOR, FOLLOWERS_ONLY);
+
+        assertThat(postings.snapshot.size).isEqualTo(1);
+        assertThat(postings.snapshot.page(Set.of(), 0, 10)).contains(List.of());
+        assertThat(postings.snapshot.page(Set.of(AUTHOR), 0, 10)).contains(List.of(postId));
+    }
+
+    @Test
+    void removedPostingIsSkippedUntilIndexedAgain() {
+        var postings = new Postings(100);
+        var kept = post(1);
+        var removed = post(2);
+        postings.upsert(1000, kept, AUTHOR, PUBLIC);
+        postings.upsert(2000, removed, AUTHOR, PUBLIC);
+
+        postings.remove(2000, removed);
+        assertThat(postings.snapshot.page(Set.of(), 0, 10)).contains(List.of(kept));
+
+        postings.upsert(2000, removed, AUTHOR, PUBLIC);
+        assertThat(postings.snapshot.page(Set.of(), 0, 10)).contains(List.of(removed, kept));
+    }
+
+    @Test
+    void removalWithoutTimeFindsThePostingById() {
+        var postings = new Postings(100);
+        var postId = post(1);
+        postings.upsert(1000, postId, AUTHOR, PUBLIC);
+
+        postings.remove(Long.MIN_VALUE, postId);
+
+        assertThat(postings.snapshot.page(Set.of(), 0, 10)).contains(List.of());
+    }
+
+    @Test
+    void earlierSnapshotIsUnaffectedByLaterWrites() {
+        var postings = new Postings(100);
+        var first = post(1);
+        postings.upsert(2000, first, AUTHOR, PUBLIC);
+        var before = postings.snapshot;
+
+        postings.upsert(3000, post(2), AUTHOR, PUBLIC);
+        postings.upsert(1000, post(3), AUTHOR, PUBLIC);
+
+        assertThat(before.size).isEqualTo(1);
+        assertThat(before.page(Set.of(), 0, 10)).contains(List.of(first));
+        assertThat(postings.snapshot.size).isEqualTo(3);
+    }
+
+    @Test
+    void compactionKeepsTheNewestPostingsAndMarksTheListTruncated() {
+        // Room for a quarter more than maxSize, so the fifth posting trims the list back to four
+        var postings = new Postings(4);
+        List<UUID> posts = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            posts.add(post(i));
+            postings.upsert(i * 1000L, posts.get(i - 1), AUTHOR, PUBLIC);
+        }
+
+        var snapshot = postings.snapshot;
+        assertThat(snapshot.size).isEqualTo(4);
+        assertThat(snapshot.truncated).isTrue();
+        assertThat(snapshot.page(Set.of(), 0, 4)).contains(List.of(posts.get(4), posts.get(3), posts.get(2), posts.get(1)));
+        // Past the kept postings only the database can answer
+        assertThat(snapshot.page(Set.of(), 0, 5)).isEmpty();
+        assertThat(snapshot.page(Set.of(), 3, 2)).isEmpty();
+    }
+
+    @Test
+    void postingOlderThanATruncatedListIsNotKept() {
+        var postings = new Postings(4);
+        for (int i = 1; i <= 5; i++) {
+            postings.upsert(i * 1000L, post(i), AUTHOR, PUBLIC);
+        }
+
+        postings.upsert(500, post(6), AUTHOR, PUBLIC);
+
+        assertThat(postings.snapshot.size).isEqualTo(4);
+    }
+
+    @Test
+    void manyRemovalsCompactWithoutTruncating() {
+        var postings = new Postings(1000);
+        List<UUID> posts = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            posts.add(post(i));
+            postings.upsert(i, posts.get(i), AUTHOR, PUBLIC);
+        }
+
+        // Compacts once more than 64 and a quarter of the postings are removed
+        for (int i = 0; i < 65; i++) {
+            postings.remove(i, posts.get(i));
+        }
+
+        List<UUID> newestFirst = new ArrayList<>();
+        for (int i = 199; i >= 65; i--) {
+            newestFirst.add(posts.get(i));
+        }
+
+        var snapshot = postings.snapshot;
+        assertThat(snapshot.size).isEqualTo(135);
+        assertThat(snapshot.truncated).isFalse();
+        assertThat(snapshot.page(Set.of(), 0, 200)).contains(newestFirst);
+    }
+
+    private static UUID post(int n) {
+        return new UUID(1, n);
+    }
+}
\ No newline at end of file
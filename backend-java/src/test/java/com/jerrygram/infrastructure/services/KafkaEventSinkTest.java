@@ -0,0 +1,107 @@
+package com.jerrygram.infrastructure.services;
+
+import com.jerrygram.domain.events.PostLiked;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Testcontainers(disabledWithoutDocker = true)
+class KafkaEventSinkTest {
+
+    private static final String TOPIC = "jerrygram.domain-events.test";
+
+    @Container
+    static final KafkaContainer KAFKA = new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.5.3"));
+
+    @Test
+    void publishesEventKeyedByAggregateWithTypeAndIdHeaders() {
+        var producerFactory = producerFactory(KAFKA.getBootstrapServers(), 30_000);
+        var sink = sink(producerFactory, Duration.ofSeconds(30));
+        var event = new PostLiked(UUID.randomUUID(), UUID.randomUUID(), true);
+
+        try {
+            sink.deliver(42, event, "{\"liked\":true}");
+        } finally {
+            producerFactory.destroy();
+        }
+
+        var record = consumeOne();
+        assertThat(record.key()).isEqualTo(event.aggregateId().toString());
+        assertThat(record.value()).isEqualTo("{\"liked\":true}");
+        assertThat(header(record, "type")).isEqualTo("PostLiked");
+        assertThat(header(record, "event-id")).isEqualTo("42");
+    }
+
+    @Test
+    void throwsWhenTheBrokerDoesNotAcknowledge() {
+        var producerFactory = producerFactory("localhost:1", 1000);
+        var sink = sink(producerFactory, Duration.ofSeconds(2));
+
+        try {
+            assertThatThrownBy(() -> sink.deliver(1, new PostLiked(UUID.randomUUID(), UUID.randomUUID(), false), "{}"))
+                    .isInstanceOf(IllegalStateException.class);
+        } finally {
+            producerFactory.destroy();
+        }
+    }
+
+    private static DefaultKafkaProducerFactory<String, String> producerFactory(String bootstrapServers, int maxBlockMillis) {
+        return new DefaultKafkaProducerFactory<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMillis));
+    }
+
+    private static KafkaEventSink sink(DefaultKafkaProducerFactory<String, String> producerFactory, Duration sendTimeout) {
+        var sink = new KafkaEventSink(new KafkaTemplate<>(producerFactory));
+        ReflectionTestUtils.setField(sink, "topic", TOPIC);
+        ReflectionTestUtils.setField(sink, "sendTimeout", sendTimeout);
+        return sink;
+    }
+
+    private static ConsumerRecord<String, String> consumeOne() {
+        Map<String, Object> config = Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, KAFKA.getBootstrapServers(),
+                ConsumerConfig.GROUP_ID_CONFIG, "kafka-event-sink-test",
+                ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest",
+                ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+                ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+
+        try (var consumer = new KafkaConsumer<String, String>(config)) {
+            consumer.subscribe(List.of(TOPIC));
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (System.currentTimeMillis() < deadline) {
+                for (var record : consumer.poll(Duration.ofMillis(500))) {
+                    return record;
+                }
+            }
+        }
+        throw new AssertionError("No record received on " + TOPIC);
+    }
+
+    private static String header(ConsumerRecord<String, String> record, String name) {
+        var header = record.headers().lastHeader(name);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
\ No newline at end of file
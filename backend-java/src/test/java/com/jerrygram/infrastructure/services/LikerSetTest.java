@@ -0,0 +1,127 @@
+package com.jerrygram.infrastructure.services;
+
+import com.jerrygram.infrastructure.services.LikeService.LikerSet;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LikerSetTest {
+
+    // Negative most significant bits sort last in the set's unsigned order
+    private static final UUID LOW = new UUID(1, 1);
+    private static final UUID MID = new UUID(1, 2);
+    private static final UUID HIGH = new UUID(-1, 0);
+
+    @Test
+    void findsLikersLoadedInOrder() {
+        var likers = build(LOW, MID, HIGH);
+
+        assertThat(likers.contains(LOW)).isTrue();
+        assertThat(likers.contains(MID)).isTrue();
+        assertThat(likers.contains(HIGH)).isTrue();
+        assertThat(likers.contains(new UUID(1, 3))).isFalse();
+        assertThat(likers.size()).isEqualTo(3);
+    }
+
+    @Test
+    void sortsAndDeduplicatesLikersLoadedInAnotherOrder() {
+        var likers = build(HIGH, LOW, MID, LOW);
+
+        assertThat(likers.contains(LOW)).isTrue();
+        assertThat(likers.contains(MID)).isTrue();
+        assertThat(likers.contains(HIGH)).isTrue();
+        assertThat(likers.size()).isEqualTo(3);
+    }
+
+    @Test
+    void changesOverrideTheSortedLikers() {
+        var likers = build(LOW, MID);
+        var added = new UUID(2, 0);
+
+        likers.set(MID, false);
+        likers.set(added, true);
+        // Already a liker: no change in size
+        likers.set(LOW, true);
+
+        assertThat(likers.contains(MID)).isFalse();
+        assertThat(likers.contains(added)).isTrue();
+        assertThat(likers.contains(LOW)).isTrue();
+        assertThat(likers.size()).isEqualTo(2);
+    }
+
+    @Test
+    void leavesFewChangesUnmerged() {
+        var likers = build(LOW, MID);
+        likers.set(HIGH, true);
+
+        likers.compactIfNeeded();
+
+        assertThat(changes(likers)).hasSize(1);
+        assertThat(likers.contains(HIGH)).isTrue();
+    }
+
+    @Test
+    void compactionMergesChangesWithoutChangingMembership() {
+        List<UUID> loaded = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            loaded.add(new UUID(i, i));
+        }
+        var likers = build(loaded.toArray(UUID[]::new));
+
+        // Unlike every even liker and add likers between and after the loaded ones
+        List<UUID> added = new ArrayList<>();
+        for (int i = 0; i < 200; i += 2) {
+            likers.set(loaded.get(i), false);
+            var between = new UUID(i, i + 1L);
+            likers.set(between, true);
+            added.add(between);
+        }
+        likers.set(HIGH, true);
+        added.add(HIGH);
+
+        likers.compactIfNeeded();
+
+        assertThat(changes(likers)).isEmpty();
+        assertThat(likers.size()).isEqualTo(100 + added.size());
+        for (int i = 0; i < 200; i++) {
+            assertThat(likers.contains(loaded.get(i))).isEqualTo(i % 2 == 1);
+        }
+        added.forEach(userId -> assertThat(likers.contains(userId)).isTrue());
+    }
+
+    @Test
+    void changeAfterCompactionStillOverrides() {
+        List<UUID> loaded = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            var userId = new UUID(i, 0);
+            loaded.add(userId);
+        }
+        var likers = build();
+        loaded.forEach(userId -> likers.set(userId, true));
+        likers.compactIfNeeded();
+
+        likers.set(loaded.get(0), false);
+
+        assertThat(likers.contains(loaded.get(0))).isFalse();
+        assertThat(likers.size()).isEqualTo(99);
+    }
+
+    private static LikerSet build(UUID... userIds) {
+        var builder = new LikerSet.Builder();
+        for (var userId : userIds) {
+            builder.add(userId);
+        }
+        return builder.build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<UUID, Boolean> changes(LikerSet likers) {
+        return (Map<UUID, Boolean>) ReflectionTestUtils.getField(likers, "changes");
+    }
+}
\ No newline at end of file
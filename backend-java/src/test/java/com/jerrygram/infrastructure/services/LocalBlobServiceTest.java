@@ -0,0 +1,155 @@
+package com.jerrygram.infrastructure.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalBlobServiceTest {
+
+    private static final byte[] CONTENT = "jpeg bytes".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path root;
+
+    private LocalBlobService blobService;
+
+    @BeforeEach
+    void start() throws IOException {
+        blobService = open(root);
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        blobService.shutdown();
+    }
+
+    @Test
+    void storesUploadAndServesItFromTheIndex() throws IOException {
+        var url = blobService.upload(new MockMultipartFile("image", "photo.JPG", "image/jpeg", CONTENT), "post-images");
+
+        assertThat(url).startsWith("/media/post-images/").endsWith(".jpg");
+        assertThat(blobService.exists(url)).isTrue();
+
+        var blob = blobService.find("post-images", url.substring(url.lastIndexOf('/') + 1)).orElseThrow();
+        assertThat(Files.readAllBytes(blob.path())).isEqualTo(CONTENT);
+        assertThat(blob.size()).isEqualTo(CONTENT.length);
+        assertThat(blob.contentType()).isEqualTo("image/jpeg");
+        assertThat(tempFiles()).isEmpty();
+    }
+
+    @Test
+    void failedWriteLeavesNeitherBlobNorTempFile() {
+        var failing = new InputStream() {
+            private int sent;
+
+            @Override
+            public int read() throws IOException {
+                if (sent++ < 4) {
+                    return 'x';
+                }
+                throw new IOException("connection reset");
+            }
+        };
+
+        assertThatThrownBy(() -> blobService.uploadAs(failing, "abcdef.jpg", "image/jpeg", "post-images"))
+                .isInstanceOf(RuntimeException.class);
+
+        assertThat(blobService.find("post-images", "abcdef.jpg")).isEmpty();
+        assertThat(Files.exists(root.resolve("post-images/ab/cd/abcdef.jpg"))).isFalse();
+        assertThat(tempFiles()).isEmpty();
+    }
+
+    @Test
+    void contentAddressedUploadIsWrittenOnce() {
+        var first = blobService.uploadAs(new ByteArrayInputStream(CONTENT), "abcdef.jpg", "image/jpeg", "post-images");
+        var second = blobService.uploadAs(new ByteArrayInputStream("other".getBytes(StandardCharsets.UTF_8)),
+                "abcdef.jpg", "image/jpeg", "post-images");
+
+        assertThat(second).isEqualTo(first);
+        assertThat(blobService.find("post-images", "abcdef.jpg").orElseThrow().size()).isEqualTo(CONTENT.length);
+    }
+
+    @Test
+    void indexSurvivesRestart() throws IOException {
+        var url = blobService.uploadAs(new ByteArrayInputStream(CONTENT), "abcdef.jpg", "image/jpeg", "post-images");
+        blobService.delete(blobService.uploadAs(new ByteArrayInputStream(CONTENT), "012345.jpg", "image/jpeg", "post-images"));
+        blobService.shutdown();
+
+        blobService = open(root);
+
+        assertThat(blobService.exists(url)).isTrue();
+        assertThat(blobService.exists("/media/post-images/012345.jpg")).isFalse();
+        assertThat(blobService.list("post-images")).extracting("name").containsExactly("abcdef.jpg");
+    }
+
+    @Test
+    void indexIsRebuiltFromFilesWhenLost() throws IOException {
+        var url = blobService.uploadAs(new ByteArrayInputStream(CONTENT), "abcdef.jpg", "image/jpeg", "post-images");
+        blobService.shutdown();
+        Files.delete(root.resolve("index.dat"));
+
+        blobService = open(root);
+
+        assertThat(blobService.exists(url)).isTrue();
+    }
+
+    @Test
+    void rejectsNamesEscapingTheRoot() {
+        assertThat(blobService.find("..", "index.dat")).isEmpty();
+        assertThat(blobService.find("post-images", "..")).isEmpty();
+        assertThat(blobService.find("post-images", "../../index.dat")).isEmpty();
+        assertThat(blobService.exists("/media/../index.dat")).isFalse();
+
+        assertThatThrownBy(() -> blobService.uploadAs(new ByteArrayInputStream(CONTENT), "../evil.jpg", "image/jpeg", "post-images"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> blobService.list("../post-images"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(blobService.deleteAll(List.of("/media/post-images/../../index.dat")))
+                .hasSize(1);
+        assertThat(Files.exists(root.resolve("index.dat"))).isTrue();
+    }
+
+    @Test
+    void rejectsKeysTooLongForTheIndexBeforeWriting() {
+        var container = "c".repeat(100);
+        var name = "n".repeat(100) + ".jpg";
+
+        assertThatThrownBy(() -> blobService.uploadAs(new ByteArrayInputStream(CONTENT), name, "image/jpeg", container))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(Files.exists(root.resolve(container))).isFalse();
+        assertThat(tempFiles()).isEmpty();
+        assertThat(blobService.find(container, name)).isEmpty();
+    }
+
+    private List<Path> tempFiles() {
+        try (var files = Files.list(root.resolve(".tmp"))) {
+            return files.toList();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static LocalBlobService open(Path root) throws IOException {
+        var created = new LocalBlobService();
+        ReflectionTestUtils.setField(created, "rootPath", root.toString());
+        ReflectionTestUtils.setField(created, "publicUrl", "/media");
+        ReflectionTestUtils.setField(created, "fsync", true);
+        created.init();
+        return created;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,181 @@
+package com.jerrygram.infrastructure.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecommendClientTest {
+
+    private static final UUID POST_ID = UUID.fromString("4a470000-0000-0000-0000-000000000001");
+    private static final String BODY = "[{\"id\":\"" + POST_ID + "\",\"caption\":\"recommended\"}]";
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    // Reply for the n-th request, counting from 1
+    private volatile IntFunction<Reply> replies = n -> new Reply(0, 200, BODY);
+
+    private RecommendClient client;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/recommend", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        if (client != null) {
+            client.shutdown();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    void hedgedAttemptAnswersWhenTheFirstIsSlow() {
+        replies = n -> n == 1 ? new Reply(5_000, 200, BODY) : new Reply(0, 200, BODY);
+        client = client(Duration.ofSeconds(2), Duration.ofMillis(50), 5, Duration.ofMinutes(1));
+
+        long started = System.nanoTime();
+        var posts = client.getRecommendations(UUID.randomUUID());
+
+        assertThat(posts).extracting("id").containsExactly(POST_ID);
+        assertThat(requests).hasValue(2);
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void fastAnswerIsNotHedged() throws InterruptedException {
+        client = client(Duration.ofSeconds(2), Duration.ofMillis(200), 5, Duration.ofMinutes(1));
+
+        assertThat(client.getRecommendations(UUID.randomUUID())).hasSize(1);
+        Thread.sleep(400);
+
+        assertThat(requests).hasValue(1);
+    }
+
+    @Test
+    void servesNothingPastTheBudgetAndCachesTheLateAnswer() {
+        replies = n -> new Reply(300, 200, BODY);
+        client = client(Duration.ofMillis(50), Duration.ofSeconds(10), 5, Duration.ofMinutes(1));
+        var userId = UUID.randomUUID();
+
+        assertThat(client.getRecommendations(userId)).isEmpty();
+
+        await(() -> !client.getRecommendations(userId).isEmpty());
+        assertThat(requests).hasValue(1);
+    }
+
+    @Test
+    void opensCircuitAfterConsecutiveFailures() {
+        replies = n -> new Reply(0, 500, "");
+        client = client(Duration.ofSeconds(2), Duration.ofSeconds(10), 3, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(client.getRecommendations(UUID.randomUUID())).isEmpty();
+        }
+        assertThat(requests).hasValue(3);
+
+        // Open: rejected without reaching the service
+        assertThat(client.getRecommendations(UUID.randomUUID())).isEmpty();
+        assertThat(requests).hasValue(3);
+    }
+
+    @Test
+    void trialRequestClosesCircuitOnceOpenForHasPassed() throws InterruptedException {
+        replies = n -> n == 1 ? new Reply(0, 500, "") : new Reply(0, 200, BODY);
+        client = client(Duration.ofSeconds(2), Duration.ofSeconds(10), 1, Duration.ofMillis(200));
+
+        assertThat(client.getRecommendations(UUID.randomUUID())).isEmpty();
+        assertThat(client.getRecommendations(UUID.randomUUID())).isEmpty();
+        assertThat(requests).hasValue(1);
+
+        Thread.sleep(300);
+
+        assertThat(client.getRecommendations(UUID.randomUUID())).hasSize(1);
+        assertThat(client.getRecommendations(UUID.randomUUID())).hasSize(1);
+        assertThat(requests).hasValue(3);
+    }
+
+    @Test
+    void failedTrialReopensCircuit() throws InterruptedException {
+        replies = n -> new Reply(0, 500, "");
+        client = client(Duration.ofSeconds(2), Duration.ofSeconds(10), 1, Duration.ofMillis(200));
+
+        assertThat(client.getRecommendations(UUID.randomUUID())).isEmpty();
+        Thread.sleep(300);
+        assertThat(client.getRecommendations(UUID.randomUUID())).isEmpty();
+        assertThat(requests).hasValue(2);
+
+        assertThat(client.getRecommendations(UUID.randomUUID())).isEmpty();
+        assertThat(requests).hasValue(2);
+    }
+
+    private RecommendClient client(Duration budget, Duration hedgeDelay, int failureThreshold, Duration openFor) {
+        var created = new RecommendClient(new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(created, "recommendationServiceUrl",
+                "http://127.0.0.1:" + server.getAddress().getPort());
+        ReflectionTestUtils.setField(created, "timeout", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(created, "connectTimeout", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(created, "budget", budget);
+        ReflectionTestUtils.setField(created, "hedgeDelay", hedgeDelay);
+        ReflectionTestUtils.setField(created, "freshFor", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(created, "staleFor", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(created, "cacheSize", 1000L);
+        ReflectionTestUtils.setField(created, "failureThreshold", failureThreshold);
+        ReflectionTestUtils.setField(created, "openFor", openFor);
+        created.init();
+        return created;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        var reply = replies.apply(requests.incrementAndGet());
+        try {
+            Thread.sleep(reply.delayMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        var body = reply.body().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(reply.status(), body.length == 0 ? -1 : body.length);
+        try (var out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met within 10s");
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError("Interrupted", e);
+            }
+        }
+    }
+
+    private record Reply(long delayMillis, int status, String body) {
+    }
+}
\ No newline at end of file
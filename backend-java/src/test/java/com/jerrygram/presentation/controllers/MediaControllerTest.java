@@ -0,0 +1,176 @@
+package com.jerrygram.presentation.controllers;
+
+import com.jerrygram.infrastructure.services.LocalBlobService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MediaControllerTest {
+
+    private static final String CONTENT = "0123456789";
+
+    @TempDir
+    Path root;
+
+    private LocalBlobService blobStore;
+    private MediaController controller;
+
+    @BeforeEach
+    void start() throws IOException {
+        blobStore = new LocalBlobService();
+        ReflectionTestUtils.setField(blobStore, "rootPath", root.toString());
+        ReflectionTestUtils.setField(blobStore, "publicUrl", "/media");
+        ReflectionTestUtils.setField(blobStore, "fsync", false);
+        blobStore.init();
+        blobStore.uploadAs(new ByteArrayInputStream(CONTENT.getBytes(StandardCharsets.US_ASCII)),
+                "abcdef.jpg", "image/jpeg", "post-images");
+
+        controller = new MediaController(blobStore);
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        blobStore.shutdown();
+    }
+
+    @Test
+    void servesWholeBlobWithValidators() throws IOException {
+        var response = get("abcdef.jpg", Map.of());
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+        assertThat(response.getContentType()).isEqualTo("image/jpeg");
+        assertThat(response.getContentLengthLong()).isEqualTo(CONTENT.length());
+        assertThat(response.getHeader(HttpHeaders.ETAG)).startsWith("\"").endsWith("\"");
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).contains("immutable");
+    }
+
+    @Test
+    void matchingEtagIsNotModified() throws IOException {
+        var etag = get("abcdef.jpg", Map.of()).getHeader(HttpHeaders.ETAG);
+
+        var response = get("abcdef.jpg", Map.of(HttpHeaders.IF_NONE_MATCH, "\"other\", " + etag));
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_NOT_MODIFIED);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void staleEtagGetsTheBlob() throws IOException {
+        var response = get("abcdef.jpg", Map.of(HttpHeaders.IF_NONE_MATCH, "\"stale\""));
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void servesClosedRange() throws IOException {
+        var response = get("abcdef.jpg", Map.of(HttpHeaders.RANGE, "bytes=2-5"));
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_PARTIAL_CONTENT);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+        assertThat(response.getContentAsString()).isEqualTo("2345");
+        assertThat(response.getContentLengthLong()).isEqualTo(4);
+    }
+
+    @Test
+    void servesOpenAndSuffixRanges() throws IOException {
+        assertThat(get("abcdef.jpg", Map.of(HttpHeaders.RANGE, "bytes=7-")).getContentAsString()).isEqualTo("789");
+        assertThat(get("abcdef.jpg", Map.of(HttpHeaders.RANGE, "bytes=-3")).getContentAsString()).isEqualTo("789");
+        // Past the end is clamped to the last byte
+        assertThat(get("abcdef.jpg", Map.of(HttpHeaders.RANGE, "bytes=8-100")).getContentAsString()).isEqualTo("89");
+    }
+
+    @Test
+    void rangePastTheEndIsUnsatisfiable() throws IOException {
+        var response = get("abcdef.jpg", Map.of(HttpHeaders.RANGE, "bytes=10-"));
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+    }
+
+    @Test
+    void multipleRangesGetTheWholeBlob() throws IOException {
+        var response = get("abcdef.jpg", Map.of(HttpHeaders.RANGE, "bytes=0-1,4-5"));
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void rangeForAnotherVersionGetsTheWholeBlob() throws IOException {
+        var response = get("abcdef.jpg", Map.of(HttpHeaders.RANGE, "bytes=2-5", HttpHeaders.IF_RANGE, "\"stale\""));
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void rangeForTheCurrentVersionIsHonoured() throws IOException {
+        var etag = get("abcdef.jpg", Map.of()).getHeader(HttpHeaders.ETAG);
+
+        var response = get("abcdef.jpg", Map.of(HttpHeaders.RANGE, "bytes=0-0", HttpHeaders.IF_RANGE, etag));
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_PARTIAL_CONTENT);
+        assertThat(response.getContentAsString()).isEqualTo("0");
+    }
+
+    @Test
+    void headSendsHeadersOnly() throws IOException {
+        var request = new MockHttpServletRequest("HEAD", "/media/post-images/abcdef.jpg");
+        var response = new MockHttpServletResponse();
+
+        controller.serve("post-images", "abcdef.jpg", request, response);
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(response.getContentLengthLong()).isEqualTo(CONTENT.length());
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void handsFileToSendfileWhenTheConnectorSupportsIt() throws IOException {
+        var request = new MockHttpServletRequest("GET", "/media/post-images/abcdef.jpg");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+        var response = new MockHttpServletResponse();
+
+        controller.serve("post-images", "abcdef.jpg", request, response);
+
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(2L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(6L);
+        assertThat((String) request.getAttribute("org.apache.tomcat.sendfile.filename")).endsWith("abcdef.jpg");
+    }
+
+    @Test
+    void unknownOrUnsafeNamesAreNotFound() throws IOException {
+        assertThat(get("missing.jpg", Map.of()).getStatus()).isEqualTo(HttpServletResponse.SC_NOT_FOUND);
+
+        var response = new MockHttpServletResponse();
+        controller.serve("..", "index.dat", new MockHttpServletRequest("GET", "/media/../index.dat"), response);
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_NOT_FOUND);
+    }
+
+    private MockHttpServletResponse get(String name, Map<String, String> headers) throws IOException {
+        var request = new MockHttpServletRequest("GET", "/media/post-images/" + name);
+        headers.forEach(request::addHeader);
+        var response = new MockHttpServletResponse();
+        controller.serve("post-images", name, request, response);
+        return response;
+    }
+}
\ No newline at end of file